@@ -0,0 +1,113 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.api.math;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building, iterating, and splitting {@link Area}s. Rectangles are the common case for
+ * components, while scattered points represent areas built from individual pixels.
+ * @author soir20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AreaBenchmark {
+    @Param({"16", "128", "512"})
+    public int size;
+
+    private long[] scatteredPoints;
+    private Area rectangle;
+    private Area scattered;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        scatteredPoints = new long[size * size / 4];
+        for (int index = 0; index < scatteredPoints.length; index++) {
+            scatteredPoints[index] = Point.pack(random.nextInt(size), random.nextInt(size));
+        }
+
+        rectangle = new Area(0, 0, size, size);
+        scattered = Area.of(scatteredPoints);
+    }
+
+    @Benchmark
+    public Area build_Rectangle() {
+        return new Area(0, 0, size, size);
+    }
+
+    @Benchmark
+    public Area build_ScatteredPoints() {
+        Area.Builder builder = new Area.Builder();
+        for (long point : scatteredPoints) {
+            builder.addPixel(point);
+        }
+
+        return builder.build();
+    }
+
+    @Benchmark
+    public long iterate_Rectangle() {
+        return sum(rectangle);
+    }
+
+    @Benchmark
+    public long iterate_ScatteredPoints() {
+        return sum(scattered);
+    }
+
+    @Benchmark
+    public Collection<Area> split_Rectangle() {
+        return rectangle.split(128 * 128 / 16);
+    }
+
+    @Benchmark
+    public Collection<Area> split_ScatteredPoints() {
+        return scattered.split(128 * 128 / 16);
+    }
+
+    /**
+     * Visits every point in an area.
+     * @param area      area to visit
+     * @return sum of all points so the loop cannot be removed
+     */
+    private static long sum(Area area) {
+        long sum = 0;
+        LongIterator iterator = area.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.nextLong();
+        }
+
+        return sum;
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.adt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SparseIntMatrix} reads and writes from one thread and from several threads sharing
+ * the same matrix. The top half of the matrix starts full, so {@link SparseIntMatrix#isSet(int, int)} hits both
+ * allocated and empty sectors, while {@link SparseIntMatrix#get(int, int)} only reads points that are set.
+ * @author soir20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SparseIntMatrixBenchmark {
+    private static final int SIZE = 1024;
+
+    @Param({"3", "5", "7"})
+    public int maxSectorPower;
+
+    private SparseIntMatrix matrix;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        matrix = new SparseIntMatrix(SIZE, SIZE, maxSectorPower);
+        for (int y = 0; y < SIZE / 2; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                matrix.set(x, y, x ^ y);
+            }
+        }
+    }
+
+    @Benchmark
+    public int get() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return matrix.get(random.nextInt(SIZE), random.nextInt(SIZE / 2));
+    }
+
+    @Benchmark
+    public boolean isSet() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return matrix.isSet(random.nextInt(SIZE), random.nextInt(SIZE));
+    }
+
+    @Benchmark
+    public void set() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        matrix.set(random.nextInt(SIZE), random.nextInt(SIZE), random.nextInt());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int get_Contended() {
+        return get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void set_Contended() {
+        set();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public int readWrite_Get() {
+        return get();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWrite_Set() {
+        set();
+    }
+
+}
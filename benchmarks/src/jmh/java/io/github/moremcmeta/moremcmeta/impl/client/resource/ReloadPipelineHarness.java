@@ -0,0 +1,527 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.stream.JsonReader;
+import com.mojang.blaze3d.platform.NativeImage;
+import io.github.moremcmeta.moremcmeta.api.client.MoreMcmetaTexturePlugin;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.AnalyzedMetadata;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.CompiledMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataAnalyzer;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.ResourceRepository;
+import io.github.moremcmeta.moremcmeta.api.client.texture.ComponentBuilder;
+import io.github.moremcmeta.moremcmeta.api.client.texture.TextureComponent;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.NativeImageAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.io.BinaryMetadataParser;
+import io.github.moremcmeta.moremcmeta.impl.client.io.TextureData;
+import io.github.moremcmeta.moremcmeta.impl.client.io.TextureDataAssembler;
+import io.github.moremcmeta.moremcmeta.impl.client.io.TextureDataReader;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.CoreTextureComponent;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.EventDrivenTexture;
+import net.minecraft.client.renderer.texture.MipmapGenerator;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Runs the reload pipeline against {@link SyntheticPacks} on disk and reports each stage's wall time,
+ * heap allocation, peak heap usage, and peak growth in resident memory. Images are real
+ * {@link NativeImage}s, like in game, so most of the resident memory growth is native image memory.</p>
+ *
+ * <p>Arguments have the form <code>--name=value</code>:</p>
+ * <ul>
+ *     <li><code>packs</code>, <code>textures</code> (per pack), <code>metadata</code> (fraction of textures
+ *     with metadata), <code>overlap</code> (fraction of textures in every pack), <code>size</code> (frame size),
+ *     <code>frames</code>, and <code>unused-keys</code> configure the generated packs</li>
+ *     <li><code>zip</code> and <code>binary</code> generate zipped packs and binary metadata</li>
+ *     <li><code>mipmaps</code> is the maximum mipmap level, like the game's mipmap setting</li>
+ *     <li><code>iterations</code> is the number of reloads to run; the first is usually slowest</li>
+ *     <li><code>keep</code> keeps the generated packs instead of deleting them</li>
+ * </ul>
+ *
+ * <p>Heap allocation is summed over threads that are alive at the end of a stage, which includes the
+ * common pool threads that do most of the work. Resident memory is only available on Linux.</p>
+ * @author soir20
+ */
+public final class ReloadPipelineHarness {
+    private static final String JSON_EXTENSION = ".moremcmeta";
+    private static final String BINARY_EXTENSION = "." + BinaryMetadataFormat.EXTENSION;
+
+    /**
+     * Generates packs and runs the pipeline.
+     * @param args      settings in the form --name=value
+     * @throws IOException if the packs cannot be generated or read
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> settings = parseArgs(args);
+        SyntheticPacks packs = new SyntheticPacks.Builder()
+                .setPacks(intSetting(settings, "packs", 100))
+                .setTexturesPerPack(intSetting(settings, "textures", 100))
+                .setMetadataFraction(doubleSetting(settings, "metadata", 1))
+                .setOverlap(doubleSetting(settings, "overlap", 0.25))
+                .setFrameSize(intSetting(settings, "size", 16))
+                .setFrames(intSetting(settings, "frames", 4))
+                .setUnusedKeys(intSetting(settings, "unused-keys", 0))
+                .setZipped(settings.containsKey("zip"))
+                .setBinaryMetadata(settings.containsKey("binary"))
+                .build();
+        int maxMipmap = intSetting(settings, "mipmaps", 4);
+        int iterations = intSetting(settings, "iterations", 3);
+
+        Path directory = Files.createTempDirectory("moremcmeta-reload");
+        try {
+            long generateStart = System.nanoTime();
+            List<Path> packPaths = packs.generate(directory);
+            System.out.printf("Generated %s packs in %s in %.1f ms%n", packPaths.size(), directory,
+                    (System.nanoTime() - generateStart) / 1e6);
+            System.out.printf("%-10s %-10s %12s %14s %14s %14s%n", "Iteration", "Stage", "Wall (ms)",
+                    "Allocated (MB)", "Peak heap (MB)", "Peak RSS+ (MB)");
+
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                runPipeline(iteration, packPaths, maxMipmap);
+            }
+        } finally {
+            if (!settings.containsKey("keep")) {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    /**
+     * Runs every stage of one reload and prints the results.
+     * @param iteration     index of this reload
+     * @param packPaths     paths of all packs in priority order, lowest first
+     * @param maxMipmap     maximum mipmap level
+     * @throws IOException if a pack cannot be opened
+     */
+    private static void runPipeline(int iteration, List<Path> packPaths, int maxMipmap) throws IOException {
+        List<PathResourceCollection> collections = new ArrayList<>();
+
+        try {
+            OrderedResourceRepository repository = measure(iteration, "open", () -> {
+                for (Path pack : packPaths) {
+                    collections.add(PathResourceCollection.open(pack));
+                }
+
+                // The repository searches collections in order, so the last pack has the highest priority
+                List<PathResourceCollection> searchOrder = new ArrayList<>(collections);
+                Collections.reverse(searchOrder);
+                return new OrderedResourceRepository(PackType.CLIENT_RESOURCES, searchOrder);
+            });
+
+            TextureLoader<TextureData<NativeImageAdapter>> loader = makeLoader();
+            Map<ResourceLocation, TextureData<NativeImageAdapter>> textures = measure(iteration, "load",
+                    () -> loader.load(repository, SyntheticPacks.TEXTURE_DIRECTORY));
+
+            TextureDataAssembler<NativeImageAdapter> assembler = makeAssembler(maxMipmap);
+            Map<ResourceLocation, EventDrivenTexture.Builder> builders = measure(iteration, "assemble",
+                    () -> textures.entrySet().parallelStream().collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            (entry) -> assembler.assemble(entry.getValue())
+                    )));
+
+            measure(iteration, "close", () -> {
+
+                // Assembled textures still need the upload component that the game adds before building
+                builders.values().parallelStream().forEach((builder) -> builder.add(new CoreTextureComponent() {})
+                        .build()
+                        .close());
+                return builders.size();
+            });
+        } finally {
+            for (PathResourceCollection collection : collections) {
+                collection.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a loader with the same reader the game uses and parsers for the generated metadata.
+     * @return the texture loader
+     */
+    private static TextureLoader<TextureData<NativeImageAdapter>> makeLoader() {
+        TextureDataReader<NativeImageAdapter> reader = new TextureDataReader<>(
+                List.of(new FrameSizePlugin()),
+                (stream) -> new NativeImageAdapter(NativeImage.read(stream), 0, false, false),
+                (image, blur, clamp) -> new NativeImageAdapter(image.image(), image.mipmapLevel(), blur, clamp),
+                ForkJoinPool.commonPool()
+        );
+
+        return new TextureLoader<>(
+                reader,
+                ImmutableMap.of(JSON_EXTENSION, new JsonSectionParser(), BINARY_EXTENSION, new BinaryMetadataParser()),
+                ImmutableSet.of(SyntheticPacks.SECTION_NAME),
+                LogManager.getLogger()
+        );
+    }
+
+    /**
+     * Creates an assembler with the same image allocation and mipmapping that the game uses.
+     * @param maxMipmap     maximum mipmap level
+     * @return the texture assembler
+     */
+    private static TextureDataAssembler<NativeImageAdapter> makeAssembler(int maxMipmap) {
+        return new TextureDataAssembler<>(
+                (int width, int height, int mipmapLevel, boolean blur, boolean clamp) ->
+                        new NativeImageAdapter(new NativeImage(width, height, true), mipmapLevel, blur, clamp),
+                (image, mipmap) -> {
+                    NativeImage[] mipmaps = MipmapGenerator.generateMipLevels(
+                            new NativeImage[]{ image.image() },
+                            Math.min(maxMipmap, mipmap)
+                    );
+
+                    List<NativeImageAdapter> wrappedMipmaps = new ArrayList<>();
+                    for (int level = 0; level < mipmaps.length; level++) {
+                        wrappedMipmaps.add(new NativeImageAdapter(mipmaps[level], level, image.blur(), image.clamp()));
+                    }
+
+                    return wrappedMipmaps;
+                }
+        );
+    }
+
+    /**
+     * Runs a stage and prints its measurements.
+     * @param iteration     index of the current reload
+     * @param stage         name of the stage
+     * @param work          runs the stage
+     * @param <T>           type of the stage's result
+     * @return the stage's result
+     * @throws IOException if the stage fails to read or write files
+     */
+    private static <T> T measure(int iteration, String stage, IoSupplier<T> work) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter((pool) -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        Map<Long, Long> allocatedBefore = allocatedBytesByThread(threads);
+        ResidentMemorySampler sampler = new ResidentMemorySampler();
+        sampler.start();
+        long start = System.nanoTime();
+
+        T result = work.get();
+
+        long wallNanos = System.nanoTime() - start;
+        long peakResidentGrowth = sampler.finish();
+        long allocated = allocatedBytesByThread(threads).entrySet().stream()
+                .mapToLong((entry) -> entry.getValue() - allocatedBefore.getOrDefault(entry.getKey(), 0L))
+                .sum();
+        long peakHeap = heapPools.stream().mapToLong((pool) -> pool.getPeakUsage().getUsed()).sum();
+
+        System.out.printf("%-10s %-10s %12.1f %14.1f %14.1f %14s%n", iteration, stage, wallNanos / 1e6,
+                toMegabytes(allocated), toMegabytes(peakHeap),
+                peakResidentGrowth < 0 ? "n/a" : String.format("%.1f", toMegabytes(peakResidentGrowth)));
+
+        return result;
+    }
+
+    /**
+     * Gets the bytes allocated so far by every live thread.
+     * @param threads       thread management bean
+     * @return allocated bytes by thread ID
+     */
+    private static Map<Long, Long> allocatedBytesByThread(com.sun.management.ThreadMXBean threads) {
+        long[] ids = threads.getAllThreadIds();
+        long[] allocated = threads.getThreadAllocatedBytes(ids);
+
+        Map<Long, Long> allocatedById = new HashMap<>();
+        for (int index = 0; index < ids.length; index++) {
+
+            // Threads that died since their IDs were retrieved report -1
+            if (allocated[index] >= 0) {
+                allocatedById.put(ids[index], allocated[index]);
+            }
+        }
+
+        return allocatedById;
+    }
+
+    /**
+     * Converts bytes to megabytes.
+     * @param bytes     number of bytes
+     * @return number of megabytes
+     */
+    private static double toMegabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    /**
+     * Parses arguments in the form --name=value or --name.
+     * @param args      arguments to parse
+     * @return values by name, with an empty value for flags
+     */
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Arguments must start with --: " + arg);
+            }
+
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                settings.put(arg.substring(2), "");
+            } else {
+                settings.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        return settings;
+    }
+
+    /**
+     * Gets an integer setting.
+     * @param settings      all settings
+     * @param name          name of the setting
+     * @param defaultValue  value if the setting is absent
+     * @return value of the setting
+     */
+    private static int intSetting(Map<String, String> settings, String name, int defaultValue) {
+        return settings.containsKey(name) ? Integer.parseInt(settings.get(name)) : defaultValue;
+    }
+
+    /**
+     * Gets a decimal setting.
+     * @param settings      all settings
+     * @param name          name of the setting
+     * @param defaultValue  value if the setting is absent
+     * @return value of the setting
+     */
+    private static double doubleSetting(Map<String, String> settings, String name, double defaultValue) {
+        return settings.containsKey(name) ? Double.parseDouble(settings.get(name)) : defaultValue;
+    }
+
+    /**
+     * Deletes a directory and everything inside it.
+     * @param directory     directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> deleteOrder = files.sorted(Collections.reverseOrder()).toList();
+            for (Path file : deleteOrder) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Prevents the harness from being constructed.
+     */
+    private ReloadPipelineHarness() {}
+
+    /**
+     * Supplies a result and may throw an {@link IOException}.
+     * @param <T>   type of the result
+     * @author soir20
+     */
+    @FunctionalInterface
+    private interface IoSupplier<T> {
+
+        /**
+         * Gets the result.
+         * @return the result
+         * @throws IOException if files cannot be read or written
+         */
+        T get() throws IOException;
+
+    }
+
+    /**
+     * Samples the process's resident memory in the background to find the peak growth during a stage.
+     * @author soir20
+     */
+    private static final class ResidentMemorySampler extends Thread {
+        private static final Path STATUS_FILE = Path.of("/proc/self/status");
+        private static final long SAMPLE_INTERVAL_MILLIS = 2;
+        private final long START_BYTES;
+        private volatile boolean running;
+        private long peakBytes;
+
+        /**
+         * Creates a new sampler that measures growth from the current resident memory.
+         */
+        public ResidentMemorySampler() {
+            START_BYTES = residentBytes();
+            peakBytes = START_BYTES;
+            running = START_BYTES >= 0;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                peakBytes = Math.max(peakBytes, residentBytes());
+
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                } catch (InterruptedException err) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Stops sampling.
+         * @return peak growth in resident bytes, or -1 if resident memory is not available
+         */
+        public long finish() {
+            if (START_BYTES < 0) {
+                return -1;
+            }
+
+            running = false;
+            try {
+                join();
+            } catch (InterruptedException err) {
+                Thread.currentThread().interrupt();
+            }
+
+            return Math.max(peakBytes, residentBytes()) - START_BYTES;
+        }
+
+        /**
+         * Reads the process's current resident memory.
+         * @return resident bytes, or -1 if they are not available
+         */
+        private static long residentBytes() {
+            try (Stream<String> lines = Files.lines(STATUS_FILE)) {
+                Optional<String> residentLine = lines.filter((line) -> line.startsWith("VmRSS:")).findFirst();
+                if (residentLine.isEmpty()) {
+                    return -1;
+                }
+
+                // The line has the form "VmRSS:    12345 kB"
+                String[] parts = residentLine.get().trim().split("\\s+");
+                return Long.parseLong(parts[1]) * 1024;
+            } catch (IOException | RuntimeException err) {
+                return -1;
+            }
+        }
+
+    }
+
+    /**
+     * Reads the generated JSON metadata, keeping only sections that plugins analyze.
+     * @author soir20
+     */
+    private static final class JsonSectionParser implements MetadataParser {
+
+        @Override
+        public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                             InputStream metadataStream,
+                                                                             ResourceRepository resourceRepository)
+                throws InvalidMetadataException {
+            return parse(metadataLocation, metadataStream, resourceRepository, null);
+        }
+
+        @Override
+        public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                             InputStream metadataStream,
+                                                                             ResourceRepository resourceRepository,
+                                                                             Set<String> sectionNames)
+                throws InvalidMetadataException {
+            String path = metadataLocation.getPath();
+            ResourceLocation textureLocation = new ResourceLocation(
+                    metadataLocation.getNamespace(),
+                    path.substring(0, path.length() - JSON_EXTENSION.length())
+            );
+
+            JsonReader reader = new JsonReader(new InputStreamReader(metadataStream, StandardCharsets.UTF_8));
+            Set<String> keptSections = sectionNames == null ? Set.of(SyntheticPacks.SECTION_NAME) : sectionNames;
+            return ImmutableMap.of(textureLocation, CompiledMetadataView.readSections(reader, keptSections,
+                    String::compareTo));
+        }
+
+    }
+
+    /**
+     * Analyzes the frame size section of the generated metadata. Its components do nothing, so the
+     * pipeline's own cost is measured.
+     * @author soir20
+     */
+    private static final class FrameSizePlugin implements MoreMcmetaTexturePlugin {
+
+        @Override
+        public String id() {
+            return "moremcmeta_benchmark_plugin";
+        }
+
+        @Override
+        public String sectionName() {
+            return SyntheticPacks.SECTION_NAME;
+        }
+
+        @Override
+        public MetadataAnalyzer analyzer() {
+            return (metadata, imageWidth, imageHeight) -> {
+                int frameWidth = metadata.getInt("frameWidth", imageWidth);
+                int frameHeight = metadata.getInt("frameHeight", imageHeight);
+
+                return new AnalyzedMetadata() {
+                    @Override
+                    public Optional<Integer> frameWidth() {
+                        return Optional.of(frameWidth);
+                    }
+
+                    @Override
+                    public Optional<Integer> frameHeight() {
+                        return Optional.of(frameHeight);
+                    }
+                };
+            };
+        }
+
+        @Override
+        public ComponentBuilder componentBuilder() {
+            return (metadata, frames) -> new TextureComponent<>() {};
+        }
+
+    }
+
+}
@@ -0,0 +1,415 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import com.google.gson.JsonObject;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.CompiledMetadataView;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates resource packs full of animated textures and metadata on disk. Some textures can have
+ * the same name in every pack, so that later packs override earlier ones like they do in large
+ * modpacks.
+ * @author soir20
+ */
+public final class SyntheticPacks {
+
+    /**
+     * Namespace of all generated textures.
+     */
+    public static final String NAMESPACE = "benchmark";
+
+    /**
+     * Directory inside the namespace that contains all generated textures.
+     */
+    public static final String TEXTURE_DIRECTORY = "textures";
+
+    /**
+     * Name of the metadata section that describes each texture's frames.
+     */
+    public static final String SECTION_NAME = "benchmark";
+
+    private static final String METADATA_EXTENSION = ".moremcmeta";
+    private static final int PACK_FORMAT = 22;
+    private final int PACKS;
+    private final int TEXTURES_PER_PACK;
+    private final double METADATA_FRACTION;
+    private final double OVERLAP;
+    private final int FRAME_SIZE;
+    private final int FRAMES;
+    private final int UNUSED_KEYS;
+    private final boolean ZIPPED;
+    private final boolean BINARY_METADATA;
+
+    /**
+     * Writes all packs into a directory.
+     * @param directory     directory to create the packs in
+     * @return paths of the packs in the order they were generated
+     * @throws IOException if a pack cannot be written
+     */
+    public List<Path> generate(Path directory) throws IOException {
+        requireNonNull(directory, "Directory cannot be null");
+        Files.createDirectories(directory);
+
+        Random random = new Random(0);
+        int sharedTextures = (int) Math.round(TEXTURES_PER_PACK * OVERLAP);
+        List<Path> packs = new ArrayList<>();
+
+        for (int pack = 0; pack < PACKS; pack++) {
+            Path packPath = directory.resolve("pack_" + pack + (ZIPPED ? ".zip" : ""));
+
+            try (PackWriter writer = ZIPPED ? new ZipPackWriter(packPath) : new FolderPackWriter(packPath)) {
+                writer.write("pack.mcmeta", ("{\"pack\":{\"pack_format\":" + PACK_FORMAT
+                        + ",\"description\":\"Synthetic pack " + pack + "\"}}").getBytes(StandardCharsets.UTF_8));
+
+                for (int texture = 0; texture < TEXTURES_PER_PACK; texture++) {
+                    String name = texture < sharedTextures
+                            ? "shared_" + texture
+                            : "pack_" + pack + "_" + texture;
+                    String path = "assets/" + NAMESPACE + "/" + TEXTURE_DIRECTORY + "/" + name + ".png";
+
+                    writer.write(path, makeImage(random));
+
+                    // Spread metadata evenly among textures instead of giving it to the first ones
+                    boolean hasMetadata = (int) ((texture + 1) * METADATA_FRACTION)
+                            > (int) (texture * METADATA_FRACTION);
+                    if (hasMetadata) {
+                        JsonObject metadata = makeMetadata();
+                        if (BINARY_METADATA) {
+                            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                            BinaryMetadataFormat.write(new CompiledMetadataView(metadata, String::compareTo), bytes);
+                            writer.write(path + "." + BinaryMetadataFormat.EXTENSION, bytes.toByteArray());
+                        } else {
+                            byte[] bytes = metadata.toString().getBytes(StandardCharsets.UTF_8);
+                            writer.write(path + METADATA_EXTENSION, bytes);
+                        }
+                    }
+                }
+            }
+
+            packs.add(packPath);
+        }
+
+        return packs;
+    }
+
+    /**
+     * Creates a new pack generator.
+     * @param builder       builder with the generator's settings
+     */
+    private SyntheticPacks(Builder builder) {
+        PACKS = builder.packs;
+        TEXTURES_PER_PACK = builder.texturesPerPack;
+        METADATA_FRACTION = builder.metadataFraction;
+        OVERLAP = builder.overlap;
+        FRAME_SIZE = builder.frameSize;
+        FRAMES = builder.frames;
+        UNUSED_KEYS = builder.unusedKeys;
+        ZIPPED = builder.zipped;
+        BINARY_METADATA = builder.binaryMetadata;
+    }
+
+    /**
+     * Makes a PNG with all frames of a texture stacked vertically.
+     * @param random        source of pixel colors
+     * @return the PNG's bytes
+     * @throws IOException if the image cannot be encoded
+     */
+    private byte[] makeImage(Random random) throws IOException {
+        BufferedImage image = new BufferedImage(FRAME_SIZE, FRAME_SIZE * FRAMES, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt() | 0xFF000000);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Makes metadata with the frame size section and a section that no plugin reads.
+     * @return the metadata
+     */
+    private JsonObject makeMetadata() {
+        JsonObject section = new JsonObject();
+        section.addProperty("frameWidth", FRAME_SIZE);
+        section.addProperty("frameHeight", FRAME_SIZE);
+
+        JsonObject unused = new JsonObject();
+        for (int key = 0; key < UNUSED_KEYS; key++) {
+            unused.addProperty("key" + key, key);
+        }
+
+        JsonObject metadata = new JsonObject();
+        metadata.add(SECTION_NAME, section);
+        metadata.add("unused", unused);
+        return metadata;
+    }
+
+    /**
+     * Writes files into a pack.
+     * @author soir20
+     */
+    private interface PackWriter extends Closeable {
+
+        /**
+         * Writes a file.
+         * @param path      path of the file relative to the pack root
+         * @param bytes     contents of the file
+         * @throws IOException if the file cannot be written
+         */
+        void write(String path, byte[] bytes) throws IOException;
+
+    }
+
+    /**
+     * Writes files into a pack folder.
+     * @author soir20
+     */
+    private static final class FolderPackWriter implements PackWriter {
+        private final Path ROOT;
+
+        /**
+         * Creates a new writer.
+         * @param root      root folder of the pack
+         */
+        public FolderPackWriter(Path root) {
+            ROOT = root;
+        }
+
+        @Override
+        public void write(String path, byte[] bytes) throws IOException {
+            Path file = ROOT.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.write(file, bytes);
+        }
+
+        @Override
+        public void close() {}
+
+    }
+
+    /**
+     * Writes files into a zipped pack.
+     * @author soir20
+     */
+    private static final class ZipPackWriter implements PackWriter {
+        private final ZipOutputStream OUTPUT;
+
+        /**
+         * Creates a new writer.
+         * @param zipFile       path of the zip file to create
+         * @throws IOException if the zip file cannot be created
+         */
+        public ZipPackWriter(Path zipFile) throws IOException {
+            OutputStream fileOutput = Files.newOutputStream(zipFile);
+            OUTPUT = new ZipOutputStream(fileOutput);
+        }
+
+        @Override
+        public void write(String path, byte[] bytes) throws IOException {
+            OUTPUT.putNextEntry(new ZipEntry(path));
+            OUTPUT.write(bytes);
+            OUTPUT.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            OUTPUT.close();
+        }
+
+    }
+
+    /**
+     * Builds a {@link SyntheticPacks} generator. Not thread-safe.
+     * @author soir20
+     */
+    public static final class Builder {
+        private int packs = 10;
+        private int texturesPerPack = 100;
+        private double metadataFraction = 1;
+        private double overlap = 0;
+        private int frameSize = 16;
+        private int frames = 4;
+        private int unusedKeys = 0;
+        private boolean zipped;
+        private boolean binaryMetadata;
+
+        /**
+         * Sets the number of packs to generate.
+         * @param packs     number of packs
+         * @return this builder for chaining
+         */
+        public Builder setPacks(int packs) {
+            this.packs = requireNonNegative(packs, "Packs");
+            return this;
+        }
+
+        /**
+         * Sets the number of textures in each pack.
+         * @param texturesPerPack       number of textures in each pack
+         * @return this builder for chaining
+         */
+        public Builder setTexturesPerPack(int texturesPerPack) {
+            this.texturesPerPack = requireNonNegative(texturesPerPack, "Textures per pack");
+            return this;
+        }
+
+        /**
+         * Sets the fraction of textures that have metadata.
+         * @param metadataFraction      fraction from 0 to 1 of textures with metadata
+         * @return this builder for chaining
+         */
+        public Builder setMetadataFraction(double metadataFraction) {
+            this.metadataFraction = requireFraction(metadataFraction, "Metadata fraction");
+            return this;
+        }
+
+        /**
+         * Sets the fraction of textures in each pack that have the same name in every pack.
+         * @param overlap       fraction from 0 to 1 of textures shared by all packs
+         * @return this builder for chaining
+         */
+        public Builder setOverlap(double overlap) {
+            this.overlap = requireFraction(overlap, "Overlap");
+            return this;
+        }
+
+        /**
+         * Sets the width and height of every frame.
+         * @param frameSize     side length of each square frame
+         * @return this builder for chaining
+         */
+        public Builder setFrameSize(int frameSize) {
+            this.frameSize = requirePositive(frameSize, "Frame size");
+            return this;
+        }
+
+        /**
+         * Sets the number of frames in every texture.
+         * @param frames        number of frames
+         * @return this builder for chaining
+         */
+        public Builder setFrames(int frames) {
+            this.frames = requirePositive(frames, "Frames");
+            return this;
+        }
+
+        /**
+         * Sets the number of keys in a metadata section that no plugin reads.
+         * @param unusedKeys    number of unused keys
+         * @return this builder for chaining
+         */
+        public Builder setUnusedKeys(int unusedKeys) {
+            this.unusedKeys = requireNonNegative(unusedKeys, "Unused keys");
+            return this;
+        }
+
+        /**
+         * Sets whether packs are zipped or folders.
+         * @param zipped        whether packs are zipped
+         * @return this builder for chaining
+         */
+        public Builder setZipped(boolean zipped) {
+            this.zipped = zipped;
+            return this;
+        }
+
+        /**
+         * Sets whether metadata is written in the {@link BinaryMetadataFormat} instead of as JSON.
+         * @param binaryMetadata        whether metadata is binary
+         * @return this builder for chaining
+         */
+        public Builder setBinaryMetadata(boolean binaryMetadata) {
+            this.binaryMetadata = binaryMetadata;
+            return this;
+        }
+
+        /**
+         * Builds the generator.
+         * @return the pack generator
+         */
+        public SyntheticPacks build() {
+            return new SyntheticPacks(this);
+        }
+
+        /**
+         * Checks that a setting is not negative.
+         * @param value     value of the setting
+         * @param name      name of the setting
+         * @return the value
+         */
+        private static int requireNonNegative(int value, String name) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " cannot be negative: " + value);
+            }
+
+            return value;
+        }
+
+        /**
+         * Checks that a setting is positive.
+         * @param value     value of the setting
+         * @param name      name of the setting
+         * @return the value
+         */
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+
+            return value;
+        }
+
+        /**
+         * Checks that a setting is between 0 and 1.
+         * @param value     value of the setting
+         * @param name      name of the setting
+         * @return the value
+         */
+        private static double requireFraction(double value, String name) {
+            if (value < 0 || value > 1) {
+                throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+            }
+
+            return value;
+        }
+
+    }
+
+}
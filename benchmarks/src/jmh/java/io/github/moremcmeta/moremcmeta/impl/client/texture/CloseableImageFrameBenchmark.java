@@ -0,0 +1,98 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import io.github.moremcmeta.moremcmeta.api.client.texture.ColorTransform;
+import io.github.moremcmeta.moremcmeta.api.math.Area;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CloseableImageFrame#applyTransform(ColorTransform, Area, int)} on the top and bottom
+ * layers of frames with different sizes and numbers of layers. Each invocation writes new colors, so the
+ * frame always changes.
+ * @author soir20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CloseableImageFrameBenchmark {
+    @Param({"16", "64", "256", "1024"})
+    public int size;
+
+    @Param({"1", "4", "16"})
+    public int layers;
+
+    private MockCloseableImageFrame frame;
+    private Area fullArea;
+    private Area halfArea;
+    private int color;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frame = new MockCloseableImageFrame(size, size, layers);
+        fullArea = new Area(0, 0, size, size);
+        halfArea = new Area(size / 4, size / 4, size / 2, size / 2);
+
+        // Give every lower layer some pixels so that the top layer has layers to look through
+        for (int layer = 0; layer < layers - 1; layer++) {
+            frame.applyTransform((x, y, depFunction) -> 0xFF0000FF, halfArea, layer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.close();
+    }
+
+    @Benchmark
+    public boolean applyTransform_FullAreaTopLayer() {
+        int newColor = ++color | 0xFF000000;
+        return frame.applyTransform((x, y, depFunction) -> newColor, fullArea, layers - 1);
+    }
+
+    @Benchmark
+    public boolean applyTransform_HalfAreaTopLayer() {
+        int newColor = ++color | 0xFF000000;
+        return frame.applyTransform((x, y, depFunction) -> newColor, halfArea, layers - 1);
+    }
+
+    @Benchmark
+    public boolean applyTransform_FullAreaReadsLayerBelow() {
+        int offset = ++color;
+        return frame.applyTransform((x, y, depFunction) -> depFunction.color(x, y) + offset, fullArea, layers - 1);
+    }
+
+    @Benchmark
+    public boolean applyTransform_FullAreaBottomLayer() {
+        int newColor = ++color | 0xFF000000;
+        return frame.applyTransform((x, y, depFunction) -> newColor, fullArea, 0);
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ColorBlender#blend(int, int, int, int)} and {@link ColorBlender#alphaBlend(int, int)}
+ * over a fixed set of random colors. Results are reported per blended color.
+ * @author soir20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ColorBlenderBenchmark {
+    private static final int COLORS = 4096;
+    private int[] colors;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        colors = new int[COLORS + 3];
+        for (int index = 0; index < colors.length; index++) {
+            colors[index] = random.nextInt();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLORS)
+    public void blend(Blackhole blackhole) {
+        for (int index = 0; index < COLORS; index++) {
+            blackhole.consume(ColorBlender.blend(
+                    colors[index],
+                    colors[index + 1],
+                    colors[index + 2],
+                    colors[index + 3]
+            ));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLORS)
+    public void alphaBlend(Blackhole blackhole) {
+        for (int index = 0; index < COLORS; index++) {
+            blackhole.consume(ColorBlender.alphaBlend(colors[index], colors[index + 1]));
+        }
+    }
+
+}
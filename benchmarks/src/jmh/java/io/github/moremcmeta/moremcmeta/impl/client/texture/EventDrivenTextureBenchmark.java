@@ -0,0 +1,105 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableList;
+import io.github.moremcmeta.moremcmeta.api.client.texture.FrameGroup;
+import io.github.moremcmeta.moremcmeta.api.client.texture.PersistentFrameView;
+import io.github.moremcmeta.moremcmeta.api.math.Area;
+import net.minecraft.resources.ResourceLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EventDrivenTexture#tick()} and {@link EventDrivenTexture#upload(ResourceLocation)} for a
+ * texture with one component per layer. Each component writes the whole frame on every tick and uploads the
+ * frame when the texture is uploaded, like an animation that changes every tick.
+ * @author soir20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EventDrivenTextureBenchmark {
+    private static final ResourceLocation BASE = new ResourceLocation("benchmark", "textures/base.png");
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int components;
+
+    private EventDrivenTexture texture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(size, size, components)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(size, size, components));
+
+        Area area = new Area(0, 0, size, size);
+        for (int component = 0; component < components; component++) {
+            builder.add(new CoreTextureComponent() {
+                private int color;
+
+                @Override
+                public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                                   FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                    int newColor = ++color | 0xFF000000;
+                    currentFrame.generateWith((x, y, depFunction) -> newColor, area);
+                }
+
+                @Override
+                public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame,
+                                     ResourceLocation baseLocation) {
+                    currentFrame.upload(0, 0, 0, 0, 0, currentFrame.width(), currentFrame.height());
+                }
+            });
+        }
+
+        texture = builder.build();
+        texture.load(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        texture.close();
+    }
+
+    @Benchmark
+    public void tick() {
+        texture.tick();
+    }
+
+    @Benchmark
+    public void tickThenUpload() {
+        texture.tick();
+        texture.upload(BASE);
+    }
+
+}
@@ -0,0 +1,581 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableList;
+import io.github.moremcmeta.moremcmeta.api.client.texture.FrameGroup;
+import io.github.moremcmeta.moremcmeta.api.client.texture.PersistentFrameView;
+import io.github.moremcmeta.moremcmeta.api.math.Area;
+import io.github.moremcmeta.moremcmeta.api.math.Point;
+import io.github.moremcmeta.moremcmeta.impl.client.io.FrameReader;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Simulates thousands of registered {@link EventDrivenTexture}s without a game window and reports how
+ * the tick and upload paths scale with the number of textures. Textures are registered with a
+ * {@link TextureManagerWrapper}, ticked through it like the game does every tick, and uploaded through
+ * a {@link DependencyGraph} like the game does whenever a base texture is bound. Each texture has a real
+ * {@link UploadComponent}, so uploads go through the same base lookups as in game. Images are kept in
+ * memory and count the pixels that are written and uploaded.</p>
+ *
+ * <p>Most textures are sprites on one of several atlases, and the rest are independent textures. Each
+ * rendered frame binds every atlas several times, like the block atlas being bound for each chunk
+ * layer, and binds a rotating window of the independent textures, like entities coming in and out of
+ * view. Repeated binds of a base in the same tick exercise the path where nothing needs to be
+ * uploaded.</p>
+ *
+ * <p>Arguments have the form <code>--name=value</code>:</p>
+ * <ul>
+ *     <li><code>textures</code> is a comma-separated list of texture counts to simulate in order</li>
+ *     <li><code>size</code> (frame size), <code>frames</code> (predefined frames), and <code>mipmaps</code>
+ *     (maximum mipmap level of the atlases) configure each texture's images</li>
+ *     <li><code>components</code> is the number of components in each texture, and <code>workload</code>
+ *     is what each one does: <code>generate</code> writes <code>coverage</code> (a fraction) of the frame,
+ *     <code>replace</code> switches to the next predefined frame, and <code>idle</code> does nothing</li>
+ *     <li><code>interval</code> is the number of ticks between changes, like an animation's frame time</li>
+ *     <li><code>lazy</code> makes components catch up on skipped ticks when their texture is uploaded
+ *     instead of changing on every tick</li>
+ *     <li><code>atlases</code>, <code>sprites</code> (fraction of textures on an atlas), <code>binds</code>
+ *     (binds of each atlas per rendered frame), <code>visible</code> (fraction of independent textures
+ *     bound per rendered frame), and <code>fps</code> (rendered frames per tick) set the bind pattern</li>
+ *     <li><code>budget</code> is the time budget for each tick in microseconds, where 0 means no budget</li>
+ *     <li><code>warmup</code> and <code>ticks</code> are the number of ticks to run before and while
+ *     measuring</li>
+ * </ul>
+ *
+ * <p>Ticks per second only counts time spent ticking and uploading the textures, so it is the highest tick
+ * rate the textures alone would allow.</p>
+ * @author soir20
+ */
+public final class TextureStressHarness {
+    private static final int SPRITES_PER_ATLAS_ROW = 64;
+
+    /**
+     * Runs the simulation for every texture count.
+     * @param args      settings in the form --name=value
+     */
+    public static void main(String[] args) {
+        Map<String, String> settings = parseArgs(args);
+        Settings simulation = new Settings(settings);
+        int[] textureCounts = Arrays.stream(settings.getOrDefault("textures", "100,1000,5000").split(","))
+                .mapToInt((count) -> Integer.parseInt(count.trim()))
+                .toArray();
+
+        System.out.printf("%-9s %12s %12s %14s %12s %14s %16s %16s %12s%n", "Textures", "Ticks/s", "Tick (us)",
+                "Frame (us)", "Uploads", "Image uploads", "Mpx uploaded/s", "Mpx written/s", "Skipped");
+        for (int textures : textureCounts) {
+            new Simulation(simulation, textures).run();
+        }
+    }
+
+    /**
+     * Parses arguments in the form --name=value or --name.
+     * @param args      arguments to parse
+     * @return values by name, with an empty value for flags
+     */
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Arguments must start with --: " + arg);
+            }
+
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                settings.put(arg.substring(2), "");
+            } else {
+                settings.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        return settings;
+    }
+
+    /**
+     * Prevents the harness from being constructed.
+     */
+    private TextureStressHarness() {}
+
+    /**
+     * What each component does when its texture changes.
+     * @author soir20
+     */
+    private enum Workload {
+        GENERATE,
+        REPLACE,
+        IDLE
+    }
+
+    /**
+     * Settings shared by every texture count.
+     * @author soir20
+     */
+    private static final class Settings {
+        private final int SIZE;
+        private final int FRAMES;
+        private final int MAX_MIPMAP;
+        private final int COMPONENTS;
+        private final Workload WORKLOAD;
+        private final double COVERAGE;
+        private final int INTERVAL;
+        private final boolean LAZY;
+        private final int ATLASES;
+        private final double SPRITES;
+        private final int BINDS;
+        private final double VISIBLE;
+        private final int FPS;
+        private final int WARMUP_TICKS;
+        private final int TICKS;
+        private final long BUDGET_NANOS;
+
+        /**
+         * Reads the settings from parsed arguments.
+         * @param settings      values by name
+         */
+        public Settings(Map<String, String> settings) {
+            SIZE = intSetting(settings, "size", 16);
+            FRAMES = intSetting(settings, "frames", 4);
+            MAX_MIPMAP = intSetting(settings, "mipmaps", 4);
+            COMPONENTS = intSetting(settings, "components", 1);
+            WORKLOAD = Workload.valueOf(settings.getOrDefault("workload", "generate").toUpperCase());
+            COVERAGE = doubleSetting(settings, "coverage", 1);
+            INTERVAL = Math.max(1, intSetting(settings, "interval", 1));
+            LAZY = settings.containsKey("lazy");
+            ATLASES = Math.max(1, intSetting(settings, "atlases", 2));
+            SPRITES = doubleSetting(settings, "sprites", 0.9);
+            BINDS = intSetting(settings, "binds", 4);
+            VISIBLE = doubleSetting(settings, "visible", 0.25);
+            FPS = Math.max(1, intSetting(settings, "fps", 3));
+            WARMUP_TICKS = intSetting(settings, "warmup", 100);
+            TICKS = intSetting(settings, "ticks", 400);
+            BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(intSetting(settings, "budget", 0));
+        }
+
+        /**
+         * Gets an integer setting.
+         * @param settings      all settings
+         * @param name          name of the setting
+         * @param defaultValue  value if the setting is absent
+         * @return value of the setting
+         */
+        private static int intSetting(Map<String, String> settings, String name, int defaultValue) {
+            return settings.containsKey(name) ? Integer.parseInt(settings.get(name)) : defaultValue;
+        }
+
+        /**
+         * Gets a decimal setting.
+         * @param settings      all settings
+         * @param name          name of the setting
+         * @param defaultValue  value if the setting is absent
+         * @return value of the setting
+         */
+        private static double doubleSetting(Map<String, String> settings, String name, double defaultValue) {
+            return settings.containsKey(name) ? Double.parseDouble(settings.get(name)) : defaultValue;
+        }
+
+    }
+
+    /**
+     * One simulation with a fixed number of textures.
+     * @author soir20
+     */
+    private static final class Simulation {
+        private final Settings SETTINGS;
+        private final TextureManagerWrapper<EventDrivenTexture> MANAGER;
+        private final List<EventDrivenTexture> TEXTURES;
+        private final DependencyGraph GRAPH;
+        private final int[] ATLAS_IDS;
+        private final int[] INDEPENDENT_IDS;
+        private final int VISIBLE_INDEPENDENT;
+        private final LongAdder PIXELS_UPLOADED;
+        private final LongAdder PIXELS_WRITTEN;
+        private final LongAdder IMAGE_UPLOADS;
+        private int nextVisible;
+
+        /**
+         * Creates and registers all textures for a simulation.
+         * @param settings      settings for the simulation
+         * @param textures      number of textures to create
+         */
+        public Simulation(Settings settings, int textures) {
+            SETTINGS = settings;
+            MANAGER = new TextureManagerWrapper<>(new MockManager<AbstractTexture>(), settings.BUDGET_NANOS);
+            TEXTURES = new ArrayList<>();
+            PIXELS_UPLOADED = new LongAdder();
+            PIXELS_WRITTEN = new LongAdder();
+            IMAGE_UPLOADS = new LongAdder();
+
+            Set<ResourceLocation> atlases = new LinkedHashSet<>();
+            for (int atlas = 0; atlas < settings.ATLASES; atlas++) {
+                atlases.add(new ResourceLocation("benchmark", "textures/atlas/" + atlas + ".png"));
+            }
+            List<ResourceLocation> atlasList = new ArrayList<>(atlases);
+
+            int spriteCount = (int) Math.round(textures * settings.SPRITES);
+            Map<ResourceLocation, Map<ResourceLocation, Sprite>> spritesByAtlas = new HashMap<>();
+            SpriteFinder spriteFinder = new SpriteFinder(
+                    (atlas) -> (location) -> {
+                        Sprite sprite = spritesByAtlas.getOrDefault(atlas, Map.of()).get(location);
+                        return sprite == null ? List.of() : List.of(sprite);
+                    },
+                    atlases
+            );
+
+            DependencyGraph.Builder graph = new DependencyGraph.Builder();
+            List<ResourceLocation> independentTextures = new ArrayList<>();
+            for (int index = 0; index < textures; index++) {
+                ResourceLocation location = new ResourceLocation("benchmark", "textures/stress/" + index + ".png");
+
+                if (index < spriteCount) {
+                    ResourceLocation atlas = atlasList.get(index % atlasList.size());
+                    int slot = index / atlasList.size();
+                    long uploadPoint = Point.pack(
+                            (slot % SPRITES_PER_ATLAS_ROW) * settings.SIZE,
+                            (slot / SPRITES_PER_ATLAS_ROW) * settings.SIZE
+                    );
+                    spritesByAtlas.computeIfAbsent(atlas, (key) -> new HashMap<>())
+                            .put(location, new MockSprite(uploadPoint, settings.MAX_MIPMAP, atlas));
+                } else {
+                    independentTextures.add(location);
+                }
+
+                BaseCollection bases = BaseCollection.find(spriteFinder, location);
+                EventDrivenTexture texture = makeTexture(bases);
+                MANAGER.register(location, texture);
+
+                // Without a render thread, the upload component queues its OpenGL setup and it never runs
+                texture.load(null);
+                TEXTURES.add(texture);
+
+                bases.baseNames().forEach((base) -> graph.add(base, texture));
+            }
+
+            GRAPH = graph.build();
+            ATLAS_IDS = atlasList.stream().mapToInt(GRAPH::id).filter((id) -> id != DependencyGraph.NO_ID).toArray();
+            INDEPENDENT_IDS = independentTextures.stream().mapToInt(GRAPH::id).toArray();
+            VISIBLE_INDEPENDENT = (int) Math.round(INDEPENDENT_IDS.length * settings.VISIBLE);
+        }
+
+        /**
+         * Ticks and uploads all textures, then prints the results and closes the textures.
+         */
+        public void run() {
+            for (int tick = 0; tick < SETTINGS.WARMUP_TICKS; tick++) {
+                MANAGER.tick();
+                for (int frame = 0; frame < SETTINGS.FPS; frame++) {
+                    renderFrame();
+                }
+            }
+
+            PIXELS_UPLOADED.reset();
+            PIXELS_WRITTEN.reset();
+            IMAGE_UPLOADS.reset();
+            long skippedBefore = MANAGER.skippedTicks();
+            long uploadCalls = 0;
+            long tickNanos = 0;
+            long frameNanos = 0;
+
+            for (int tick = 0; tick < SETTINGS.TICKS; tick++) {
+                long tickStart = System.nanoTime();
+                MANAGER.tick();
+                tickNanos += System.nanoTime() - tickStart;
+
+                for (int frame = 0; frame < SETTINGS.FPS; frame++) {
+                    long frameStart = System.nanoTime();
+                    uploadCalls += renderFrame();
+                    frameNanos += System.nanoTime() - frameStart;
+                }
+            }
+
+            double seconds = (tickNanos + frameNanos) / 1e9;
+            int frames = SETTINGS.TICKS * SETTINGS.FPS;
+            System.out.printf("%-9s %12.1f %12.1f %14.1f %12s %14s %16.2f %16.2f %12s%n",
+                    TEXTURES.size(),
+                    SETTINGS.TICKS / seconds,
+                    tickNanos / 1e3 / Math.max(1, SETTINGS.TICKS),
+                    frameNanos / 1e3 / Math.max(1, frames),
+                    uploadCalls,
+                    IMAGE_UPLOADS.sum(),
+                    PIXELS_UPLOADED.sum() / 1e6 / seconds,
+                    PIXELS_WRITTEN.sum() / 1e6 / seconds,
+                    MANAGER.skippedTicks() - skippedBefore);
+
+            TEXTURES.forEach(EventDrivenTexture::close);
+        }
+
+        /**
+         * Binds bases like the game does while rendering one frame.
+         * @return number of calls to {@link EventDrivenTexture#upload(ResourceLocation)}
+         */
+        private long renderFrame() {
+            long uploadCalls = 0;
+
+            for (int bind = 0; bind < SETTINGS.BINDS; bind++) {
+                for (int atlasId : ATLAS_IDS) {
+                    GRAPH.uploadDependencies(atlasId);
+                    uploadCalls += GRAPH.dependencies(atlasId);
+                }
+            }
+
+            for (int visible = 0; visible < VISIBLE_INDEPENDENT; visible++) {
+                int baseId = INDEPENDENT_IDS[nextVisible];
+                GRAPH.uploadDependencies(baseId);
+                uploadCalls += GRAPH.dependencies(baseId);
+                nextVisible = (nextVisible + 1) % INDEPENDENT_IDS.length;
+            }
+
+            return uploadCalls;
+        }
+
+        /**
+         * Makes a texture with the configured components and an upload component.
+         * @param bases     bases of the texture
+         * @return the texture
+         */
+        private EventDrivenTexture makeTexture(BaseCollection bases) {
+            List<CloseableImageFrame> predefinedFrames = new ArrayList<>();
+            for (int frame = 0; frame < SETTINGS.FRAMES; frame++) {
+                predefinedFrames.add(makeFrame());
+            }
+
+            EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder()
+                    .setPredefinedFrames(predefinedFrames)
+                    .setGeneratedFrame(makeFrame());
+
+            for (int component = 0; component < SETTINGS.COMPONENTS; component++) {
+                builder.add(new WorkloadComponent(SETTINGS));
+            }
+
+            builder.add(new UploadComponent((glId, mipmapLevel, width, height) -> {}, bases));
+            return builder.build();
+        }
+
+        /**
+         * Makes a frame with every mipmap level up to the configured maximum.
+         * @return the frame
+         */
+        private CloseableImageFrame makeFrame() {
+            ImmutableList.Builder<CloseableImage> mipmaps = new ImmutableList.Builder<>();
+            for (int level = 0; level <= SETTINGS.MAX_MIPMAP; level++) {
+                mipmaps.add(new CountingImage(
+                        Math.max(1, SETTINGS.SIZE >> level),
+                        Math.max(1, SETTINGS.SIZE >> level),
+                        PIXELS_WRITTEN,
+                        PIXELS_UPLOADED,
+                        IMAGE_UPLOADS
+                ));
+            }
+
+            return new CloseableImageFrame(
+                    new FrameReader.FrameData(SETTINGS.SIZE, SETTINGS.SIZE, 0, 0),
+                    mipmaps.build(),
+                    SETTINGS.COMPONENTS + 1
+            );
+        }
+
+    }
+
+    /**
+     * Changes the current frame every few ticks according to the configured workload.
+     * @author soir20
+     */
+    private static final class WorkloadComponent implements CoreTextureComponent {
+        private final Workload WORKLOAD;
+        private final Area AREA;
+        private final int INTERVAL;
+        private final boolean LAZY;
+        private int ticksUntilChange;
+        private int changes;
+
+        /**
+         * Creates a new component.
+         * @param settings      settings for the simulation
+         */
+        public WorkloadComponent(Settings settings) {
+            int coveredRows = (int) Math.ceil(settings.SIZE * settings.COVERAGE);
+            WORKLOAD = settings.WORKLOAD;
+            AREA = new Area(0, 0, settings.SIZE, Math.min(settings.SIZE, coveredRows));
+            INTERVAL = settings.INTERVAL;
+            LAZY = settings.LAZY;
+            ticksUntilChange = INTERVAL;
+        }
+
+        @Override
+        public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                           FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+            if (!LAZY) {
+                advance(currentFrame, predefinedFrames, 1);
+            }
+        }
+
+        @Override
+        public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                           FrameGroup<? extends PersistentFrameView> predefinedFrames, int ticks) {
+            if (LAZY) {
+                advance(currentFrame, predefinedFrames, ticks);
+            }
+        }
+
+        /**
+         * Advances this component by some ticks and changes the current frame once if any change is due.
+         * @param currentFrame          view of the current frame
+         * @param predefinedFrames      all predefined frames
+         * @param ticks                 number of ticks to advance
+         */
+        private void advance(EventDrivenTexture.TextureAndFrameView currentFrame,
+                             FrameGroup<? extends PersistentFrameView> predefinedFrames, int ticks) {
+            ticksUntilChange -= ticks;
+            if (ticksUntilChange > 0) {
+                return;
+            }
+
+            // Skipped changes are not replayed, like an animation that jumps to its current frame
+            changes += 1 - ticksUntilChange / INTERVAL;
+            ticksUntilChange = INTERVAL + ticksUntilChange % INTERVAL;
+
+            switch (WORKLOAD) {
+                case GENERATE -> {
+                    int color = changes | 0xFF000000;
+                    currentFrame.generateWith((x, y, depFunction) -> color, AREA);
+                }
+                case REPLACE -> currentFrame.replaceWith(changes % predefinedFrames.frames());
+                case IDLE -> {}
+            }
+        }
+
+    }
+
+    /**
+     * An in-memory image that counts the pixels written to it and uploaded from it.
+     * @author soir20
+     */
+    private static final class CountingImage implements CloseableImage {
+        private final int[] PIXELS;
+        private final int WIDTH;
+        private final int HEIGHT;
+        private final int X_OFFSET;
+        private final int Y_OFFSET;
+        private final int ROW_LENGTH;
+        private final LongAdder PIXELS_WRITTEN;
+        private final LongAdder PIXELS_UPLOADED;
+        private final LongAdder UPLOADS;
+
+        /**
+         * Creates a new blank image.
+         * @param width             width of the image
+         * @param height            height of the image
+         * @param pixelsWritten     counts pixels written to the image
+         * @param pixelsUploaded    counts pixels uploaded from the image
+         * @param uploads           counts uploads of the image
+         */
+        public CountingImage(int width, int height, LongAdder pixelsWritten, LongAdder pixelsUploaded,
+                             LongAdder uploads) {
+            this(new int[width * height], width, height, 0, 0, width, pixelsWritten, pixelsUploaded, uploads);
+        }
+
+        @Override
+        public int color(int x, int y) {
+            return PIXELS[index(x, y)];
+        }
+
+        @Override
+        public void setColor(int x, int y, int color) {
+            PIXELS[index(x, y)] = color;
+            PIXELS_WRITTEN.increment();
+        }
+
+        @Override
+        public int width() {
+            return WIDTH;
+        }
+
+        @Override
+        public int height() {
+            return HEIGHT;
+        }
+
+        @Override
+        public void upload(int uploadX, int uploadY) {
+            upload(uploadX, uploadY, 0, 0, WIDTH, HEIGHT);
+        }
+
+        @Override
+        public void upload(int uploadX, int uploadY, int topLeftX, int topLeftY, int width, int height) {
+            PIXELS_UPLOADED.add((long) width * height);
+            UPLOADS.increment();
+        }
+
+        @Override
+        public CloseableImage subImage(int topLeftX, int topLeftY, int width, int height) {
+            return new CountingImage(PIXELS, width, height, X_OFFSET + topLeftX, Y_OFFSET + topLeftY, ROW_LENGTH,
+                    PIXELS_WRITTEN, PIXELS_UPLOADED, UPLOADS);
+        }
+
+        @Override
+        public void close() {}
+
+        /**
+         * Creates a new image that shares pixels with another image.
+         * @param pixels            all pixels of the full image
+         * @param width             width of this image
+         * @param height            height of this image
+         * @param xOffset           horizontal offset of this image in the full image
+         * @param yOffset           vertical offset of this image in the full image
+         * @param rowLength         width of the full image
+         * @param pixelsWritten     counts pixels written to the image
+         * @param pixelsUploaded    counts pixels uploaded from the image
+         * @param uploads           counts uploads of the image
+         */
+        private CountingImage(int[] pixels, int width, int height, int xOffset, int yOffset, int rowLength,
+                              LongAdder pixelsWritten, LongAdder pixelsUploaded, LongAdder uploads) {
+            PIXELS = pixels;
+            WIDTH = width;
+            HEIGHT = height;
+            X_OFFSET = xOffset;
+            Y_OFFSET = yOffset;
+            ROW_LENGTH = rowLength;
+            PIXELS_WRITTEN = pixelsWritten;
+            PIXELS_UPLOADED = pixelsUploaded;
+            UPLOADS = uploads;
+        }
+
+        /**
+         * Gets the index of a pixel in the full image.
+         * @param x     x-coordinate of the pixel in this image
+         * @param y     y-coordinate of the pixel in this image
+         * @return index of the pixel in the full image
+         */
+        private int index(int x, int y) {
+            return (Y_OFFSET + y) * ROW_LENGTH + X_OFFSET + x;
+        }
+
+    }
+
+}
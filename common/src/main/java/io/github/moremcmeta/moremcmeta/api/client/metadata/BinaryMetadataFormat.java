@@ -0,0 +1,152 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.api.client.metadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>A compact binary encoding of {@link MetadataView}s. Metadata in this format is read without
+ * parsing any text, so packs with large amounts of metadata can ship it precompiled. Files in this
+ * format use the {@link #EXTENSION} extension and are read by MoreMcmeta's built-in parser.</p>
+ *
+ * <p>The encoding stores a view's nodes in the same breadth-first order that {@link CompiledMetadataView}
+ * keeps them in memory, so reading a file does not build any intermediate tree. Every value a view
+ * provides is stored, including byte stream values from {@link MetadataView#byteStreamValue(String)},
+ * which are kept as blobs.</p>
+ * @author soir20
+ * @since 4.5.0
+ */
+public final class BinaryMetadataFormat {
+
+    /**
+     * Extension (without a period) of metadata files in this format.
+     */
+    public static final String EXTENSION = "moremcmetab";
+
+    private static final int MAGIC = 0x4D4D4342;
+    private static final int VERSION = 1;
+
+    /**
+     * Writes a view in the binary format. The stream is not closed.
+     * @param view          view to write
+     * @param outputStream  stream to write to
+     * @throws IOException if a byte stream value in the view cannot be read or the output
+     *                     cannot be written to
+     */
+    public static void write(MetadataView view, OutputStream outputStream) throws IOException {
+        requireNonNull(view, "View cannot be null");
+        requireNonNull(outputStream, "Output stream cannot be null");
+
+        CompiledMetadataView compiledView = CompiledMetadataView.compile(view);
+
+        // Buffer the output so that a failure never leaves a partial file header behind
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        compiledView.write(output);
+        output.flush();
+
+        bytes.writeTo(outputStream);
+    }
+
+    /**
+     * Reads a view in the binary format. The stream is read to its end but not closed.
+     * @param inputStream   stream to read from
+     * @return the view that was read
+     * @throws InvalidMetadataException if the stream does not contain a valid view in the
+     *                                  binary format or cannot be read
+     */
+    public static CompiledMetadataView read(InputStream inputStream) throws InvalidMetadataException {
+        return read(inputStream, (key) -> true);
+    }
+
+    /**
+     * Reads a view in the binary format, keeping only the given top-level sections if the view is an object.
+     * The other sections are still validated, but no views are built for them. The stream is read to its end
+     * but not closed.
+     * @param inputStream   stream to read from
+     * @param sectionNames  names of the top-level keys to keep
+     * @return the view that was read
+     * @throws InvalidMetadataException if the stream does not contain a valid view in the
+     *                                  binary format or cannot be read
+     */
+    public static CompiledMetadataView read(InputStream inputStream, Set<String> sectionNames)
+            throws InvalidMetadataException {
+        requireNonNull(sectionNames, "Section names cannot be null");
+        return read(inputStream, sectionNames::contains);
+    }
+
+    /**
+     * Reads a view in the binary format. The stream is read to its end but not closed.
+     * @param inputStream   stream to read from
+     * @param rootKeyFilter returns true if a top-level key should be kept
+     * @return the view that was read
+     * @throws InvalidMetadataException if the stream does not contain a valid view in the
+     *                                  binary format or cannot be read
+     */
+    private static CompiledMetadataView read(InputStream inputStream, Predicate<String> rootKeyFilter)
+            throws InvalidMetadataException {
+        requireNonNull(inputStream, "Input stream cannot be null");
+
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(inputStream.readAllBytes());
+        } catch (IOException err) {
+            throw new InvalidMetadataException("Unable to read binary metadata", err);
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new InvalidMetadataException("Metadata is not in the binary metadata format");
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new InvalidMetadataException("Unsupported binary metadata version: " + version);
+            }
+        } catch (BufferUnderflowException err) {
+            throw new InvalidMetadataException("Binary metadata ended unexpectedly", err);
+        }
+
+        CompiledMetadataView view = CompiledMetadataView.read(buffer, rootKeyFilter);
+        if (buffer.hasRemaining()) {
+            throw new InvalidMetadataException("Binary metadata has " + buffer.remaining() + " unexpected trailing "
+                    + "bytes");
+        }
+
+        return view;
+    }
+
+    /**
+     * Prevents the format from being constructed.
+     */
+    private BinaryMetadataFormat() {}
+
+}
@@ -43,6 +43,10 @@ import static java.util.Objects.requireNonNull;
  * <p>For example, say there are three views provided with the following keys: (A, C, B), (D, E), (E, F, A).
  * The resulting view would have keys (A, C, B, D, E, F), with the value of A from the first view and the
  * value of E from the second view.</p>
+ *
+ * <p>Combining views that are themselves {@link CombinedMetadataView}s does not add another layer of
+ * delegation. When all the views are {@link CompiledMetadataView}s, {@link CompiledMetadataView#combine(Collection)}
+ * can merge them into a single flat view instead.</p>
  * @author soir20
  * @since 4.0.0
  */
@@ -65,8 +69,14 @@ public final class CombinedMetadataView implements MetadataView {
             requireNonNull(view, "Metadata view cannot be null");
 
             for (String key : view.keys()) {
-                if (KEY_TO_VIEW.putIfAbsent(key, view) == null) {
-                    INDEX_TO_VIEW.add(Pair.of(key, view));
+
+                // Delegate directly to the view that owns the key rather than through nested combined views
+                MetadataView owner = view instanceof CombinedMetadataView
+                        ? ((CombinedMetadataView) view).KEY_TO_VIEW.get(key)
+                        : view;
+
+                if (KEY_TO_VIEW.putIfAbsent(key, owner) == null) {
+                    INDEX_TO_VIEW.add(Pair.of(key, owner));
                 }
             }
         }
@@ -172,6 +182,146 @@ public final class CombinedMetadataView implements MetadataView {
         return value(index, MetadataView::subView, Optional.empty());
     }
 
+    @Override
+    public boolean hasInt(String key) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view != null && view.hasInt(key);
+    }
+
+    @Override
+    public boolean hasInt(int index) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        return keyAndView != null && keyAndView.getSecond().hasInt(keyAndView.getFirst());
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view == null ? defaultValue : view.getInt(key, defaultValue);
+    }
+
+    @Override
+    public int getInt(int index, int defaultValue) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        if (keyAndView == null) {
+            return defaultValue;
+        }
+
+        return keyAndView.getSecond().getInt(keyAndView.getFirst(), defaultValue);
+    }
+
+    @Override
+    public boolean hasLong(String key) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view != null && view.hasLong(key);
+    }
+
+    @Override
+    public boolean hasLong(int index) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        return keyAndView != null && keyAndView.getSecond().hasLong(keyAndView.getFirst());
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view == null ? defaultValue : view.getLong(key, defaultValue);
+    }
+
+    @Override
+    public long getLong(int index, long defaultValue) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        if (keyAndView == null) {
+            return defaultValue;
+        }
+
+        return keyAndView.getSecond().getLong(keyAndView.getFirst(), defaultValue);
+    }
+
+    @Override
+    public boolean hasFloat(String key) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view != null && view.hasFloat(key);
+    }
+
+    @Override
+    public boolean hasFloat(int index) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        return keyAndView != null && keyAndView.getSecond().hasFloat(keyAndView.getFirst());
+    }
+
+    @Override
+    public float getFloat(String key, float defaultValue) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view == null ? defaultValue : view.getFloat(key, defaultValue);
+    }
+
+    @Override
+    public float getFloat(int index, float defaultValue) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        if (keyAndView == null) {
+            return defaultValue;
+        }
+
+        return keyAndView.getSecond().getFloat(keyAndView.getFirst(), defaultValue);
+    }
+
+    @Override
+    public boolean hasDouble(String key) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view != null && view.hasDouble(key);
+    }
+
+    @Override
+    public boolean hasDouble(int index) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        return keyAndView != null && keyAndView.getSecond().hasDouble(keyAndView.getFirst());
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view == null ? defaultValue : view.getDouble(key, defaultValue);
+    }
+
+    @Override
+    public double getDouble(int index, double defaultValue) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        if (keyAndView == null) {
+            return defaultValue;
+        }
+
+        return keyAndView.getSecond().getDouble(keyAndView.getFirst(), defaultValue);
+    }
+
+    @Override
+    public boolean hasBoolean(String key) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view != null && view.hasBoolean(key);
+    }
+
+    @Override
+    public boolean hasBoolean(int index) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        return keyAndView != null && keyAndView.getSecond().hasBoolean(keyAndView.getFirst());
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        MetadataView view = KEY_TO_VIEW.get(key);
+        return view == null ? defaultValue : view.getBoolean(key, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(int index, boolean defaultValue) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        if (keyAndView == null) {
+            return defaultValue;
+        }
+
+        return keyAndView.getSecond().getBoolean(keyAndView.getFirst(), defaultValue);
+    }
+
     /**
      * Retrieves a value with the given key.
      * @param key           key of the value to retrieve
@@ -198,16 +348,29 @@ public final class CombinedMetadataView implements MetadataView {
      * @param <T> type of value to retrieve
      */
     private <T> T value(int index, BiFunction<MetadataView, String, T> valueGetter, T defaultValue) {
+        Pair<String, MetadataView> keyAndView = keyAndView(index);
+        if (keyAndView == null) {
+            return defaultValue;
+        }
+
+        return valueGetter.apply(keyAndView.getSecond(), keyAndView.getFirst());
+    }
+
+    /**
+     * Retrieves the key at the given index and the view that the key's value comes from.
+     * @param index         index of the key to retrieve
+     * @return key and view at the provided index or null if the index is out of bounds
+     */
+    private Pair<String, MetadataView> keyAndView(int index) {
         if (index < 0) {
             throw new NegativeKeyIndexException(index);
         }
 
         if (index >= size()) {
-            return defaultValue;
+            return null;
         }
 
-        Pair<String, MetadataView> keyAndView = INDEX_TO_VIEW.get(index);
-        return valueGetter.apply(keyAndView.getSecond(), keyAndView.getFirst());
+        return INDEX_TO_VIEW.get(index);
     }
 
 }
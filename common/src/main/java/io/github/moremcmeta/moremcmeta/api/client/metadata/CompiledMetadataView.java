@@ -0,0 +1,1411 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.api.client.metadata;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>{@link MetadataView} implementation that is compiled once from JSON into a flat, immutable tape.
+ * Keys are interned, numeric values are classified and converted ahead of time, and the children of
+ * each object or array are stored contiguously. Reading a value never touches the original JSON tree,
+ * and sub-views are created during compilation rather than on every access.</p>
+ *
+ * <p>This view behaves the same as a {@link JsonMetadataView} created from the same JSON. Additionally,
+ * its primitive accessors, such as {@link #getInt(String, int)}, do not allocate. Compiled views can also
+ * be stored in and read from the {@link BinaryMetadataFormat}.</p>
+ * @author soir20
+ * @since 4.5.0
+ */
+public final class CompiledMetadataView implements MetadataView {
+    private final Tape TAPE;
+    private final int NODE;
+
+    /**
+     * Creates a new metadata view with a JSON object as the root. Later changes to the JSON object
+     * are not reflected in the view.
+     * @param root              the root JSON object
+     * @param keyComparator     comparator to order keys by index
+     */
+    public CompiledMetadataView(JsonObject root, Comparator<? super String> keyComparator) {
+        this(new Tape(
+                requireNonNull(root, "Root cannot be null"),
+                requireNonNull(keyComparator, "Key comparator cannot be null")
+        ), Tape.ROOT);
+    }
+
+    /**
+     * Creates a new metadata view with a JSON array as the root. Later changes to the JSON array
+     * are not reflected in the view.
+     * @param root              the root JSON array
+     */
+    public CompiledMetadataView(JsonArray root) {
+        this(new Tape(requireNonNull(root, "Array cannot be null"), String::compareTo), Tape.ROOT);
+    }
+
+    /**
+     * <p>Reads a JSON object from a stream into a compiled view, keeping only the top-level keys whose names
+     * are in the given set. The values of all other top-level keys are skipped token by token, so no JSON
+     * tree or view is ever built for them. This is useful for
+     * {@link MetadataParser#parse(net.minecraft.resources.ResourceLocation, InputStream, ResourceRepository, Set)},
+     * since files may contain large sections that no plugin will analyze.</p>
+     *
+     * <p>The reader is left positioned after the end of the object.</p>
+     * @param reader            reader positioned at the start of a JSON object
+     * @param sectionNames      names of the top-level keys to keep
+     * @param keyComparator     comparator to order the kept keys by index
+     * @return a view of the kept sections
+     * @throws InvalidMetadataException if the stream cannot be read or does not contain a JSON object
+     * @since 4.5.0
+     */
+    public static CompiledMetadataView readSections(JsonReader reader, Set<String> sectionNames,
+                                                    Comparator<? super String> keyComparator)
+            throws InvalidMetadataException {
+        requireNonNull(reader, "Reader cannot be null");
+        requireNonNull(sectionNames, "Section names cannot be null");
+        requireNonNull(keyComparator, "Key comparator cannot be null");
+
+        JsonObject root = new JsonObject();
+        try {
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+
+                if (sectionNames.contains(key)) {
+                    root.add(key, JsonParser.parseReader(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+        } catch (IOException | IllegalStateException | JsonParseException err) {
+            throw new InvalidMetadataException("Unable to read JSON metadata: " + err.getMessage(), err);
+        }
+
+        return new CompiledMetadataView(root, keyComparator);
+    }
+
+    /**
+     * <p>Combines several views with the same semantics as a {@link CombinedMetadataView}. If every view
+     * is a {@link CompiledMetadataView}, their trees are merged into a single new tape, so reading from
+     * the combined view does not need to find the view that owns each key. Otherwise, a
+     * {@link CombinedMetadataView} is returned.</p>
+     *
+     * <p>This is useful when implementing {@link MetadataParser#combine(net.minecraft.resources.ResourceLocation,
+     * java.util.Map)}, which is called for every texture with metadata.</p>
+     * @param metadataViews     metadata views to combine
+     * @return a view of all the combined views
+     * @since 4.5.0
+     */
+    public static MetadataView combine(Collection<? extends MetadataView> metadataViews) {
+        requireNonNull(metadataViews, "Collection of metadata views cannot be null");
+
+        List<CompiledMetadataView> compiledViews = new ArrayList<>(metadataViews.size());
+        for (MetadataView view : metadataViews) {
+            requireNonNull(view, "Metadata view cannot be null");
+
+            if (!(view instanceof CompiledMetadataView)) {
+                return new CombinedMetadataView(metadataViews);
+            }
+
+            compiledViews.add((CompiledMetadataView) view);
+        }
+
+        return new CompiledMetadataView(new Tape(compiledViews), Tape.ROOT);
+    }
+
+    @Override
+    public int size() {
+        return TAPE.CHILD_COUNTS[NODE];
+    }
+
+    @Override
+    public Iterable<String> keys() {
+
+        // The list is created to be unmodifiable
+        return TAPE.KEY_LISTS.get(NODE);
+
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        return nodeFromKey(key) != Tape.NO_NODE;
+    }
+
+    @Override
+    public boolean hasKey(int index) {
+        return nodeFromIndex(index) != Tape.NO_NODE;
+    }
+
+    @Override
+    public Optional<String> stringValue(String key) {
+        return stringOf(nodeFromKey(key));
+    }
+
+    @Override
+    public Optional<String> stringValue(int index) {
+        return stringOf(nodeFromIndex(index));
+    }
+
+    @Override
+    public Optional<Integer> integerValue(String key) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.INT) ? Optional.of((int) TAPE.LONGS[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Integer> integerValue(int index) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.INT) ? Optional.of((int) TAPE.LONGS[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Long> longValue(String key) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.LONG) ? Optional.of(TAPE.LONGS[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Long> longValue(int index) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.LONG) ? Optional.of(TAPE.LONGS[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Float> floatValue(String key) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.FLOAT) ? Optional.of(TAPE.FLOATS[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Float> floatValue(int index) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.FLOAT) ? Optional.of(TAPE.FLOATS[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Double> doubleValue(String key) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.DOUBLE) ? Optional.of(TAPE.DOUBLES[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Double> doubleValue(int index) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.DOUBLE) ? Optional.of(TAPE.DOUBLES[node]) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Boolean> booleanValue(String key) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.BOOLEAN) ? Optional.of(hasFlag(node, Tape.TRUE)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Boolean> booleanValue(int index) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.BOOLEAN) ? Optional.of(hasFlag(node, Tape.TRUE)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<InputStream> byteStreamValue(String key) {
+
+        // Only views compiled from other views or from the binary format can contain byte values
+        return blobOf(nodeFromKey(key));
+
+    }
+
+    @Override
+    public Optional<InputStream> byteStreamValue(int index) {
+        return blobOf(nodeFromIndex(index));
+    }
+
+    @Override
+    public Optional<MetadataView> subView(String key) {
+        return subViewOf(nodeFromKey(key));
+    }
+
+    @Override
+    public Optional<MetadataView> subView(int index) {
+        return subViewOf(nodeFromIndex(index));
+    }
+
+    /**
+     * Checks if another object is a {@link CompiledMetadataView} with the same keys in the same order and the
+     * same values. Two equal views are indistinguishable through the {@link MetadataView} methods. Hashes are
+     * computed during compilation, so unequal views can usually be ruled out without comparing their contents.
+     * @param other     the other object to compare
+     * @return true if the other object is an equal view or false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof CompiledMetadataView otherView)) {
+            return false;
+        }
+
+        return TAPE.HASHES[NODE] == otherView.TAPE.HASHES[otherView.NODE]
+                && Tape.subtreesEqual(TAPE, NODE, otherView.TAPE, otherView.NODE);
+    }
+
+    @Override
+    public int hashCode() {
+        return TAPE.HASHES[NODE];
+    }
+
+    @Override
+    public boolean hasInt(String key) {
+        return hasFlag(nodeFromKey(key), Tape.INT);
+    }
+
+    @Override
+    public boolean hasInt(int index) {
+        return hasFlag(nodeFromIndex(index), Tape.INT);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.INT) ? (int) TAPE.LONGS[node] : defaultValue;
+    }
+
+    @Override
+    public int getInt(int index, int defaultValue) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.INT) ? (int) TAPE.LONGS[node] : defaultValue;
+    }
+
+    @Override
+    public boolean hasLong(String key) {
+        return hasFlag(nodeFromKey(key), Tape.LONG);
+    }
+
+    @Override
+    public boolean hasLong(int index) {
+        return hasFlag(nodeFromIndex(index), Tape.LONG);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.LONG) ? TAPE.LONGS[node] : defaultValue;
+    }
+
+    @Override
+    public long getLong(int index, long defaultValue) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.LONG) ? TAPE.LONGS[node] : defaultValue;
+    }
+
+    @Override
+    public boolean hasFloat(String key) {
+        return hasFlag(nodeFromKey(key), Tape.FLOAT);
+    }
+
+    @Override
+    public boolean hasFloat(int index) {
+        return hasFlag(nodeFromIndex(index), Tape.FLOAT);
+    }
+
+    @Override
+    public float getFloat(String key, float defaultValue) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.FLOAT) ? TAPE.FLOATS[node] : defaultValue;
+    }
+
+    @Override
+    public float getFloat(int index, float defaultValue) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.FLOAT) ? TAPE.FLOATS[node] : defaultValue;
+    }
+
+    @Override
+    public boolean hasDouble(String key) {
+        return hasFlag(nodeFromKey(key), Tape.DOUBLE);
+    }
+
+    @Override
+    public boolean hasDouble(int index) {
+        return hasFlag(nodeFromIndex(index), Tape.DOUBLE);
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.DOUBLE) ? TAPE.DOUBLES[node] : defaultValue;
+    }
+
+    @Override
+    public double getDouble(int index, double defaultValue) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.DOUBLE) ? TAPE.DOUBLES[node] : defaultValue;
+    }
+
+    @Override
+    public boolean hasBoolean(String key) {
+        return hasFlag(nodeFromKey(key), Tape.BOOLEAN);
+    }
+
+    @Override
+    public boolean hasBoolean(int index) {
+        return hasFlag(nodeFromIndex(index), Tape.BOOLEAN);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        int node = nodeFromKey(key);
+        return hasFlag(node, Tape.BOOLEAN) ? hasFlag(node, Tape.TRUE) : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(int index, boolean defaultValue) {
+        int node = nodeFromIndex(index);
+        return hasFlag(node, Tape.BOOLEAN) ? hasFlag(node, Tape.TRUE) : defaultValue;
+    }
+
+    /**
+     * Compiles any view into a {@link CompiledMetadataView} by reading every value it contains. Each
+     * accessor of the compiled view returns the same result as the original view's accessor.
+     * @param view      the view to compile
+     * @return the compiled view, or the same view if it is already compiled
+     * @throws IOException if a byte stream value in the view cannot be read
+     */
+    static CompiledMetadataView compile(MetadataView view) throws IOException {
+        requireNonNull(view, "View cannot be null");
+
+        if (view instanceof CompiledMetadataView compiledView) {
+            return compiledView;
+        }
+
+        try {
+            return new CompiledMetadataView(new Tape(new ViewSource.ViewNode(null, "", view), new ViewSource()),
+                    Tape.ROOT);
+        } catch (UncheckedIOException err) {
+            throw err.getCause();
+        }
+    }
+
+    /**
+     * Reads a view written by {@link #write(DataOutput)}. The nodes are read directly in tape order,
+     * so no intermediate tree is built.
+     * @param buffer        buffer positioned at the start of the view
+     * @return the view that was read
+     * @throws InvalidMetadataException if the buffer does not contain a valid view
+     */
+    static CompiledMetadataView read(ByteBuffer buffer) throws InvalidMetadataException {
+        return read(buffer, (key) -> true);
+    }
+
+    /**
+     * Reads a view written by {@link #write(DataOutput)}, keeping only some of the top-level keys if the
+     * view is an object. The nodes of the other keys are validated, but they are never added to the tape.
+     * @param buffer        buffer positioned at the start of the view
+     * @param rootKeyFilter returns true if a top-level key should be kept
+     * @return the view that was read
+     * @throws InvalidMetadataException if the buffer does not contain a valid view
+     */
+    static CompiledMetadataView read(ByteBuffer buffer, Predicate<String> rootKeyFilter)
+            throws InvalidMetadataException {
+        requireNonNull(buffer, "Buffer cannot be null");
+        requireNonNull(rootKeyFilter, "Root key filter cannot be null");
+
+        try {
+            return new CompiledMetadataView(new Tape(Tape.ROOT, new DecodedSource(buffer, rootKeyFilter)),
+                    Tape.ROOT);
+        } catch (BufferUnderflowException err) {
+            throw new InvalidMetadataException("Binary metadata ended unexpectedly", err);
+        }
+    }
+
+    /**
+     * Writes this view and everything below it as a flat list of nodes in breadth-first order, which
+     * is the same order the nodes have in a tape. Keys are written once in a table at the start.
+     * @param output        output to write to
+     * @throws IOException if the output cannot be written to
+     */
+    void write(DataOutput output) throws IOException {
+        requireNonNull(output, "Output cannot be null");
+
+        List<Integer> nodes = new ArrayList<>();
+        nodes.add(NODE);
+        for (int index = 0; index < nodes.size(); index++) {
+            int node = nodes.get(index);
+            int end = TAPE.FIRST_CHILDREN[node] + TAPE.CHILD_COUNTS[node];
+            for (int child = TAPE.FIRST_CHILDREN[node]; child < end; child++) {
+                nodes.add(child);
+            }
+        }
+
+        // The key of this view in its parent is not part of this view
+        Map<String, Integer> keyIndices = new LinkedHashMap<>();
+        keyIndices.put("", 0);
+        for (int index = 1; index < nodes.size(); index++) {
+            keyIndices.putIfAbsent(TAPE.KEYS[nodes.get(index)], keyIndices.size());
+        }
+
+        output.writeInt(nodes.size());
+        output.writeInt(keyIndices.size());
+        for (String key : keyIndices.keySet()) {
+            writeString(output, key);
+        }
+
+        for (int node : nodes) {
+            int flags = TAPE.FLAGS[node];
+            output.writeInt(flags);
+            output.writeInt(node == NODE ? 0 : keyIndices.get(TAPE.KEYS[node]));
+
+            if ((flags & Tape.PRIMITIVE) == 0) {
+                output.writeInt(TAPE.CHILD_COUNTS[node]);
+                continue;
+            }
+
+            if ((flags & Tape.STRING) != 0) {
+                writeString(output, TAPE.STRINGS[node]);
+            }
+
+            if ((flags & (Tape.INT | Tape.LONG)) != 0) {
+                output.writeLong(TAPE.LONGS[node]);
+            }
+
+            if ((flags & Tape.FLOAT) != 0) {
+                output.writeFloat(TAPE.FLOATS[node]);
+            }
+
+            if ((flags & Tape.DOUBLE) != 0) {
+                output.writeDouble(TAPE.DOUBLES[node]);
+            }
+
+            if ((flags & Tape.BLOB) != 0) {
+                output.writeInt(TAPE.BLOBS[node].length);
+                output.write(TAPE.BLOBS[node]);
+            }
+        }
+    }
+
+    /**
+     * Creates a new view of a node in a compiled tape.
+     * @param tape      compiled tape containing the node
+     * @param node      node of the object or array in the tape to view
+     */
+    private CompiledMetadataView(Tape tape, int node) {
+        TAPE = tape;
+        NODE = node;
+    }
+
+    /**
+     * Finds the node for a top-level key in this view.
+     * @param key       the key to find
+     * @return the node of the key's value or {@link Tape#NO_NODE} if there is no such key
+     */
+    private int nodeFromKey(String key) {
+        requireNonNull(key, "Key cannot be null");
+
+        int first = TAPE.FIRST_CHILDREN[NODE];
+        int count = TAPE.CHILD_COUNTS[NODE];
+
+        if (TAPE.FLAGS[NODE] == Tape.ARRAY) {
+            int keyAsIndex = strAsIndex(key);
+            return keyAsIndex >= 0 && keyAsIndex < count ? first + keyAsIndex : Tape.NO_NODE;
+        }
+
+        // Binary search through the children in string order
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int node = first + TAPE.NAME_ORDER[first + middle];
+            int comparison = TAPE.KEYS[node].compareTo(key);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return node;
+            }
+        }
+
+        return Tape.NO_NODE;
+    }
+
+    /**
+     * Finds the node for the key at an index in this view.
+     * @param index     the index of the key to find
+     * @return the node of the key's value or {@link Tape#NO_NODE} if the index is out of bounds
+     * @throws NegativeKeyIndexException if the provided index is negative
+     */
+    private int nodeFromIndex(int index) {
+        if (index < 0) {
+            throw new NegativeKeyIndexException(index);
+        }
+
+        return index < TAPE.CHILD_COUNTS[NODE] ? TAPE.FIRST_CHILDREN[NODE] + index : Tape.NO_NODE;
+    }
+
+    /**
+     * Checks whether a node has all the given flags.
+     * @param node      the node to check
+     * @param flags     the flags to check for
+     * @return true if the node exists and has all the flags or false otherwise
+     */
+    private boolean hasFlag(int node, int flags) {
+        return node != Tape.NO_NODE && (TAPE.FLAGS[node] & flags) == flags;
+    }
+
+    /**
+     * Gets the string value of a node.
+     * @param node      the node whose value to retrieve
+     * @return the string value of the node or {@link Optional#empty()} if the node is not a primitive
+     */
+    private Optional<String> stringOf(int node) {
+
+        // The Gson implementation can convert any primitive to a string, even if isString() is false
+        return hasFlag(node, Tape.STRING) ? Optional.of(TAPE.STRINGS[node]) : Optional.empty();
+
+    }
+
+    /**
+     * Gets the byte stream value of a node.
+     * @param node      the node whose value to retrieve
+     * @return a new stream of the node's bytes or {@link Optional#empty()} if the node has no byte value
+     */
+    private Optional<InputStream> blobOf(int node) {
+        return hasFlag(node, Tape.BLOB) ? Optional.of(new ByteArrayInputStream(TAPE.BLOBS[node])) : Optional.empty();
+    }
+
+    /**
+     * Gets the sub-view for a node.
+     * @param node      the node whose sub-view to retrieve
+     * @return the sub-view of the node or {@link Optional#empty()} if the node is neither an object
+     *         nor an array
+     */
+    private Optional<MetadataView> subViewOf(int node) {
+        if (node == Tape.NO_NODE) {
+            return Optional.empty();
+        }
+
+        return TAPE.SUB_VIEWS.get(node);
+    }
+
+    /**
+     * Writes a string as its length in bytes followed by its UTF-8 bytes. Unlike
+     * {@link DataOutput#writeUTF(String)}, the string may be any length.
+     * @param output        output to write to
+     * @param str           string to write
+     * @throws IOException if the output cannot be written to
+     */
+    private static void writeString(DataOutput output, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Convert a string to an integer index.
+     * @param str       the string to convert
+     * @return the string as an integer or -1 if the string does not represent an integer
+     */
+    private static int strAsIndex(String str) {
+
+        @SuppressWarnings("UnstableApiUsage")
+        Integer index = Ints.tryParse(str);
+
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * <p>Flat representation of a JSON tree. Every non-null value in the tree is a node, and nodes are
+     * numbered in breadth-first order, so the children of an object or array are always contiguous.
+     * Each node's data is stored in parallel arrays indexed by the node.</p>
+     *
+     * <p>Null values are excluded entirely, which means array elements after a null shift down by one,
+     * just like in {@link JsonMetadataView}.</p>
+     * @author soir20
+     */
+    private static final class Tape {
+        static final int NO_NODE = -1;
+        static final int ROOT = 0;
+
+        static final int OBJECT = 0;
+        static final int ARRAY = 1;
+        static final int PRIMITIVE = 1 << 1;
+        static final int STRING = 1 << 2;
+        static final int BOOLEAN = 1 << 3;
+        static final int TRUE = 1 << 4;
+        static final int INT = 1 << 5;
+        static final int LONG = 1 << 6;
+        static final int FLOAT = 1 << 7;
+        static final int DOUBLE = 1 << 8;
+        static final int BLOB = 1 << 9;
+        static final int ALL_FLAGS = (1 << 10) - 1;
+
+        final int[] FLAGS;
+        final String[] KEYS;
+        final int[] FIRST_CHILDREN;
+        final int[] CHILD_COUNTS;
+        final int[] NAME_ORDER;
+        final long[] LONGS;
+        final float[] FLOATS;
+        final double[] DOUBLES;
+        final String[] STRINGS;
+        final byte[][] BLOBS;
+        final int[] HASHES;
+        final List<List<String>> KEY_LISTS;
+        final List<Optional<MetadataView>> SUB_VIEWS;
+
+        /**
+         * Compiles a JSON tree into a tape.
+         * @param root              root object or array of the tree
+         * @param rootComparator    comparator to order the keys of the root object
+         */
+        Tape(JsonElement root, Comparator<? super String> rootComparator) {
+            this(root, new JsonSource(rootComparator));
+        }
+
+        /**
+         * Merges the roots of several compiled views into a tape whose root is an object. The root's keys
+         * are in the order they first appear in the views. If a key appears in several views, its value
+         * from the first view is used.
+         * @param views             views to merge
+         */
+        Tape(List<CompiledMetadataView> views) {
+            this(null, new MergeSource(views));
+        }
+
+        /**
+         * Builds a tape from a tree of any type.
+         * @param root              root of the tree
+         * @param source            provides the structure and values of the tree
+         * @param <T> type of nodes in the tree
+         */
+        private <T> Tape(T root, NodeSource<T> source) {
+            List<T> sourceNodes = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            List<Integer> firstChildren = new ArrayList<>();
+            List<Integer> childCounts = new ArrayList<>();
+            Map<String, String> internedKeys = new HashMap<>();
+
+            BiConsumer<String, T> addNode = (key, node) -> {
+                sourceNodes.add(node);
+                keys.add(internedKeys.computeIfAbsent(key, (newKey) -> newKey));
+                firstChildren.add(0);
+                childCounts.add(0);
+            };
+            addNode.accept("", root);
+
+            // Visit nodes in breadth-first order so that each node's children are numbered contiguously
+            Queue<Integer> containers = new ArrayDeque<>();
+            containers.add(ROOT);
+
+            while (!containers.isEmpty()) {
+                int container = containers.remove();
+                int first = sourceNodes.size();
+
+                source.forEachChild(sourceNodes.get(container), container == ROOT, addNode);
+                firstChildren.set(container, first);
+                childCounts.set(container, sourceNodes.size() - first);
+
+                for (int child = first; child < sourceNodes.size(); child++) {
+                    if (!source.isPrimitive(sourceNodes.get(child))) {
+                        containers.add(child);
+                    }
+                }
+            }
+
+            int nodes = sourceNodes.size();
+            FLAGS = new int[nodes];
+            KEYS = keys.toArray(new String[0]);
+            FIRST_CHILDREN = firstChildren.stream().mapToInt(Integer::intValue).toArray();
+            CHILD_COUNTS = childCounts.stream().mapToInt(Integer::intValue).toArray();
+            NAME_ORDER = new int[nodes];
+            LONGS = new long[nodes];
+            FLOATS = new float[nodes];
+            DOUBLES = new double[nodes];
+            STRINGS = new String[nodes];
+            BLOBS = new byte[nodes][];
+            HASHES = new int[nodes];
+
+            ImmutableList<String> allKeys = ImmutableList.copyOf(KEYS);
+            List<List<String>> keyLists = new ArrayList<>(nodes);
+            List<Optional<MetadataView>> subViews = new ArrayList<>(nodes);
+
+            for (int node = 0; node < nodes; node++) {
+                T sourceNode = sourceNodes.get(node);
+
+                if (source.isPrimitive(sourceNode)) {
+                    source.copyPrimitive(sourceNode, this, node);
+                    keyLists.add(ImmutableList.of());
+                    subViews.add(Optional.empty());
+                    continue;
+                }
+
+                int first = FIRST_CHILDREN[node];
+                int count = CHILD_COUNTS[node];
+                keyLists.add(allKeys.subList(first, first + count));
+
+                // The root view is created by the caller, so it is never a sub-view
+                subViews.add(node == ROOT ? Optional.empty() : Optional.of(new CompiledMetadataView(this, node)));
+
+                if (source.isArray(sourceNode)) {
+                    FLAGS[node] = ARRAY;
+                    continue;
+                }
+
+                // Sort object keys by string so that they can be found with a binary search
+                FLAGS[node] = OBJECT;
+                int[] nameOrder = IntStream.range(0, count).boxed()
+                        .sorted(Comparator.comparing((offset) -> KEYS[first + offset]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                System.arraycopy(nameOrder, 0, NAME_ORDER, first, count);
+            }
+
+            KEY_LISTS = keyLists;
+            SUB_VIEWS = subViews;
+
+            // Children always come after their parents, so every child's hash is known before its parent's
+            for (int node = nodes - 1; node >= 0; node--) {
+                HASHES[node] = hash(node);
+            }
+        }
+
+        /**
+         * Checks whether two subtrees have the same keys in the same order and the same values.
+         * @param first         tape containing the first subtree
+         * @param firstNode     root node of the first subtree
+         * @param second        tape containing the second subtree
+         * @param secondNode    root node of the second subtree
+         * @return true if the subtrees are equal or false otherwise
+         */
+        static boolean subtreesEqual(Tape first, int firstNode, Tape second, int secondNode) {
+            if (first.HASHES[firstNode] != second.HASHES[secondNode]
+                    || first.FLAGS[firstNode] != second.FLAGS[secondNode]) {
+                return false;
+            }
+
+            if ((first.FLAGS[firstNode] & PRIMITIVE) != 0) {
+                return Objects.equals(first.STRINGS[firstNode], second.STRINGS[secondNode])
+                        && Arrays.equals(first.BLOBS[firstNode], second.BLOBS[secondNode])
+                        && first.LONGS[firstNode] == second.LONGS[secondNode]
+                        && Float.compare(first.FLOATS[firstNode], second.FLOATS[secondNode]) == 0
+                        && Double.compare(first.DOUBLES[firstNode], second.DOUBLES[secondNode]) == 0;
+            }
+
+            int count = first.CHILD_COUNTS[firstNode];
+            if (count != second.CHILD_COUNTS[secondNode]) {
+                return false;
+            }
+
+            int firstChild = first.FIRST_CHILDREN[firstNode];
+            int secondChild = second.FIRST_CHILDREN[secondNode];
+            for (int offset = 0; offset < count; offset++) {
+                if (!first.KEYS[firstChild + offset].equals(second.KEYS[secondChild + offset])
+                        || !subtreesEqual(first, firstChild + offset, second, secondChild + offset)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Computes the hash of a node from its value or the keys and hashes of its children.
+         * @param node      the node to hash
+         * @return the hash of the node
+         */
+        private int hash(int node) {
+            int hash = FLAGS[node];
+
+            if ((FLAGS[node] & PRIMITIVE) != 0) {
+                return 31 * (31 * hash + Objects.hashCode(STRINGS[node])) + Arrays.hashCode(BLOBS[node]);
+            }
+
+            int end = FIRST_CHILDREN[node] + CHILD_COUNTS[node];
+            for (int child = FIRST_CHILDREN[node]; child < end; child++) {
+                hash = 31 * (31 * hash + KEYS[child].hashCode()) + HASHES[child];
+            }
+
+            return hash;
+        }
+
+    }
+
+    /**
+     * Provides the structure and values of a tree that will be compiled into a {@link Tape}.
+     * @param <T> type of nodes in the tree
+     * @author soir20
+     */
+    private interface NodeSource<T> {
+
+        /**
+         * Checks whether a node is a primitive rather than an object or an array.
+         * @param node      the node to check
+         * @return true if the node is a primitive or false otherwise
+         */
+        boolean isPrimitive(T node);
+
+        /**
+         * Checks whether a node is an array.
+         * @param node      the node to check
+         * @return true if the node is an array or false otherwise
+         */
+        boolean isArray(T node);
+
+        /**
+         * Provides all the non-null children of an object or array in index order.
+         * @param node      the object or array whose children to provide
+         * @param isRoot    whether the node is the root of the tree
+         * @param action    accepts the key and node of each child
+         */
+        void forEachChild(T node, boolean isRoot, BiConsumer<String, T> action);
+
+        /**
+         * Classifies a primitive and writes its values to a tape.
+         * @param node      the primitive node
+         * @param tape      the tape to write to
+         * @param index     the index of the node in the tape
+         */
+        void copyPrimitive(T node, Tape tape, int index);
+
+    }
+
+    /**
+     * Provides the nodes of a JSON tree.
+     * @author soir20
+     */
+    private static final class JsonSource implements NodeSource<JsonElement> {
+        private static final BigDecimal INT_MIN = BigDecimal.valueOf(Integer.MIN_VALUE);
+        private static final BigDecimal INT_MAX = BigDecimal.valueOf(Integer.MAX_VALUE);
+        private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+        private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+        private final Comparator<? super String> ROOT_COMPARATOR;
+
+        /**
+         * Creates a new JSON source.
+         * @param rootComparator    comparator to order the keys of the root object
+         */
+        public JsonSource(Comparator<? super String> rootComparator) {
+            ROOT_COMPARATOR = rootComparator;
+        }
+
+        @Override
+        public boolean isPrimitive(JsonElement node) {
+            return node.isJsonPrimitive();
+        }
+
+        @Override
+        public boolean isArray(JsonElement node) {
+            return node.isJsonArray();
+        }
+
+        @Override
+        public void forEachChild(JsonElement node, boolean isRoot, BiConsumer<String, JsonElement> action) {
+            if (node.isJsonObject()) {
+                JsonObject obj = node.getAsJsonObject();
+
+                // We only want to use a special comparator for the root of the JSON tree
+                Comparator<? super String> comparator = isRoot ? ROOT_COMPARATOR : String::compareTo;
+
+                obj.keySet().stream()
+                        .filter((key) -> !obj.get(key).isJsonNull())
+                        .sorted(comparator)
+                        .forEachOrdered((key) -> action.accept(key, obj.get(key)));
+                return;
+            }
+
+            int index = 0;
+            for (JsonElement child : node.getAsJsonArray()) {
+                if (!child.isJsonNull()) {
+                    action.accept(String.valueOf(index++), child);
+                }
+            }
+        }
+
+        @Override
+        public void copyPrimitive(JsonElement node, Tape tape, int index) {
+            JsonPrimitive primitive = node.getAsJsonPrimitive();
+            int flags = Tape.PRIMITIVE | Tape.STRING | Tape.BOOLEAN;
+
+            // The Gson implementation can convert any primitive to a string or a boolean
+            tape.STRINGS[index] = primitive.getAsString();
+            if (primitive.getAsBoolean()) {
+                flags |= Tape.TRUE;
+            }
+
+            if (primitive.isNumber()) {
+                BigDecimal num = primitive.getAsBigDecimal();
+                boolean isWhole = num.stripTrailingZeros().scale() <= 0;
+
+                if (isWhole && isBetweenInclusive(num, LONG_MIN, LONG_MAX)) {
+                    flags |= Tape.LONG;
+                    tape.LONGS[index] = primitive.getAsLong();
+
+                    if (isBetweenInclusive(num, INT_MIN, INT_MAX)) {
+                        flags |= Tape.INT;
+                    }
+                }
+
+                if (Float.isFinite(num.floatValue())) {
+                    flags |= Tape.FLOAT;
+                    tape.FLOATS[index] = primitive.getAsFloat();
+                }
+
+                if (Double.isFinite(num.doubleValue())) {
+                    flags |= Tape.DOUBLE;
+                    tape.DOUBLES[index] = primitive.getAsDouble();
+                }
+            }
+
+            tape.FLAGS[index] = flags;
+        }
+
+        /**
+         * Checks if a value is in between a lower value (inclusive) and an upper value (inclusive).
+         * @param value     the value to check
+         * @param lower     the lower bound to compare the value to
+         * @param upper     the upper bound to compare the value to
+         * @return true if the value is between the lower bound and upper bound, inclusive
+         */
+        private static boolean isBetweenInclusive(BigDecimal value, BigDecimal lower, BigDecimal upper) {
+            return value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0;
+        }
+
+    }
+
+    /**
+     * Provides the nodes of several compiled views merged under a single root. The root is represented
+     * by null.
+     * @author soir20
+     */
+    private static final class MergeSource implements NodeSource<MergeSource.TapeNode> {
+        private final List<CompiledMetadataView> VIEWS;
+
+        /**
+         * Creates a new merge source.
+         * @param views         views to merge
+         */
+        public MergeSource(List<CompiledMetadataView> views) {
+            VIEWS = views;
+        }
+
+        @Override
+        public boolean isPrimitive(TapeNode node) {
+            return node != null && (node.TAPE.FLAGS[node.NODE] & Tape.PRIMITIVE) != 0;
+        }
+
+        @Override
+        public boolean isArray(TapeNode node) {
+            return node != null && node.TAPE.FLAGS[node.NODE] == Tape.ARRAY;
+        }
+
+        @Override
+        public void forEachChild(TapeNode node, boolean isRoot, BiConsumer<String, TapeNode> action) {
+            if (node != null) {
+                forEachChild(node.TAPE, node.NODE, (key) -> true, action);
+                return;
+            }
+
+            Set<String> seenKeys = new HashSet<>();
+            for (CompiledMetadataView view : VIEWS) {
+                forEachChild(view.TAPE, view.NODE, seenKeys::add, action);
+            }
+        }
+
+        @Override
+        public void copyPrimitive(TapeNode node, Tape tape, int index) {
+            tape.FLAGS[index] = node.TAPE.FLAGS[node.NODE];
+            tape.STRINGS[index] = node.TAPE.STRINGS[node.NODE];
+            tape.LONGS[index] = node.TAPE.LONGS[node.NODE];
+            tape.FLOATS[index] = node.TAPE.FLOATS[node.NODE];
+            tape.DOUBLES[index] = node.TAPE.DOUBLES[node.NODE];
+            tape.BLOBS[index] = node.TAPE.BLOBS[node.NODE];
+        }
+
+        /**
+         * Provides the children of a node in an existing tape.
+         * @param tape          tape containing the node
+         * @param node          the node whose children to provide
+         * @param keyFilter     returns true if the child with a key should be provided
+         * @param action        accepts the key and node of each child
+         */
+        private static void forEachChild(Tape tape, int node, Predicate<String> keyFilter,
+                                         BiConsumer<String, TapeNode> action) {
+            int end = tape.FIRST_CHILDREN[node] + tape.CHILD_COUNTS[node];
+            for (int child = tape.FIRST_CHILDREN[node]; child < end; child++) {
+                if (keyFilter.test(tape.KEYS[child])) {
+                    action.accept(tape.KEYS[child], new TapeNode(tape, child));
+                }
+            }
+        }
+
+        /**
+         * A node in an existing tape.
+         * @author soir20
+         */
+        private static final class TapeNode {
+            private final Tape TAPE;
+            private final int NODE;
+
+            /**
+             * Creates a new reference to a node in a tape.
+             * @param tape      the tape containing the node
+             * @param node      the node in the tape
+             */
+            public TapeNode(Tape tape, int node) {
+                TAPE = tape;
+                NODE = node;
+            }
+
+        }
+
+    }
+
+    /**
+     * Provides the nodes of any {@link MetadataView} by reading each value through the view's accessors.
+     * {@link JsonMetadataView}s and {@link CompiledMetadataView}s are arrays when they were created from
+     * an array. All other views, including {@link CombinedMetadataView}s, look up keys exactly as given,
+     * so they are always treated as objects.
+     * @author soir20
+     */
+    private static final class ViewSource implements NodeSource<ViewSource.ViewNode> {
+
+        @Override
+        public boolean isPrimitive(ViewNode node) {
+            return node.VIEW == null;
+        }
+
+        @Override
+        public boolean isArray(ViewNode node) {
+            if (node.VIEW instanceof JsonMetadataView jsonView) {
+                return jsonView.isArray();
+            }
+
+            if (node.VIEW instanceof CompiledMetadataView compiledView) {
+                return compiledView.TAPE.FLAGS[compiledView.NODE] == Tape.ARRAY;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void forEachChild(ViewNode node, boolean isRoot, BiConsumer<String, ViewNode> action) {
+            for (String key : node.VIEW.keys()) {
+                action.accept(key, new ViewNode(node.VIEW, key, node.VIEW.subView(key).orElse(null)));
+            }
+        }
+
+        @Override
+        public void copyPrimitive(ViewNode node, Tape tape, int index) {
+            MetadataView parent = node.PARENT;
+            String key = node.KEY;
+            int flags = Tape.PRIMITIVE;
+
+            Optional<String> str = parent.stringValue(key);
+            if (str.isPresent()) {
+                flags |= Tape.STRING;
+                tape.STRINGS[index] = str.get();
+            }
+
+            if (parent.hasBoolean(key)) {
+                flags |= Tape.BOOLEAN;
+                if (parent.getBoolean(key, false)) {
+                    flags |= Tape.TRUE;
+                }
+            }
+
+            // Any int is also a long, so the long value is stored if there is one
+            if (parent.hasInt(key)) {
+                flags |= Tape.INT;
+                tape.LONGS[index] = parent.getInt(key, 0);
+            }
+
+            if (parent.hasLong(key)) {
+                flags |= Tape.LONG;
+                tape.LONGS[index] = parent.getLong(key, 0);
+            }
+
+            if (parent.hasFloat(key)) {
+                flags |= Tape.FLOAT;
+                tape.FLOATS[index] = parent.getFloat(key, 0);
+            }
+
+            if (parent.hasDouble(key)) {
+                flags |= Tape.DOUBLE;
+                tape.DOUBLES[index] = parent.getDouble(key, 0);
+            }
+
+            Optional<InputStream> stream = parent.byteStreamValue(key);
+            if (stream.isPresent()) {
+                flags |= Tape.BLOB;
+                try (InputStream blobStream = stream.get()) {
+                    tape.BLOBS[index] = blobStream.readAllBytes();
+                } catch (IOException err) {
+                    throw new UncheckedIOException(err);
+                }
+            }
+
+            tape.FLAGS[index] = flags;
+        }
+
+        /**
+         * A value in a view. Primitives have no view of their own.
+         * @author soir20
+         */
+        private static final class ViewNode {
+            private final MetadataView PARENT;
+            private final String KEY;
+            private final MetadataView VIEW;
+
+            /**
+             * Creates a new node.
+             * @param parent    view containing the value or null for the root
+             * @param key       key of the value in its parent
+             * @param view      view of the value or null if the value is a primitive
+             */
+            public ViewNode(MetadataView parent, String key, MetadataView view) {
+                PARENT = parent;
+                KEY = key;
+                VIEW = view;
+            }
+
+        }
+
+    }
+
+    /**
+     * Provides the nodes of a view written by {@link #write(DataOutput)}. Nodes are identified by their
+     * index, which will be the same in the new tape unless top-level keys are filtered out, since they
+     * were written in tape order.
+     * @author soir20
+     */
+    private static final class DecodedSource implements NodeSource<Integer> {
+        private static final int MIN_NODE_BYTES = 3 * Integer.BYTES;
+        private final Predicate<String> ROOT_KEY_FILTER;
+        private final int[] FLAGS;
+        private final String[] KEYS;
+        private final int[] FIRST_CHILDREN;
+        private final int[] CHILD_COUNTS;
+        private final long[] LONGS;
+        private final float[] FLOATS;
+        private final double[] DOUBLES;
+        private final String[] STRINGS;
+        private final byte[][] BLOBS;
+
+        /**
+         * Reads and validates all nodes in a buffer.
+         * @param buffer        buffer positioned at the start of the written view
+         * @param rootKeyFilter returns true if a top-level key of an object should be provided
+         * @throws InvalidMetadataException if the buffer does not contain a valid view
+         * @throws BufferUnderflowException if the buffer ends before the view does
+         */
+        public DecodedSource(ByteBuffer buffer, Predicate<String> rootKeyFilter) throws InvalidMetadataException {
+            ROOT_KEY_FILTER = rootKeyFilter;
+            int nodes = readCount(buffer, MIN_NODE_BYTES);
+            if (nodes == 0) {
+                throw new InvalidMetadataException("Binary metadata has no root");
+            }
+
+            String[] keyTable = new String[readCount(buffer, Integer.BYTES)];
+            for (int index = 0; index < keyTable.length; index++) {
+                keyTable[index] = readString(buffer);
+            }
+
+            FLAGS = new int[nodes];
+            KEYS = new String[nodes];
+            FIRST_CHILDREN = new int[nodes];
+            CHILD_COUNTS = new int[nodes];
+            LONGS = new long[nodes];
+            FLOATS = new float[nodes];
+            DOUBLES = new double[nodes];
+            STRINGS = new String[nodes];
+            BLOBS = new byte[nodes][];
+
+            // Every node except the root must be the child of a container before it
+            int nextChild = 1;
+
+            for (int node = 0; node < nodes; node++) {
+                if (node >= nextChild) {
+                    throw new InvalidMetadataException("Binary metadata node " + node + " has no parent");
+                }
+
+                int flags = buffer.getInt();
+                FLAGS[node] = flags;
+                KEYS[node] = keyTable[checkIndex(buffer.getInt(), keyTable.length)];
+
+                if ((flags & ~Tape.ALL_FLAGS) != 0 || (flags & Tape.PRIMITIVE) != 0 && (flags & Tape.ARRAY) != 0
+                        || (flags & Tape.PRIMITIVE) == 0 && flags != Tape.OBJECT && flags != Tape.ARRAY
+                        || node == Tape.ROOT && (flags & Tape.PRIMITIVE) != 0) {
+                    throw new InvalidMetadataException("Binary metadata node " + node + " has invalid flags: "
+                            + flags);
+                }
+
+                if ((flags & Tape.PRIMITIVE) == 0) {
+                    int childCount = buffer.getInt();
+                    if (childCount < 0 || childCount > nodes - nextChild) {
+                        throw new InvalidMetadataException("Binary metadata node " + node
+                                + " has an invalid number of children: " + childCount);
+                    }
+
+                    FIRST_CHILDREN[node] = nextChild;
+                    CHILD_COUNTS[node] = childCount;
+                    nextChild += childCount;
+                    continue;
+                }
+
+                if ((flags & Tape.STRING) != 0) {
+                    STRINGS[node] = readString(buffer);
+                }
+
+                if ((flags & (Tape.INT | Tape.LONG)) != 0) {
+                    LONGS[node] = buffer.getLong();
+                }
+
+                if ((flags & Tape.FLOAT) != 0) {
+                    FLOATS[node] = buffer.getFloat();
+                }
+
+                if ((flags & Tape.DOUBLE) != 0) {
+                    DOUBLES[node] = buffer.getDouble();
+                }
+
+                if ((flags & Tape.BLOB) != 0) {
+                    BLOBS[node] = new byte[readCount(buffer, 1)];
+                    buffer.get(BLOBS[node]);
+                }
+            }
+        }
+
+        @Override
+        public boolean isPrimitive(Integer node) {
+            return (FLAGS[node] & Tape.PRIMITIVE) != 0;
+        }
+
+        @Override
+        public boolean isArray(Integer node) {
+            return FLAGS[node] == Tape.ARRAY;
+        }
+
+        @Override
+        public void forEachChild(Integer node, boolean isRoot, BiConsumer<String, Integer> action) {
+            boolean filterKeys = isRoot && FLAGS[node] == Tape.OBJECT;
+            int end = FIRST_CHILDREN[node] + CHILD_COUNTS[node];
+            for (int child = FIRST_CHILDREN[node]; child < end; child++) {
+                if (!filterKeys || ROOT_KEY_FILTER.test(KEYS[child])) {
+                    action.accept(KEYS[child], child);
+                }
+            }
+        }
+
+        @Override
+        public void copyPrimitive(Integer node, Tape tape, int index) {
+            tape.FLAGS[index] = FLAGS[node];
+            tape.STRINGS[index] = STRINGS[node];
+            tape.LONGS[index] = LONGS[node];
+            tape.FLOATS[index] = FLOATS[node];
+            tape.DOUBLES[index] = DOUBLES[node];
+            tape.BLOBS[index] = BLOBS[node];
+        }
+
+        /**
+         * Reads a count of items, making sure the rest of the buffer could hold that many items before
+         * anything is allocated for them.
+         * @param buffer            buffer to read from
+         * @param minItemBytes      minimum number of bytes each item takes up
+         * @return the count
+         * @throws InvalidMetadataException if the count is negative or too large
+         */
+        private static int readCount(ByteBuffer buffer, int minItemBytes) throws InvalidMetadataException {
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / minItemBytes) {
+                throw new InvalidMetadataException("Binary metadata has an invalid length: " + count);
+            }
+
+            return count;
+        }
+
+        /**
+         * Reads a string written by {@link #writeString(DataOutput, String)}.
+         * @param buffer        buffer to read from
+         * @return the string
+         * @throws InvalidMetadataException if the string's length is invalid
+         */
+        private static String readString(ByteBuffer buffer) throws InvalidMetadataException {
+            byte[] bytes = new byte[readCount(buffer, 1)];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Checks that an index is within bounds.
+         * @param index         the index to check
+         * @param size          number of items that can be indexed
+         * @return the index
+         * @throws InvalidMetadataException if the index is out of bounds
+         */
+        private static int checkIndex(int index, int size) throws InvalidMetadataException {
+            if (index < 0 || index >= size) {
+                throw new InvalidMetadataException("Binary metadata has an invalid key index: " + index);
+            }
+
+            return index;
+        }
+
+    }
+
+}
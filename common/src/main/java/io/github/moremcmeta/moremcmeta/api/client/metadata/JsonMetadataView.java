@@ -17,6 +17,7 @@
 
 package io.github.moremcmeta.moremcmeta.api.client.metadata;
 
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -26,7 +27,9 @@ import com.google.gson.JsonPrimitive;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -126,7 +129,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Integer> integerValue(String key) {
         return primitiveFromKey(key,
-                (primitive) -> primitive.isNumber() && isSignedInteger(primitive.getAsBigDecimal()),
+                this::isInt,
                 JsonPrimitive::getAsInt
         );
     }
@@ -134,7 +137,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Integer> integerValue(int index) {
         return primitiveFromIndex(index,
-                (primitive) -> primitive.isNumber() && isSignedInteger(primitive.getAsBigDecimal()),
+                this::isInt,
                 JsonPrimitive::getAsInt
         );
     }
@@ -142,7 +145,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Long> longValue(String key) {
         return primitiveFromKey(key,
-                (primitive) -> primitive.isNumber() && isSignedLong(primitive.getAsBigDecimal()),
+                this::isLong,
                 JsonPrimitive::getAsLong
         );
     }
@@ -150,7 +153,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Long> longValue(int index) {
         return primitiveFromIndex(index,
-                (primitive) -> primitive.isNumber() && isSignedLong(primitive.getAsBigDecimal()),
+                this::isLong,
                 JsonPrimitive::getAsLong
         );
     }
@@ -158,7 +161,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Float> floatValue(String key) {
         return primitiveFromKey(key,
-                (primitive) -> primitive.isNumber() && Float.isFinite(primitive.getAsBigDecimal().floatValue()),
+                this::isFloat,
                 JsonPrimitive::getAsFloat
         );
     }
@@ -166,7 +169,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Float> floatValue(int index) {
         return primitiveFromIndex(index,
-                (primitive) -> primitive.isNumber() && Float.isFinite(primitive.getAsBigDecimal().floatValue()),
+                this::isFloat,
                 JsonPrimitive::getAsFloat
         );
     }
@@ -174,7 +177,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Double> doubleValue(String key) {
         return primitiveFromKey(key,
-                (primitive) -> primitive.isNumber() && Double.isFinite(primitive.getAsBigDecimal().doubleValue()),
+                this::isDouble,
                 JsonPrimitive::getAsDouble
         );
     }
@@ -182,7 +185,7 @@ public final class JsonMetadataView implements MetadataView {
     @Override
     public Optional<Double> doubleValue(int index) {
         return primitiveFromIndex(index,
-                (primitive) -> primitive.isNumber() && Double.isFinite(primitive.getAsBigDecimal().doubleValue()),
+                this::isDouble,
                 JsonPrimitive::getAsDouble
         );
     }
@@ -256,6 +259,156 @@ public final class JsonMetadataView implements MetadataView {
         );
     }
 
+    /**
+     * Checks whether this view was created from a JSON array rather than a JSON object. An object's keys
+     * may look like array indices, so the keys alone cannot tell the two apart.
+     * @return whether this view's root is an array
+     */
+    boolean isArray() {
+        return ROOT.get((obj) -> false, (array) -> true);
+    }
+
+    /**
+     * Checks if another object is a {@link JsonMetadataView} with the same keys in the same order and the
+     * same values. Two equal views are indistinguishable through the {@link MetadataView} methods, even if
+     * the underlying JSON differs in ways that views ignore, such as null values.
+     * @param other     the other object to compare
+     * @return true if the other object is an equal view or false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof JsonMetadataView otherView)) {
+            return false;
+        }
+
+        return KEYS.equals(otherView.KEYS) && elementsEqual(ROOT.element(), otherView.ROOT.element());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * KEYS.hashCode() + elementHash(ROOT.element());
+    }
+
+    @Override
+    public boolean hasInt(String key) {
+        return isInt(primitiveOrNull(key));
+    }
+
+    @Override
+    public boolean hasInt(int index) {
+        return isInt(primitiveOrNull(index));
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(key);
+        return isInt(primitive) ? primitive.getAsInt() : defaultValue;
+    }
+
+    @Override
+    public int getInt(int index, int defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(index);
+        return isInt(primitive) ? primitive.getAsInt() : defaultValue;
+    }
+
+    @Override
+    public boolean hasLong(String key) {
+        return isLong(primitiveOrNull(key));
+    }
+
+    @Override
+    public boolean hasLong(int index) {
+        return isLong(primitiveOrNull(index));
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(key);
+        return isLong(primitive) ? primitive.getAsLong() : defaultValue;
+    }
+
+    @Override
+    public long getLong(int index, long defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(index);
+        return isLong(primitive) ? primitive.getAsLong() : defaultValue;
+    }
+
+    @Override
+    public boolean hasFloat(String key) {
+        return isFloat(primitiveOrNull(key));
+    }
+
+    @Override
+    public boolean hasFloat(int index) {
+        return isFloat(primitiveOrNull(index));
+    }
+
+    @Override
+    public float getFloat(String key, float defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(key);
+        return isFloat(primitive) ? primitive.getAsFloat() : defaultValue;
+    }
+
+    @Override
+    public float getFloat(int index, float defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(index);
+        return isFloat(primitive) ? primitive.getAsFloat() : defaultValue;
+    }
+
+    @Override
+    public boolean hasDouble(String key) {
+        return isDouble(primitiveOrNull(key));
+    }
+
+    @Override
+    public boolean hasDouble(int index) {
+        return isDouble(primitiveOrNull(index));
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(key);
+        return isDouble(primitive) ? primitive.getAsDouble() : defaultValue;
+    }
+
+    @Override
+    public double getDouble(int index, double defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(index);
+        return isDouble(primitive) ? primitive.getAsDouble() : defaultValue;
+    }
+
+    @Override
+    public boolean hasBoolean(String key) {
+
+        // The Gson implementation can convert any primitive to a boolean, even if isString() is false
+        return primitiveOrNull(key) != null;
+
+    }
+
+    @Override
+    public boolean hasBoolean(int index) {
+
+        // The Gson implementation can convert any primitive to a boolean, even if isString() is false
+        return primitiveOrNull(index) != null;
+
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(key);
+        return primitive != null ? primitive.getAsBoolean() : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(int index, boolean defaultValue) {
+        JsonPrimitive primitive = primitiveOrNull(index);
+        return primitive != null ? primitive.getAsBoolean() : defaultValue;
+    }
+
     /**
      * Convert a string to an integer index.
      * @param str       the string to convert
@@ -264,9 +417,41 @@ public final class JsonMetadataView implements MetadataView {
     private int strAsIndex(String str) {
 
         @SuppressWarnings("UnstableApiUsage")
-        int index = Optional.of(str).map(Ints::tryParse).orElse(-1);
+        Integer index = Ints.tryParse(str);
+
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Retrieves the primitive at the given key without creating any functions or {@link Optional}s.
+     * @param key       the key whose value to retrieve
+     * @return the primitive at the key or null if there is no key or the value is not a primitive
+     */
+    private JsonPrimitive primitiveOrNull(String key) {
+        requireNonNull(key, "Key cannot be null");
+        return asPrimitiveOrNull(ROOT.element(key, strAsIndex(key)));
+    }
 
-        return index;
+    /**
+     * Retrieves the primitive at the given index without creating any functions or {@link Optional}s.
+     * @param index     the index whose value to retrieve
+     * @return the primitive at the index or null if there is no key or the value is not a primitive
+     */
+    private JsonPrimitive primitiveOrNull(int index) {
+        if (!hasKey(index)) {
+            return null;
+        }
+
+        return asPrimitiveOrNull(ROOT.element(KEYS.get(index), index));
+    }
+
+    /**
+     * Converts an element to a primitive if it is one.
+     * @param element       the element to convert (may be null)
+     * @return the element as a primitive or null if it is not a primitive
+     */
+    private JsonPrimitive asPrimitiveOrNull(JsonElement element) {
+        return element != null && element.isJsonPrimitive() ? element.getAsJsonPrimitive() : null;
     }
 
     /**
@@ -347,6 +532,44 @@ public final class JsonMetadataView implements MetadataView {
         return obj.get(KEYS.get(index));
     }
 
+    /**
+     * Checks if a primitive is a signed 32-bit integer.
+     * @param primitive     primitive to check (may be null)
+     * @return true if the primitive is a signed 32-bit integer, false otherwise
+     */
+    private boolean isInt(JsonPrimitive primitive) {
+        return primitive != null && primitive.isNumber() && isSignedInteger(primitive.getAsBigDecimal());
+    }
+
+    /**
+     * Checks if a primitive is a signed 64-bit long.
+     * @param primitive     primitive to check (may be null)
+     * @return true if the primitive is a signed 64-bit long, false otherwise
+     */
+    private boolean isLong(JsonPrimitive primitive) {
+        return primitive != null && primitive.isNumber() && isSignedLong(primitive.getAsBigDecimal());
+    }
+
+    /**
+     * Checks if a primitive is a finite float.
+     * @param primitive     primitive to check (may be null)
+     * @return true if the primitive is a finite float, false otherwise
+     */
+    private boolean isFloat(JsonPrimitive primitive) {
+        return primitive != null && primitive.isNumber()
+                && Float.isFinite(primitive.getAsBigDecimal().floatValue());
+    }
+
+    /**
+     * Checks if a primitive is a finite double.
+     * @param primitive     primitive to check (may be null)
+     * @return true if the primitive is a finite double, false otherwise
+     */
+    private boolean isDouble(JsonPrimitive primitive) {
+        return primitive != null && primitive.isNumber()
+                && Double.isFinite(primitive.getAsBigDecimal().doubleValue());
+    }
+
     /**
      * Checks if a number is a signed 32-bit integer.
      * @param num       number to check
@@ -379,6 +602,119 @@ public final class JsonMetadataView implements MetadataView {
         return value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0;
     }
 
+    /**
+     * Checks whether two JSON elements would appear the same through a view. Null values are ignored.
+     * @param first         the first element
+     * @param second        the second element
+     * @return true if the elements are indistinguishable through a view or false otherwise
+     */
+    private static boolean elementsEqual(JsonElement first, JsonElement second) {
+        if (first.isJsonPrimitive() && second.isJsonPrimitive()) {
+            return primitivesEqual(first.getAsJsonPrimitive(), second.getAsJsonPrimitive());
+        }
+
+        if (first.isJsonObject() && second.isJsonObject()) {
+            JsonObject firstObj = first.getAsJsonObject();
+            JsonObject secondObj = second.getAsJsonObject();
+
+            int secondSize = 0;
+            for (Map.Entry<String, JsonElement> entry : secondObj.entrySet()) {
+                if (!entry.getValue().isJsonNull()) {
+                    secondSize++;
+                }
+            }
+
+            int firstSize = 0;
+            for (Map.Entry<String, JsonElement> entry : firstObj.entrySet()) {
+                if (entry.getValue().isJsonNull()) {
+                    continue;
+                }
+
+                JsonElement secondValue = secondObj.get(entry.getKey());
+                if (secondValue == null || !elementsEqual(entry.getValue(), secondValue)) {
+                    return false;
+                }
+
+                firstSize++;
+            }
+
+            return firstSize == secondSize;
+        }
+
+        if (first.isJsonArray() && second.isJsonArray()) {
+            Iterator<JsonElement> firstElements = nonNullElements(first.getAsJsonArray());
+            Iterator<JsonElement> secondElements = nonNullElements(second.getAsJsonArray());
+
+            while (firstElements.hasNext() && secondElements.hasNext()) {
+                if (!elementsEqual(firstElements.next(), secondElements.next())) {
+                    return false;
+                }
+            }
+
+            return !firstElements.hasNext() && !secondElements.hasNext();
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether two JSON primitives would produce the same values through a view.
+     * @param first         the first primitive
+     * @param second        the second primitive
+     * @return true if the primitives are indistinguishable through a view or false otherwise
+     */
+    private static boolean primitivesEqual(JsonPrimitive first, JsonPrimitive second) {
+        if (first.isNumber() != second.isNumber() || !first.getAsString().equals(second.getAsString())) {
+            return false;
+        }
+
+        // The same string may come from different number types that convert to floating point differently
+        return !first.isNumber()
+                || (Float.compare(first.getAsFloat(), second.getAsFloat()) == 0
+                && Double.compare(first.getAsDouble(), second.getAsDouble()) == 0);
+    }
+
+    /**
+     * Computes a hash for a JSON element that is consistent with {@link #elementsEqual(JsonElement, JsonElement)}.
+     * @param element       the element to hash
+     * @return the hash of the element
+     */
+    private static int elementHash(JsonElement element) {
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            return 31 * Boolean.hashCode(primitive.isNumber()) + primitive.getAsString().hashCode();
+        }
+
+        if (element.isJsonObject()) {
+
+            // Sum the entries' hashes since the order of entries does not matter
+            int hash = 1;
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                if (!entry.getValue().isJsonNull()) {
+                    hash += entry.getKey().hashCode() ^ elementHash(entry.getValue());
+                }
+            }
+
+            return hash;
+        }
+
+        int hash = 2;
+        for (Iterator<JsonElement> elements = nonNullElements(element.getAsJsonArray()); elements.hasNext();) {
+            hash = 31 * hash + elementHash(elements.next());
+        }
+
+        return hash;
+    }
+
+    /**
+     * Iterates over all elements in a JSON array that are not null.
+     * @param array         the array to iterate over
+     * @return an iterator over the non-null elements
+     */
+    private static Iterator<JsonElement> nonNullElements(JsonArray array) {
+        return Iterators.filter(array.iterator(), (element) -> !element.isJsonNull());
+    }
+
     /**
      * Converts a JSON object or a JSON array to a {@link MetadataView}.
      * @param element       the element to convert
@@ -446,5 +782,32 @@ public final class JsonMetadataView implements MetadataView {
             throw new IllegalStateException("Either object or array must be present");
         }
 
+        /**
+         * Gets the object or array that is the root.
+         * @return the root element
+         */
+        public JsonElement element() {
+            return get((obj) -> obj, (array) -> array);
+        }
+
+        /**
+         * Gets an element from the object root by key or from the array root by index, depending on
+         * which type this root is. Unlike {@link #get(Function, Function)}, no functions are needed.
+         * @param objectKey         the key of the element if this root holds an object
+         * @param arrayIndex        the index of the element if this root holds an array
+         * @return the element or null if there is no such element
+         */
+        public JsonElement element(String objectKey, int arrayIndex) {
+            if (OBJECT != null) {
+                return OBJECT.get(objectKey);
+            }
+
+            if (ARRAY != null) {
+                return arrayIndex >= 0 && arrayIndex < ARRAY.size() ? ARRAY.get(arrayIndex) : null;
+            }
+
+            throw new IllegalStateException("Either object or array must be present");
+        }
+
     }
 }
\ No newline at end of file
@@ -31,7 +31,9 @@ public interface MetadataAnalyzer {
     /**
      * Converts the original metadata into a more usable form. <b>This method may be called from multiple
      * threads concurrently. If there is any state shared between calls, it must be synchronized properly
-     * for concurrent usage.</b>
+     * for concurrent usage.</b> The result should depend only on the arguments. MoreMcmeta may reuse one
+     * result for several textures whose metadata views are equal and whose images have the same size, so
+     * the returned {@link AnalyzedMetadata} should be immutable.
      * @param metadata      the original, immutable metadata. This metadata contains all metadata for
      *                      the texture, not just the metadata in this plugin's section name. The actual
      *                      metadata attributes themselves are stored within their section names. That is,
@@ -22,6 +22,7 @@ import net.minecraft.resources.ResourceLocation;
 
 import java.io.InputStream;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Reads metadata from a file or throws a {@link InvalidMetadataException} if it is not valid.
@@ -49,6 +50,32 @@ public interface MetadataParser {
                                                                   ResourceRepository resourceRepository)
             throws InvalidMetadataException;
 
+    /**
+     * <p>Reads metadata from a file, provided as an input stream, when only some top-level sections will be
+     * used. Each section name belongs to a texture plugin that is currently loaded. Sections with other names
+     * will never be analyzed, so parsers may skip them without building views for them.
+     * {@link CompiledMetadataView#readSections(com.google.gson.stream.JsonReader, Set, java.util.Comparator)}
+     * does this for JSON formats.</p>
+     *
+     * <p>By default, this method ignores the section names and calls
+     * {@link #parse(ResourceLocation, InputStream, ResourceRepository)}. All the requirements of that method
+     * apply to this one.</p>
+     * @param metadataLocation      location of the metadata file
+     * @param metadataStream        data in the metadata file
+     * @param resourceRepository    searches for resources that exist in any currently-applied resource pack
+     * @param sectionNames          names of all top-level sections that may be analyzed
+     * @return an immutable view of the read metadata by texture path
+     * @throws InvalidMetadataException if the metadata is not valid for some reason
+     * @since 4.5.0
+     */
+    default Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                          InputStream metadataStream,
+                                                                          ResourceRepository resourceRepository,
+                                                                          Set<String> sectionNames)
+            throws InvalidMetadataException {
+        return parse(metadataLocation, metadataStream, resourceRepository);
+    }
+
     /**
      * <p>Parses all metadata at the root of the given resource pack. The given pack may or may not be currently
      * selected, allowing for resource pack icons to have special effects in the pack options screen.</p>
@@ -283,4 +283,244 @@ public interface MetadataView {
      */
     Optional<MetadataView> subView(int index);
 
+    /**
+     * Checks if the value for the given key is a signed 32-bit integer. Equivalent to checking whether
+     * {@link #integerValue(String)} is present, but implementations may avoid allocating.
+     * @param key       the key to check
+     * @return true if the key has a signed 32-bit integer value or false otherwise
+     * @since 4.5.0
+     */
+    default boolean hasInt(String key) {
+        return integerValue(key).isPresent();
+    }
+
+    /**
+     * Checks if the value for the key at the given index is a signed 32-bit integer. Equivalent to checking
+     * whether {@link #integerValue(int)} is present, but implementations may avoid allocating.
+     * @param index     the index of the key to check
+     * @return true if the key has a signed 32-bit integer value or false otherwise
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default boolean hasInt(int index) {
+        return integerValue(index).isPresent();
+    }
+
+    /**
+     * Retrieves the signed 32-bit integer value for the given key without boxing it. Equivalent to
+     * {@link #integerValue(String)} with a default value, but implementations may avoid allocating.
+     * @param key               the key whose value to retrieve
+     * @param defaultValue      value to return if there is no signed 32-bit integer value for the key
+     * @return the value for the key or the default value
+     * @since 4.5.0
+     */
+    default int getInt(String key, int defaultValue) {
+        return integerValue(key).orElse(defaultValue);
+    }
+
+    /**
+     * Retrieves the signed 32-bit integer value for the key at the given index without boxing it. Equivalent to
+     * {@link #integerValue(int)} with a default value, but implementations may avoid allocating.
+     * @param index             the index of the key whose value to retrieve
+     * @param defaultValue      value to return if there is no signed 32-bit integer value for the key
+     * @return the value for the key or the default value
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default int getInt(int index, int defaultValue) {
+        return integerValue(index).orElse(defaultValue);
+    }
+
+    /**
+     * Checks if the value for the given key is a signed 64-bit long. Equivalent to checking whether
+     * {@link #longValue(String)} is present, but implementations may avoid allocating.
+     * @param key       the key to check
+     * @return true if the key has a signed 64-bit long value or false otherwise
+     * @since 4.5.0
+     */
+    default boolean hasLong(String key) {
+        return longValue(key).isPresent();
+    }
+
+    /**
+     * Checks if the value for the key at the given index is a signed 64-bit long. Equivalent to checking
+     * whether {@link #longValue(int)} is present, but implementations may avoid allocating.
+     * @param index     the index of the key to check
+     * @return true if the key has a signed 64-bit long value or false otherwise
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default boolean hasLong(int index) {
+        return longValue(index).isPresent();
+    }
+
+    /**
+     * Retrieves the signed 64-bit long value for the given key without boxing it. Equivalent to
+     * {@link #longValue(String)} with a default value, but implementations may avoid allocating.
+     * @param key               the key whose value to retrieve
+     * @param defaultValue      value to return if there is no signed 64-bit long value for the key
+     * @return the value for the key or the default value
+     * @since 4.5.0
+     */
+    default long getLong(String key, long defaultValue) {
+        return longValue(key).orElse(defaultValue);
+    }
+
+    /**
+     * Retrieves the signed 64-bit long value for the key at the given index without boxing it. Equivalent to
+     * {@link #longValue(int)} with a default value, but implementations may avoid allocating.
+     * @param index             the index of the key whose value to retrieve
+     * @param defaultValue      value to return if there is no signed 64-bit long value for the key
+     * @return the value for the key or the default value
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default long getLong(int index, long defaultValue) {
+        return longValue(index).orElse(defaultValue);
+    }
+
+    /**
+     * Checks if the value for the given key is a float. Equivalent to checking whether
+     * {@link #floatValue(String)} is present, but implementations may avoid allocating.
+     * @param key       the key to check
+     * @return true if the key has a float value or false otherwise
+     * @since 4.5.0
+     */
+    default boolean hasFloat(String key) {
+        return floatValue(key).isPresent();
+    }
+
+    /**
+     * Checks if the value for the key at the given index is a float. Equivalent to checking
+     * whether {@link #floatValue(int)} is present, but implementations may avoid allocating.
+     * @param index     the index of the key to check
+     * @return true if the key has a float value or false otherwise
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default boolean hasFloat(int index) {
+        return floatValue(index).isPresent();
+    }
+
+    /**
+     * Retrieves the float value for the given key without boxing it. Equivalent to
+     * {@link #floatValue(String)} with a default value, but implementations may avoid allocating.
+     * @param key               the key whose value to retrieve
+     * @param defaultValue      value to return if there is no float value for the key
+     * @return the value for the key or the default value
+     * @since 4.5.0
+     */
+    default float getFloat(String key, float defaultValue) {
+        return floatValue(key).orElse(defaultValue);
+    }
+
+    /**
+     * Retrieves the float value for the key at the given index without boxing it. Equivalent to
+     * {@link #floatValue(int)} with a default value, but implementations may avoid allocating.
+     * @param index             the index of the key whose value to retrieve
+     * @param defaultValue      value to return if there is no float value for the key
+     * @return the value for the key or the default value
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default float getFloat(int index, float defaultValue) {
+        return floatValue(index).orElse(defaultValue);
+    }
+
+    /**
+     * Checks if the value for the given key is a double. Equivalent to checking whether
+     * {@link #doubleValue(String)} is present, but implementations may avoid allocating.
+     * @param key       the key to check
+     * @return true if the key has a double value or false otherwise
+     * @since 4.5.0
+     */
+    default boolean hasDouble(String key) {
+        return doubleValue(key).isPresent();
+    }
+
+    /**
+     * Checks if the value for the key at the given index is a double. Equivalent to checking
+     * whether {@link #doubleValue(int)} is present, but implementations may avoid allocating.
+     * @param index     the index of the key to check
+     * @return true if the key has a double value or false otherwise
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default boolean hasDouble(int index) {
+        return doubleValue(index).isPresent();
+    }
+
+    /**
+     * Retrieves the double value for the given key without boxing it. Equivalent to
+     * {@link #doubleValue(String)} with a default value, but implementations may avoid allocating.
+     * @param key               the key whose value to retrieve
+     * @param defaultValue      value to return if there is no double value for the key
+     * @return the value for the key or the default value
+     * @since 4.5.0
+     */
+    default double getDouble(String key, double defaultValue) {
+        return doubleValue(key).orElse(defaultValue);
+    }
+
+    /**
+     * Retrieves the double value for the key at the given index without boxing it. Equivalent to
+     * {@link #doubleValue(int)} with a default value, but implementations may avoid allocating.
+     * @param index             the index of the key whose value to retrieve
+     * @param defaultValue      value to return if there is no double value for the key
+     * @return the value for the key or the default value
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default double getDouble(int index, double defaultValue) {
+        return doubleValue(index).orElse(defaultValue);
+    }
+
+    /**
+     * Checks if the value for the given key is a boolean. Equivalent to checking whether
+     * {@link #booleanValue(String)} is present, but implementations may avoid allocating.
+     * @param key       the key to check
+     * @return true if the key has a boolean value or false otherwise
+     * @since 4.5.0
+     */
+    default boolean hasBoolean(String key) {
+        return booleanValue(key).isPresent();
+    }
+
+    /**
+     * Checks if the value for the key at the given index is a boolean. Equivalent to checking
+     * whether {@link #booleanValue(int)} is present, but implementations may avoid allocating.
+     * @param index     the index of the key to check
+     * @return true if the key has a boolean value or false otherwise
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default boolean hasBoolean(int index) {
+        return booleanValue(index).isPresent();
+    }
+
+    /**
+     * Retrieves the boolean value for the given key without boxing it. Equivalent to
+     * {@link #booleanValue(String)} with a default value, but implementations may avoid allocating.
+     * @param key               the key whose value to retrieve
+     * @param defaultValue      value to return if there is no boolean value for the key
+     * @return the value for the key or the default value
+     * @since 4.5.0
+     */
+    default boolean getBoolean(String key, boolean defaultValue) {
+        return booleanValue(key).orElse(defaultValue);
+    }
+
+    /**
+     * Retrieves the boolean value for the key at the given index without boxing it. Equivalent to
+     * {@link #booleanValue(int)} with a default value, but implementations may avoid allocating.
+     * @param index             the index of the key whose value to retrieve
+     * @param defaultValue      value to return if there is no boolean value for the key
+     * @return the value for the key or the default value
+     * @throws NegativeKeyIndexException if the provided index is negative
+     * @since 4.5.0
+     */
+    default boolean getBoolean(int index, boolean defaultValue) {
+        return booleanValue(index).orElse(defaultValue);
+    }
+
 }
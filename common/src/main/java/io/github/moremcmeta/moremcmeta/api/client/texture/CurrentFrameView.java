@@ -42,4 +42,40 @@ public interface CurrentFrameView extends FrameView {
      */
     void generateWith(ColorTransform transform, Area applyArea);
 
+    /**
+     * Generates a frame from the current frame like {@link #generateWith(ColorTransform, Area)}, but declares
+     * that the colors the transform produces over the given area are fully determined by the given state key.
+     * For example, an interpolated animation might combine the indices of the frames it blends and the tick
+     * offset between them into a key. If the texture caches generated frames, colors produced for a key may be
+     * stored and copied back when the same key is used again, without calling the transform. Only use the same
+     * key with the same area, and only when the colors do not depend on anything else, including the colors of
+     * the layer below if that layer changes independently. Otherwise, use {@link #generateWith(ColorTransform, Area)}.
+     * @param transform     the transformation to apply to the given points
+     * @param applyArea     the points to apply the transformation to
+     * @param stateKey      key that identifies the colors produced by the transform over the area
+     * @throws PixelOutOfBoundsException if a pixel in `applyArea` is out of the frame's bounds
+     * @throws IllegalFrameReferenceException if this view is no longer valid
+     * @since 4.5.0
+     */
+    default void generateWith(ColorTransform transform, Area applyArea, long stateKey) {
+        generateWith(transform, applyArea);
+    }
+
+    /**
+     * Makes one of the predefined frames the current frame without computing any colors. Components
+     * that only switch between predefined frames can use this instead of
+     * {@link #generateWith(ColorTransform, Area)}, and the texture is only updated when the current
+     * frame actually changes. The next frame generated after this call starts from the predefined frame.
+     * Views created by MoreMcmeta support this method. Other implementations that existed before it was
+     * added throw an {@link UnsupportedOperationException} by default.
+     * @param index     index of the predefined frame to make the current frame
+     * @throws FrameIndexOutOfBoundsException if there is no predefined frame at the index
+     * @throws IllegalFrameReferenceException if this view is no longer valid
+     * @throws UnsupportedOperationException if this view cannot switch to predefined frames
+     * @since 4.5.0
+     */
+    default void replaceWith(int index) {
+        throw new UnsupportedOperationException("This view cannot switch to predefined frames");
+    }
+
 }
@@ -48,6 +48,22 @@ public interface TextureComponent<V> {
      */
     default void onTick(V currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames, int ticks) {}
 
+    /**
+     * Responds to time passing within the current tick of the associated texture. This method is only called
+     * when time-based stepping is enabled, right before the texture is uploaded, after any whole ticks have been
+     * passed to {@link #onTick(Object, FrameGroup, int)}. It is called at most as often as the configured maximum
+     * rate, so it may be skipped for some uploads. Components that interpolate between frames can use it to
+     * update more than once per tick. Note that the lifetime of the {@link CurrentFrameView} provided to this
+     * method is limited to the call of this method. Attempting to retain and use a {@link CurrentFrameView} at a
+     * later point will cause a {@link IllegalFrameReferenceException} exception to be thrown.
+     * @param currentFrame      view of the texture's current frame
+     * @param predefinedFrames  persistent views of all predefined frames
+     * @param partialTick       fraction of the current tick that has passed, at least 0 and less than 1
+     * @since 4.5.0
+     */
+    default void onPartialTick(V currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames,
+                               float partialTick) {}
+
     /**
      * Responds to the close event of the associated texture. Note that the lifetime of the {@link CurrentFrameView}
      * provided to this method is limited to the call of this method. Attempting to retain and use a
@@ -17,9 +17,7 @@
 
 package io.github.moremcmeta.moremcmeta.impl.adt;
 
-import java.util.BitSet;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Stream;
 
 /**
  * <p>Stores integers in a two-dimensional matrix. At each position, an integer may or may not be set.
@@ -34,20 +32,26 @@ import java.util.stream.Stream;
  * because 2^3 = 8. The maximum sector power is configurable, but a smaller power may be used if the
  * maximum power is unnecessarily large or too large to work correctly with the provided dimensions.</p>
  *
+ * <p>Nothing besides the matrix itself is allocated until the first integer is set, since many matrices
+ * are never written to. After that, which positions are set is tracked with bits in one flat array for
+ * all sectors, and sectors share a small, fixed number of locks.</p>
+ *
  * <p>Supports concurrent access and modification.</p>
  * @author soir20
  */
 public final class SparseIntMatrix {
-    private final BitSet[] IS_PRESENT;
-    private final ReentrantReadWriteLock[] LOCKS;
+    private static final int LOCK_STRIPES = 16;
+    private static final int BITS_PER_WORD_POWER = 6;
     private final int WIDTH;
     private final int HEIGHT;
-    private final int[][] MATRIX;
     private final int SECTOR_POWER;
     private final int SECTORS_PER_ROW;
+    private final int SECTORS;
     private final int POINTS_PER_SECTOR_ROW;
     private final int SECTOR_SIZE;
     private final int SECTOR_COORD_MASK;
+    private final int WORDS_PER_SECTOR;
+    private volatile Storage storage;
 
     /**
      * Creates a new sparse integer matrix.
@@ -83,17 +87,13 @@ public final class SparseIntMatrix {
 
         SECTORS_PER_ROW = shiftRightRoundUp(WIDTH, SECTOR_POWER);
         int rows = shiftRightRoundUp(HEIGHT, SECTOR_POWER);
+        SECTORS = SECTORS_PER_ROW * rows;
         POINTS_PER_SECTOR_ROW = 1 << SECTOR_POWER;
         SECTOR_COORD_MASK = POINTS_PER_SECTOR_ROW - 1;
         SECTOR_SIZE = POINTS_PER_SECTOR_ROW * POINTS_PER_SECTOR_ROW;
 
-        MATRIX = new int[SECTORS_PER_ROW * rows][];
-        IS_PRESENT = Stream.generate(() -> new BitSet(SECTOR_SIZE))
-                .limit((long) SECTORS_PER_ROW * rows)
-                .toArray(BitSet[]::new);
-        LOCKS = Stream.generate(ReentrantReadWriteLock::new)
-                .limit((long) SECTORS_PER_ROW * rows)
-                .toArray(ReentrantReadWriteLock[]::new);
+        // Sectors smaller than a word still get a whole word so that no two sectors share one
+        WORDS_PER_SECTOR = Math.max(1, SECTOR_SIZE >> BITS_PER_WORD_POWER);
     }
 
     /**
@@ -108,17 +108,23 @@ public final class SparseIntMatrix {
         int sectorIndex = sectorIndex(x, y);
         int indexInSector = indexInSector(x, y);
 
-        ReentrantReadWriteLock.ReadLock lock = LOCKS[sectorIndex].readLock();
-        lock.lock();
-
-        if (!IS_PRESENT[sectorIndex].get(indexInSector)) {
+        Storage current = storage;
+        if (current == null) {
             throw new IllegalStateException(String.format("Point (%s, %s) has not been set", x, y));
         }
 
-        int value = MATRIX[sectorIndex][indexInSector];
-        lock.unlock();
+        ReentrantReadWriteLock.ReadLock lock = current.lock(sectorIndex).readLock();
+        lock.lock();
+
+        try {
+            if (!current.isPresent(wordIndex(sectorIndex, indexInSector), indexInSector)) {
+                throw new IllegalStateException(String.format("Point (%s, %s) has not been set", x, y));
+            }
 
-        return value;
+            return current.SECTORS[sectorIndex][indexInSector];
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -132,13 +138,19 @@ public final class SparseIntMatrix {
         int sectorIndex = sectorIndex(x, y);
         int indexInSector = indexInSector(x, y);
 
-        ReentrantReadWriteLock.ReadLock lock = LOCKS[sectorIndex].readLock();
+        Storage current = storage;
+        if (current == null) {
+            return false;
+        }
 
+        ReentrantReadWriteLock.ReadLock lock = current.lock(sectorIndex).readLock();
         lock.lock();
-        boolean isSet = IS_PRESENT[sectorIndex].get(indexInSector);
-        lock.unlock();
 
-        return isSet;
+        try {
+            return current.isPresent(wordIndex(sectorIndex, indexInSector), indexInSector);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -154,16 +166,160 @@ public final class SparseIntMatrix {
         int sectorIndex = sectorIndex(x, y);
         int indexInSector = indexInSector(x, y);
 
-        ReentrantReadWriteLock.WriteLock lock = LOCKS[sectorIndex].writeLock();
+        Storage current = storage();
+        ReentrantReadWriteLock.WriteLock lock = current.lock(sectorIndex).writeLock();
         lock.lock();
 
-        if (MATRIX[sectorIndex] == null) {
-            MATRIX[sectorIndex] = new int[SECTOR_SIZE];
+        try {
+            if (current.SECTORS[sectorIndex] == null) {
+                current.SECTORS[sectorIndex] = new int[SECTOR_SIZE];
+            }
+
+            current.SECTORS[sectorIndex][indexInSector] = value;
+            current.PRESENT[wordIndex(sectorIndex, indexInSector)] |= 1L << indexInSector;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        MATRIX[sectorIndex][indexInSector] = value;
-        IS_PRESENT[sectorIndex].set(indexInSector);
-        lock.unlock();
+    /**
+     * Sets the integers in a horizontal run starting at the given coordinates. Each sector that
+     * the run passes through is locked and copied into once.
+     * @param x         horizontal coordinate of the first integer in the run
+     * @param y         vertical coordinate of the integers in the run
+     * @param values    array with the values to put in the run
+     * @param offset    index in the array of the first value
+     * @param length    number of integers in the run
+     */
+    public void setRow(int x, int y, int[] values, int offset, int length) {
+        setRow(x, y, values, offset, length, false);
+    }
+
+    /**
+     * Sets the integers in a horizontal run starting at the given coordinates, except for those
+     * that have already been set.
+     * @param x         horizontal coordinate of the first integer in the run
+     * @param y         vertical coordinate of the integers in the run
+     * @param values    array with the values to put in the run
+     * @param offset    index in the array of the first value
+     * @param length    number of integers in the run
+     */
+    public void setRowIfUnset(int x, int y, int[] values, int offset, int length) {
+        setRow(x, y, values, offset, length, true);
+    }
+
+    /**
+     * Unsets all integers and releases all allocated sectors. Should not be called while other
+     * threads are accessing or modifying the matrix.
+     */
+    public void clear() {
+        storage = null;
+    }
+
+    /**
+     * Gets the number of sectors that have been allocated because an integer inside them was set.
+     * @return number of allocated sectors
+     */
+    public int allocatedSectors() {
+        Storage current = storage;
+        if (current == null) {
+            return 0;
+        }
+
+        int allocated = 0;
+        for (int sectorIndex = 0; sectorIndex < SECTORS; sectorIndex++) {
+            ReentrantReadWriteLock.ReadLock lock = current.lock(sectorIndex).readLock();
+            lock.lock();
+
+            try {
+                if (current.SECTORS[sectorIndex] != null) {
+                    allocated++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return allocated;
+    }
+
+    /**
+     * Sets the integers in a horizontal run, one sector at a time.
+     * @param x             horizontal coordinate of the first integer in the run
+     * @param y             vertical coordinate of the integers in the run
+     * @param values        array with the values to put in the run
+     * @param offset        index in the array of the first value
+     * @param length        number of integers in the run
+     * @param onlyUnset     whether integers that have already been set should be kept
+     */
+    private void setRow(int x, int y, int[] values, int offset, int length, boolean onlyUnset) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative: " + length);
+        }
+
+        if (length == 0) {
+            return;
+        }
+
+        checkInBounds(x, y);
+        checkInBounds(x + length - 1, y);
+
+        Storage current = storage();
+        int written = 0;
+        while (written < length) {
+            int pointX = x + written;
+            int sectorIndex = sectorIndex(pointX, y);
+            int firstIndexInSector = indexInSector(pointX, y);
+            int runInSector = Math.min(length - written, POINTS_PER_SECTOR_ROW - (pointX & SECTOR_COORD_MASK));
+
+            ReentrantReadWriteLock.WriteLock lock = current.lock(sectorIndex).writeLock();
+            lock.lock();
+
+            try {
+                if (current.SECTORS[sectorIndex] == null) {
+                    current.SECTORS[sectorIndex] = new int[SECTOR_SIZE];
+                }
+
+                int[] sector = current.SECTORS[sectorIndex];
+                if (!onlyUnset) {
+                    System.arraycopy(values, offset + written, sector, firstIndexInSector, runInSector);
+                }
+
+                for (int index = 0; index < runInSector; index++) {
+                    int indexInSector = firstIndexInSector + index;
+                    int wordIndex = wordIndex(sectorIndex, indexInSector);
+
+                    if (onlyUnset && !current.isPresent(wordIndex, indexInSector)) {
+                        sector[indexInSector] = values[offset + written + index];
+                    }
+
+                    current.PRESENT[wordIndex] |= 1L << indexInSector;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            written += runInSector;
+        }
+    }
+
+    /**
+     * Gets the storage for the matrix, creating it if no integer has been set yet.
+     * @return the storage for the matrix
+     */
+    private Storage storage() {
+        Storage current = storage;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (storage == null) {
+                storage = new Storage(SECTORS, WORDS_PER_SECTOR);
+            }
+
+            return storage;
+        }
     }
 
     /**
@@ -201,6 +357,16 @@ public final class SparseIntMatrix {
         return vCoord * POINTS_PER_SECTOR_ROW + hCoord;
     }
 
+    /**
+     * Computes the index of the word that holds the presence bit of a point.
+     * @param sectorIndex       index of the sector containing the point
+     * @param indexInSector     index of the point inside the sector
+     * @return index of the word in the presence bits
+     */
+    private int wordIndex(int sectorIndex, int indexInSector) {
+        return sectorIndex * WORDS_PER_SECTOR + (indexInSector >> BITS_PER_WORD_POWER);
+    }
+
     /**
      * Computes the largest power of 2 less than or equal to the given number, assuming
      * that the given number is positive.
@@ -240,4 +406,48 @@ public final class SparseIntMatrix {
         return Math.min(one, Math.min(two, three));
     }
 
+    /**
+     * Holds the sectors of a matrix that has been written to, along with which points are set
+     * and the locks that guard them. Each sector is always guarded by the same lock.
+     * @author soir20
+     */
+    private static final class Storage {
+        private final int[][] SECTORS;
+        private final long[] PRESENT;
+        private final ReentrantReadWriteLock[] LOCKS;
+
+        /**
+         * Creates new storage without any points set.
+         * @param sectors           number of sectors in the matrix
+         * @param wordsPerSector    number of words of presence bits for each sector
+         */
+        public Storage(int sectors, int wordsPerSector) {
+            SECTORS = new int[sectors][];
+            PRESENT = new long[sectors * wordsPerSector];
+            LOCKS = new ReentrantReadWriteLock[Math.min(sectors, LOCK_STRIPES)];
+            for (int index = 0; index < LOCKS.length; index++) {
+                LOCKS[index] = new ReentrantReadWriteLock();
+            }
+        }
+
+        /**
+         * Gets the lock that guards a sector.
+         * @param sectorIndex       index of the sector
+         * @return the lock for the sector
+         */
+        public ReentrantReadWriteLock lock(int sectorIndex) {
+            return LOCKS[sectorIndex % LOCKS.length];
+        }
+
+        /**
+         * Checks if the presence bit of a point is set. The caller must hold the sector's lock.
+         * @param wordIndex         index of the word that holds the point's bit
+         * @param indexInSector     index of the point inside its sector
+         * @return true if the point is set or otherwise false
+         */
+        public boolean isPresent(int wordIndex, int indexInSector) {
+            return (PRESENT[wordIndex] & (1L << indexInSector)) != 0;
+        }
+    }
+
 }
@@ -17,10 +17,8 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 import com.mojang.blaze3d.platform.NativeImage;
 import com.mojang.datafixers.util.Pair;
 import io.github.moremcmeta.moremcmeta.api.client.ClientPlugin;
@@ -31,10 +29,12 @@ import io.github.moremcmeta.moremcmeta.api.client.MoreMcmetaTexturePlugin;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataRegistry;
 import io.github.moremcmeta.moremcmeta.impl.client.adapter.AtlasAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.GlFrameStrip;
 import io.github.moremcmeta.moremcmeta.impl.client.adapter.NativeImageAdapter;
 import io.github.moremcmeta.moremcmeta.impl.client.adapter.PackResourcesAdapter;
 import io.github.moremcmeta.moremcmeta.impl.client.adapter.RootResourcesAdapter;
 import io.github.moremcmeta.moremcmeta.impl.client.adapter.TextureManagerAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.io.BinaryMetadataParserPlugin;
 import io.github.moremcmeta.moremcmeta.impl.client.io.TextureData;
 import io.github.moremcmeta.moremcmeta.impl.client.io.TextureDataAssembler;
 import io.github.moremcmeta.moremcmeta.impl.client.io.TextureDataReader;
@@ -42,19 +42,26 @@ import io.github.moremcmeta.moremcmeta.impl.client.mixin.TextureManagerAccessor;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.MetadataRegistryImpl;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.ModRepositorySource;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.OrderedResourceRepository;
+import io.github.moremcmeta.moremcmeta.impl.client.resource.ReloadStatistics;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.ResourceCollection;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.SpriteFrameSizeFixPack;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.StagedResourceReloadListener;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.TextureCache;
 import io.github.moremcmeta.moremcmeta.impl.client.resource.TextureLoader;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.BaseCollection;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.DependencyGraph;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.EventDrivenTexture;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.GeneratedFrameCache;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.NativeMemoryTracker;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.SpriteFinder;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.TextureInstrumentation;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.TextureManagerWrapper;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.TexturePreparer;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.TimeStepping;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.UploadComponent;
 import net.minecraft.MethodsReturnNonnullByDefault;
 import net.minecraft.SharedConstants;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screens.LoadingOverlay;
 import net.minecraft.client.gui.screens.Overlay;
@@ -75,6 +82,7 @@ import net.minecraft.util.profiling.ProfilerFiller;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -90,6 +98,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -118,24 +127,66 @@ public abstract class MoreMcmeta {
      */
     public static final MetadataRegistryImpl METADATA_REGISTRY = new MetadataRegistryImpl();
 
-    private static ImmutableMap<ResourceLocation, ImmutableSet<ResourceLocation>> dependencies = ImmutableMap.of();
+    private static final int INSTRUMENTATION_REPORT_LIMIT = 50;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    // Texture ticks are only limited when a budget is set, since skipped ticks are caught up later in one burst
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(Math.max(
+            TextureManagerWrapper.NO_BUDGET,
+            Long.getLong("moremcmeta.tickBudgetMicros", TextureManagerWrapper.NO_BUDGET)
+    ));
+
+    // Textures only update between ticks when a maximum rate is set, since each update costs CPU time
+    private static final int PARTIAL_TICK_RATE = Integer.getInteger("moremcmeta.partialTickRate", 0);
+    @Nullable
+    private static final TimeStepping TIME_STEPPING = PARTIAL_TICK_RATE > 0 ? new TimeStepping(PARTIAL_TICK_RATE)
+            : null;
+
+    // Generated colors are only cached when a size is set, since the cache holds memory for the whole session
+    private static final long FRAME_CACHE_BYTES = Math.max(0, Long.getLong("moremcmeta.frameCacheMegabytes", 0))
+            * (long) BYTES_PER_MEGABYTE;
+    @Nullable
+    private static final GeneratedFrameCache FRAME_CACHE = FRAME_CACHE_BYTES > 0
+            ? new GeneratedFrameCache(FRAME_CACHE_BYTES) : null;
+
+    // Predefined frames are only kept on the GPU when enabled, since each strip holds video memory for every frame
+    private static final boolean GPU_FRAME_STRIPS = Boolean.getBoolean("moremcmeta.gpuFrameStrips");
+    private static final NativeMemoryTracker NATIVE_MEMORY = new NativeMemoryTracker(LogManager.getLogger());
+    private static volatile DependencyGraph dependencies = DependencyGraph.EMPTY;
+    private static volatile Map<ResourceLocation, TextureInstrumentation> instrumentation = ImmutableMap.of();
 
     private final Set<String> DEFAULT_PLUGINS = Set.of(
             "moremcmeta_texture_plugin",
             "moremcmeta_animation_plugin",
             "moremcmeta_gui_plugin",
             "moremcmeta_properties_parser_plugin",
-            "moremcmeta_moremcmeta_parser_plugin"
+            "moremcmeta_moremcmeta_parser_plugin",
+            BinaryMetadataParserPlugin.ID
     );
 
     /**
-     * Gets all textures that have the given texture as a base.
-     * @param baseName      full path of the base texture
-     * @return all textures that have the given texture as a base
+     * Gets the graph of all textures that upload to each base.
+     * @return the graph of textures by base
      */
-    public static Set<ResourceLocation> dependencies(ResourceLocation baseName) {
-        requireNonNull(baseName, "Base name cannot be null");
-        return dependencies.getOrDefault(baseName, ImmutableSet.of());
+    public static DependencyGraph dependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Gets the instrumentation of all textures currently registered. Textures are only
+     * instrumented when {@link TextureInstrumentation#ENABLED} is true.
+     * @return instrumentation by texture location, or an empty map if instrumentation is disabled
+     */
+    public static Map<ResourceLocation, TextureInstrumentation> instrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Gets the tracker for the memory held by images of all textures this mod assembles.
+     * @return the native memory tracker
+     */
+    public static NativeMemoryTracker nativeMemory() {
+        return NATIVE_MEMORY;
     }
 
     /**
@@ -167,7 +218,9 @@ public abstract class MoreMcmeta {
         );
         checkItemConflict(texturePlugins, MoreMcmetaTexturePlugin::sectionName, "section name");
 
-        Collection<MoreMcmetaMetadataParserPlugin> parserPlugins = plugins.getSecond();
+        // The binary format is built in, so packs can always ship precompiled metadata
+        Collection<MoreMcmetaMetadataParserPlugin> parserPlugins = new ArrayList<>(plugins.getSecond());
+        parserPlugins.add(new BinaryMetadataParserPlugin());
         validateIndividualParserPlugins(parserPlugins);
         parserPlugins = removeOverriddenPlugins(
                 parserPlugins,
@@ -185,18 +238,26 @@ public abstract class MoreMcmeta {
         // Texture manager
         TextureManagerWrapper<EventDrivenTexture> manager =
                 new TextureManagerWrapper<>(
-                        new TextureManagerAdapter(minecraft::getTextureManager, unregisterAction())
+                        new TextureManagerAdapter(minecraft::getTextureManager, unregisterAction()),
+                        TICK_BUDGET_NANOS
                 );
 
         // Resource loaders
+        ReloadStatistics statistics = new ReloadStatistics();
         TextureDataReader<NativeImageAdapter> reader = new TextureDataReader<>(
                 texturePlugins,
                 (stream) -> new NativeImageAdapter(NativeImage.read(stream), 0, false, false),
-                (image, blur, clamp) -> new NativeImageAdapter(image.image(), image.mipmapLevel(), blur, clamp)
+                (image, blur, clamp) -> new NativeImageAdapter(image.image(), image.mipmapLevel(), blur, clamp),
+                Util.backgroundExecutor(),
+                statistics
         );
         TextureLoader<TextureData<NativeImageAdapter>> loader = new TextureLoader<>(
                 reader,
                 parsersByExtension(parserPlugins),
+                texturePlugins.stream()
+                        .map(MoreMcmetaTexturePlugin::sectionName)
+                        .collect(ImmutableSet.toImmutableSet()),
+                statistics,
                 logger
         );
 
@@ -260,6 +321,7 @@ public abstract class MoreMcmeta {
                     preparer(),
                     cache,
                     packIdGetter,
+                    statistics,
                     logger
             )));
             logger.debug("Added texture reload listener");
@@ -611,18 +673,22 @@ public abstract class MoreMcmeta {
      * @param manager           texture manager with unfinished work
      * @param preparer          prepares textures for OpenGL
      * @param textures          most recent textures that have been loaded
+     * @param statistics        records the stages of the reload
      * @param logger            logger to report warnings or errors
      */
     private void addCompletedReloadCallback(TextureManagerWrapper<EventDrivenTexture> manager,
                                             TexturePreparer preparer,
                                             Map<ResourceLocation, EventDrivenTexture.Builder> textures,
+                                            ReloadStatistics statistics,
                                             Logger logger) {
         Optional<LoadingOverlay> overlay = loadingOverlay(logger);
         if (overlay.isEmpty()) {
+            logReloadStatistics(statistics, logger);
             return;
         }
 
-        Map<ResourceLocation, ImmutableSet.Builder<ResourceLocation>> dependencies = new HashMap<>();
+        DependencyGraph.Builder dependencies = new DependencyGraph.Builder();
+        ImmutableMap.Builder<ResourceLocation, TextureInstrumentation> instrumentation = new ImmutableMap.Builder<>();
 
         Optional<ReloadInstance> reloadInstance = reloadInstance(overlay.get(), logger);
         reloadInstance.ifPresent((instance) -> instance.done().thenRun(() -> {
@@ -635,28 +701,82 @@ public abstract class MoreMcmeta {
                             .collect(Collectors.toSet())
             );
 
+            // The reload finishes on the render thread, so the game's profiler can be used here
+            ProfilerFiller profiler = Minecraft.getInstance().getProfiler();
+            profiler.push("moremcmeta");
+            profiler.push("register_textures");
+
             textures.forEach((location, builder) -> {
+                long discoveryStart = System.nanoTime();
                 BaseCollection allBases = BaseCollection.find(spriteFinder, location);
+                statistics.recordSince(ReloadStatistics.Stage.SPRITE_DISCOVERY, 1, discoveryStart);
 
-                allBases.baseNames().forEach((base) ->
-                        dependencies.computeIfAbsent(base, (loc) -> new ImmutableSet.Builder<>())
-                                .add(location)
-                );
-
+                long registrationStart = System.nanoTime();
                 UploadComponent uploadComponent = new UploadComponent(
                         preparer,
                         allBases
                 );
                 builder.add(uploadComponent);
-                manager.register(location, builder.build());
-
+                if (TIME_STEPPING != null) {
+                    builder.setTimeStepping(TIME_STEPPING);
+                }
+                if (FRAME_CACHE != null) {
+                    builder.setFrameCache(FRAME_CACHE);
+                }
+                if (GPU_FRAME_STRIPS) {
+                    builder.setFrameStrips(GlFrameStrip::create);
+                }
+
+                EventDrivenTexture texture = builder.build();
+                manager.register(location, texture);
+                statistics.recordSince(ReloadStatistics.Stage.REGISTRATION, 1, registrationStart);
+
+                allBases.baseNames().forEach((base) -> dependencies.add(base, texture));
+                texture.instrumentation().ifPresent((measurements) -> instrumentation.put(location, measurements));
             });
 
-            MoreMcmeta.dependencies = ImmutableMap.copyOf(Maps.transformValues(dependencies, ImmutableSet.Builder::build));
+            statistics.addTo(
+                    profiler,
+                    ReloadStatistics.Stage.SPRITE_DISCOVERY,
+                    ReloadStatistics.Stage.REGISTRATION
+            );
+            profiler.pop();
+            profiler.pop();
+
+            MoreMcmeta.dependencies = dependencies.build();
+            MoreMcmeta.instrumentation = instrumentation.build();
             AtlasAdapter.clearNameMappings();
+            logReloadStatistics(statistics, logger);
         }));
     }
 
+    /**
+     * Logs the items processed in each stage of the reload that just finished and clears
+     * the statistics for the next reload.
+     * @param statistics        records the stages of the reload
+     * @param logger            logger to write the statistics to
+     */
+    private static void logReloadStatistics(ReloadStatistics statistics, Logger logger) {
+        List<String> lines = statistics.describe();
+        if (!lines.isEmpty()) {
+            logger.info("Finished texture reload:");
+            lines.forEach((line) -> logger.info("    {}", line));
+            logger.info("    image memory: {} MB live, {} MB peak, {} images closed late",
+                    String.format("%.2f", NATIVE_MEMORY.liveBytes() / BYTES_PER_MEGABYTE),
+                    String.format("%.2f", NATIVE_MEMORY.peakBytes() / BYTES_PER_MEGABYTE),
+                    NATIVE_MEMORY.lateCloses());
+            if (FRAME_CACHE != null) {
+                logger.info("    frame cache: {} MB, {} hits, {} misses, {} evictions",
+                        String.format("%.2f", FRAME_CACHE.bytes() / BYTES_PER_MEGABYTE),
+                        FRAME_CACHE.hits(),
+                        FRAME_CACHE.misses(),
+                        FRAME_CACHE.evictions());
+            }
+        }
+
+        statistics.reset();
+    }
+
     /**
      * Loads and queues textures controlled by this mod on resource reloading. Clears out old textures that
      * no longer have metadata for this mod.
@@ -670,6 +790,7 @@ public abstract class MoreMcmeta {
         private final TexturePreparer PREPARER;
         private final TextureCache<TextureData<NativeImageAdapter>, List<String>> CACHE;
         private final Supplier<List<String>> PACK_ID_GETTER;
+        private final ReloadStatistics STATISTICS;
         private final Logger LOGGER;
 
         /**
@@ -678,6 +799,7 @@ public abstract class MoreMcmeta {
          * @param preparer              prepares textures for OpenGL
          * @param cache                 cache for texture data that should be loaded
          * @param packIdGetter          gets the IDs of the currently-selected packs
+         * @param statistics            records the stages of each reload
          * @param logger                a logger to write output
          */
         public TextureResourceReloadListener(
@@ -685,6 +807,7 @@ public abstract class MoreMcmeta {
                 TexturePreparer preparer,
                 TextureCache<TextureData<NativeImageAdapter>, List<String>> cache,
                 Supplier<List<String>> packIdGetter,
+                ReloadStatistics statistics,
                 Logger logger
         ) {
             LAST_TEXTURES_ADDED = new HashMap<>();
@@ -692,6 +815,7 @@ public abstract class MoreMcmeta {
             PREPARER = requireNonNull(preparer, "Preparer cannot be null");
             CACHE = requireNonNull(cache, "Cache cannot be null");
             PACK_ID_GETTER = requireNonNull(packIdGetter, "Pack ID getter cannot be null");
+            STATISTICS = requireNonNull(statistics, "Statistics cannot be null");
             LOGGER = requireNonNull(logger, "Logger cannot be null");
         }
 
@@ -733,14 +857,44 @@ public abstract class MoreMcmeta {
                         }
 
                         return wrappedMipmaps;
-                    }
+                    },
+                    NATIVE_MEMORY
             );
 
-            return CompletableFuture.supplyAsync(() -> CACHE.get(PACK_ID_GETTER.get()).entrySet()
-                    .stream().parallel()
-                    .collect(
-                            Collectors.toMap(Map.Entry::getKey, (entry) -> assembler.assemble(entry.getValue()))
-                    ), loadExecutor);
+            return CompletableFuture.supplyAsync(() -> {
+                loadProfiler.startTick();
+                loadProfiler.push("moremcmeta");
+                NATIVE_MEMORY.resetPeak();
+
+                /* The cache is filled when the resource pack is opened, before this listener runs,
+                   so those stages are added with their counts after they finish. */
+                loadProfiler.push("cache");
+                Map<ResourceLocation, TextureData<NativeImageAdapter>> cachedTextures = CACHE.get(PACK_ID_GETTER.get());
+                STATISTICS.addTo(
+                        loadProfiler,
+                        ReloadStatistics.Stage.PACK_LISTING,
+                        ReloadStatistics.Stage.ROOT_METADATA_PARSE,
+                        ReloadStatistics.Stage.METADATA_PARSE,
+                        ReloadStatistics.Stage.TEXTURE_DECODE,
+                        ReloadStatistics.Stage.ANALYSIS
+                );
+
+                loadProfiler.popPush(ReloadStatistics.Stage.ASSEMBLY.profilerName());
+                Map<ResourceLocation, EventDrivenTexture.Builder> builders = cachedTextures.entrySet()
+                        .stream().parallel()
+                        .collect(Collectors.toMap(Map.Entry::getKey, (entry) -> {
+                            long assemblyStart = System.nanoTime();
+                            EventDrivenTexture.Builder builder = assembler.assemble(entry.getKey(), entry.getValue());
+                            STATISTICS.recordSince(ReloadStatistics.Stage.ASSEMBLY, 1, assemblyStart);
+                            return builder;
+                        }));
+                STATISTICS.addCountersTo(loadProfiler, ReloadStatistics.Stage.ASSEMBLY);
+
+                loadProfiler.pop();
+                loadProfiler.pop();
+                loadProfiler.endTick();
+                return builders;
+            }, loadExecutor);
         }
 
         /**
@@ -760,14 +914,27 @@ public abstract class MoreMcmeta {
             requireNonNull(applyProfiler, "Profiler cannot be null");
             requireNonNull(applyExecutor, "Executor cannot be null");
 
-            addCompletedReloadCallback(TEX_MANAGER, PREPARER, LAST_TEXTURES_ADDED, LOGGER);
+            addCompletedReloadCallback(TEX_MANAGER, PREPARER, LAST_TEXTURES_ADDED, STATISTICS, LOGGER);
 
             return CompletableFuture.runAsync(() -> {
-                OrderedResourceRepository repository = makeResourceRepository(Minecraft.getInstance().getResourcePackRepository());
-
-                // Clear the cache to avoid using closed resources if there is a reload with the same packs
-                CACHE.load(repository, ImmutableList.of());
-
+                applyProfiler.startTick();
+                applyProfiler.push("moremcmeta");
+
+                /* Clear the cache to avoid using closed resources if there is a reload with the same packs.
+                   Clearing does not load anything, so it does not add to this reload's statistics. */
+                applyProfiler.push("clear_cache");
+                CACHE.clear();
+                applyProfiler.popPush("unregister");
+
+                // Report on the old textures before they are closed
+                if (TextureInstrumentation.ENABLED) {
+                    TextureInstrumentation.report(MoreMcmeta.instrumentation, INSTRUMENTATION_REPORT_LIMIT)
+                            .forEach(LOGGER::info);
+                    MoreMcmeta.instrumentation = ImmutableMap.of();
+                }
+
+                // The graph holds the old textures directly, so it must not outlive them
+                MoreMcmeta.dependencies = DependencyGraph.EMPTY;
                 LAST_TEXTURES_ADDED.keySet().forEach(TEX_MANAGER::unregister);
                 LAST_TEXTURES_ADDED.clear();
                 LAST_TEXTURES_ADDED.putAll(data.entrySet().stream().collect(Collectors.toMap(
@@ -781,6 +948,9 @@ public abstract class MoreMcmeta {
                    registration CompletableFuture inside PreloadedTexture's reset method. */
                 LAST_TEXTURES_ADDED.keySet().forEach(TEX_MANAGER::unregister);
 
+                applyProfiler.pop();
+                applyProfiler.pop();
+                applyProfiler.endTick();
             }, applyExecutor);
         }
 
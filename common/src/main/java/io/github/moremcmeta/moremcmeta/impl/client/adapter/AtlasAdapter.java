@@ -19,7 +19,6 @@ package io.github.moremcmeta.moremcmeta.impl.client.adapter;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 import io.github.moremcmeta.moremcmeta.api.client.texture.SpriteName;
 import io.github.moremcmeta.moremcmeta.api.math.Point;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.Atlas;
@@ -31,13 +30,11 @@ import net.minecraft.client.renderer.texture.TextureAtlas;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.resources.ResourceLocation;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -49,43 +46,31 @@ import static java.util.Objects.requireNonNull;
  * @author soir20
  */
 public final class AtlasAdapter implements Atlas {
-    private static final Map<ResourceLocation, Map<ResourceLocation, Set<ResourceLocation>>> SPRITE_NAME_MAPPINGS = new ConcurrentHashMap<>();
+    private static volatile ImmutableMap<ResourceLocation, SpriteNameMappings> spriteNameMappings = ImmutableMap.of();
     private final ResourceLocation ATLAS_LOCATION;
     private final TextureAtlas ATLAS;
     private final ToIntFunction<TextureAtlasSprite> MIPMAP_LEVEL_GETTER;
 
     /**
-     * Adds a name mapping from the full path of a source texture to a sprite ID.
+     * Replaces the sprite name mappings for an atlas. Readers see either the old or the new
+     * mappings for the atlas, never a partially-built set.
      * @param atlas         full path of the atlas
-     * @param fullPath      full path of the source texture
-     * @param spriteName    ID of the sprite
+     * @param mappings      all name mappings for the atlas
      */
-    public static void addNameMapping(ResourceLocation atlas, ResourceLocation fullPath, ResourceLocation spriteName) {
+    public static synchronized void setNameMappings(ResourceLocation atlas, SpriteNameMappings mappings) {
         requireNonNull(atlas, "Atlas location cannot be null");
-        requireNonNull(fullPath, "Full path cannot be null");
-        requireNonNull(spriteName, "Sprite name cannot be null");
-        SPRITE_NAME_MAPPINGS.computeIfAbsent(atlas, (key) -> new ConcurrentHashMap<>())
-                .computeIfAbsent(fullPath, (key) -> Collections.newSetFromMap(new ConcurrentHashMap<>()))
-                .add(spriteName);
-    }
+        requireNonNull(mappings, "Mappings cannot be null");
 
-    /**
-     * Removes sprite IDs matching the given predicate.
-     * @param atlas         full path of the atlas
-     * @param filter        predicate that returns true if the sprite ID should be removed
-     */
-    public static void removeNameMappings(ResourceLocation atlas, Predicate<ResourceLocation> filter) {
-        requireNonNull(atlas, "Atlas location cannot be null");
-        requireNonNull(filter, "Filter cannot be null");
-        SPRITE_NAME_MAPPINGS.computeIfAbsent(atlas, (key) -> new ConcurrentHashMap<>())
-                .forEach((fullPath, spriteNames) -> spriteNames.removeIf(filter));
+        Map<ResourceLocation, SpriteNameMappings> newMappings = new HashMap<>(spriteNameMappings);
+        newMappings.put(atlas, mappings);
+        spriteNameMappings = ImmutableMap.copyOf(newMappings);
     }
 
     /**
      * Removes name mappings for all atlases.
      */
-    public static void clearNameMappings() {
-        SPRITE_NAME_MAPPINGS.clear();
+    public static synchronized void clearNameMappings() {
+        spriteNameMappings = ImmutableMap.of();
     }
 
     /**
@@ -116,8 +101,7 @@ public final class AtlasAdapter implements Atlas {
         }
 
         Set<ResourceLocation> names = new HashSet<>(
-                SPRITE_NAME_MAPPINGS.getOrDefault(ATLAS_LOCATION, ImmutableMap.of())
-                        .getOrDefault(location, ImmutableSet.of())
+                spriteNameMappings.getOrDefault(ATLAS_LOCATION, SpriteNameMappings.EMPTY).spriteNames(location)
         );
 
         // Add legacy sprite names to handle most sprites added by mods
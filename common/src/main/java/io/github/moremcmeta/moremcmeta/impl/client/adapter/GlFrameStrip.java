@@ -0,0 +1,249 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.adapter;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.platform.TextureUtil;
+import com.mojang.blaze3d.systems.RenderSystem;
+import io.github.moremcmeta.moremcmeta.api.client.texture.FrameIndexOutOfBoundsException;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.CloseableImageFrame;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.FrameStrip;
+import org.lwjgl.opengl.ARBCopyImage;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL43C;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>A {@link FrameStrip} stored in an OpenGL texture. Frames are laid out in rows from left to right,
+ * and frames are copied out of the strip with {@code glCopyImageSubData}.</p>
+ *
+ * <p>Minecraft only requires OpenGL 3.2, so strips are only created when the driver supports OpenGL 4.3
+ * or the {@code ARB_copy_image} extension. Strips are also not created when the frames do not fit in the
+ * largest texture the driver supports or when the frame size is not divisible by the size reduction of
+ * every mipmap level, since the frames would not line up in the smaller mipmaps.</p>
+ * @author soir20
+ */
+public final class GlFrameStrip implements FrameStrip {
+    private final int TEXTURE_ID;
+    private final int FRAMES;
+    private final int COLUMNS;
+    private final int FRAME_WIDTH;
+    private final int FRAME_HEIGHT;
+    private final int MIPMAP_LEVEL;
+    private final boolean USE_CORE_COPY;
+    private boolean closed;
+
+    /**
+     * Creates a strip by uploading all predefined frames of a texture once, if copying frames on
+     * the GPU is supported. Must be called on the render thread.
+     * @param frames        predefined frames of the texture
+     * @return the strip or empty if the frames cannot be copied on the GPU
+     */
+    public static Optional<FrameStrip> create(List<? extends CloseableImageFrame> frames) {
+        requireNonNull(frames, "Frames cannot be null");
+        RenderSystem.assertOnRenderThreadOrInit();
+
+        if (frames.isEmpty()) {
+            return Optional.empty();
+        }
+
+        GLCapabilities capabilities = GL.getCapabilities();
+        boolean useCoreCopy = capabilities.OpenGL43;
+        if (!useCoreCopy && !capabilities.GL_ARB_copy_image) {
+            return Optional.empty();
+        }
+
+        CloseableImageFrame firstFrame = frames.get(0);
+        int frameWidth = firstFrame.width();
+        int frameHeight = firstFrame.height();
+        int mipmapLevel = firstFrame.mipmapLevel();
+
+        int mipmapMask = (1 << mipmapLevel) - 1;
+        if ((frameWidth & mipmapMask) != 0 || (frameHeight & mipmapMask) != 0) {
+            return Optional.empty();
+        }
+
+        int maxSize = RenderSystem.maxSupportedTextureSize();
+        if (frameWidth > maxSize || frameHeight > maxSize) {
+            return Optional.empty();
+        }
+
+        int columns = Math.min(frames.size(), maxSize / frameWidth);
+        int rows = (frames.size() + columns - 1) / columns;
+        if ((long) rows * frameHeight > maxSize) {
+            return Optional.empty();
+        }
+
+        int previousTexture = GlStateManager._getInteger(GL11.GL_TEXTURE_BINDING_2D);
+        int textureId = TextureUtil.generateTextureId();
+        TextureUtil.prepareImage(textureId, mipmapLevel, columns * frameWidth, rows * frameHeight);
+
+        for (int index = 0; index < frames.size(); index++) {
+            frames.get(index).uploadAt(
+                    (index % columns) * frameWidth,
+                    (index / columns) * frameHeight,
+                    mipmapLevel,
+                    0,
+                    0,
+                    frameWidth,
+                    frameHeight
+            );
+        }
+
+        GlStateManager._bindTexture(previousTexture);
+
+        return Optional.of(new GlFrameStrip(textureId, frames.size(), columns, frameWidth, frameHeight,
+                mipmapLevel, useCoreCopy));
+    }
+
+    @Override
+    public void copy(int frameIndex, int x, int y, int mipmap, int subAreaX, int subAreaY, int subAreaWidth,
+                     int subAreaHeight) {
+        if (frameIndex < 0 || frameIndex >= FRAMES) {
+            throw new FrameIndexOutOfBoundsException(frameIndex);
+        }
+
+        if (x < 0 || y < 0) {
+            throw new IllegalArgumentException("Point coordinates must be greater than zero");
+        }
+
+        if (mipmap < 0 || mipmap > MIPMAP_LEVEL) {
+            throw new IllegalArgumentException("Provided mipmap level " + mipmap + " is not between 0 and strip "
+                    + "mipmap level " + MIPMAP_LEVEL);
+        }
+
+        if (subAreaX < 0 || subAreaY < 0 || subAreaWidth < 0 || subAreaHeight < 0
+                || subAreaX + subAreaWidth > FRAME_WIDTH || subAreaY + subAreaHeight > FRAME_HEIGHT) {
+            throw new IllegalArgumentException("Copied area extends beyond frame");
+        }
+
+        if (!RenderSystem.isOnRenderThreadOrInit()) {
+            RenderSystem.recordRenderCall(() -> copyImmediately(frameIndex, x, y, mipmap, subAreaX, subAreaY,
+                    subAreaWidth, subAreaHeight));
+        } else {
+            copyImmediately(frameIndex, x, y, mipmap, subAreaX, subAreaY, subAreaWidth, subAreaHeight);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!RenderSystem.isOnRenderThreadOrInit()) {
+            RenderSystem.recordRenderCall(this::closeImmediately);
+        } else {
+            closeImmediately();
+        }
+    }
+
+    /**
+     * Creates a new strip from a texture that already holds all the frames.
+     * @param textureId         ID of the OpenGL texture holding the frames
+     * @param frames            number of frames in the strip
+     * @param columns           number of frames in each row of the strip
+     * @param frameWidth        width of each frame
+     * @param frameHeight       height of each frame
+     * @param mipmapLevel       mipmap level of the strip
+     * @param useCoreCopy       whether to use the OpenGL 4.3 copy function instead of the extension
+     */
+    private GlFrameStrip(int textureId, int frames, int columns, int frameWidth, int frameHeight, int mipmapLevel,
+                         boolean useCoreCopy) {
+        TEXTURE_ID = textureId;
+        FRAMES = frames;
+        COLUMNS = columns;
+        FRAME_WIDTH = frameWidth;
+        FRAME_HEIGHT = frameHeight;
+        MIPMAP_LEVEL = mipmapLevel;
+        USE_CORE_COPY = useCoreCopy;
+    }
+
+    /**
+     * Copies part of a frame into the bound texture on the current thread.
+     * @param frameIndex    index of the predefined frame to copy
+     * @param x             x-coordinate of the point to copy the frame to
+     * @param y             y-coordinate of the point to copy the frame to
+     * @param mipmap        number of mipmaps to copy (the mipmap level of the base texture)
+     * @param subAreaX      x-coordinate of the top-left corner of the sub-area to copy
+     * @param subAreaY      y-coordinate of the top-left corner of the sub-area to copy
+     * @param subAreaWidth  width the sub-area to copy
+     * @param subAreaHeight height the sub-area to copy
+     */
+    private void copyImmediately(int frameIndex, int x, int y, int mipmap, int subAreaX, int subAreaY,
+                                 int subAreaWidth, int subAreaHeight) {
+        if (closed) {
+            throw new IllegalStateException("Frame strip is closed");
+        }
+
+        int destination = GlStateManager._getInteger(GL11.GL_TEXTURE_BINDING_2D);
+        int sourceX = (frameIndex % COLUMNS) * FRAME_WIDTH + subAreaX;
+        int sourceY = (frameIndex / COLUMNS) * FRAME_HEIGHT + subAreaY;
+
+        for (int level = 0; level <= mipmap; level++) {
+            int width = subAreaWidth >> level;
+            int height = subAreaHeight >> level;
+
+            if (width > 0 && height > 0) {
+                copyImage(level, sourceX >> level, sourceY >> level, destination, x >> level, y >> level,
+                        width, height);
+            }
+        }
+    }
+
+    /**
+     * Copies an area of one mipmap of the strip into another texture.
+     * @param level             mipmap level to copy
+     * @param sourceX           x-coordinate of the area in the strip
+     * @param sourceY           y-coordinate of the area in the strip
+     * @param destination       ID of the texture to copy to
+     * @param destinationX      x-coordinate to copy the area to
+     * @param destinationY      y-coordinate to copy the area to
+     * @param width             width of the area
+     * @param height            height of the area
+     */
+    private void copyImage(int level, int sourceX, int sourceY, int destination, int destinationX,
+                           int destinationY, int width, int height) {
+        if (USE_CORE_COPY) {
+            GL43C.glCopyImageSubData(
+                    TEXTURE_ID, GL11.GL_TEXTURE_2D, level, sourceX, sourceY, 0,
+                    destination, GL11.GL_TEXTURE_2D, level, destinationX, destinationY, 0,
+                    width, height, 1
+            );
+        } else {
+            ARBCopyImage.glCopyImageSubData(
+                    TEXTURE_ID, GL11.GL_TEXTURE_2D, level, sourceX, sourceY, 0,
+                    destination, GL11.GL_TEXTURE_2D, level, destinationX, destinationY, 0,
+                    width, height, 1
+            );
+        }
+    }
+
+    /**
+     * Releases the strip's texture on the current thread.
+     */
+    private void closeImmediately() {
+        if (!closed) {
+            closed = true;
+            TextureUtil.releaseTextureId(TEXTURE_ID);
+        }
+    }
+
+}
@@ -68,6 +68,24 @@ public final class NativeImageAdapter implements CloseableImage {
         IMAGE.setPixelRGBA(x + X_OFFSET, y + Y_OFFSET, color);
     }
 
+    @Override
+    public void colors(int x, int y, int[] colors, int offset, int length) {
+        checkOpen();
+        checkRunInBounds(x, y, length);
+        for (int index = 0; index < length; index++) {
+            colors[offset + index] = IMAGE.getPixelRGBA(x + index + X_OFFSET, y + Y_OFFSET);
+        }
+    }
+
+    @Override
+    public void setColors(int x, int y, int[] colors, int offset, int length) {
+        checkOpen();
+        checkRunInBounds(x, y, length);
+        for (int index = 0; index < length; index++) {
+            IMAGE.setPixelRGBA(x + index + X_OFFSET, y + Y_OFFSET, colors[offset + index]);
+        }
+    }
+
     @Override
     public int width() {
         checkOpen();
@@ -82,11 +100,22 @@ public final class NativeImageAdapter implements CloseableImage {
 
     @Override
     public void upload(int uploadX, int uploadY) {
+        upload(uploadX, uploadY, 0, 0, WIDTH, HEIGHT);
+    }
+
+    @Override
+    public void upload(int uploadX, int uploadY, int topLeftX, int topLeftY, int width, int height) {
         checkOpen();
+
+        if (topLeftX < 0 || topLeftY < 0 || width < 0 || height < 0
+                || topLeftX + width > WIDTH || topLeftY + height > HEIGHT) {
+            throw new IllegalArgumentException("Uploaded area extends beyond image");
+        }
+
         if (!RenderSystem.isOnRenderThreadOrInit()) {
-            RenderSystem.recordRenderCall(() -> uploadImmediately(uploadX, uploadY));
+            RenderSystem.recordRenderCall(() -> uploadImmediately(uploadX, uploadY, topLeftX, topLeftY, width, height));
         } else {
-            uploadImmediately(uploadX, uploadY);
+            uploadImmediately(uploadX, uploadY, topLeftX, topLeftY, width, height);
         }
 
     }
@@ -212,14 +241,18 @@ public final class NativeImageAdapter implements CloseableImage {
     }
 
     /**
-     * Uploads this image at the given coordinates immediately.
+     * Uploads a portion of this image at the given coordinates immediately.
      * @param uploadX       horizontal position to upload at
      * @param uploadY       vertical position to upload at
+     * @param topLeftX      x-coordinate of the top-left corner of the portion to upload
+     * @param topLeftY      y-coordinate of the top-left corner of the portion to upload
+     * @param width         width of the portion to upload
+     * @param height        height of the portion to upload
      */
-    private void uploadImmediately(int uploadX, int uploadY) {
+    private void uploadImmediately(int uploadX, int uploadY, int topLeftX, int topLeftY, int width, int height) {
         IMAGE.upload(
-                MIPMAP_LEVEL, uploadX, uploadY, X_OFFSET, Y_OFFSET,
-                WIDTH, HEIGHT, BLUR, CLAMP, MIPMAP_LEVEL > 0, AUTO_CLOSE
+                MIPMAP_LEVEL, uploadX, uploadY, topLeftX + X_OFFSET, topLeftY + Y_OFFSET,
+                width, height, BLUR, CLAMP, MIPMAP_LEVEL > 0, AUTO_CLOSE
         );
     }
 
@@ -244,4 +277,17 @@ public final class NativeImageAdapter implements CloseableImage {
         }
     }
 
+    /**
+     * Throws an {@link IllegalArgumentException} if any point in a horizontal run is outside the image bounds.
+     * @param x         x-coordinate of the leftmost point in the run
+     * @param y         y-coordinate of the points in the run
+     * @param length    number of points in the run
+     */
+    private void checkRunInBounds(int x, int y, int length) {
+        if (length > 0) {
+            checkInBounds(x, y);
+            checkInBounds(x + length - 1, y);
+        }
+    }
+
 }
@@ -0,0 +1,112 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.adapter;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable mappings from the full paths of source textures to the names of the sprites
+ * created from them in a single atlas.
+ * @author soir20
+ */
+public final class SpriteNameMappings {
+
+    /**
+     * Mappings without any sprites.
+     */
+    public static final SpriteNameMappings EMPTY = new Builder().build();
+
+    private final ImmutableMap<ResourceLocation, ImmutableSet<ResourceLocation>> SPRITE_NAMES;
+
+    /**
+     * Gets the names of all sprites created from a source texture.
+     * @param fullPath      full path of the source texture
+     * @return names of all sprites created from the texture
+     */
+    public Set<ResourceLocation> spriteNames(ResourceLocation fullPath) {
+        requireNonNull(fullPath, "Full path cannot be null");
+        return SPRITE_NAMES.getOrDefault(fullPath, ImmutableSet.of());
+    }
+
+    /**
+     * Creates new sprite name mappings.
+     * @param spriteNames       sprite names by full path of the source texture
+     */
+    private SpriteNameMappings(Map<ResourceLocation, Set<ResourceLocation>> spriteNames) {
+        ImmutableMap.Builder<ResourceLocation, ImmutableSet<ResourceLocation>> builder = new ImmutableMap.Builder<>();
+        spriteNames.forEach((fullPath, names) -> {
+            if (!names.isEmpty()) {
+                builder.put(fullPath, ImmutableSet.copyOf(names));
+            }
+        });
+        SPRITE_NAMES = builder.build();
+    }
+
+    /**
+     * Builds {@link SpriteNameMappings} for one atlas. Sprite sources should update the
+     * builder in the same order that the atlas runs them. Not thread-safe.
+     * @author soir20
+     */
+    public static final class Builder {
+        private final Map<ResourceLocation, Set<ResourceLocation>> SPRITE_NAMES = new LinkedHashMap<>();
+
+        /**
+         * Adds a mapping from the full path of a source texture to a sprite name.
+         * @param fullPath      full path of the source texture
+         * @param spriteName    name of the sprite
+         * @return this builder for chaining
+         */
+        public Builder add(ResourceLocation fullPath, ResourceLocation spriteName) {
+            requireNonNull(fullPath, "Full path cannot be null");
+            requireNonNull(spriteName, "Sprite name cannot be null");
+            SPRITE_NAMES.computeIfAbsent(fullPath, (key) -> new LinkedHashSet<>()).add(spriteName);
+            return this;
+        }
+
+        /**
+         * Removes all sprite names added so far that match the given predicate.
+         * @param filter        predicate that returns true if the sprite name should be removed
+         * @return this builder for chaining
+         */
+        public Builder removeIf(Predicate<ResourceLocation> filter) {
+            requireNonNull(filter, "Filter cannot be null");
+            SPRITE_NAMES.values().forEach((spriteNames) -> spriteNames.removeIf(filter));
+            return this;
+        }
+
+        /**
+         * Builds the mappings from those added so far.
+         * @return the sprite name mappings
+         */
+        public SpriteNameMappings build() {
+            return new SpriteNameMappings(SPRITE_NAMES);
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.io;
+
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.CompiledMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.ResourceRepository;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads metadata files in the {@link BinaryMetadataFormat}. Each file holds the metadata for the
+ * texture with the same path, minus the metadata extension.
+ * @author soir20
+ */
+public final class BinaryMetadataParser implements MetadataParser {
+    private static final String EXTENSION = "." + BinaryMetadataFormat.EXTENSION;
+
+    @Override
+    public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                         InputStream metadataStream,
+                                                                         ResourceRepository resourceRepository)
+            throws InvalidMetadataException {
+        requireNonNull(metadataLocation, "Metadata location cannot be null");
+        requireNonNull(metadataStream, "Metadata stream cannot be null");
+        requireNonNull(resourceRepository, "Resource repository cannot be null");
+
+        return ImmutableMap.of(toTextureLocation(metadataLocation), BinaryMetadataFormat.read(metadataStream));
+    }
+
+    @Override
+    public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                         InputStream metadataStream,
+                                                                         ResourceRepository resourceRepository,
+                                                                         Set<String> sectionNames)
+            throws InvalidMetadataException {
+        requireNonNull(metadataLocation, "Metadata location cannot be null");
+        requireNonNull(metadataStream, "Metadata stream cannot be null");
+        requireNonNull(resourceRepository, "Resource repository cannot be null");
+        requireNonNull(sectionNames, "Section names cannot be null");
+
+        return ImmutableMap.of(
+                toTextureLocation(metadataLocation),
+                BinaryMetadataFormat.read(metadataStream, sectionNames)
+        );
+    }
+
+    @Override
+    public MetadataView combine(ResourceLocation textureLocation,
+                                Map<? extends ResourceLocation, ? extends MetadataView> metadataByLocation) {
+        requireNonNull(textureLocation, "Texture location cannot be null");
+        requireNonNull(metadataByLocation, "Metadata cannot be null");
+        return CompiledMetadataView.combine(metadataByLocation.values());
+    }
+
+    /**
+     * Gets the location of the texture that a metadata file belongs to.
+     * @param metadataLocation      location of the metadata file
+     * @return location of the texture
+     * @throws InvalidMetadataException if the metadata file does not have the binary extension
+     */
+    private static ResourceLocation toTextureLocation(ResourceLocation metadataLocation)
+            throws InvalidMetadataException {
+        String metadataPath = metadataLocation.getPath();
+        if (!metadataPath.endsWith(EXTENSION)) {
+            throw new InvalidMetadataException("Binary metadata file does not end with " + EXTENSION + ": "
+                    + metadataLocation);
+        }
+
+        return new ResourceLocation(
+                metadataLocation.getNamespace(),
+                metadataPath.substring(0, metadataPath.length() - EXTENSION.length())
+        );
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.io;
+
+import io.github.moremcmeta.moremcmeta.api.client.MoreMcmetaMetadataParserPlugin;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
+
+/**
+ * Built-in plugin that reads metadata in the {@link BinaryMetadataFormat}. Like other default plugins,
+ * it is disabled if a user plugin uses the same extension.
+ * @author soir20
+ */
+public final class BinaryMetadataParserPlugin implements MoreMcmetaMetadataParserPlugin {
+
+    /**
+     * Unique ID of this plugin.
+     */
+    public static final String ID = "moremcmeta_binary_parser_plugin";
+
+    private static final MetadataParser PARSER = new BinaryMetadataParser();
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String extension() {
+        return BinaryMetadataFormat.EXTENSION;
+    }
+
+    @Override
+    public MetadataParser metadataParser() {
+        return PARSER;
+    }
+
+}
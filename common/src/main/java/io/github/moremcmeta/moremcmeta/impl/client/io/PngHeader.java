@@ -0,0 +1,123 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.io;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Size of a PNG image, read from the image header (IHDR) chunk alone. Reading the header does not
+ * decode any pixel data, so it is much cheaper than reading the whole image.
+ * @author soir20
+ */
+public final class PngHeader {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] HEADER_CHUNK_TYPE = {'I', 'H', 'D', 'R'};
+    private static final int HEADER_DATA_LENGTH = 13;
+    private static final int LENGTH_START = SIGNATURE.length;
+    private static final int TYPE_START = LENGTH_START + 4;
+    private static final int WIDTH_START = TYPE_START + HEADER_CHUNK_TYPE.length;
+    private static final int HEIGHT_START = WIDTH_START + 4;
+    private static final int MIN_BYTES = HEIGHT_START + 4;
+
+    private final int WIDTH;
+    private final int HEIGHT;
+
+    /**
+     * Reads the header of a PNG image. The header must be the first chunk in the image, as required
+     * by the PNG specification.
+     * @param imageBytes        bytes of the entire image or at least its beginning
+     * @return the header of the image or empty if the bytes do not start with a valid PNG header
+     */
+    public static Optional<PngHeader> read(byte[] imageBytes) {
+        requireNonNull(imageBytes, "Image bytes cannot be null");
+
+        if (imageBytes.length < MIN_BYTES || !startsWith(imageBytes, 0, SIGNATURE)
+                || readInt(imageBytes, LENGTH_START) != HEADER_DATA_LENGTH
+                || !startsWith(imageBytes, TYPE_START, HEADER_CHUNK_TYPE)) {
+            return Optional.empty();
+        }
+
+        // Dimensions are unsigned, but zero and values too large for a Java int are invalid
+        int width = readInt(imageBytes, WIDTH_START);
+        int height = readInt(imageBytes, HEIGHT_START);
+        if (width <= 0 || height <= 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new PngHeader(width, height));
+    }
+
+    /**
+     * Gets the width of the image.
+     * @return the width of the image
+     */
+    public int width() {
+        return WIDTH;
+    }
+
+    /**
+     * Gets the height of the image.
+     * @return the height of the image
+     */
+    public int height() {
+        return HEIGHT;
+    }
+
+    /**
+     * Creates a new header.
+     * @param width     width of the image
+     * @param height    height of the image
+     */
+    private PngHeader(int width, int height) {
+        WIDTH = width;
+        HEIGHT = height;
+    }
+
+    /**
+     * Checks whether an array contains the given bytes at an offset.
+     * @param bytes         bytes to search
+     * @param offset        index in the array where the expected bytes should start
+     * @param expected      expected bytes
+     * @return true if the expected bytes are present at the offset or false otherwise
+     */
+    private static boolean startsWith(byte[] bytes, int offset, byte[] expected) {
+        for (int index = 0; index < expected.length; index++) {
+            if (bytes[offset + index] != expected[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads a big-endian 32-bit integer.
+     * @param bytes         bytes to read from
+     * @param offset        index of the integer's first byte
+     * @return the integer
+     */
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24
+                | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8
+                | bytes[offset + 3] & 0xFF;
+    }
+
+}
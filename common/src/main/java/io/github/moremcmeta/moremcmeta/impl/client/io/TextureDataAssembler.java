@@ -32,8 +32,11 @@ import io.github.moremcmeta.moremcmeta.impl.client.texture.CloseableImage;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.CloseableImageFrame;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.EventDrivenTexture;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.FrameGroupImpl;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.NativeMemoryTracker;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
 import org.apache.commons.lang3.tuple.Triple;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.function.BiFunction;
@@ -52,9 +55,12 @@ public final class TextureDataAssembler<I extends CloseableImage> {
     public final static int EXTERNAL_DEFAULT_COMPONENTS = 1;
 
     private final static int INTERNAL_DEFAULT_COMPONENTS = 1;
+    private final static ResourceLocation UNKNOWN_TEXTURE = new ResourceLocation("moremcmeta", "unknown");
 
     private final ImageAllocator ALLOCATOR;
     private final BiFunction<? super I, Integer, ? extends List<? extends I>> MIPMAP_GENERATOR;
+    @Nullable
+    private final NativeMemoryTracker MEMORY_TRACKER;
 
     /**
      * Creates a new texture assembler.
@@ -65,6 +71,21 @@ public final class TextureDataAssembler<I extends CloseableImage> {
                                 BiFunction<? super I, Integer, ? extends List<? extends I>> mipmapGenerator) {
         ALLOCATOR = requireNonNull(allocator, "Allocator cannot be null");
         MIPMAP_GENERATOR = requireNonNull(mipmapGenerator, "Mipmap generator cannot be null");
+        MEMORY_TRACKER = null;
+    }
+
+    /**
+     * Creates a new texture assembler that tracks the memory of all the images it creates.
+     * @param allocator         allocator for new images
+     * @param mipmapGenerator   generates mipmaps from an original image, the number of which
+     * @param memoryTracker     tracks memory held by mipmaps and allocated images
+     */
+    public TextureDataAssembler(ImageAllocator allocator,
+                                BiFunction<? super I, Integer, ? extends List<? extends I>> mipmapGenerator,
+                                NativeMemoryTracker memoryTracker) {
+        ALLOCATOR = requireNonNull(allocator, "Allocator cannot be null");
+        MIPMAP_GENERATOR = requireNonNull(mipmapGenerator, "Mipmap generator cannot be null");
+        MEMORY_TRACKER = requireNonNull(memoryTracker, "Memory tracker cannot be null");
     }
 
     /**
@@ -74,7 +95,20 @@ public final class TextureDataAssembler<I extends CloseableImage> {
      * @return texture data assembled as a texture builder
      */
     public EventDrivenTexture.Builder assemble(TextureData<? extends I> data) {
+        return assemble(UNKNOWN_TEXTURE, data);
+    }
+
+    /**
+     * Combines the texture image and metadata into a {@link EventDrivenTexture.Builder} that
+     * minimally needs an upload component.
+     * @param location      location of the texture, used to track its memory
+     * @param data          texture data to assemble
+     * @return texture data assembled as a texture builder
+     */
+    public EventDrivenTexture.Builder assemble(ResourceLocation location, TextureData<? extends I> data) {
+        requireNonNull(location, "Location cannot be null");
         requireNonNull(data, "Data cannot be null");
+        NativeMemoryTracker.Owner owner = MEMORY_TRACKER == null ? null : MEMORY_TRACKER.newOwner(location);
 
         I original = data.image();
         int frameWidth = data.frameSize().width();
@@ -87,7 +121,10 @@ public final class TextureDataAssembler<I extends CloseableImage> {
 
         // Create frames
         int layers = data.analyzedMetadata().size() + EXTERNAL_DEFAULT_COMPONENTS + INTERNAL_DEFAULT_COMPONENTS;
-        List<? extends I> mipmaps = MIPMAP_GENERATOR.apply(original, Math.min(maxMipmapX, maxMipmapY));
+        List<? extends CloseableImage> mipmaps = track(
+                owner,
+                MIPMAP_GENERATOR.apply(original, Math.min(maxMipmapX, maxMipmapY))
+        );
         ImmutableList<CloseableImageFrame> frames = readFrames(
                 mipmaps,
                 frameWidth,
@@ -100,7 +137,8 @@ public final class TextureDataAssembler<I extends CloseableImage> {
                 frameHeight,
                 blur,
                 clamp,
-                layers
+                layers,
+                owner
         );
 
         // Resource cleanup
@@ -119,6 +157,7 @@ public final class TextureDataAssembler<I extends CloseableImage> {
             AnalyzedMetadata sectionData = metadata.getMiddle();
 
             builder.add(
+                    metadata.getLeft(),
                     buildComponent(
                             metadata.getRight(),
                             frames,
@@ -129,10 +168,29 @@ public final class TextureDataAssembler<I extends CloseableImage> {
             );
         }
 
-        builder.add(new CleanupComponent(closeMipmaps));
+        builder.add(new CleanupComponent(
+                owner == null ? closeMipmaps : MEMORY_TRACKER.trackCleanup(owner, closeMipmaps)
+        ));
         return builder;
     }
 
+    /**
+     * Starts tracking the memory of generated mipmaps if this assembler has a memory tracker.
+     * @param owner         owner of the mipmaps or null if memory is not tracked
+     * @param mipmaps       mipmaps to track, with level 0 first
+     * @return the mipmaps to use in place of the given mipmaps
+     */
+    private List<? extends CloseableImage> track(@Nullable NativeMemoryTracker.Owner owner,
+                                                 List<? extends I> mipmaps) {
+        if (owner == null) {
+            return mipmaps;
+        }
+
+        return IntStream.range(0, mipmaps.size())
+                .mapToObj((level) -> MEMORY_TRACKER.track(owner, mipmaps.get(level), level))
+                .collect(ImmutableList.toImmutableList());
+    }
+
     /**
      * Gets all frames from the generated mipmaps and animation metadata.
      * @param mipmaps               mipmaps of the full texture image (with all frames)
@@ -141,7 +199,7 @@ public final class TextureDataAssembler<I extends CloseableImage> {
      * @param layers                number of layers in the image
      * @return the frames based on the texture image in chronological order
      */
-    private ImmutableList<CloseableImageFrame> readFrames(List<? extends I> mipmaps, int frameWidth,
+    private ImmutableList<CloseableImageFrame> readFrames(List<? extends CloseableImage> mipmaps, int frameWidth,
                                                           int frameHeight, int layers) {
         int mipmap = mipmaps.size() - 1;
 
@@ -172,11 +230,12 @@ public final class TextureDataAssembler<I extends CloseableImage> {
      * @param blur                  whether the images are blurred
      * @param clamp                 whether the images are clamped
      * @param layers                number of layers in the image
+     * @param owner                 owner of the new images or null if memory is not tracked
      * @return the adapters for the interpolation images
      */
-    private CloseableImageFrame createGeneratedFrame(List<? extends I> mipmaps, int frameWidth,
+    private CloseableImageFrame createGeneratedFrame(List<? extends CloseableImage> mipmaps, int frameWidth,
                                                      int frameHeight, boolean blur, boolean clamp,
-                                                     int layers) {
+                                                     int layers, @Nullable NativeMemoryTracker.Owner owner) {
         ImmutableList.Builder<CloseableImage> images = new ImmutableList.Builder<>();
 
         for (int level = 0; level < mipmaps.size(); level++) {
@@ -184,6 +243,10 @@ public final class TextureDataAssembler<I extends CloseableImage> {
             int mipmappedHeight = frameHeight >> level;
 
             CloseableImage image = ALLOCATOR.allocate(mipmappedWidth, mipmappedHeight, level, blur, clamp);
+            if (owner != null) {
+                image = MEMORY_TRACKER.track(owner, image, level);
+            }
+
             image.copyFrom(mipmaps.get(level));
             images.add(image);
         }
@@ -17,28 +17,38 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.io;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.github.moremcmeta.moremcmeta.api.client.MoreMcmetaTexturePlugin;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.GuiScaling;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.AnalyzedMetadata;
 import io.github.moremcmeta.moremcmeta.api.client.texture.ComponentBuilder;
+import io.github.moremcmeta.moremcmeta.impl.client.resource.ReloadStatistics;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.CloseableImage;
 import org.apache.commons.lang3.tuple.Triple;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Reads minimum texture data from byte streams. The {@link TextureDataAssembler} takes
- * this data and puts it together.
+ * this data and puts it together. PNG images are only decoded once their metadata is known
+ * to be valid.
  * @param <I> image type
  * @author soir20
  */
@@ -47,9 +57,15 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
     private final Map<String, MoreMcmetaTexturePlugin> SECTION_TO_PLUGIN;
     private final ImageReader<? extends I> IMAGE_READER;
     private final BlurClampApplier<? super I, ? extends I> BLUR_CLAMP_APPLIER;
+    private final Executor ANALYSIS_EXECUTOR;
+    private final ReloadStatistics STATISTICS;
+
+    // Results are only kept while something else, like the metadata registry, still references them
+    private final Cache<AnalysisKey, AnalyzedMetadata> ANALYSES = CacheBuilder.newBuilder().weakValues().build();
 
     /**
-     * Creates a new reader that is aware of the given plugins, if any.
+     * Creates a new reader that is aware of the given plugins, if any. Sections of metadata are
+     * analyzed one after another on the thread that reads the texture.
      * @param plugins           plugins that the reader should use to analyze texture data
      * @param imageReader       reads the image from the {@link InputStream} of texture data
      * @param blurClampApplier  applies blur and clamp to an image
@@ -57,12 +73,46 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
     public TextureDataReader(Iterable<? extends MoreMcmetaTexturePlugin> plugins,
                              ImageReader<? extends I> imageReader,
                              BlurClampApplier<? super I, ? extends I> blurClampApplier) {
+        this(plugins, imageReader, blurClampApplier, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Creates a new reader that is aware of the given plugins, if any. Each section of a texture's
+     * metadata is analyzed as a separate task on the given executor, so that the sections of one texture
+     * are analyzed concurrently. The results are still combined in the order of the sections.
+     * @param plugins           plugins that the reader should use to analyze texture data
+     * @param imageReader       reads the image from the {@link InputStream} of texture data
+     * @param blurClampApplier  applies blur and clamp to an image
+     * @param analysisExecutor  executes the analysis of each section
+     */
+    public TextureDataReader(Iterable<? extends MoreMcmetaTexturePlugin> plugins,
+                             ImageReader<? extends I> imageReader,
+                             BlurClampApplier<? super I, ? extends I> blurClampApplier,
+                             Executor analysisExecutor) {
+        this(plugins, imageReader, blurClampApplier, analysisExecutor, new ReloadStatistics());
+    }
+
+    /**
+     * Creates a new reader like {@link #TextureDataReader(Iterable, ImageReader, BlurClampApplier, Executor)}
+     * that records how many images it decodes and sections it analyzes, and the time spent on them.
+     * @param plugins           plugins that the reader should use to analyze texture data
+     * @param imageReader       reads the image from the {@link InputStream} of texture data
+     * @param blurClampApplier  applies blur and clamp to an image
+     * @param analysisExecutor  executes the analysis of each section
+     * @param statistics        records the texture decode and analysis stages
+     */
+    public TextureDataReader(Iterable<? extends MoreMcmetaTexturePlugin> plugins,
+                             ImageReader<? extends I> imageReader,
+                             BlurClampApplier<? super I, ? extends I> blurClampApplier,
+                             Executor analysisExecutor, ReloadStatistics statistics) {
         requireNonNull(plugins, "Plugins cannot be null");
         SECTION_TO_PLUGIN = new HashMap<>();
         plugins.forEach((plugin) -> SECTION_TO_PLUGIN.put(plugin.sectionName(), plugin));
 
         IMAGE_READER = requireNonNull(imageReader, "Image reader cannot be null");
         BLUR_CLAMP_APPLIER = requireNonNull(blurClampApplier, "Blur-clamp applier cannot be null");
+        ANALYSIS_EXECUTOR = requireNonNull(analysisExecutor, "Analysis executor cannot be null");
+        STATISTICS = requireNonNull(statistics, "Statistics cannot be null");
     }
 
     @Override
@@ -72,8 +122,13 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
         requireNonNull(textureStream, "Texture stream cannot be null");
         requireNonNull(metadata, "Metadata cannot be null");
 
-        I image = IMAGE_READER.read(textureStream);
-        requireNonNull(image, "Image read cannot be null. Throw an IOException instead.");
+        /* PNG images declare their size in their header, so pixel data does not need to be decoded
+           until the metadata is known to be valid. Other images are decoded up front to find their size. */
+        byte[] textureBytes = textureStream.readAllBytes();
+        Optional<PngHeader> header = PngHeader.read(textureBytes);
+        I image = header.isPresent() ? null : readImage(textureBytes);
+        int imageWidth = image == null ? header.get().width() : image.width();
+        int imageHeight = image == null ? header.get().height() : image.height();
 
         List<Triple<String, AnalyzedMetadata, ComponentBuilder>> analyzedSections = new ArrayList<>();
         Optional<Integer> frameWidthOptional = Optional.empty();
@@ -82,6 +137,10 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
         Optional<Boolean> clampOptional = Optional.empty();
         Optional<GuiScaling> guiScalingOptional = Optional.empty();
 
+        List<MoreMcmetaTexturePlugin> sectionPlugins = new ArrayList<>();
+        List<CompletableFuture<AnalyzedMetadata>> sectionAnalyses = new ArrayList<>();
+
+        // Sections are independent of each other until their results are combined below
         for (String section : metadata.keys()) {
             MoreMcmetaTexturePlugin plugin = SECTION_TO_PLUGIN.get(section);
             Optional<MetadataView> sectionView = metadata.subView(section);
@@ -89,15 +148,17 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
                 continue;
             }
 
-            AnalyzedMetadata sectionData;
-            try {
-                sectionData = plugin.analyzer().analyze(sectionView.get(), image.width(), image.height());
-            } catch (InvalidMetadataException err) {
-                throw new InvalidMetadataException(String.format("%s marked metadata as invalid: %s",
-                        plugin.id(), err.getMessage()), err);
-            }
+            sectionPlugins.add(plugin);
+            sectionAnalyses.add(CompletableFuture.supplyAsync(
+                    () -> analyzeUnchecked(plugin, sectionView.get(), imageWidth, imageHeight),
+                    ANALYSIS_EXECUTOR
+            ));
+        }
 
-            requireNonNull(sectionData, "Plugin " + plugin.id() + " returned null for analyzed metadata");
+        // Combine results in section order so that the first invalid section is always the one reported
+        for (int index = 0; index < sectionAnalyses.size(); index++) {
+            MoreMcmetaTexturePlugin plugin = sectionPlugins.get(index);
+            AnalyzedMetadata sectionData = joinAnalysis(sectionAnalyses.get(index));
             analyzedSections.add(Triple.of(plugin.id(), sectionData, plugin.componentBuilder()));
 
             frameWidthOptional = unwrapIfCompatible(frameWidthOptional, sectionData.frameWidth(), "frame width");
@@ -109,18 +170,16 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
 
         boolean blur = blurOptional.orElse(false);
         boolean clamp = clampOptional.orElse(false);
-        image = BLUR_CLAMP_APPLIER.apply(image, blur, clamp);
-        requireNonNull(image, "Blurred and clamped image cannot be null");
 
-        int frameWidth = frameWidthOptional.orElse(image.width());
-        int frameHeight = frameHeightOptional.orElse(image.height());
+        int frameWidth = frameWidthOptional.orElse(imageWidth);
+        int frameHeight = frameHeightOptional.orElse(imageHeight);
 
         // Check for frame size too large
-        if (frameWidth > image.width() || frameHeight > image.height()) {
+        if (frameWidth > imageWidth || frameHeight > imageHeight) {
             throw new InvalidMetadataException(String.format(
                     "%sx%s larger than %sx%s image",
                     frameWidth, frameHeight,
-                    image.width(), image.height()
+                    imageWidth, imageHeight
             ));
         }
 
@@ -152,6 +211,21 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
             );
         }
 
+        if (image == null) {
+            image = readImage(textureBytes);
+
+            if (image.width() != imageWidth || image.height() != imageHeight) {
+                throw new IOException(String.format(
+                        "Image is %sx%s, but its header says it is %sx%s",
+                        image.width(), image.height(),
+                        imageWidth, imageHeight
+                ));
+            }
+        }
+
+        image = BLUR_CLAMP_APPLIER.apply(image, blur, clamp);
+        requireNonNull(image, "Blurred and clamped image cannot be null");
+
         return new TextureData<>(
                 frameSize,
                 blur,
@@ -162,6 +236,101 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
         );
     }
 
+    /**
+     * Decodes an image.
+     * @param imageBytes    bytes of the image
+     * @return the image
+     * @throws IOException if the bytes cannot be read as an image
+     */
+    private I readImage(byte[] imageBytes) throws IOException {
+        long decodeStart = System.nanoTime();
+        I image = IMAGE_READER.read(new ByteArrayInputStream(imageBytes));
+        STATISTICS.recordSince(ReloadStatistics.Stage.TEXTURE_DECODE, 1, decodeStart);
+
+        requireNonNull(image, "Image read cannot be null. Throw an IOException instead.");
+        return image;
+    }
+
+    /**
+     * Waits for the analysis of a section to finish.
+     * @param analysis      the section's analysis
+     * @return the analyzed metadata
+     * @throws InvalidMetadataException if the plugin considers the metadata invalid
+     */
+    private static AnalyzedMetadata joinAnalysis(CompletableFuture<AnalyzedMetadata> analysis)
+            throws InvalidMetadataException {
+        try {
+            return analysis.join();
+        } catch (CompletionException err) {
+            Throwable cause = err.getCause();
+
+            if (cause instanceof InvalidMetadataException invalidErr) {
+                throw invalidErr;
+            } else if (cause instanceof RuntimeException runtimeErr) {
+                throw runtimeErr;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+
+            throw err;
+        }
+    }
+
+    /**
+     * Analyzes a section of metadata like {@link #analyze(MoreMcmetaTexturePlugin, MetadataView, int, int)},
+     * but wraps any {@link InvalidMetadataException} so that the analysis can run as an asynchronous task.
+     * @param plugin        plugin to analyze the section
+     * @param section       the section of metadata to analyze
+     * @param imageWidth    width of the image
+     * @param imageHeight   height of the image
+     * @return the analyzed metadata
+     */
+    private AnalyzedMetadata analyzeUnchecked(MoreMcmetaTexturePlugin plugin, MetadataView section,
+                                              int imageWidth, int imageHeight) {
+        try {
+            return analyze(plugin, section, imageWidth, imageHeight);
+        } catch (InvalidMetadataException err) {
+            throw new CompletionException(err);
+        }
+    }
+
+    /**
+     * Analyzes a section of metadata, reusing the result for an equal section of the same plugin
+     * if one was analyzed for an image of the same size.
+     * @param plugin        plugin to analyze the section
+     * @param section       the section of metadata to analyze
+     * @param imageWidth    width of the image
+     * @param imageHeight   height of the image
+     * @return the analyzed metadata
+     * @throws InvalidMetadataException if the plugin considers the metadata invalid
+     */
+    private AnalyzedMetadata analyze(MoreMcmetaTexturePlugin plugin, MetadataView section,
+                                     int imageWidth, int imageHeight) throws InvalidMetadataException {
+        AnalysisKey key = new AnalysisKey(plugin.id(), section, imageWidth, imageHeight);
+        AnalyzedMetadata previousData = ANALYSES.getIfPresent(key);
+        if (previousData != null) {
+            return previousData;
+        }
+
+        AnalyzedMetadata sectionData;
+        long analysisStart = System.nanoTime();
+        try {
+            sectionData = plugin.analyzer().analyze(section, imageWidth, imageHeight);
+        } catch (InvalidMetadataException err) {
+            throw new InvalidMetadataException(String.format("%s marked metadata as invalid: %s",
+                    plugin.id(), err.getMessage()), err);
+        } finally {
+            STATISTICS.recordSince(ReloadStatistics.Stage.ANALYSIS, 1, analysisStart);
+        }
+
+        requireNonNull(sectionData, "Plugin " + plugin.id() + " returned null for analyzed metadata");
+
+        // If another thread analyzed an equal section at the same time, either result is fine to use
+        ANALYSES.put(key, sectionData);
+
+        return sectionData;
+    }
+
     /**
      * <p>Compares the current value and a possible new value to check if
      * they are compatible. The two values are not compatible if and
@@ -192,4 +361,50 @@ public final class TextureDataReader<I extends CloseableImage> implements Textur
         return currentVal;
     }
 
+    /**
+     * Identifies a section of metadata analyzed by a plugin for an image of a certain size.
+     * @author soir20
+     */
+    private static final class AnalysisKey {
+        private final String PLUGIN_ID;
+        private final MetadataView SECTION;
+        private final int IMAGE_WIDTH;
+        private final int IMAGE_HEIGHT;
+        private final int HASH;
+
+        /**
+         * Creates a new key.
+         * @param pluginId          ID of the plugin analyzing the section
+         * @param section           the section of metadata
+         * @param imageWidth        width of the image
+         * @param imageHeight       height of the image
+         */
+        public AnalysisKey(String pluginId, MetadataView section, int imageWidth, int imageHeight) {
+            PLUGIN_ID = pluginId;
+            SECTION = section;
+            IMAGE_WIDTH = imageWidth;
+            IMAGE_HEIGHT = imageHeight;
+            HASH = Objects.hash(pluginId, section, imageWidth, imageHeight);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof AnalysisKey otherKey)) {
+                return false;
+            }
+
+            return HASH == otherKey.HASH
+                    && IMAGE_WIDTH == otherKey.IMAGE_WIDTH
+                    && IMAGE_HEIGHT == otherKey.IMAGE_HEIGHT
+                    && PLUGIN_ID.equals(otherKey.PLUGIN_ID)
+                    && SECTION.equals(otherKey.SECTION);
+        }
+
+        @Override
+        public int hashCode() {
+            return HASH;
+        }
+
+    }
+
 }
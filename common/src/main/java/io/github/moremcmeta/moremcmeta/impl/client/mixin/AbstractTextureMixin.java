@@ -20,11 +20,8 @@ package io.github.moremcmeta.moremcmeta.impl.client.mixin;
 import com.mojang.blaze3d.systems.RenderSystem;
 import io.github.moremcmeta.moremcmeta.impl.client.MoreMcmeta;
 import io.github.moremcmeta.moremcmeta.impl.client.mixinaccess.NamedTexture;
-import io.github.moremcmeta.moremcmeta.impl.client.texture.EventDrivenTexture;
-import net.minecraft.client.Minecraft;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.DependencyGraph;
 import net.minecraft.client.renderer.texture.AbstractTexture;
-import net.minecraft.client.renderer.texture.MissingTextureAtlasSprite;
-import net.minecraft.client.renderer.texture.TextureManager;
 import net.minecraft.resources.ResourceLocation;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
@@ -46,11 +43,32 @@ public abstract class AbstractTextureMixin implements NamedTexture {
     private static AbstractTexture lastBound;
     @Unique
     private final Set<ResourceLocation> MOREMCMETA_NAMES = new HashSet<>();
+    @Unique
+    private DependencyGraph idGraph;
+    @Unique
+    private int[] baseIds = new int[0];
 
     @Unique
     @Override
     public void moremcmeta_addName(ResourceLocation name) {
-        onRenderThread(() -> MOREMCMETA_NAMES.add(name));
+        onRenderThread(() -> {
+            MOREMCMETA_NAMES.add(name);
+            idGraph = null;
+        });
+    }
+
+    @Unique
+    @Override
+    public int[] moremcmeta_baseIds(DependencyGraph graph) {
+        if (graph != idGraph) {
+            baseIds = MOREMCMETA_NAMES.stream()
+                    .mapToInt(graph::id)
+                    .filter((id) -> id != DependencyGraph.NO_ID)
+                    .toArray();
+            idGraph = graph;
+        }
+
+        return baseIds;
     }
 
     /**
@@ -81,18 +99,10 @@ public abstract class AbstractTextureMixin implements NamedTexture {
      */
     @Unique
     private void uploadDependencies() {
-        TextureManager textureManager = Minecraft.getInstance().getTextureManager();
-
-        MOREMCMETA_NAMES.forEach((base) -> {
-            Set<ResourceLocation> dependencies = MoreMcmeta.dependencies(base);
-            dependencies.forEach((dependency) -> {
-                AbstractTexture texture = textureManager.getTexture(dependency, MissingTextureAtlasSprite.getTexture());
-
-                if (texture instanceof EventDrivenTexture) {
-                    ((EventDrivenTexture) texture).upload(base);
-                }
-            });
-        });
+        DependencyGraph graph = MoreMcmeta.dependencies();
+        for (int baseId : moremcmeta_baseIds(graph)) {
+            graph.uploadDependencies(baseId);
+        }
     }
 
 }
@@ -0,0 +1,58 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.mixin;
+
+import io.github.moremcmeta.moremcmeta.impl.client.MoreMcmeta;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.TextureInstrumentation;
+import net.minecraft.client.gui.components.DebugScreenOverlay;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Shows the most expensive textures in the debug screen when texture instrumentation is enabled.
+ * @author soir20
+ */
+@SuppressWarnings("unused")
+@Mixin(DebugScreenOverlay.class)
+public abstract class DebugScreenOverlayMixin {
+    @Unique
+    private static final int MOREMCMETA_TEXTURES_SHOWN = 5;
+
+    /**
+     * Adds the most expensive textures to the right side of the debug screen.
+     * @param callbackInfo      callback information from Mixin, with the lines shown on the right side
+     */
+    @Inject(method = "getSystemInformation()Ljava/util/List;", at = @At("RETURN"))
+    private void moremcmeta_onGetSystemInformation(CallbackInfoReturnable<List<String>> callbackInfo) {
+        if (!TextureInstrumentation.ENABLED) {
+            return;
+        }
+
+        List<String> lines = callbackInfo.getReturnValue();
+        lines.add("");
+        lines.add("[MoreMcmeta] Most expensive textures:");
+        lines.addAll(TextureInstrumentation.summary(MoreMcmeta.instrumentation(), MOREMCMETA_TEXTURES_SHOWN));
+    }
+
+}
@@ -17,16 +17,22 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixin;
 
-import io.github.moremcmeta.moremcmeta.impl.client.adapter.AtlasAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.SpriteNameMappings;
 import io.github.moremcmeta.moremcmeta.impl.client.mixinaccess.LocatedSpriteSource;
 import net.minecraft.client.renderer.texture.atlas.sources.DirectoryLister;
 import net.minecraft.resources.FileToIdConverter;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Adds name mappings from a {@link DirectoryLister} sprite source.
@@ -41,14 +47,38 @@ public final class DirectoryListerMixin implements LocatedSpriteSource {
     @Shadow
     @Final
     private String idPrefix;
+    @Unique
+    private Set<ResourceLocation> listedPaths;
+
+    /**
+     * Keeps the paths that this source lists so that they do not have to be listed again.
+     * @param converter         converter listing the resources
+     * @param resourceManager   Minecraft's resource manager
+     * @return all resources matching the converter
+     */
+    @Redirect(method = "run",
+            at = @At(value = "INVOKE", target = "Lnet/minecraft/resources/FileToIdConverter;listMatchingResources(Lnet/minecraft/server/packs/resources/ResourceManager;)Ljava/util/Map;"))
+    private Map<ResourceLocation, Resource> moremcmeta_onListResources(FileToIdConverter converter,
+                                                                       ResourceManager resourceManager) {
+        Map<ResourceLocation, Resource> resources = converter.listMatchingResources(resourceManager);
+        listedPaths = resources.keySet();
+        return resources;
+    }
 
     @Unique
     @Override
-    public void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, ResourceLocation atlasLocation) {
+    public void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, SpriteNameMappings.Builder mappings) {
         FileToIdConverter fileToIdConverter = new FileToIdConverter("textures/" + sourcePath, ".png");
-        fileToIdConverter.listMatchingResources(resourceManager).keySet().forEach((fullPath) -> {
+
+        // Only list resources again if the atlas did not run this source
+        Set<ResourceLocation> fullPaths = listedPaths != null
+                ? listedPaths
+                : fileToIdConverter.listMatchingResources(resourceManager).keySet();
+        listedPaths = null;
+
+        fullPaths.forEach((fullPath) -> {
             ResourceLocation spriteName = fileToIdConverter.fileToId(fullPath).withPrefix(idPrefix);
-            AtlasAdapter.addNameMapping(atlasLocation, fullPath, spriteName);
+            mappings.add(fullPath, spriteName);
         });
     }
 }
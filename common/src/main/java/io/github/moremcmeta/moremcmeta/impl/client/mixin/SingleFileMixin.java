@@ -17,7 +17,7 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixin;
 
-import io.github.moremcmeta.moremcmeta.impl.client.adapter.AtlasAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.SpriteNameMappings;
 import io.github.moremcmeta.moremcmeta.impl.client.mixinaccess.LocatedSpriteSource;
 import net.minecraft.client.renderer.texture.atlas.sources.SingleFile;
 import net.minecraft.resources.ResourceLocation;
@@ -46,11 +46,10 @@ public class SingleFileMixin implements LocatedSpriteSource {
     private Optional<ResourceLocation> spriteId;
 
     @Override
-    public void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, ResourceLocation atlasLocation) {
+    public void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, SpriteNameMappings.Builder mappings) {
         ResourceLocation fullPath = TEXTURE_ID_CONVERTER.idToFile(resourceId);
         Optional<Resource> resourceOptional = resourceManager.getResource(fullPath);
-        resourceOptional.ifPresent((resource) -> AtlasAdapter.addNameMapping(
-                atlasLocation,
+        resourceOptional.ifPresent((resource) -> mappings.add(
                 fullPath,
                 spriteId.orElse(resourceId)
         ));
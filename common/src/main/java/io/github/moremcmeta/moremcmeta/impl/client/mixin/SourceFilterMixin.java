@@ -17,10 +17,9 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixin;
 
-import io.github.moremcmeta.moremcmeta.impl.client.adapter.AtlasAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.SpriteNameMappings;
 import io.github.moremcmeta.moremcmeta.impl.client.mixinaccess.LocatedSpriteSource;
 import net.minecraft.client.renderer.texture.atlas.sources.SourceFilter;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.util.ResourceLocationPattern;
 import org.spongepowered.asm.mixin.Final;
@@ -39,7 +38,7 @@ public class SourceFilterMixin implements LocatedSpriteSource {
     private ResourceLocationPattern filter;
 
     @Override
-    public void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, ResourceLocation atlasLocation) {
-        AtlasAdapter.removeNameMappings(atlasLocation, filter.locationPredicate());
+    public void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, SpriteNameMappings.Builder mappings) {
+        mappings.removeIf(filter.locationPredicate());
     }
 }
@@ -17,6 +17,8 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixin;
 
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.AtlasAdapter;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.SpriteNameMappings;
 import io.github.moremcmeta.moremcmeta.impl.client.mixinaccess.LocatedSpriteSource;
 import net.minecraft.client.renderer.texture.atlas.SpriteSource;
 import net.minecraft.client.renderer.texture.atlas.SpriteSourceList;
@@ -24,6 +26,7 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.ResourceManager;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -31,7 +34,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import java.util.List;
 
 /**
- * Updates global sprite name mappings when the sprite loaders are created.
+ * Builds an atlas's sprite name mappings after the atlas lists its sprites.
  * @author soir20
  */
 @SuppressWarnings("unused")
@@ -39,9 +42,11 @@ import java.util.List;
 public final class SpriteSourceListMixin {
     @Shadow
     private List<SpriteSource> sources;
+    @Unique
+    private ResourceLocation atlasLocation;
 
     /**
-     * Updates global sprite name mappings when the sprite loaders are created.
+     * Records the atlas that the sprite sources belong to when they are loaded.
      * @param resourceManager       Minecraft's resource manager
      * @param atlasName             corresponding atlas ID
      * @param callbackInfo          callback info from Mixin
@@ -52,15 +57,31 @@ public final class SpriteSourceListMixin {
     private static void moremcmeta_onLoad(ResourceManager resourceManager, ResourceLocation atlasName,
                                           CallbackInfoReturnable<SpriteSourceList> callbackInfo) {
         SpriteSourceListMixin loader = (SpriteSourceListMixin) (Object) callbackInfo.getReturnValue();
-        ResourceLocation atlasLocation = atlasName.withPrefix("textures/atlas/").withSuffix(".png");
-        loader.sources.forEach((source) -> {
+        loader.atlasLocation = atlasName.withPrefix("textures/atlas/").withSuffix(".png");
+    }
+
+    /**
+     * Builds and publishes the atlas's sprite name mappings once all sources have run.
+     * @param resourceManager       Minecraft's resource manager
+     * @param callbackInfo          callback info from Mixin
+     */
+    @Inject(method = "list", at = @At("RETURN"))
+    private void moremcmeta_onList(ResourceManager resourceManager, CallbackInfoReturnable<List<?>> callbackInfo) {
+        if (atlasLocation == null) {
+            return;
+        }
+
+        SpriteNameMappings.Builder mappings = new SpriteNameMappings.Builder();
+        sources.forEach((source) -> {
 
             // PalettedPermutations and Unstitcher are not supported because they hard-code empty animation metadata
             if (source instanceof LocatedSpriteSource locatedSource) {
-                locatedSource.moremcmeta_updateSpriteMappings(resourceManager, atlasLocation);
+                locatedSource.moremcmeta_updateSpriteMappings(resourceManager, mappings);
             }
 
         });
+
+        AtlasAdapter.setNameMappings(atlasLocation, mappings.build());
     }
 
 }
@@ -17,6 +17,7 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixin;
 
+import io.github.moremcmeta.moremcmeta.impl.client.MoreMcmeta;
 import io.github.moremcmeta.moremcmeta.impl.client.mixinaccess.NamedTexture;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.EventDrivenTexture;
 import net.minecraft.client.renderer.texture.AbstractTexture;
@@ -30,7 +31,8 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 
 /**
- * Makes {@link AbstractTexture}s track their own names as they are registered to the {@link TextureManager}.
+ * Makes {@link AbstractTexture}s track their own names as they are registered to the {@link TextureManager}
+ * and checks for leaked images when the {@link TextureManager} closes.
  * @author soir20
  */
 @SuppressWarnings("unused")
@@ -61,4 +63,14 @@ public abstract class TextureManagerMixin {
         ((NamedTexture) texture).moremcmeta_addName(location);
     }
 
+    /**
+     * Warns about textures whose images are still open after every texture has been closed. The game
+     * closes the {@link TextureManager} while it is stopping, before logging shuts down.
+     * @param callbackInfo      callback information from Mixin
+     */
+    @Inject(method = "close()V", at = @At("RETURN"))
+    private void moremcmeta_onClose(CallbackInfo callbackInfo) {
+        MoreMcmeta.nativeMemory().logLeaks();
+    }
+
 }
@@ -17,21 +17,22 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixinaccess;
 
-import net.minecraft.resources.ResourceLocation;
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.SpriteNameMappings;
 import net.minecraft.server.packs.resources.ResourceManager;
 
 /**
- * A {@link net.minecraft.client.renderer.texture.atlas.SpriteSource} whose corresponding atlas's location
- * is known.
+ * A {@link net.minecraft.client.renderer.texture.atlas.SpriteSource} that can report which sprites it
+ * creates from which textures.
  * @author soir20
  */
 public interface LocatedSpriteSource {
 
     /**
-     * Updates global sprite mappings according to this source's rules.
+     * Updates an atlas's sprite mappings according to this source's rules. Called after the
+     * atlas has run this source.
      * @param resourceManager       Minecraft's resource manager
-     * @param atlasLocation         location of the corresponding atlas
+     * @param mappings              mappings for the atlas that this source belongs to
      */
-    void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, ResourceLocation atlasLocation);
+    void moremcmeta_updateSpriteMappings(ResourceManager resourceManager, SpriteNameMappings.Builder mappings);
 
 }
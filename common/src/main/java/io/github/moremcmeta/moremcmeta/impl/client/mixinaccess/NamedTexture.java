@@ -17,6 +17,7 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.mixinaccess;
 
+import io.github.moremcmeta.moremcmeta.impl.client.texture.DependencyGraph;
 import net.minecraft.resources.ResourceLocation;
 
 /**
@@ -31,4 +32,12 @@ public interface NamedTexture {
      */
     void moremcmeta_addName(ResourceLocation name);
 
+    /**
+     * Gets the IDs of this texture's names in a dependency graph. Names that are not bases in the
+     * graph are left out. The IDs are kept on the texture until the graph or its names change.
+     * @param graph     graph to find IDs in
+     * @return IDs of this texture's names in the graph
+     */
+    int[] moremcmeta_baseIds(DependencyGraph graph);
+
 }
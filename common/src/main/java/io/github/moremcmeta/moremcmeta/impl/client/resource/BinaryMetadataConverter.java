@@ -0,0 +1,146 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Converts the metadata in existing packs to the {@link BinaryMetadataFormat} ahead of time. Metadata
+ * is read through a {@link TextureLoader}, so each texture's converted file holds its metadata exactly
+ * as it would be combined during a reload.</p>
+ *
+ * <p>Converted files are written next to the textures. The {@link TextureLoader} prefers binary metadata
+ * over metadata in other formats from the same pack, so the files that were converted can stay in the
+ * pack. A pack should be converted by itself, since metadata from other packs would otherwise be copied
+ * into it. The <code>convertMetadata</code> Gradle task converts a pack on disk without starting the
+ * game.</p>
+ * @author soir20
+ */
+public final class BinaryMetadataConverter {
+    private static final String EXTENSION = "." + BinaryMetadataFormat.EXTENSION;
+    private final TextureLoader<MetadataView> LOADER;
+
+    /**
+     * Creates a new converter.
+     * @param metadataParsers       {@link MetadataParser}s by extension for the formats to convert from.
+     *                              All extensions must start with a period (.) and contain at least one
+     *                              other character. Any parser for the binary format itself is ignored.
+     * @param logger                logs invalid metadata that is not converted
+     */
+    public BinaryMetadataConverter(Map<String, ? extends MetadataParser> metadataParsers, Logger logger) {
+        requireNonNull(metadataParsers, "Metadata parsers cannot be null");
+        requireNonNull(logger, "Logger cannot be null");
+
+        // Converted files are not read again, or they would conflict with the metadata they came from
+        ImmutableMap<String, MetadataParser> textParsers = metadataParsers.entrySet().stream()
+                .filter((entry) -> !entry.getKey().equals(EXTENSION))
+                .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        LOADER = new TextureLoader<>((textureStream, metadata) -> metadata, textParsers, logger);
+    }
+
+    /**
+     * Converts the metadata for all textures in the given paths. Each texture's metadata is written
+     * to a location next to the texture with the binary format's extension. Textures whose metadata
+     * cannot be read or combined are logged and not converted.
+     * @param repository    resources to search through
+     * @param output        opens the destination for each converted metadata location
+     * @param paths         paths to search for textures in
+     * @return locations of all textures whose metadata was converted
+     * @throws IOException if metadata cannot be written to the output
+     */
+    public ImmutableSet<ResourceLocation> convert(OrderedResourceRepository repository, MetadataOutput output,
+                                                  String... paths) throws IOException {
+        requireNonNull(repository, "Repository cannot be null");
+        requireNonNull(output, "Output cannot be null");
+        requireNonNull(paths, "Paths cannot be null");
+
+        ImmutableMap<ResourceLocation, MetadataView> metadataByTexture = LOADER.load(repository, paths);
+        for (Map.Entry<ResourceLocation, MetadataView> entry : metadataByTexture.entrySet()) {
+            ResourceLocation metadataLocation = metadataLocation(entry.getKey());
+            try (OutputStream outputStream = output.open(metadataLocation)) {
+                BinaryMetadataFormat.write(entry.getValue(), outputStream);
+            }
+        }
+
+        return metadataByTexture.keySet();
+    }
+
+    /**
+     * Creates an output that writes converted metadata into an unpacked resource pack, creating any
+     * directories that do not exist yet.
+     * @param packRoot          root directory of the pack, which contains pack.mcmeta
+     * @param resourceType      type of resources being converted
+     * @return an output that writes into the pack
+     */
+    public static MetadataOutput toDirectory(Path packRoot, PackType resourceType) {
+        requireNonNull(packRoot, "Pack root cannot be null");
+        requireNonNull(resourceType, "Resource type cannot be null");
+
+        return (metadataLocation) -> {
+            Path file = packRoot.resolve(resourceType.getDirectory())
+                    .resolve(metadataLocation.getNamespace())
+                    .resolve(metadataLocation.getPath());
+            Files.createDirectories(file.getParent());
+            return Files.newOutputStream(file);
+        };
+    }
+
+    /**
+     * Gets the location of the converted metadata for a texture.
+     * @param textureLocation   full path of the texture
+     * @return location of the texture's converted metadata
+     */
+    private static ResourceLocation metadataLocation(ResourceLocation textureLocation) {
+        return new ResourceLocation(textureLocation.getNamespace(), textureLocation.getPath() + EXTENSION);
+    }
+
+    /**
+     * Opens the destination for converted metadata.
+     * @author soir20
+     */
+    @FunctionalInterface
+    public interface MetadataOutput {
+
+        /**
+         * Opens a stream to write a converted metadata file to. The converter closes the stream.
+         * @param metadataLocation      location of the converted metadata file
+         * @return stream to write the file to
+         * @throws IOException if the stream cannot be opened
+         */
+        OutputStream open(ResourceLocation metadataLocation) throws IOException;
+
+    }
+
+}
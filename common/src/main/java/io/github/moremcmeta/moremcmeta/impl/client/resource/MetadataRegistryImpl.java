@@ -34,27 +34,26 @@ import java.util.Optional;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Implementation of {@link MetadataRegistry} that can be updated.
+ * Implementation of {@link MetadataRegistry} that can be updated. All metadata is held in an immutable
+ * snapshot that is replaced as a whole on update, so the registry can be read from any thread without
+ * locking. Each snapshot indexes metadata by both texture path and sprite name.
  * @author soir20
  */
 public final class MetadataRegistryImpl implements MetadataRegistry {
-    private ImmutableMap<String, ImmutableMap<ResourceLocation, AnalyzedMetadata>> metadata;
+    private volatile Snapshot snapshot;
 
     /**
      * Creates a new implementation of a {@link MetadataRegistry}.
      */
     public MetadataRegistryImpl() {
-        metadata = ImmutableMap.of();
+        snapshot = Snapshot.EMPTY;
     }
 
     @Override
     public Optional<AnalyzedMetadata> metadataFromPath(String pluginName, ResourceLocation textureLocation) {
         requireNonNull(pluginName, "Plugin name cannot be null");
         requireNonNull(textureLocation, "Texture location cannot be null");
-        return Optional.ofNullable(
-                requireNonNull(metadata.getOrDefault(pluginName, ImmutableMap.of()), "Metadata should never be null")
-                        .get(textureLocation)
-        );
+        return Optional.ofNullable(snapshot.BY_PATH.getOrDefault(pluginName, ImmutableMap.of()).get(textureLocation));
     }
 
     @Override
@@ -62,50 +61,91 @@ public final class MetadataRegistryImpl implements MetadataRegistry {
         requireNonNull(pluginName, "Plugin name cannot be null");
         requireNonNull(spriteName, "Sprite name cannot be null");
 
-        /* If the sprite name is actually a texture location, toTexturePath() would return that name, and
-           the metadata would be retrieved. For consistency, this method should return Optional.empty()
-           when the provided location is not a sprite name since metadataFromPath() does not work with
-           sprite names.*/
-        if (!SpriteName.isSpriteName(spriteName)) {
-            return Optional.empty();
-        }
-
+        /* Only valid sprite names are indexed, so a texture location passed as a sprite name finds
+           nothing. This is consistent with metadataFromPath(), which does not work with sprite names. */
         return Optional.ofNullable(
-                requireNonNull(metadata.getOrDefault(pluginName, ImmutableMap.of()), "Metadata should never be null")
-                        .get(SpriteName.toTexturePath(spriteName))
+                snapshot.BY_SPRITE_NAME.getOrDefault(pluginName, ImmutableMap.of()).get(spriteName)
         );
     }
 
     @Override
     public Map<ResourceLocation, AnalyzedMetadata> metadataByPlugin(String pluginName) {
         requireNonNull(pluginName, "Plugin name cannot be null");
-        return metadata.getOrDefault(pluginName, ImmutableMap.of());
+        return snapshot.BY_PATH.getOrDefault(pluginName, ImmutableMap.of());
     }
 
     /**
-     * Updates the current metadata in this registry. The old metadata is discarded.
+     * Updates the current metadata in this registry. The old metadata is discarded. Readers on other
+     * threads see either all the old metadata or all the new metadata, never a mix of both.
      * @param textureData           all current texture data (by full texture location)
      */
     public void set(Map<? extends ResourceLocation, ? extends TextureData<?>> textureData) {
         requireNonNull(textureData, "Texture data cannot be null");
 
-        Map<String, ImmutableMap.Builder<ResourceLocation, AnalyzedMetadata>> builders = new HashMap<>();
+        Map<String, ImmutableMap.Builder<ResourceLocation, AnalyzedMetadata>> pathBuilders = new HashMap<>();
+        Map<String, ImmutableMap.Builder<ResourceLocation, AnalyzedMetadata>> spriteBuilders = new HashMap<>();
 
         for (Map.Entry<? extends ResourceLocation, ? extends TextureData<?>> entry : textureData.entrySet()) {
             ResourceLocation textureLocation = entry.getKey();
+            Optional<ResourceLocation> spriteName = spriteNameOf(textureLocation);
 
             for (Triple<String, AnalyzedMetadata, ComponentBuilder> pluginEntry : entry.getValue().analyzedMetadata()) {
                 String pluginName = pluginEntry.getLeft();
                 AnalyzedMetadata sectionData = pluginEntry.getMiddle();
 
-                builders.computeIfAbsent(pluginName, (key) -> new ImmutableMap.Builder<>())
+                pathBuilders.computeIfAbsent(pluginName, (key) -> new ImmutableMap.Builder<>())
                         .put(textureLocation, sectionData);
+
+                spriteName.ifPresent((name) -> spriteBuilders.computeIfAbsent(
+                        pluginName,
+                        (key) -> new ImmutableMap.Builder<>()
+                ).put(name, sectionData));
             }
         }
 
-        metadata = ImmutableMap.copyOf(
-                Maps.transformValues(builders, ImmutableMap.Builder::build)
+        snapshot = new Snapshot(
+                ImmutableMap.copyOf(Maps.transformValues(pathBuilders, ImmutableMap.Builder::build)),
+                ImmutableMap.copyOf(Maps.transformValues(spriteBuilders, ImmutableMap.Builder::build))
         );
     }
 
+    /**
+     * Finds the sprite name that refers to a texture path. The sprite name must convert back to exactly
+     * the same texture path, so that lookups by sprite name find the same metadata as
+     * {@link SpriteName#toTexturePath(ResourceLocation)} followed by a lookup by path.
+     * @param textureLocation       full location of the texture
+     * @return the sprite name of the texture or empty if no sprite name refers to the texture
+     */
+    private static Optional<ResourceLocation> spriteNameOf(ResourceLocation textureLocation) {
+        ResourceLocation spriteName = SpriteName.fromTexturePath(textureLocation);
+        if (SpriteName.isSpriteName(spriteName) && SpriteName.toTexturePath(spriteName).equals(textureLocation)) {
+            return Optional.of(spriteName);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Immutable metadata for all textures at one point in time.
+     * @author soir20
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(ImmutableMap.of(), ImmutableMap.of());
+
+        private final ImmutableMap<String, ImmutableMap<ResourceLocation, AnalyzedMetadata>> BY_PATH;
+        private final ImmutableMap<String, ImmutableMap<ResourceLocation, AnalyzedMetadata>> BY_SPRITE_NAME;
+
+        /**
+         * Creates a new snapshot.
+         * @param byPath            metadata by plugin name and then texture path
+         * @param bySpriteName      metadata by plugin name and then sprite name
+         */
+        public Snapshot(ImmutableMap<String, ImmutableMap<ResourceLocation, AnalyzedMetadata>> byPath,
+                        ImmutableMap<String, ImmutableMap<ResourceLocation, AnalyzedMetadata>> bySpriteName) {
+            BY_PATH = byPath;
+            BY_SPRITE_NAME = bySpriteName;
+        }
+
+    }
+
 }
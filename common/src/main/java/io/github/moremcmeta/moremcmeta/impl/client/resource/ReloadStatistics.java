@@ -0,0 +1,208 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import net.minecraft.util.profiling.ProfilerFiller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Counts the items processed in each stage of a texture reload and the time spent on them.
+ * Stages run on many threads at once, so a stage's time is the total across all threads
+ * rather than the wall time of the stage.</p>
+ *
+ * <p>Recording is thread-safe. Counts can be attached to Minecraft's reload profiler and
+ * described for the log once a reload finishes.</p>
+ * @author soir20
+ */
+public final class ReloadStatistics {
+    private static final int STAGES = Stage.values().length;
+    private final LongAdder[] COUNTS;
+    private final LongAdder[] NANOS;
+
+    /**
+     * Creates statistics with nothing recorded.
+     */
+    public ReloadStatistics() {
+        COUNTS = new LongAdder[STAGES];
+        NANOS = new LongAdder[STAGES];
+
+        for (int index = 0; index < STAGES; index++) {
+            COUNTS[index] = new LongAdder();
+            NANOS[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records items processed in a stage.
+     * @param stage     stage that processed the items
+     * @param count     number of items processed
+     * @param nanos     time spent processing the items in nanoseconds
+     */
+    public void record(Stage stage, int count, long nanos) {
+        requireNonNull(stage, "Stage cannot be null");
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+
+        COUNTS[stage.ordinal()].add(count);
+        NANOS[stage.ordinal()].add(Math.max(0, nanos));
+    }
+
+    /**
+     * Records items processed in a stage, timed from the given start.
+     * @param stage         stage that processed the items
+     * @param count         number of items processed
+     * @param startNanos    value of {@link System#nanoTime()} when the stage started processing the items
+     */
+    public void recordSince(Stage stage, int count, long startNanos) {
+        record(stage, count, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the number of items processed in a stage.
+     * @param stage     stage to get the count for
+     * @return number of items processed
+     */
+    public long count(Stage stage) {
+        requireNonNull(stage, "Stage cannot be null");
+        return COUNTS[stage.ordinal()].sum();
+    }
+
+    /**
+     * Gets the time spent in a stage across all threads.
+     * @param stage     stage to get the time for
+     * @return time spent in nanoseconds
+     */
+    public long nanos(Stage stage) {
+        requireNonNull(stage, "Stage cannot be null");
+        return NANOS[stage.ordinal()].sum();
+    }
+
+    /**
+     * Clears everything recorded so far. Items recorded while the statistics are being
+     * reset may or may not be kept.
+     */
+    public void reset() {
+        for (int index = 0; index < STAGES; index++) {
+            COUNTS[index].reset();
+            NANOS[index].reset();
+        }
+    }
+
+    /**
+     * Attaches the counts and times of stages to the profiler's current section. Each stage
+     * is pushed as its own section, so that stages that ran off the profiler's thread still
+     * appear in the profiler's results.
+     * @param profiler      profiler to add the stages to
+     * @param stages        stages to add
+     */
+    public void addTo(ProfilerFiller profiler, Stage... stages) {
+        requireNonNull(profiler, "Profiler cannot be null");
+        requireNonNull(stages, "Stages cannot be null");
+
+        for (Stage stage : stages) {
+            requireNonNull(stage, "Stage cannot be null");
+
+            profiler.push(stage.profilerName());
+            addCountersTo(profiler, stage);
+            profiler.pop();
+        }
+    }
+
+    /**
+     * Attaches the count and time of a stage to the profiler's current section, for stages that
+     * already have their own section.
+     * @param profiler      profiler to add the stage's counters to
+     * @param stage         stage to add
+     */
+    public void addCountersTo(ProfilerFiller profiler, Stage stage) {
+        requireNonNull(profiler, "Profiler cannot be null");
+        requireNonNull(stage, "Stage cannot be null");
+
+        profiler.incrementCounter("count", saturatedInt(count(stage)));
+        profiler.incrementCounter("thread_micros", saturatedInt(nanos(stage) / 1000));
+    }
+
+    /**
+     * Describes every stage that processed at least one item, one line per stage.
+     * @return lines describing the stages, in the order that they run
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+
+        for (Stage stage : Stage.values()) {
+            long count = count(stage);
+            if (count == 0) {
+                continue;
+            }
+
+            long nanos = nanos(stage);
+            lines.add(String.format(
+                    Locale.ROOT,
+                    "%s: %s items in %.2f ms across threads (%.1f us each)",
+                    stage.profilerName(),
+                    count,
+                    nanos / 1e6,
+                    nanos / 1e3 / count
+            ));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Converts a long to an int, clamping it to the largest int if it is too large.
+     * @param value     value to convert
+     * @return the value as an int
+     */
+    private static int saturatedInt(long value) {
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+
+    /**
+     * A stage of a texture reload.
+     * @author soir20
+     */
+    public enum Stage {
+        PACK_LISTING,
+        ROOT_METADATA_PARSE,
+        METADATA_PARSE,
+        TEXTURE_DECODE,
+        ANALYSIS,
+        ASSEMBLY,
+        SPRITE_DISCOVERY,
+        REGISTRATION;
+
+        /**
+         * Gets the name of this stage in the profiler.
+         * @return name of this stage in the profiler
+         */
+        public String profilerName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+}
@@ -18,6 +18,9 @@
 package io.github.moremcmeta.moremcmeta.impl.client.resource;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.GuiScaling;
 import io.github.moremcmeta.moremcmeta.impl.client.io.TextureData;
 import net.minecraft.MethodsReturnNonnullByDefault;
@@ -32,11 +35,11 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -49,11 +52,14 @@ import static java.util.Objects.requireNonNull;
 @MethodsReturnNonnullByDefault
 public final class SpriteFrameSizeFixPack implements PackResources {
     private static final String VANILLA_METADATA_EXTENSION = ".mcmeta";
-    private final ImmutableMap<? extends ResourceLocation, ? extends TextureData<?>> TEXTURES;
+    private final ImmutableMap<ResourceLocation, byte[]> REPLACEMENTS;
+    private final ImmutableMap<String, ImmutableSortedMap<String, ResourceLocation>> METADATA_LOCATIONS;
+    private final ImmutableSet<String> NAMESPACES;
     private final ImmutableMap<? extends String, ? extends StreamSource> ROOT_RESOURCES;
 
     /**
-     * Creates a new sprite fix pack.
+     * Creates a new sprite fix pack. The replacement metadata for every texture is created up front,
+     * since vanilla requests it many times while stitching atlases.
      * @param textures              textures controlled by the mod. Every texture must have an image set.
      * @param rootResources         root resources for this pack
      */
@@ -61,7 +67,32 @@ public final class SpriteFrameSizeFixPack implements PackResources {
                                   Map<? extends String, ? extends StreamSource> rootResources) {
         requireNonNull(textures, "Textures cannot be null");
         requireNonNull(rootResources, "Root resources cannot be null");
-        TEXTURES = ImmutableMap.copyOf(textures);
+
+        ImmutableMap.Builder<ResourceLocation, byte[]> replacements = new ImmutableMap.Builder<>();
+        Map<String, ImmutableSortedMap.Builder<String, ResourceLocation>> metadataLocations = new HashMap<>();
+
+        textures.forEach((location, textureData) -> {
+            replacements.put(location, makeReplacementJson(
+                    textureData.guiScaling(),
+                    textureData.frameSize().width(),
+                    textureData.frameSize().height()
+            ).getBytes(StandardCharsets.UTF_8));
+
+            ImmutableSortedMap.Builder<String, ResourceLocation> namespaceLocations = metadataLocations.computeIfAbsent(
+                    location.getNamespace(),
+                    (namespace) -> ImmutableSortedMap.naturalOrder()
+            );
+            getMetadataLocation(location).ifPresent(
+                    (metadataLocation) -> namespaceLocations.put(location.getPath(), metadataLocation)
+            );
+        });
+
+        REPLACEMENTS = replacements.build();
+        METADATA_LOCATIONS = ImmutableMap.copyOf(Maps.transformValues(
+                metadataLocations,
+                ImmutableSortedMap.Builder::build
+        ));
+        NAMESPACES = METADATA_LOCATIONS.keySet();
         ROOT_RESOURCES = ImmutableMap.copyOf(rootResources);
     }
 
@@ -104,18 +135,11 @@ public final class SpriteFrameSizeFixPack implements PackResources {
             return null;
         }
 
-        ResourceLocation textureLocation = textureLocationOptional.get();
-        boolean isKnownTexture = TEXTURES.containsKey(textureLocation);
+        byte[] replacement = REPLACEMENTS.get(textureLocationOptional.get());
         boolean isVanillaMetadata = location.getPath().endsWith(VANILLA_METADATA_EXTENSION);
 
-        if (isKnownTexture && isVanillaMetadata) {
-            TextureData<?> textureData = TEXTURES.get(textureLocation);
-            int frameWidth = textureData.frameSize().width();
-            int frameHeight = textureData.frameSize().height();
-            Optional<GuiScaling> guiScaling = textureData.guiScaling();
-            return () -> new ByteArrayInputStream(
-                    makeReplacementJson(guiScaling, frameWidth, frameHeight).getBytes(StandardCharsets.UTF_8)
-            );
+        if (replacement != null && isVanillaMetadata) {
+            return () -> new ByteArrayInputStream(replacement);
         }
 
         return null;
@@ -142,20 +166,20 @@ public final class SpriteFrameSizeFixPack implements PackResources {
         }
 
         String directoryStart = !pathStart.isEmpty() ? pathStart + "/" : "";
+        ImmutableSortedMap<String, ResourceLocation> metadataLocations = METADATA_LOCATIONS.get(namespace);
+        if (metadataLocations == null) {
+            return;
+        }
 
-        TEXTURES.keySet().forEach((location) -> {
-            String path = location.getPath();
-            boolean isRightNamespace = location.getNamespace().equals(namespace);
-            boolean isRightPath = path.startsWith(directoryStart);
-            if (isRightNamespace && isRightPath) {
-                getMetadataLocation(location).ifPresent(
-                        (metadataLocation) -> resourceOutput.accept(
-                                metadataLocation,
-                                getResource(PackType.CLIENT_RESOURCES, metadataLocation)
-                        )
-                );
+        // Paths are sorted, so all paths with the same start are next to each other
+        for (Map.Entry<String, ResourceLocation> entry : metadataLocations.tailMap(directoryStart).entrySet()) {
+            if (!entry.getKey().startsWith(directoryStart)) {
+                break;
             }
-        });
+
+            ResourceLocation metadataLocation = entry.getValue();
+            resourceOutput.accept(metadataLocation, getResource(PackType.CLIENT_RESOURCES, metadataLocation));
+        }
 
     }
 
@@ -167,8 +191,7 @@ public final class SpriteFrameSizeFixPack implements PackResources {
     @Override
     public Set<String> getNamespaces(PackType packType) {
         requireNonNull(packType, "Pack type cannot be null");
-        return packType == PackType.CLIENT_RESOURCES ?
-                TEXTURES.keySet().stream().map(ResourceLocation::getNamespace).collect(Collectors.toSet()) : Set.of();
+        return packType == PackType.CLIENT_RESOURCES ? NAMESPACES : Set.of();
     }
 
     /**
@@ -206,7 +229,7 @@ public final class SpriteFrameSizeFixPack implements PackResources {
      * @return location of the texture associated with the metadata or the same location
      *         if it is not the location of vanilla metadata
      */
-    private Optional<ResourceLocation> getTextureLocation(ResourceLocation location) {
+    private static Optional<ResourceLocation> getTextureLocation(ResourceLocation location) {
 
         // Some mods allow invalid resource locations to be created, so we ignore them like vanilla packs do
         return Optional.ofNullable(ResourceLocation.tryBuild(
@@ -220,7 +243,7 @@ public final class SpriteFrameSizeFixPack implements PackResources {
      * @param location      location of texture
      * @return location of the metadata  associated with the texture
      */
-    private Optional<ResourceLocation> getMetadataLocation(ResourceLocation location) {
+    private static Optional<ResourceLocation> getMetadataLocation(ResourceLocation location) {
 
         // Some mods allow invalid resource locations to be created, so we ignore them like vanilla packs do
         return Optional.ofNullable(ResourceLocation.tryBuild(
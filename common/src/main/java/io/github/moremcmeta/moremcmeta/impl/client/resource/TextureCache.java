@@ -88,6 +88,18 @@ public final class TextureCache<R, S> {
         LOCK.unlock();
     }
 
+    /**
+     * Removes all data from the cache without loading any new data, so that the next load
+     * fills the cache even if it has the same state as the last load. Threads that try to get
+     * data from the cache will wait until the cache is loaded again.
+     */
+    public void clear() {
+        LOCK.lock();
+        CACHE.clear();
+        state = null;
+        LOCK.unlock();
+    }
+
     /**
      * Waits until the cache contains the data for the given state and then returns an immutable
      * copy of the cache contents. While waiting, the thread calling this method cannot be
@@ -20,6 +20,7 @@ package io.github.moremcmeta.moremcmeta.impl.client.resource;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
@@ -51,17 +52,24 @@ import java.util.stream.IntStream;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Loads textures during resource reloading.
+ * <p>Loads textures during resource reloading.</p>
+ *
+ * <p>Metadata in the {@link BinaryMetadataFormat} is converted from the other formats ahead of time, so
+ * when a pack has binary metadata for a texture, that pack's metadata for the texture in any other
+ * format is ignored. This lets converted files sit next to the files they were converted from.</p>
  * @param <R> resource type
  * @author soir20
  */
 public final class TextureLoader<R> {
+    private static final String BINARY_EXTENSION = "." + BinaryMetadataFormat.EXTENSION;
     private final TextureReader<? extends R> TEXTURE_READER;
     private final Map<String, ? extends MetadataParser> PARSERS;
+    private final Optional<ImmutableSet<String>> SECTION_NAMES;
+    private final ReloadStatistics STATISTICS;
     private final Logger LOGGER;
 
     /**
-     * Creates a TextureLoader.
+     * Creates a TextureLoader that does not tell parsers which sections will be used.
      * @param textureReader         reads textures from a stream of file data
      * @param metadataParsers       {@link MetadataParser}s by extension. All extensions must start with a
      *                              period (.) and contain at least one other character.
@@ -69,8 +77,63 @@ public final class TextureLoader<R> {
      */
     public TextureLoader(TextureReader<? extends R> textureReader,
                          ImmutableMap<String, ? extends MetadataParser> metadataParsers, Logger logger) {
+        this(textureReader, metadataParsers, Optional.empty(), new ReloadStatistics(), logger);
+    }
+
+    /**
+     * Creates a TextureLoader that lets parsers skip sections that will not be used.
+     * @param textureReader         reads textures from a stream of file data
+     * @param metadataParsers       {@link MetadataParser}s by extension. All extensions must start with a
+     *                              period (.) and contain at least one other character.
+     * @param sectionNames          names of all sections that the texture reader may use
+     * @param logger                logs listener-related messages to the game's output
+     */
+    public TextureLoader(TextureReader<? extends R> textureReader,
+                         ImmutableMap<String, ? extends MetadataParser> metadataParsers,
+                         ImmutableSet<String> sectionNames, Logger logger) {
+        this(textureReader, metadataParsers, sectionNames, new ReloadStatistics(), logger);
+    }
+
+    /**
+     * Creates a TextureLoader that lets parsers skip sections that will not be used and records
+     * the items processed in each stage of loading.
+     * @param textureReader         reads textures from a stream of file data
+     * @param metadataParsers       {@link MetadataParser}s by extension. All extensions must start with a
+     *                              period (.) and contain at least one other character.
+     * @param sectionNames          names of all sections that the texture reader may use
+     * @param statistics            records the pack listing and metadata parsing stages
+     * @param logger                logs listener-related messages to the game's output
+     */
+    public TextureLoader(TextureReader<? extends R> textureReader,
+                         ImmutableMap<String, ? extends MetadataParser> metadataParsers,
+                         ImmutableSet<String> sectionNames, ReloadStatistics statistics, Logger logger) {
+        this(
+                textureReader,
+                metadataParsers,
+                Optional.of(requireNonNull(sectionNames, "Section names cannot be null")),
+                statistics,
+                logger
+        );
+    }
+
+    /**
+     * Creates a TextureLoader.
+     * @param textureReader         reads textures from a stream of file data
+     * @param metadataParsers       {@link MetadataParser}s by extension. All extensions must start with a
+     *                              period (.) and contain at least one other character.
+     * @param sectionNames          names of all sections that the texture reader may use, if known
+     * @param statistics            records the pack listing and metadata parsing stages
+     * @param logger                logs listener-related messages to the game's output
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private TextureLoader(TextureReader<? extends R> textureReader,
+                          ImmutableMap<String, ? extends MetadataParser> metadataParsers,
+                          Optional<ImmutableSet<String>> sectionNames, ReloadStatistics statistics,
+                          Logger logger) {
         TEXTURE_READER = requireNonNull(textureReader, "Texture reader cannot be null");
         PARSERS = requireNonNull(metadataParsers, "Metadata parsers cannot be null");
+        SECTION_NAMES = sectionNames;
+        STATISTICS = requireNonNull(statistics, "Statistics cannot be null");
 
         if (PARSERS.keySet().stream().anyMatch((ext) -> ext.lastIndexOf('.') != 0 || ext.length() < 2)) {
             throw new IllegalArgumentException("File extensions must contain only one period (.) at the start and " +
@@ -97,11 +160,13 @@ public final class TextureLoader<R> {
             throw new IllegalArgumentException("Path cannot be empty or start with a slash: " + invalidPath.get());
         }
 
+        long listingStart = System.nanoTime();
         Set<ResourceLocation> metadataCandidates = searchResources(
                 repository,
                 paths,
                 (fileName) -> PARSERS.keySet().stream().anyMatch(fileName::endsWith)
         );
+        STATISTICS.recordSince(ReloadStatistics.Stage.PACK_LISTING, metadataCandidates.size(), listingStart);
 
         return makeTextures(metadataCandidates, repository, paths);
     }
@@ -235,6 +300,7 @@ public final class TextureLoader<R> {
             ResourceRepository.Pack pack = wrap(collections.get(index), repository.resourceType());
 
             PARSERS.forEach((extension, parser) -> {
+                long parseStart = System.nanoTime();
                 Map<ResourceLocation, ReadMetadataFile> metadata = parser.parse(pack).entrySet().stream().collect(Collectors.toMap(
                         (metadataEntry) -> pack.locateRootResource(metadataEntry.getKey()),
 
@@ -249,6 +315,7 @@ public final class TextureLoader<R> {
                 ));
 
                 results.putAll(metadata);
+                STATISTICS.recordSince(ReloadStatistics.Stage.ROOT_METADATA_PARSE, 1, parseStart);
             });
         });
     }
@@ -263,6 +330,7 @@ public final class TextureLoader<R> {
     private void readMetadata(OrderedResourceRepository repository, ResourceLocation metadataLocation,
                               Map<ResourceLocation, ReadMetadataFile> results, String... paths) {
         PackType resourceType = repository.resourceType();
+        long parseStart = System.nanoTime();
 
         try {
             OrderedResourceRepository.ResourceCollectionResult metadataResources = repository
@@ -273,9 +341,11 @@ public final class TextureLoader<R> {
 
             // There must be a parser for this extension since we only retrieved files with parsers' extensions
             InputStream metadataStream = metadataResources.collection().find(resourceType, metadataLocation);
-            Map<? extends ResourceLocation, ? extends MetadataView> metadata = PARSERS
-                    .get(extension)
-                    .parse(metadataLocation, metadataStream, wrap(repository, paths));
+            MetadataParser parser = PARSERS.get(extension);
+            ResourceRepository wrappedRepository = wrap(repository, paths);
+            Map<? extends ResourceLocation, ? extends MetadataView> metadata = SECTION_NAMES.isPresent()
+                    ? parser.parse(metadataLocation, metadataStream, wrappedRepository, SECTION_NAMES.get())
+                    : parser.parse(metadataLocation, metadataStream, wrappedRepository);
             metadataStream.close();
 
             results.put(metadataLocation, new ReadMetadataFile(metadata, metadataResources.collectionIndex(), extension));
@@ -286,6 +356,8 @@ public final class TextureLoader<R> {
             if (!metadataError.silenced()) {
                 LOGGER.error("Invalid metadata in file {}: {}", metadataLocation, metadataError);
             }
+        } finally {
+            STATISTICS.recordSince(ReloadStatistics.Stage.METADATA_PARSE, 1, parseStart);
         }
     }
 
@@ -329,7 +401,8 @@ public final class TextureLoader<R> {
             }
 
             int textureCollectionIndex = textureIndexOptional.get();
-            allMetadata = allMetadata.metadataApplicableToTextureIn(textureCollectionIndex);
+            allMetadata = allMetadata.metadataApplicableToTextureIn(textureCollectionIndex)
+                    .preferringInSameCollection(BINARY_EXTENSION);
 
             Set<String> extensions = allMetadata.extensions();
             if (extensions.isEmpty()) {
@@ -529,6 +602,30 @@ public final class TextureLoader<R> {
             );
         }
 
+        /**
+         * Gets a new metadata wrapper where metadata with the given extension replaces metadata with
+         * all other extensions from the same collection.
+         * @param extension         extension of the preferred metadata
+         * @return metadata wrapper without metadata replaced by the preferred metadata
+         */
+        public TextureMetadata preferringInSameCollection(String extension) {
+            Set<Integer> preferredCollections = METADATA.values().stream()
+                    .filter((triple) -> triple.getRight().equals(extension))
+                    .map(Triple::getMiddle)
+                    .collect(Collectors.toSet());
+
+            if (preferredCollections.isEmpty()) {
+                return this;
+            }
+
+            return new TextureMetadata(
+                    METADATA.entrySet().stream()
+                            .filter((entry) -> entry.getValue().getRight().equals(extension)
+                                    || !preferredCollections.contains(entry.getValue().getMiddle()))
+                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
+            );
+        }
+
         /**
          * Creates a new wrapper for per-texture metadata.
          * @param metadata      metadata to initialize the wrapper with
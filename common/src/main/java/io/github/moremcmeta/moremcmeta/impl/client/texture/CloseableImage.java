@@ -42,6 +42,36 @@ public interface CloseableImage {
      */
     void setColor(int x, int y, int color);
 
+    /**
+     * Gets the colors of a horizontal run of pixels in this image.
+     * @param x         x-coordinate of the leftmost pixel in the run
+     * @param y         y-coordinate of the pixels in the run
+     * @param colors    array to put the colors in
+     * @param offset    index in the array for the color of the leftmost pixel
+     * @param length    number of pixels in the run
+     * @throws IllegalStateException if this image has been closed
+     */
+    default void colors(int x, int y, int[] colors, int offset, int length) {
+        for (int index = 0; index < length; index++) {
+            colors[offset + index] = color(x + index, y);
+        }
+    }
+
+    /**
+     * Sets the colors of a horizontal run of pixels in this image.
+     * @param x         x-coordinate of the leftmost pixel in the run
+     * @param y         y-coordinate of the pixels in the run
+     * @param colors    array with the new colors
+     * @param offset    index in the array of the new color of the leftmost pixel
+     * @param length    number of pixels in the run
+     * @throws IllegalStateException if this image has been closed
+     */
+    default void setColors(int x, int y, int[] colors, int offset, int length) {
+        for (int index = 0; index < length; index++) {
+            setColor(x + index, y, colors[offset + index]);
+        }
+    }
+
     /**
      * Gets the width (pixels) of this image.
      * @return  the width of this image
@@ -79,6 +109,19 @@ public interface CloseableImage {
      */
     void upload(int uploadX, int uploadY);
 
+    /**
+     * Uploads a portion of this image at the given coordinates. This is equivalent to uploading
+     * a {@link #subImage(int, int, int, int)} of this image, but no sub-image is created.
+     * @param uploadX       horizontal position to upload at
+     * @param uploadY       vertical position to upload at
+     * @param topLeftX      x-coordinate of the top-left corner of the portion to upload
+     * @param topLeftY      y-coordinate of the top-left corner of the portion to upload
+     * @param width         width of the portion to upload
+     * @param height        height of the portion to upload
+     * @throws IllegalStateException if this image has been closed
+     */
+    void upload(int uploadX, int uploadY, int topLeftX, int topLeftY, int width, int height);
+
     /**
      * Takes a portion of this image as a separate {@link CloseableImage}. This image will be
      * closed when the sub-image is closed and vice versa. Changes in the original image or any of
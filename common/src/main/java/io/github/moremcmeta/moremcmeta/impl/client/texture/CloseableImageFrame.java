@@ -25,9 +25,11 @@ import io.github.moremcmeta.moremcmeta.api.math.Point;
 import io.github.moremcmeta.moremcmeta.impl.adt.SparseIntMatrix;
 import io.github.moremcmeta.moremcmeta.impl.client.io.FrameReader;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -51,6 +53,7 @@ public class CloseableImageFrame {
     private final int TOP_LAYER_INDEX;
     private ImmutableList<? extends CloseableImage> mipmaps;
     private boolean closed;
+    private long uploads;
 
     /**
      * Creates a new frame based on frame data.
@@ -156,17 +159,23 @@ public class CloseableImageFrame {
         }
 
         for (int level = 0; level <= mipmap; level++) {
-            CloseableImage mipmapImage = mipmaps.get(level).subImage(
-                    subAreaX >> level,
-                    subAreaY >> level,
-                    subAreaWidth >> level,
-                    subAreaHeight >> level
-            );
+            int width = subAreaWidth >> level;
+            int height = subAreaHeight >> level;
 
-            if (mipmapImage.width() > 0 && mipmapImage.height() > 0) {
-                mipmapImage.upload(x >> level, y >> level);
+            if (width > 0 && height > 0) {
+                mipmaps.get(level).upload(x >> level, y >> level, subAreaX >> level, subAreaY >> level, width, height);
             }
         }
+
+        uploads++;
+    }
+
+    /**
+     * Gets the number of times this frame has been uploaded.
+     * @return number of uploads of this frame
+     */
+    public long uploads() {
+        return uploads;
     }
 
     /**
@@ -236,29 +245,20 @@ public class CloseableImageFrame {
      * @param transform     transform to apply
      * @param applyArea     area to apply the transformation to
      * @param layer         the index of the layer to apply the transformation to
+     * @return whether the color of any pixel in the frame changed
      * @throws IllegalStateException if this frame has been closed
      */
-    public void applyTransform(ColorTransform transform, Area applyArea, int layer) {
+    public boolean applyTransform(ColorTransform transform, Area applyArea, int layer) {
         checkOpen();
 
         requireNonNull(transform, "Transform cannot be null");
         requireNonNull(applyArea, "Apply area cannot be null");
-
-        if (layer < 0) {
-            throw new IllegalArgumentException(String.format("Layer index cannot be negative: %s", layer));
-        }
-
-        // We omit the top layer from the list of lower layers, so do not check for equality
-        if (layer > TOP_LAYER_INDEX) {
-            throw new IllegalArgumentException(
-                    String.format("Layer index is out of bounds: %s when the max is %s", layer, TOP_LAYER_INDEX)
-            );
-        }
+        checkLayerInBounds(layer);
 
         Layer layerBelow = layerBelow(layer);
 
         // Apply transformation to the original image
-        Layer thisLayer = layer == TOP_LAYER_INDEX ? TOP_LAYER : LOWER_LAYERS.get(layer);
+        Layer thisLayer = layer(layer);
         List<LongList> results = new ArrayList<>();
 
         if (applyArea.size() > SUB_AREA_SIZE_HINT) {
@@ -279,6 +279,160 @@ public class CloseableImageFrame {
             results.add(applyTransform(transform, layerBelow, thisLayer, applyArea));
         }
 
+        return updateMipmaps(results);
+    }
+
+    /**
+     * Writes colors that were previously generated for a layer, such as colors read with
+     * {@link #layerColors(Area, int)}, without computing them again. The colors are written
+     * in the iteration order of the area, and the mipmaps are updated as they would be by
+     * {@link #applyTransform(ColorTransform, Area, int)}. Points that are next to each other
+     * in the same row are copied together.
+     * @param colors        colors to write, one for each point in the area
+     * @param applyArea     area to write the colors to
+     * @param layer         the index of the layer to write the colors to
+     * @return whether the color of any pixel in the frame changed
+     * @throws IllegalStateException if this frame has been closed
+     */
+    public boolean applyColors(int[] colors, Area applyArea, int layer) {
+        checkOpen();
+
+        requireNonNull(colors, "Colors cannot be null");
+        requireNonNull(applyArea, "Apply area cannot be null");
+        checkLayerInBounds(layer);
+
+        if (colors.length != applyArea.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Apply area has %s points but %s colors were provided",
+                    applyArea.size(),
+                    colors.length
+            ));
+        }
+
+        Layer thisLayer = layer(layer);
+        LongList modifiedPoints = new LongArrayList();
+        LongIterator points = applyArea.iterator();
+
+        // Areas iterate over each row in segments, so consecutive points usually form a run
+        int runStart = 0;
+        int runX = 0;
+        int runY = 0;
+        for (int index = 0; index < colors.length; index++) {
+            long point = points.nextLong();
+            int x = Point.x(point);
+            int y = Point.y(point);
+            checkPointInBounds(x, y);
+
+            boolean continuesRun = index > runStart && y == runY && x == runX + (index - runStart);
+            if (index > runStart && !continuesRun) {
+                thisLayer.writeRow(runX, runY, colors, runStart, index - runStart, modifiedPoints);
+                runStart = index;
+            }
+
+            if (index == runStart) {
+                runX = x;
+                runY = y;
+            }
+        }
+
+        if (colors.length > runStart) {
+            thisLayer.writeRow(runX, runY, colors, runStart, colors.length - runStart, modifiedPoints);
+        }
+
+        return updateMipmaps(List.of(modifiedPoints));
+    }
+
+    /**
+     * Replaces all pixels in this frame, including its mipmaps, with the pixels in another frame,
+     * and forgets which layers modified which points. Afterward, this frame behaves as if it had been
+     * created from the other frame's images. The other frame must have the same size and at least as
+     * many mipmaps as this frame.
+     * @param other         frame to copy pixels from
+     * @throws IllegalStateException if this frame or the other frame has been closed
+     */
+    public void copyFrom(CloseableImageFrame other) {
+        checkOpen();
+        requireNonNull(other, "Other frame cannot be null");
+        other.checkOpen();
+
+        if (other.WIDTH != WIDTH || other.HEIGHT != HEIGHT) {
+            throw new IllegalArgumentException(String.format(
+                    "Frame of size %sx%s cannot be copied into frame of size %sx%s",
+                    other.WIDTH, other.HEIGHT, WIDTH, HEIGHT
+            ));
+        }
+
+        if (other.mipmapLevel() < mipmapLevel()) {
+            throw new IllegalArgumentException(String.format(
+                    "Frame with mipmap level %s cannot be copied into frame with mipmap level %s",
+                    other.mipmapLevel(), mipmapLevel()
+            ));
+        }
+
+        for (int level = 0; level <= mipmapLevel(); level++) {
+            mipmaps.get(level).copyFrom(other.mipmaps.get(level));
+        }
+
+        LOWER_LAYERS.forEach(Layer::clear);
+        TOP_LAYER.clear();
+    }
+
+    /**
+     * Reads the colors of a layer in the iteration order of an area. After a transform is applied
+     * to an area, these are the colors that the transform produced.
+     * @param applyArea     area to read the colors from
+     * @param layer         the index of the layer to read the colors from
+     * @return the colors of the layer, one for each point in the area
+     * @throws IllegalStateException if this frame has been closed
+     */
+    public int[] layerColors(Area applyArea, int layer) {
+        checkOpen();
+
+        requireNonNull(applyArea, "Apply area cannot be null");
+        checkLayerInBounds(layer);
+
+        Layer thisLayer = layer(layer);
+        int[] colors = new int[applyArea.size()];
+        LongIterator points = applyArea.iterator();
+
+        for (int index = 0; index < colors.length; index++) {
+            long point = points.nextLong();
+            int x = Point.x(point);
+            int y = Point.y(point);
+            checkPointInBounds(x, y);
+            colors[index] = thisLayer.read(x, y);
+        }
+
+        return colors;
+    }
+
+    /**
+     * Gets the number of layers in this frame.
+     * @return the number of layers in this frame
+     */
+    public int layers() {
+        return TOP_LAYER_INDEX + 1;
+    }
+
+    /**
+     * Closes all resources associated with this frame. Idempotent.
+     */
+    public void close() {
+        closed = true;
+        mipmaps.forEach(CloseableImage::close);
+    }
+
+    /**
+     * Updates the mipmaps at the points where the color in the top-level mipmap changed.
+     * @param results       lists of points where the color changed
+     * @return whether the color of any pixel in the frame changed
+     */
+    private boolean updateMipmaps(List<LongList> results) {
+        boolean changed = false;
+        for (LongList lastModified : results) {
+            changed |= !lastModified.isEmpty();
+        }
+
         /* Update corresponding mipmap pixels.
            Plugins have no knowledge of mipmaps, and giving them that
            knowledge would require all of them to handle additional
@@ -316,32 +470,44 @@ public class CloseableImageFrame {
             }
         }
 
+        return changed;
     }
 
     /**
-     * Gets the number of layers in this frame.
-     * @return the number of layers in this frame
+     * Checks if this frame is closed and throws an exception if so; otherwise, does nothing.
+     * @throws IllegalStateException if this frame has been closed
      */
-    public int layers() {
-        return TOP_LAYER_INDEX + 1;
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Frame is closed");
+        }
     }
 
     /**
-     * Closes all resources associated with this frame. Idempotent.
+     * Checks that a layer index refers to a layer in this frame and throws an exception if not.
+     * @param layer     index of the layer to check
+     * @throws IllegalArgumentException if there is no layer with the given index
      */
-    public void close() {
-        closed = true;
-        mipmaps.forEach(CloseableImage::close);
+    private void checkLayerInBounds(int layer) {
+        if (layer < 0) {
+            throw new IllegalArgumentException(String.format("Layer index cannot be negative: %s", layer));
+        }
+
+        // We omit the top layer from the list of lower layers, so do not check for equality
+        if (layer > TOP_LAYER_INDEX) {
+            throw new IllegalArgumentException(
+                    String.format("Layer index is out of bounds: %s when the max is %s", layer, TOP_LAYER_INDEX)
+            );
+        }
     }
 
     /**
-     * Checks if this frame is closed and throws an exception if so; otherwise, does nothing.
-     * @throws IllegalStateException if this frame has been closed
+     * Gets the layer with the given index.
+     * @param layer     index of the layer to retrieve
+     * @return the layer with the given index
      */
-    private void checkOpen() {
-        if (closed) {
-            throw new IllegalStateException("Frame is closed");
-        }
+    private Layer layer(int layer) {
+        return layer == TOP_LAYER_INDEX ? TOP_LAYER : LOWER_LAYERS.get(layer);
     }
 
     /**
@@ -380,7 +546,7 @@ public class CloseableImageFrame {
      * @param layerBelow    layer below the layer being modified
      * @param thisLayer     layer being modified
      * @param subArea       sub area to apply the transform to
-     * @return all points where the underlying image was modified
+     * @return all points where the color in the underlying image changed
      */
     private LongList applyTransform(ColorTransform transform, Layer layerBelow, Layer thisLayer, Area subArea) {
         LongList modifiedPoints = new LongArrayList();
@@ -428,10 +594,22 @@ public class CloseableImageFrame {
          * @param x         the x-coordinate to write the color at
          * @param y         the y-coordinate to write the color at
          * @param color     the color to write
-         * @return whether the underlying image was modified
+         * @return whether the color in the underlying image changed
          */
         boolean write(int x, int y, int color);
 
+        /**
+         * Writes the colors of a horizontal run of points in this layer, as if each were written
+         * with {@link #write(int, int, int)}.
+         * @param x             the x-coordinate of the leftmost point in the run
+         * @param y             the y-coordinate of the points in the run
+         * @param colors        array with the colors to write
+         * @param offset        index in the array of the color of the leftmost point
+         * @param length        number of points in the run
+         * @param modified      list to add the points whose color in the underlying image changed to
+         */
+        void writeRow(int x, int y, int[] colors, int offset, int length, LongList modified);
+
         /**
          * Reads a color from the specified point in this layer.
          * @param x         the x-coordinate to read the color from
@@ -440,6 +618,11 @@ public class CloseableImageFrame {
          */
         int read(int x, int y);
 
+        /**
+         * Forgets all colors written to this layer, so that it reads the colors of the layers below.
+         */
+        void clear();
+
     }
 
     /**
@@ -477,12 +660,32 @@ public class CloseableImageFrame {
             }
         }
 
+        /**
+         * Writes colors to a horizontal run of points in this layer, skipping the points that the
+         * bottom layer has already written to itself. Does not attempt to write the colors to the
+         * underlying image (the top layer).
+         * @param x         the x-coordinate of the leftmost point in the run
+         * @param y         the y-coordinate of the points in the run
+         * @param colors    array with the colors to write
+         * @param offset    index in the array of the color of the leftmost point
+         * @param length    number of points in the run
+         */
+        public void tryWriteRow(int x, int y, int[] colors, int offset, int length) {
+            POINTS.setRowIfUnset(x, y, colors, offset, length);
+        }
+
         @Override
         public boolean write(int x, int y, int color) {
             POINTS.set(x, y, color);
             return TOP_LAYER.tryWrite(x, y, color, INDEX);
         }
 
+        @Override
+        public void writeRow(int x, int y, int[] colors, int offset, int length, LongList modified) {
+            POINTS.setRow(x, y, colors, offset, length);
+            TOP_LAYER.tryWriteRow(x, y, colors, offset, length, INDEX, modified);
+        }
+
         @Override
         public int read(int x, int y) {
             if (POINTS.isSet(x, y)) {
@@ -491,6 +694,11 @@ public class CloseableImageFrame {
 
             return TOP_LAYER.read(x, y);
         }
+
+        @Override
+        public void clear() {
+            POINTS.clear();
+        }
     }
 
     /**
@@ -524,6 +732,12 @@ public class CloseableImageFrame {
             return TOP_LAYER.tryWrite(x, y, color, INDEX);
         }
 
+        @Override
+        public void writeRow(int x, int y, int[] colors, int offset, int length, LongList modified) {
+            POINTS.setRow(x, y, colors, offset, length);
+            TOP_LAYER.tryWriteRow(x, y, colors, offset, length, INDEX, modified);
+        }
+
         @Override
         public int read(int x, int y) {
             if (POINTS.isSet(x, y)) {
@@ -531,6 +745,11 @@ public class CloseableImageFrame {
             }
             return LAYER_BELOW.read(x, y);
         }
+
+        @Override
+        public void clear() {
+            POINTS.clear();
+        }
     }
 
     /**
@@ -540,8 +759,9 @@ public class CloseableImageFrame {
     private static class TopLayer implements Layer {
         private final CloseableImage IMAGE;
         private final int WIDTH;
+        private final int HEIGHT;
         private final byte INDEX;
-        private final byte[] MODIFIED_BY;
+        private volatile byte[] modifiedBy;
         private BottomLayer bottomLayer;
 
         /**
@@ -554,8 +774,8 @@ public class CloseableImageFrame {
         public TopLayer(CloseableImage image, int width, int height, byte index) {
             IMAGE = image;
             WIDTH = width;
+            HEIGHT = height;
             INDEX = index;
-            MODIFIED_BY = new byte[width * height];
         }
 
         /**
@@ -573,11 +793,12 @@ public class CloseableImageFrame {
          * @param y         the y-coordinate to try to write to
          * @param color     the color to write at the given point
          * @param layer     the layer that is writing to this layer
-         * @return whether the color was written to this layer
+         * @return whether the color at the point changed
          */
         public boolean tryWrite(int x, int y, int color, byte layer) {
             int pointIndex = pointIndex(x, y);
-            if (layer < MODIFIED_BY[pointIndex]) {
+            byte[] lastWriters = modifiedBy;
+            if (lastWriters != null && layer < lastWriters[pointIndex]) {
                 return false;
             }
 
@@ -597,25 +818,141 @@ public class CloseableImageFrame {
                3. The top layer is written to after the bottom layer has been written to (at the
                   particular point). Then the bottom layer is storing the original color (case 2).
                   Hence, we don't need to write the original color to the bottom layer. */
+            int oldColor = read(x, y);
             if (bottomLayer != null) {
-                bottomLayer.tryWrite(x, y, read(x, y));
+                bottomLayer.tryWrite(x, y, oldColor);
+            }
+
+            // Every point starts as modified by the bottom layer, so its writes do not need to be recorded
+            if (layer > 0) {
+                modifiedBy()[pointIndex] = layer;
+            }
+
+            if (oldColor == color) {
+                return false;
             }
 
             IMAGE.setColor(x, y, color);
-            MODIFIED_BY[pointIndex] = layer;
             return true;
         }
 
+        /**
+         * Writes a horizontal run of points to this layer from a lower layer, like
+         * {@link #tryWrite(int, int, int, byte)} for each point. Points that a higher layer
+         * has written to are skipped, and the rest are read and written in bulk.
+         * @param x             the x-coordinate of the leftmost point in the run
+         * @param y             the y-coordinate of the points in the run
+         * @param colors        array with the colors to write
+         * @param offset        index in the array of the color of the leftmost point
+         * @param length        number of points in the run
+         * @param layer         the layer that is writing to this layer
+         * @param modified      list to add the points whose color changed to
+         */
+        public void tryWriteRow(int x, int y, int[] colors, int offset, int length, byte layer,
+                                LongList modified) {
+            int firstPointIndex = pointIndex(x, y);
+            byte[] lastWriters = modifiedBy;
+            if (lastWriters == null) {
+                writeRun(x, y, colors, offset, length, layer, modified);
+                return;
+            }
+
+            int start = 0;
+            while (start < length) {
+                if (layer < lastWriters[firstPointIndex + start]) {
+                    start++;
+                    continue;
+                }
+
+                int end = start + 1;
+                while (end < length && layer >= lastWriters[firstPointIndex + end]) {
+                    end++;
+                }
+
+                writeRun(x + start, y, colors, offset + start, end - start, layer, modified);
+                start = end;
+            }
+        }
+
         @Override
         public boolean write(int x, int y, int color) {
             return tryWrite(x, y, color, INDEX);
         }
 
+        @Override
+        public void writeRow(int x, int y, int[] colors, int offset, int length, LongList modified) {
+            tryWriteRow(x, y, colors, offset, length, INDEX, modified);
+        }
+
         @Override
         public int read(int x, int y) {
             return IMAGE.color(x, y);
         }
 
+        @Override
+        public void clear() {
+            modifiedBy = null;
+            if (bottomLayer != null) {
+                bottomLayer.clear();
+            }
+        }
+
+        /**
+         * Gets the layer that last modified each point, creating the array the first time a layer
+         * above the bottom layer writes to this layer.
+         * @return index of the layer that last modified each point
+         */
+        private byte[] modifiedBy() {
+            byte[] current = modifiedBy;
+            if (current != null) {
+                return current;
+            }
+
+            synchronized (this) {
+                if (modifiedBy == null) {
+                    modifiedBy = new byte[WIDTH * HEIGHT];
+                }
+
+                return modifiedBy;
+            }
+        }
+
+        /**
+         * Writes a horizontal run of points that no higher layer has written to. The original colors
+         * are moved to the bottom layer as in {@link #tryWrite(int, int, int, byte)}.
+         * @param x             the x-coordinate of the leftmost point in the run
+         * @param y             the y-coordinate of the points in the run
+         * @param colors        array with the colors to write
+         * @param offset        index in the array of the color of the leftmost point
+         * @param length        number of points in the run
+         * @param layer         the layer that is writing to this layer
+         * @param modified      list to add the points whose color changed to
+         */
+        private void writeRun(int x, int y, int[] colors, int offset, int length, byte layer, LongList modified) {
+            int[] oldColors = new int[length];
+            IMAGE.colors(x, y, oldColors, 0, length);
+            if (bottomLayer != null) {
+                bottomLayer.tryWriteRow(x, y, oldColors, 0, length);
+            }
+
+            if (layer > 0) {
+                int firstPointIndex = pointIndex(x, y);
+                Arrays.fill(modifiedBy(), firstPointIndex, firstPointIndex + length, layer);
+            }
+
+            boolean changed = false;
+            for (int index = 0; index < length; index++) {
+                if (oldColors[index] != colors[offset + index]) {
+                    modified.add(Point.pack(x + index, y));
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                IMAGE.setColors(x, y, colors, offset, length);
+            }
+        }
+
         /**
          * Converts a point to the index of a point in the modified set.
          * @param x     the x-coordinate to convert to an index
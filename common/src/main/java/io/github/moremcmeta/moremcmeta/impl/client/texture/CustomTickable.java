@@ -32,4 +32,22 @@ public interface CustomTickable {
      */
     void tick();
 
+    /**
+     * Advances this item by one tick without doing that tick's work, such as when there is no time
+     * left in the tick budget. Work for skipped ticks should be caught up later. By default, the item
+     * is ticked normally.
+     */
+    default void skipTick() {
+        tick();
+    }
+
+    /**
+     * Gets the number of ticks since this item was last used, such as by being bound. Items used more
+     * recently are ticked first when ticks have a time budget.
+     * @return number of ticks since this item was last used
+     */
+    default int ticksSinceUse() {
+        return 0;
+    }
+
 }
@@ -0,0 +1,176 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableMap;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable graph from base textures to the {@link EventDrivenTexture}s that upload to them.
+ * Each base is assigned a dense integer ID when the graph is built so that a base texture can
+ * resolve its ID once and upload its dependencies through plain array lookups afterward.
+ * @author soir20
+ */
+public final class DependencyGraph {
+
+    /**
+     * ID returned for bases that are not in the graph.
+     */
+    public static final int NO_ID = -1;
+
+    /**
+     * A graph without any bases.
+     */
+    public static final DependencyGraph EMPTY = new Builder().build();
+
+    private final Map<ResourceLocation, Integer> IDS;
+    private final ResourceLocation[] BASES;
+    private final int[] OFFSETS;
+    private final int[] DEPENDENCIES;
+    private final EventDrivenTexture[] TEXTURES;
+
+    /**
+     * Gets the ID of a base texture in this graph.
+     * @param base      full path of the base texture
+     * @return the ID of the base or {@link #NO_ID} if the base has no dependencies
+     */
+    public int id(ResourceLocation base) {
+        requireNonNull(base, "Base cannot be null");
+        return IDS.getOrDefault(base, NO_ID);
+    }
+
+    /**
+     * Gets the number of bases in this graph. IDs are in the range [0, bases).
+     * @return number of bases in this graph
+     */
+    public int bases() {
+        return BASES.length;
+    }
+
+    /**
+     * Gets the number of textures that depend on a base.
+     * @param baseId    ID of the base
+     * @return number of textures that depend on the base
+     */
+    public int dependencies(int baseId) {
+        checkId(baseId);
+        return OFFSETS[baseId + 1] - OFFSETS[baseId];
+    }
+
+    /**
+     * Uploads all textures that depend on a base, assuming the base is already bound.
+     * @param baseId    ID of the base
+     */
+    public void uploadDependencies(int baseId) {
+        checkId(baseId);
+
+        ResourceLocation base = BASES[baseId];
+        int end = OFFSETS[baseId + 1];
+        for (int index = OFFSETS[baseId]; index < end; index++) {
+            TEXTURES[DEPENDENCIES[index]].upload(base);
+        }
+    }
+
+    /**
+     * Checks that a base ID is in this graph.
+     * @param baseId    ID to check
+     * @throws IllegalArgumentException if the ID is not in the graph
+     */
+    private void checkId(int baseId) {
+        if (baseId < 0 || baseId >= BASES.length) {
+            throw new IllegalArgumentException("Base ID not in graph: " + baseId);
+        }
+    }
+
+    /**
+     * Creates a new dependency graph.
+     * @param dependencies      dependencies by base name
+     */
+    private DependencyGraph(Map<ResourceLocation, Set<EventDrivenTexture>> dependencies) {
+        Map<EventDrivenTexture, Integer> textureIds = new IdentityHashMap<>();
+        List<EventDrivenTexture> textures = new ArrayList<>();
+        ImmutableMap.Builder<ResourceLocation, Integer> ids = new ImmutableMap.Builder<>();
+
+        BASES = new ResourceLocation[dependencies.size()];
+        OFFSETS = new int[dependencies.size() + 1];
+        DEPENDENCIES = new int[dependencies.values().stream().mapToInt(Set::size).sum()];
+
+        int baseId = 0;
+        int edge = 0;
+        for (Map.Entry<ResourceLocation, Set<EventDrivenTexture>> entry : dependencies.entrySet()) {
+            ids.put(entry.getKey(), baseId);
+            BASES[baseId] = entry.getKey();
+            OFFSETS[baseId] = edge;
+
+            for (EventDrivenTexture texture : entry.getValue()) {
+                DEPENDENCIES[edge++] = textureIds.computeIfAbsent(texture, (newTexture) -> {
+                    textures.add(newTexture);
+                    return textures.size() - 1;
+                });
+            }
+
+            baseId++;
+        }
+
+        OFFSETS[baseId] = edge;
+        IDS = ids.build();
+        TEXTURES = textures.toArray(new EventDrivenTexture[0]);
+    }
+
+    /**
+     * Builds a {@link DependencyGraph}.
+     * @author soir20
+     */
+    public static final class Builder {
+        private final Map<ResourceLocation, Set<EventDrivenTexture>> DEPENDENCIES = new LinkedHashMap<>();
+
+        /**
+         * Adds a texture that uploads to a base. Adding the same texture to a base twice has no effect.
+         * @param base          full path of the base texture
+         * @param dependency    texture that uploads to the base
+         * @return this builder for chaining
+         */
+        public Builder add(ResourceLocation base, EventDrivenTexture dependency) {
+            requireNonNull(base, "Base cannot be null");
+            requireNonNull(dependency, "Dependency cannot be null");
+
+            DEPENDENCIES.computeIfAbsent(base, (loc) -> new LinkedHashSet<>()).add(dependency);
+            return this;
+        }
+
+        /**
+         * Builds the graph from the dependencies added so far.
+         * @return the dependency graph
+         */
+        public DependencyGraph build() {
+            return new DependencyGraph(DEPENDENCIES);
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ package io.github.moremcmeta.moremcmeta.impl.client.texture;
 import io.github.moremcmeta.moremcmeta.api.client.texture.ColorTransform;
 import io.github.moremcmeta.moremcmeta.api.client.texture.CurrentFrameView;
 import io.github.moremcmeta.moremcmeta.api.client.texture.FrameGroup;
+import io.github.moremcmeta.moremcmeta.api.client.texture.FrameIndexOutOfBoundsException;
 import io.github.moremcmeta.moremcmeta.api.client.texture.IllegalFrameReferenceException;
 import io.github.moremcmeta.moremcmeta.api.client.texture.NegativeUploadPointException;
 import io.github.moremcmeta.moremcmeta.api.client.texture.PersistentFrameView;
@@ -35,6 +36,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
@@ -47,6 +49,16 @@ import static java.util.Objects.requireNonNull;
  * <p>No listeners are fired on the render thread. Wrap listener code with calls to
  * {@link com.mojang.blaze3d.systems.RenderSystem} if it must be executed on the
  * render thread.</p>
+ *
+ * <p>When {@link TextureInstrumentation#ENABLED} is true, the texture measures every listener and
+ * its transforms and uploads.</p>
+ *
+ * <p>When the texture has a {@link GeneratedFrameCache}, colors generated with a state key are stored
+ * and copied back into the generated frame when a component uses the same key again.</p>
+ *
+ * <p>When the texture has a {@link FrameStrip.Factory}, all predefined frames are uploaded to the GPU once
+ * the first time a component switches between them, and the predefined frames are copied on the GPU from
+ * then on. If the strip cannot be created, predefined frames are uploaded from CPU memory as usual.</p>
  * @author soir20
  */
 public final class EventDrivenTexture extends AbstractTexture implements CustomTickable {
@@ -62,8 +74,15 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
     public static final int SELF_MIPMAP_LEVEL = 0;
 
     private final List<CoreTextureComponent> COMPONENTS;
+    @Nullable
+    private final TextureInstrumentation INSTRUMENTATION;
     private final TextureState CURRENT_STATE;
+    @Nullable
+    private final TimeStepping TIME_STEPPING;
     private int ticks;
+    private int skippedTicks;
+    private long lastTickNanos;
+    private long lastPartialTickNanos;
 
     @Override
     public void setFilter(boolean blur, boolean clamp) {
@@ -75,18 +94,47 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
 
     @Override
     public void load(@Nullable ResourceManager resourceManager) {
-        runListeners((component, view) -> component.onRegistration(view, CURRENT_STATE.predefinedFrames()));
+        runListeners(
+                TextureInstrumentation.Event.REGISTRATION,
+                (component, view) -> component.onRegistration(view, CURRENT_STATE.predefinedFrames())
+        );
     }
 
     @Override
     public void tick() {
-        runListeners((component, view) -> component.onTick(view, CURRENT_STATE.predefinedFrames()));
-        ticks = Math.max(0, ticks + 1);
+        replaySkippedTicks();
+        runListeners(
+                TextureInstrumentation.Event.TICK,
+                (component, view) -> component.onTick(view, CURRENT_STATE.predefinedFrames())
+        );
+        countTick();
+    }
+
+    /**
+     * Counts a tick without firing tick listeners. Skipped ticks are passed to
+     * {@link TextureComponent#onTick(Object, FrameGroup)} one at a time before the texture is next
+     * ticked or uploaded, and to {@link TextureComponent#onTick(Object, FrameGroup, int)} when the
+     * texture is next uploaded, so components receive every tick either way.
+     */
+    @Override
+    public void skipTick() {
+        skippedTicks = Math.max(0, skippedTicks + 1);
+        countTick();
+    }
+
+    @Override
+    public int ticksSinceUse() {
+        return ticks;
     }
 
     @Override
     public void close() {
-        runListeners((component, view) -> component.onClose(view, CURRENT_STATE.predefinedFrames()));
+        runListeners(
+                TextureInstrumentation.Event.CLOSE,
+                (component, view) -> component.onClose(view, CURRENT_STATE.predefinedFrames())
+        );
+        CURRENT_STATE.invalidateCache();
+        CURRENT_STATE.closeStrip();
     }
 
     /**
@@ -96,26 +144,86 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
     public void upload(ResourceLocation base) {
         requireNonNull(base, "Base cannot be null");
 
+        replaySkippedTicks();
         if (ticks > 0) {
-            runListeners((component, view) -> component.onTick(view, CURRENT_STATE.predefinedFrames(), ticks));
+            runListeners(
+                    TextureInstrumentation.Event.TICK,
+                    (component, view) -> component.onTick(view, CURRENT_STATE.predefinedFrames(), ticks)
+            );
             ticks = 0;
         }
 
+        if (TIME_STEPPING != null) {
+            long now = TIME_STEPPING.now();
+            if (TIME_STEPPING.isDue(lastPartialTickNanos, now)) {
+                float partialTick = TIME_STEPPING.partialTick(lastTickNanos, now);
+                lastPartialTickNanos = now;
+                runListeners(
+                        TextureInstrumentation.Event.TICK,
+                        (component, view) -> component.onPartialTick(view, CURRENT_STATE.predefinedFrames(),
+                                partialTick)
+                );
+            }
+        }
+
         if (!CURRENT_STATE.BASES_UPLOADED_SINCE_UPDATE.contains(base)) {
             CURRENT_STATE.BASES_UPLOADED_SINCE_UPDATE.add(base);
 
-            runListeners((textureComponent, textureAndFrameView) -> textureComponent.onUpload(textureAndFrameView, base));
+            runListeners(
+                    TextureInstrumentation.Event.UPLOAD,
+                    (textureComponent, textureAndFrameView) -> textureComponent.onUpload(textureAndFrameView, base)
+            );
+        }
+    }
+
+    /**
+     * Gets the measurements of this texture's components, transforms, and uploads.
+     * @return the texture's instrumentation, or empty if instrumentation is not enabled
+     */
+    public Optional<TextureInstrumentation> instrumentation() {
+        return Optional.ofNullable(INSTRUMENTATION);
+    }
+
+    /**
+     * Counts a tick that has passed, whether or not tick listeners were fired.
+     */
+    private void countTick() {
+        ticks = Math.max(0, ticks + 1);
+        if (TIME_STEPPING != null) {
+            lastTickNanos = TIME_STEPPING.now();
+        }
+    }
+
+    /**
+     * Fires the tick listeners that were not fired for skipped ticks, once for each skipped tick.
+     */
+    private void replaySkippedTicks() {
+        for (; skippedTicks > 0; skippedTicks--) {
+            runListeners(
+                    TextureInstrumentation.Event.TICK,
+                    (component, view) -> component.onTick(view, CURRENT_STATE.predefinedFrames())
+            );
         }
     }
 
     /**
      * Runs all listeners (a method for every component), each with its own temporary view.
+     * @param event       event that the listeners respond to
      * @param method      executes the necessary method from the component
      */
-    private void runListeners(BiConsumer<CoreTextureComponent, TextureAndFrameView> method) {
+    private void runListeners(TextureInstrumentation.Event event,
+                              BiConsumer<CoreTextureComponent, TextureAndFrameView> method) {
         for (int layer = 0; layer < COMPONENTS.size(); layer++) {
             TextureAndFrameView view = new TextureAndFrameView(CURRENT_STATE, layer);
-            method.accept(COMPONENTS.get(layer), view);
+
+            if (TextureInstrumentation.ENABLED) {
+                long start = System.nanoTime();
+                method.accept(COMPONENTS.get(layer), view);
+                INSTRUMENTATION.recordEvent(layer, event, System.nanoTime() - start);
+            } else {
+                method.accept(COMPONENTS.get(layer), view);
+            }
+
             view.invalidate();
         }
     }
@@ -123,16 +231,32 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
     /**
      * Creates an event-driven texture with listeners.
      * @param components                components that listen to texture events
+     * @param componentNames            names of the components, in the same order
      * @param predefinedFrames          frames already existing in the original image
      * @param generatedFrame            initial image for this texture
+     * @param timeStepping              measures time between ticks or null to only update on ticks
+     * @param frameCache                stores colors generated with a state key or null to always generate them
+     * @param stripFactory              creates GPU copies of the predefined frames or null to always upload
+     *                                  predefined frames from CPU memory
      */
     private EventDrivenTexture(
             List<CoreTextureComponent> components,
+            List<String> componentNames,
             List<? extends CloseableImageFrame> predefinedFrames,
-            CloseableImageFrame generatedFrame) {
+            CloseableImageFrame generatedFrame,
+            @Nullable TimeStepping timeStepping,
+            @Nullable GeneratedFrameCache frameCache,
+            @Nullable FrameStrip.Factory stripFactory) {
         super();
         COMPONENTS = components;
-        CURRENT_STATE = new TextureState(this, predefinedFrames, generatedFrame);
+        INSTRUMENTATION = TextureInstrumentation.ENABLED ? new TextureInstrumentation(componentNames) : null;
+        CURRENT_STATE = new TextureState(this, predefinedFrames, generatedFrame, frameCache, stripFactory);
+        TIME_STEPPING = timeStepping;
+
+        if (TIME_STEPPING != null) {
+            lastTickNanos = TIME_STEPPING.now();
+            lastPartialTickNanos = TIME_STEPPING.dueImmediately(lastTickNanos);
+        }
     }
 
     /**
@@ -141,14 +265,22 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
      */
     public static final class Builder {
         private final List<CoreTextureComponent> COMPONENTS;
+        private final List<String> COMPONENT_NAMES;
         private List<? extends CloseableImageFrame> predefinedFrames;
         private CloseableImageFrame generatedFrame;
+        @Nullable
+        private TimeStepping timeStepping;
+        @Nullable
+        private GeneratedFrameCache frameCache;
+        @Nullable
+        private FrameStrip.Factory stripFactory;
 
         /**
          * Creates a new event-driven texture builder.
          */
         public Builder() {
             COMPONENTS = new ArrayList<>();
+            COMPONENT_NAMES = new ArrayList<>();
         }
 
         /**
@@ -197,6 +329,42 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
             return this;
         }
 
+        /**
+         * Makes the texture update its components between ticks when it is uploaded, using
+         * {@link TextureComponent#onPartialTick(Object, FrameGroup, float)}. By default, textures
+         * only update on ticks.
+         * @param timeStepping      measures time between ticks and limits how often updates happen
+         * @return this builder for chaining
+         */
+        public Builder setTimeStepping(TimeStepping timeStepping) {
+            this.timeStepping = requireNonNull(timeStepping, "Time stepping cannot be null");
+            return this;
+        }
+
+        /**
+         * Makes the texture store colors that components generate with a state key, using
+         * {@link CurrentFrameView#generateWith(ColorTransform, Area, long)}, so that they can be
+         * copied back instead of generated again. By default, all colors are generated.
+         * @param frameCache        stores generated colors, possibly shared with other textures
+         * @return this builder for chaining
+         */
+        public Builder setFrameCache(GeneratedFrameCache frameCache) {
+            this.frameCache = requireNonNull(frameCache, "Frame cache cannot be null");
+            return this;
+        }
+
+        /**
+         * Makes the texture copy predefined frames on the GPU after a component first switches between
+         * them with {@link CurrentFrameView#replaceWith(int)}. By default, predefined frames are always
+         * uploaded from CPU memory.
+         * @param stripFactory      creates a GPU copy of all predefined frames, if supported
+         * @return this builder for chaining
+         */
+        public Builder setFrameStrips(FrameStrip.Factory stripFactory) {
+            this.stripFactory = requireNonNull(stripFactory, "Strip factory cannot be null");
+            return this;
+        }
+
         /**
          * Adds a component that the texture should have.
          * @param component     component to add to the texture
@@ -204,7 +372,20 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
          */
         public Builder add(TextureComponent<? super TextureAndFrameView> component) {
             requireNonNull(component, "Component cannot be null");
-            add(new CoreTextureComponent() {
+            return add(componentName(component), component);
+        }
+
+        /**
+         * Adds a component that the texture should have.
+         * @param name          name of the component in the texture's instrumentation, such as
+         *                      the ID of the plugin that created it
+         * @param component     component to add to the texture
+         * @return this builder for chaining
+         */
+        public Builder add(String name, TextureComponent<? super TextureAndFrameView> component) {
+            requireNonNull(name, "Name cannot be null");
+            requireNonNull(component, "Component cannot be null");
+            add(name, new CoreTextureComponent() {
                 @Override
                 public void onTick(TextureAndFrameView currentFrame,
                                    FrameGroup<? extends PersistentFrameView> predefinedFrames) {
@@ -217,6 +398,13 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
                     component.onTick(currentFrame, predefinedFrames, ticks);
                 }
 
+                @Override
+                public void onPartialTick(TextureAndFrameView currentFrame,
+                                          FrameGroup<? extends PersistentFrameView> predefinedFrames,
+                                          float partialTick) {
+                    component.onPartialTick(currentFrame, predefinedFrames, partialTick);
+                }
+
                 @Override
                 public void onClose(TextureAndFrameView currentFrame,
                                     FrameGroup<? extends PersistentFrameView> predefinedFrames) {
@@ -232,8 +420,21 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
          * @return this builder for chaining
          */
         public Builder add(CoreTextureComponent component) {
+            requireNonNull(component, "Component cannot be null");
+            return add(componentName(component), component);
+        }
+
+        /**
+         * Adds a component that the texture should have.
+         * @param name          name of the component in the texture's instrumentation
+         * @param component     component to add to the texture
+         * @return this builder for chaining
+         */
+        public Builder add(String name, CoreTextureComponent component) {
+            requireNonNull(name, "Name cannot be null");
             requireNonNull(component, "Component cannot be null");
             COMPONENTS.add(component);
+            COMPONENT_NAMES.add(name);
             return this;
         }
 
@@ -285,7 +486,19 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
                 ));
             }
 
-            return new EventDrivenTexture(COMPONENTS, predefinedFrames, generatedFrame);
+            return new EventDrivenTexture(COMPONENTS, COMPONENT_NAMES, predefinedFrames, generatedFrame, timeStepping,
+                    frameCache, stripFactory);
+        }
+
+        /**
+         * Gets the default name of a component, which is the name of its class.
+         * @param component     component to name
+         * @return name of the component
+         */
+        private static String componentName(Object component) {
+            Class<?> componentClass = component.getClass();
+            String simpleName = componentClass.getSimpleName();
+            return simpleName.isEmpty() ? componentClass.getName() : simpleName;
         }
 
     }
@@ -305,6 +518,12 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
             STATE.generateWith(transform, applyArea, LAYER);
         }
 
+        @Override
+        public void generateWith(ColorTransform transform, Area applyArea, long stateKey) {
+            checkValid();
+            STATE.generateWith(transform, applyArea, LAYER, stateKey);
+        }
+
         @Override
         public int width() {
             checkValid();
@@ -348,6 +567,12 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
             STATE.uploadAt(x, y, mipmap, subAreaX, subAreaY, subAreaWidth, subAreaHeight);
         }
 
+        @Override
+        public void replaceWith(int index) {
+            checkValid();
+            STATE.switchTo(index);
+        }
+
         /**
          * Lowers the mipmap level of all predefined and generated frames
          * for this texture. The new mipmap level must be less than or
@@ -410,11 +635,21 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
         private final FrameGroup<PersistentFrameView> PREDEFINED_FRAME_GROUP;
         private final CloseableImageFrame GENERATED_FRAME;
         private final Set<ResourceLocation> BASES_UPLOADED_SINCE_UPDATE;
+        @Nullable
+        private final GeneratedFrameCache FRAME_CACHE;
+        @Nullable
+        private final FrameStrip.Factory STRIP_FACTORY;
         private Integer currentFrameIndex;
+        private boolean generateFromCurrentFrame;
+        private boolean stripRequested;
+        private boolean stripAttempted;
+        @Nullable
+        private FrameStrip strip;
 
         /**
          * Applies the provided transformation to the current frame to generate
-         * a new frame, which will become the current frame.
+         * a new frame, which will become the current frame. The texture is only
+         * flagged for upload if the current frame changes.
          * @param transform     the transformation to apply to the current frame
          * @param applyArea     area to apply the transformation to
          * @param layer         layer to apply the transform to
@@ -423,12 +658,79 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
             requireNonNull(transform, "Frame transform cannot be null");
             requireNonNull(applyArea, "Apply area cannot be null");
 
-            markNeedsUpload();
-            currentFrameIndex = null;
+            startGenerating();
 
             // We may wish to delay updates later if the transforms list is optimized, but update immediately for now
-            GENERATED_FRAME.applyTransform(transform, applyArea, layer);
+            boolean changed = GENERATED_FRAME.applyTransform(transform, applyArea, layer);
+            finishGenerating(applyArea, layer, changed);
+        }
+
+        /**
+         * Applies the provided transformation to the current frame like
+         * {@link #generateWith(ColorTransform, Area, int)}. If the texture has a cache, the colors
+         * are copied from the cache when they were already generated for the state key, and they
+         * are stored in the cache when they were not.
+         * @param transform     the transformation to apply to the current frame
+         * @param applyArea     area to apply the transformation to
+         * @param layer         layer to apply the transform to
+         * @param stateKey      key that identifies the colors produced by the transform over the area
+         */
+        public void generateWith(ColorTransform transform, Area applyArea, int layer, long stateKey) {
+            if (FRAME_CACHE == null) {
+                generateWith(transform, applyArea, layer);
+                return;
+            }
+
+            requireNonNull(transform, "Frame transform cannot be null");
+            requireNonNull(applyArea, "Apply area cannot be null");
+            startGenerating();
+
+            // Colors stored for a different area are not returned, so they are generated and replaced
+            int[] cachedColors = FRAME_CACHE.get(this, layer, stateKey, applyArea);
+            if (cachedColors != null) {
+                boolean changed = GENERATED_FRAME.applyColors(cachedColors, applyArea, layer);
+                finishGenerating(applyArea, layer, changed);
+                return;
+            }
+
+            boolean changed = GENERATED_FRAME.applyTransform(transform, applyArea, layer);
+            FRAME_CACHE.put(this, layer, stateKey, applyArea, GENERATED_FRAME.layerColors(applyArea, layer));
+            finishGenerating(applyArea, layer, changed);
+        }
+
+        /**
+         * Makes one of the predefined frames the current frame at a component's request. The next
+         * frame generated afterward starts from the predefined frame.
+         * @param index     the index of the predefined frame to make the current frame
+         */
+        public void switchTo(int index) {
+            Integer previousIndex = currentFrameIndex;
+            replaceWith(index);
+
+            if (previousIndex == null || previousIndex != index) {
+                generateFromCurrentFrame = true;
+            }
 
+            stripRequested = STRIP_FACTORY != null && PREDEFINED_FRAMES.size() > 1;
+        }
+
+        /**
+         * Releases the GPU copy of the predefined frames, if one was created.
+         */
+        public void closeStrip() {
+            if (strip != null) {
+                strip.close();
+                strip = null;
+            }
+        }
+
+        /**
+         * Removes all colors this texture stored in its cache, if it has one.
+         */
+        public void invalidateCache() {
+            if (FRAME_CACHE != null) {
+                FRAME_CACHE.invalidate(this);
+            }
         }
 
         /**
@@ -468,7 +770,16 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
          * @param subAreaHeight height the sub-area to upload
          */
         public void uploadAt(int x, int y, int mipmap, int subAreaX, int subAreaY, int subAreaWidth, int subAreaHeight) {
-            currentFrame().uploadAt(x, y, mipmap, subAreaX, subAreaY, subAreaWidth, subAreaHeight);
+            FrameStrip currentStrip = currentFrameIndex == null ? null : strip();
+            if (currentStrip != null) {
+                currentStrip.copy(currentFrameIndex, x, y, mipmap, subAreaX, subAreaY, subAreaWidth, subAreaHeight);
+            } else {
+                currentFrame().uploadAt(x, y, mipmap, subAreaX, subAreaY, subAreaWidth, subAreaHeight);
+            }
+
+            if (TextureInstrumentation.ENABLED) {
+                TEXTURE.INSTRUMENTATION.recordUpload(mipmap, subAreaWidth, subAreaHeight);
+            }
         }
 
         /**
@@ -499,23 +810,78 @@ public final class EventDrivenTexture extends AbstractTexture implements CustomT
          * @param texture               the event-driven texture
          * @param predefinedFrames      frames already existing in the image
          * @param generatedFrame        generated frame that holds images generated from the predefined frames
+         * @param frameCache            stores colors generated with a state key or null to always generate them
+         * @param stripFactory          creates GPU copies of the predefined frames or null to always upload
+         *                              predefined frames from CPU memory
          */
         private TextureState(EventDrivenTexture texture, List<? extends CloseableImageFrame> predefinedFrames,
-                             CloseableImageFrame generatedFrame) {
+                             CloseableImageFrame generatedFrame, @Nullable GeneratedFrameCache frameCache,
+                             @Nullable FrameStrip.Factory stripFactory) {
             TEXTURE = texture;
             PREDEFINED_FRAMES = predefinedFrames;
             PREDEFINED_FRAME_GROUP = new FrameGroupImpl<>(predefinedFrames, (frame, index) -> new PredefinedFrameView(frame));
             GENERATED_FRAME = generatedFrame;
             BASES_UPLOADED_SINCE_UPDATE = new HashSet<>();
+            FRAME_CACHE = frameCache;
+            STRIP_FACTORY = stripFactory;
             replaceWith(0);
         }
 
+        /**
+         * Copies the current predefined frame into the generated frame if a component switched to it,
+         * so that the next transform is applied to the current frame.
+         */
+        private void startGenerating() {
+            if (generateFromCurrentFrame && currentFrameIndex != null) {
+                GENERATED_FRAME.copyFrom(PREDEFINED_FRAMES.get(currentFrameIndex));
+            }
+
+            generateFromCurrentFrame = false;
+        }
+
+        /**
+         * Gets the GPU copy of the predefined frames, creating it the first time it is needed after a
+         * component switches between predefined frames.
+         * @return the GPU copy of the predefined frames or null if there is none
+         */
+        @Nullable
+        private FrameStrip strip() {
+            if (stripRequested && !stripAttempted) {
+                stripAttempted = true;
+                strip = STRIP_FACTORY.create(PREDEFINED_FRAMES).orElse(null);
+            }
+
+            return strip;
+        }
+
+        /**
+         * Records a transform that was applied to the generated frame and makes the generated frame
+         * the current frame. The texture is only flagged for upload if the current frame changes.
+         * @param applyArea     area the transformation was applied to
+         * @param layer         layer the transform was applied to
+         * @param changed       whether the color of any pixel in the generated frame changed
+         */
+        private void finishGenerating(Area applyArea, int layer, boolean changed) {
+            if (TextureInstrumentation.ENABLED) {
+                TEXTURE.INSTRUMENTATION.recordTransform(layer, applyArea.size());
+            }
+
+            if (changed || currentFrameIndex != null) {
+                markNeedsUpload();
+            }
+
+            currentFrameIndex = null;
+        }
+
         /**
          * Replace the current frame with one of the predefined frames.
          * @param index     the index of the predefined frame to make
          *                  the current frame
          */
-        private void replaceWith(@SuppressWarnings("SameParameterValue") int index) {
+        private void replaceWith(int index) {
+            if (index < 0 || index >= PREDEFINED_FRAMES.size()) {
+                throw new FrameIndexOutOfBoundsException(index);
+            }
 
             // If we are setting the current frame to itself, we don't need to upload again
             if (currentFrameIndex != null && index == currentFrameIndex) {
@@ -0,0 +1,68 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds copies of all the predefined frames of a texture in GPU memory, so that a predefined frame can
+ * be put into another texture with a GPU-to-GPU copy instead of uploading it from CPU memory again.
+ * @author soir20
+ */
+public interface FrameStrip {
+
+    /**
+     * Copies part of a frame in the strip into the texture currently bound in OpenGL. This should only
+     * be called when the correct texture is bound.
+     * @param frameIndex    index of the predefined frame to copy
+     * @param x             x-coordinate of the point to copy the frame to
+     * @param y             y-coordinate of the point to copy the frame to
+     * @param mipmap        number of mipmaps to copy (the mipmap level of the base texture)
+     * @param subAreaX      x-coordinate of the top-left corner of the sub-area to copy
+     * @param subAreaY      y-coordinate of the top-left corner of the sub-area to copy
+     * @param subAreaWidth  width the sub-area to copy
+     * @param subAreaHeight height the sub-area to copy
+     */
+    void copy(int frameIndex, int x, int y, int mipmap, int subAreaX, int subAreaY, int subAreaWidth,
+              int subAreaHeight);
+
+    /**
+     * Releases the GPU memory held by this strip. Idempotent.
+     */
+    void close();
+
+    /**
+     * Creates strips for textures.
+     * @author soir20
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * Creates a strip by uploading all predefined frames of a texture once. This should only be
+         * called on the render thread.
+         * @param frames        predefined frames of the texture
+         * @return the strip or empty if the frames cannot be copied on the GPU, such as when copying
+         *         between textures is not supported by the graphics driver
+         */
+        Optional<FrameStrip> create(List<? extends CloseableImageFrame> frames);
+
+    }
+
+}
@@ -0,0 +1,288 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import io.github.moremcmeta.moremcmeta.api.math.Area;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Stores the colors that components generated for a layer of a texture, so that periodic animations
+ * can replay colors from earlier cycles instead of recomputing them. Components opt in by identifying
+ * the state that fully determines the generated colors with a key. Colors are stored in the iteration
+ * order of the area they were generated for, so they are only returned for an area with the same points
+ * in the same order.</p>
+ *
+ * <p>The cache is limited to a total size in bytes. When adding colors would exceed the limit, the
+ * least recently used colors are evicted first. Colors larger than the whole limit are never stored.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ * @author soir20
+ */
+public final class GeneratedFrameCache {
+    private final long MAX_BYTES;
+    private final LinkedHashMap<Key, Entry> ENTRIES;
+    private final Key LOOKUP_KEY;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new, empty cache.
+     * @param maxBytes      maximum total size of all stored colors in bytes
+     */
+    public GeneratedFrameCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Maximum bytes must be positive but was " + maxBytes);
+        }
+
+        MAX_BYTES = maxBytes;
+        ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+        LOOKUP_KEY = new Key(null, 0, 0);
+    }
+
+    /**
+     * Gets the colors stored for a state of a layer and marks them as recently used.
+     * @param owner         owner of the layer, usually the texture
+     * @param layer         index of the layer
+     * @param stateKey      key of the state that determines the colors
+     * @param area          area that the colors are needed for
+     * @return the stored colors or null if there are none for the area; the array must not be modified
+     */
+    @Nullable
+    public synchronized int[] get(Object owner, int layer, long stateKey, Area area) {
+        requireNonNull(owner, "Owner cannot be null");
+        requireNonNull(area, "Area cannot be null");
+
+        // Lookups happen every tick, so they reuse one key instead of allocating a new one
+        LOOKUP_KEY.set(owner, layer, stateKey);
+        Entry entry = ENTRIES.get(LOOKUP_KEY);
+        LOOKUP_KEY.set(null, 0, 0);
+
+        if (entry == null || !isSameArea(entry.AREA, area)) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.COLORS;
+    }
+
+    /**
+     * Stores the colors generated for a state of a layer, replacing any colors already stored for
+     * that state. Evicts the least recently used colors until the new colors fit.
+     * @param owner         owner of the layer, usually the texture
+     * @param layer         index of the layer
+     * @param stateKey      key of the state that determines the colors
+     * @param area          area that the colors were generated for
+     * @param colors        generated colors in the area's iteration order; the array must not be modified
+     *                      after it is stored
+     */
+    public synchronized void put(Object owner, int layer, long stateKey, Area area, int[] colors) {
+        requireNonNull(owner, "Owner cannot be null");
+        requireNonNull(area, "Area cannot be null");
+        requireNonNull(colors, "Colors cannot be null");
+
+        if (colors.length != area.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Area has %s points but %s colors were provided",
+                    area.size(),
+                    colors.length
+            ));
+        }
+
+        long size = sizeOf(colors);
+        if (size > MAX_BYTES) {
+            return;
+        }
+
+        Entry replaced = ENTRIES.put(new Key(owner, layer, stateKey), new Entry(area, colors));
+        if (replaced != null) {
+            bytes -= sizeOf(replaced.COLORS);
+        }
+        bytes += size;
+
+        Iterator<Entry> leastRecentFirst = ENTRIES.values().iterator();
+        while (bytes > MAX_BYTES) {
+            bytes -= sizeOf(leastRecentFirst.next().COLORS);
+            leastRecentFirst.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all colors stored for layers of an owner, such as when a texture is closed.
+     * @param owner         owner whose colors should be removed
+     */
+    public synchronized void invalidate(Object owner) {
+        requireNonNull(owner, "Owner cannot be null");
+
+        Iterator<Map.Entry<Key, Entry>> entries = ENTRIES.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Key, Entry> entry = entries.next();
+            if (entry.getKey().owner == owner) {
+                bytes -= sizeOf(entry.getValue().COLORS);
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the total size of all stored colors.
+     * @return size of all stored colors in bytes
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of lookups that found stored colors.
+     * @return number of cache hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that did not find stored colors.
+     * @return number of cache misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of times colors were removed to make room for newer colors.
+     * @return number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the size of stored colors.
+     * @param colors        colors to measure
+     * @return size of the colors in bytes
+     */
+    private static long sizeOf(int[] colors) {
+        return (long) colors.length * Integer.BYTES;
+    }
+
+    /**
+     * Checks whether two areas have the same points in the same iteration order.
+     * @param first         first area to compare
+     * @param second        second area to compare
+     * @return whether colors stored for one area can be written to the other
+     */
+    private static boolean isSameArea(Area first, Area second) {
+        if (first == second) {
+            return true;
+        }
+
+        if (first.size() != second.size()) {
+            return false;
+        }
+
+        LongIterator firstPoints = first.iterator();
+        LongIterator secondPoints = second.iterator();
+        while (firstPoints.hasNext()) {
+            if (firstPoints.nextLong() != secondPoints.nextLong()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Identifies the colors of one layer of one owner in one state. Owners are compared by identity,
+     * since a texture reloaded at the same location is a different owner. Keys stored in the cache
+     * are never changed; only the cache's lookup key is.
+     * @author soir20
+     */
+    private static final class Key {
+        private Object owner;
+        private int layer;
+        private long stateKey;
+
+        /**
+         * Creates a new key.
+         * @param owner         owner of the layer
+         * @param layer         index of the layer
+         * @param stateKey      key of the state that determines the colors
+         */
+        public Key(Object owner, int layer, long stateKey) {
+            set(owner, layer, stateKey);
+        }
+
+        /**
+         * Changes what this key identifies.
+         * @param owner         owner of the layer
+         * @param layer         index of the layer
+         * @param stateKey      key of the state that determines the colors
+         */
+        public void set(Object owner, int layer, long stateKey) {
+            this.owner = owner;
+            this.layer = layer;
+            this.stateKey = stateKey;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key otherKey)) {
+                return false;
+            }
+
+            return owner == otherKey.owner && layer == otherKey.layer && stateKey == otherKey.stateKey;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(owner);
+            hash = 31 * hash + layer;
+            return 31 * hash + Long.hashCode(stateKey);
+        }
+    }
+
+    /**
+     * Colors stored for a key, along with the area they were generated for.
+     * @author soir20
+     */
+    private static final class Entry {
+        private final Area AREA;
+        private final int[] COLORS;
+
+        /**
+         * Creates a new entry.
+         * @param area          area that the colors were generated for
+         * @param colors        generated colors in the area's iteration order
+         */
+        public Entry(Area area, int[] colors) {
+            AREA = area;
+            COLORS = colors;
+        }
+    }
+
+}
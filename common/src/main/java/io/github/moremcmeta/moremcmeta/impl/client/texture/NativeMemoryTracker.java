@@ -0,0 +1,399 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableMap;
+import net.minecraft.resources.ResourceLocation;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Accounts for the memory held by {@link CloseableImage}s, which is usually native memory outside
+ * the Java heap. Images are tracked by wrapping them, and their memory is released when the wrapper or
+ * any of its sub-images is closed, since closing a sub-image closes the whole image.</p>
+ *
+ * <p>Live memory is tracked by texture and by mipmap level. Each time a texture is assembled, it gets
+ * a new {@link Owner}, so that images closed by a texture's {@link CleanupComponent} are not confused
+ * with the images of a texture at the same location from a later reload. The tracker counts images
+ * that are closed after their texture was cleaned up and warns when a cleanup leaves images open.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ * @author soir20
+ */
+public final class NativeMemoryTracker {
+
+    /**
+     * Number of bytes in each pixel of an image.
+     */
+    public static final int BYTES_PER_PIXEL = 4;
+
+    private static final int MAX_MIPMAP_LEVELS = 32;
+    private final Map<ResourceLocation, AtomicLongArray> LIVE_BYTES_BY_TEXTURE;
+    private final Set<Owner> OWNERS_WITH_LIVE_IMAGES;
+    private final AtomicLong LIVE_BYTES;
+    private final AtomicLong LIVE_IMAGES;
+    private final AtomicLong PEAK_BYTES;
+    private final AtomicLong LATE_CLOSES;
+    private final Logger LOGGER;
+
+    /**
+     * Creates a new tracker without any images.
+     * @param logger        logger to warn about images left open
+     */
+    public NativeMemoryTracker(Logger logger) {
+        LIVE_BYTES_BY_TEXTURE = new ConcurrentHashMap<>();
+        OWNERS_WITH_LIVE_IMAGES = ConcurrentHashMap.newKeySet();
+        LIVE_BYTES = new AtomicLong();
+        LIVE_IMAGES = new AtomicLong();
+        PEAK_BYTES = new AtomicLong();
+        LATE_CLOSES = new AtomicLong();
+        LOGGER = requireNonNull(logger, "Logger cannot be null");
+    }
+
+    /**
+     * Creates a new owner for the images of a texture that is being assembled.
+     * @param texture       location of the texture
+     * @return owner for the texture's images
+     */
+    public Owner newOwner(ResourceLocation texture) {
+        requireNonNull(texture, "Texture cannot be null");
+        return new Owner(texture);
+    }
+
+    /**
+     * Starts tracking an image. The returned image should be used in place of the original image, and
+     * the original image should only be closed through the returned image or its sub-images.
+     * @param owner         owner of the image
+     * @param image         image to track
+     * @param mipmapLevel   mipmap level of the image
+     * @return the tracked image
+     */
+    public CloseableImage track(Owner owner, CloseableImage image, int mipmapLevel) {
+        requireNonNull(owner, "Owner cannot be null");
+        requireNonNull(image, "Image cannot be null");
+        if (mipmapLevel < 0 || mipmapLevel >= MAX_MIPMAP_LEVELS) {
+            throw new IllegalArgumentException("Mipmap level must be between 0 and " + (MAX_MIPMAP_LEVELS - 1)
+                    + " but was " + mipmapLevel);
+        }
+
+        long bytes = (long) image.width() * image.height() * BYTES_PER_PIXEL;
+        Allocation allocation = new Allocation(owner, mipmapLevel, bytes);
+
+        LIVE_BYTES_BY_TEXTURE.computeIfAbsent(owner.TEXTURE, (texture) -> new AtomicLongArray(MAX_MIPMAP_LEVELS))
+                .addAndGet(mipmapLevel, bytes);
+        if (owner.LIVE_BYTES.getAndAdd(bytes) == 0) {
+            OWNERS_WITH_LIVE_IMAGES.add(owner);
+        }
+        LIVE_IMAGES.incrementAndGet();
+        PEAK_BYTES.accumulateAndGet(LIVE_BYTES.addAndGet(bytes), Math::max);
+
+        return new TrackedImage(image, allocation);
+    }
+
+    /**
+     * Wraps the action that closes a texture's images, so that images left open after the
+     * action runs are reported, and images closed later are counted.
+     * @param owner         owner of the texture's images
+     * @param closeAction   action that closes all the texture's images
+     * @return action to give to the texture's {@link CleanupComponent}
+     */
+    public Runnable trackCleanup(Owner owner, Runnable closeAction) {
+        requireNonNull(owner, "Owner cannot be null");
+        requireNonNull(closeAction, "Close action cannot be null");
+
+        return () -> {
+            closeAction.run();
+            owner.cleanedUp = true;
+
+            long leakedBytes = owner.LIVE_BYTES.get();
+            if (leakedBytes > 0) {
+                LOGGER.warn("Texture {} still holds {} bytes of images after it was closed", owner.TEXTURE,
+                        leakedBytes);
+            }
+        };
+    }
+
+    /**
+     * Gets the bytes held by all tracked images that are open.
+     * @return live bytes of all images
+     */
+    public long liveBytes() {
+        return LIVE_BYTES.get();
+    }
+
+    /**
+     * Gets the bytes held by open images of all textures at a location.
+     * @param texture       location of the texture
+     * @return live bytes of the texture's images
+     */
+    public long liveBytes(ResourceLocation texture) {
+        requireNonNull(texture, "Texture cannot be null");
+
+        AtomicLongArray bytesByLevel = LIVE_BYTES_BY_TEXTURE.get(texture);
+        if (bytesByLevel == null) {
+            return 0;
+        }
+
+        long total = 0;
+        for (int level = 0; level < MAX_MIPMAP_LEVELS; level++) {
+            total += bytesByLevel.get(level);
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the bytes held by open images of one mipmap level of all textures at a location.
+     * @param texture       location of the texture
+     * @param mipmapLevel   mipmap level of the images
+     * @return live bytes of the texture's images at the mipmap level
+     */
+    public long liveBytes(ResourceLocation texture, int mipmapLevel) {
+        requireNonNull(texture, "Texture cannot be null");
+        if (mipmapLevel < 0 || mipmapLevel >= MAX_MIPMAP_LEVELS) {
+            return 0;
+        }
+
+        AtomicLongArray bytesByLevel = LIVE_BYTES_BY_TEXTURE.get(texture);
+        return bytesByLevel == null ? 0 : bytesByLevel.get(mipmapLevel);
+    }
+
+    /**
+     * Gets the bytes held by open images of every texture that has any.
+     * @return live bytes by texture location
+     */
+    public Map<ResourceLocation, Long> liveBytesByTexture() {
+        ImmutableMap.Builder<ResourceLocation, Long> builder = new ImmutableMap.Builder<>();
+        LIVE_BYTES_BY_TEXTURE.keySet().forEach((texture) -> {
+            long bytes = liveBytes(texture);
+            if (bytes > 0) {
+                builder.put(texture, bytes);
+            }
+        });
+
+        return builder.build();
+    }
+
+    /**
+     * Gets the number of tracked images that are open. Sub-images are not counted separately.
+     * @return number of open images
+     */
+    public long liveImages() {
+        return LIVE_IMAGES.get();
+    }
+
+    /**
+     * Gets the most bytes that were live at once since the tracker was created or the peak was
+     * last reset.
+     * @return peak live bytes
+     */
+    public long peakBytes() {
+        return PEAK_BYTES.get();
+    }
+
+    /**
+     * Resets the peak to the bytes that are currently live, such as at the start of a reload.
+     */
+    public void resetPeak() {
+        PEAK_BYTES.set(LIVE_BYTES.get());
+    }
+
+    /**
+     * Gets the number of images that were closed after their texture was cleaned up.
+     * @return number of images closed late
+     */
+    public long lateCloses() {
+        return LATE_CLOSES.get();
+    }
+
+    /**
+     * Warns about every texture whose images are still open, such as when the game shuts down.
+     * @return number of textures with open images
+     */
+    public int logLeaks() {
+        int leaks = 0;
+        for (Owner owner : OWNERS_WITH_LIVE_IMAGES) {
+            long bytes = owner.LIVE_BYTES.get();
+            if (bytes > 0) {
+                LOGGER.warn("Texture {} was never closed and still holds {} bytes of images", owner.TEXTURE, bytes);
+                leaks++;
+            }
+        }
+
+        return leaks;
+    }
+
+    /**
+     * The images of one assembled texture.
+     * @author soir20
+     */
+    public static final class Owner {
+        private final ResourceLocation TEXTURE;
+        private final AtomicLong LIVE_BYTES;
+        private volatile boolean cleanedUp;
+
+        /**
+         * Gets the location of the owner's texture.
+         * @return location of the texture
+         */
+        public ResourceLocation texture() {
+            return TEXTURE;
+        }
+
+        /**
+         * Creates a new owner without any images.
+         * @param texture       location of the owner's texture
+         */
+        private Owner(ResourceLocation texture) {
+            TEXTURE = texture;
+            LIVE_BYTES = new AtomicLong();
+        }
+
+    }
+
+    /**
+     * The memory of one tracked image, shared by the image and all its sub-images.
+     * @author soir20
+     */
+    private final class Allocation {
+        private final Owner OWNER;
+        private final int MIPMAP_LEVEL;
+        private final long BYTES;
+        private final AtomicBoolean RELEASED;
+
+        /**
+         * Creates a new allocation.
+         * @param owner         owner of the image
+         * @param mipmapLevel   mipmap level of the image
+         * @param bytes         bytes held by the image
+         */
+        public Allocation(Owner owner, int mipmapLevel, long bytes) {
+            OWNER = owner;
+            MIPMAP_LEVEL = mipmapLevel;
+            BYTES = bytes;
+            RELEASED = new AtomicBoolean();
+        }
+
+        /**
+         * Releases the memory of this allocation. Idempotent.
+         */
+        public void release() {
+            if (RELEASED.getAndSet(true)) {
+                return;
+            }
+
+            LIVE_BYTES_BY_TEXTURE.get(OWNER.TEXTURE).addAndGet(MIPMAP_LEVEL, -BYTES);
+            if (OWNER.LIVE_BYTES.addAndGet(-BYTES) == 0) {
+                OWNERS_WITH_LIVE_IMAGES.remove(OWNER);
+            }
+            LIVE_IMAGES.decrementAndGet();
+            LIVE_BYTES.addAndGet(-BYTES);
+
+            if (OWNER.cleanedUp) {
+                LATE_CLOSES.incrementAndGet();
+            }
+        }
+
+    }
+
+    /**
+     * An image whose memory is released from the tracker when it is closed.
+     * @author soir20
+     */
+    private static final class TrackedImage implements CloseableImage {
+        private final CloseableImage DELEGATE;
+        private final Allocation ALLOCATION;
+
+        /**
+         * Creates a new tracked image.
+         * @param delegate      image to track
+         * @param allocation    memory of the image
+         */
+        public TrackedImage(CloseableImage delegate, Allocation allocation) {
+            DELEGATE = delegate;
+            ALLOCATION = allocation;
+        }
+
+        @Override
+        public int color(int x, int y) {
+            return DELEGATE.color(x, y);
+        }
+
+        @Override
+        public void setColor(int x, int y, int color) {
+            DELEGATE.setColor(x, y, color);
+        }
+
+        @Override
+        public void colors(int x, int y, int[] colors, int offset, int length) {
+            DELEGATE.colors(x, y, colors, offset, length);
+        }
+
+        @Override
+        public void setColors(int x, int y, int[] colors, int offset, int length) {
+            DELEGATE.setColors(x, y, colors, offset, length);
+        }
+
+        @Override
+        public int width() {
+            return DELEGATE.width();
+        }
+
+        @Override
+        public int height() {
+            return DELEGATE.height();
+        }
+
+        @Override
+        public void copyFrom(CloseableImage other) {
+            DELEGATE.copyFrom(other instanceof TrackedImage tracked ? tracked.DELEGATE : other);
+        }
+
+        @Override
+        public void upload(int uploadX, int uploadY) {
+            DELEGATE.upload(uploadX, uploadY);
+        }
+
+        @Override
+        public void upload(int uploadX, int uploadY, int topLeftX, int topLeftY, int width, int height) {
+            DELEGATE.upload(uploadX, uploadY, topLeftX, topLeftY, width, height);
+        }
+
+        @Override
+        public CloseableImage subImage(int topLeftX, int topLeftY, int width, int height) {
+            return new TrackedImage(DELEGATE.subImage(topLeftX, topLeftY, width, height), ALLOCATION);
+        }
+
+        @Override
+        public void close() {
+            DELEGATE.close();
+            ALLOCATION.release();
+        }
+
+    }
+
+}
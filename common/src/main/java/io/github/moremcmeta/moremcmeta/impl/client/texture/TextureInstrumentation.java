@@ -0,0 +1,325 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Measures the time that each component of an {@link EventDrivenTexture} spends in each event,
+ * the pixels that each component transforms, and the pixels and bytes that the texture uploads.</p>
+ *
+ * <p>Instrumentation is only active when the <code>moremcmeta.instrumentation</code> system property
+ * is <code>true</code>. Otherwise, {@link #ENABLED} is a constant false, so the JIT compiler removes
+ * every measurement from textures, and textures do not allocate any instrumentation.</p>
+ * @author soir20
+ */
+public final class TextureInstrumentation {
+
+    /**
+     * Whether textures are instrumented.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("moremcmeta.instrumentation");
+
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int EVENTS = Event.values().length;
+    private final ImmutableList<String> COMPONENT_NAMES;
+    private final TimeHistogram[] HISTOGRAMS;
+    private final AtomicLongArray PIXELS_TRANSFORMED;
+    private final AtomicLong UPLOADS;
+    private final AtomicLong PIXELS_UPLOADED;
+
+    /**
+     * Creates new, empty instrumentation for a texture.
+     * @param componentNames    names of the texture's components, in layer order
+     */
+    public TextureInstrumentation(List<String> componentNames) {
+        requireNonNull(componentNames, "Component names cannot be null");
+        COMPONENT_NAMES = ImmutableList.copyOf(componentNames);
+
+        HISTOGRAMS = new TimeHistogram[COMPONENT_NAMES.size() * EVENTS];
+        for (int index = 0; index < HISTOGRAMS.length; index++) {
+            HISTOGRAMS[index] = new TimeHistogram();
+        }
+
+        PIXELS_TRANSFORMED = new AtomicLongArray(COMPONENT_NAMES.size());
+        UPLOADS = new AtomicLong();
+        PIXELS_UPLOADED = new AtomicLong();
+    }
+
+    /**
+     * Gets the names of the texture's components. Plugin components are named by the plugin's
+     * ID, while internal components are named by their class.
+     * @return names of the texture's components, in layer order
+     */
+    public List<String> componentNames() {
+        return COMPONENT_NAMES;
+    }
+
+    /**
+     * Gets the histogram of time that a component spent in an event.
+     * @param layer     layer of the component
+     * @param event     event to get the histogram for
+     * @return histogram of time spent in the event
+     */
+    public TimeHistogram histogram(int layer, Event event) {
+        checkLayer(layer);
+        requireNonNull(event, "Event cannot be null");
+        return HISTOGRAMS[layer * EVENTS + event.ordinal()];
+    }
+
+    /**
+     * Gets the total time that all components spent in all events.
+     * @return total time in nanoseconds
+     */
+    public long totalNanos() {
+        long total = 0;
+        for (TimeHistogram histogram : HISTOGRAMS) {
+            total += histogram.totalNanos();
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the number of pixels that a component has transformed. Pixels transformed more
+     * than once are counted every time.
+     * @param layer     layer of the component
+     * @return number of pixels transformed by the component
+     */
+    public long pixelsTransformed(int layer) {
+        checkLayer(layer);
+        return PIXELS_TRANSFORMED.get(layer);
+    }
+
+    /**
+     * Gets the number of pixels that all components have transformed.
+     * @return number of pixels transformed by the texture's components
+     */
+    public long pixelsTransformed() {
+        long total = 0;
+        for (int layer = 0; layer < PIXELS_TRANSFORMED.length(); layer++) {
+            total += PIXELS_TRANSFORMED.get(layer);
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the number of times that the texture has been uploaded.
+     * @return number of uploads
+     */
+    public long uploads() {
+        return UPLOADS.get();
+    }
+
+    /**
+     * Gets the number of pixels that the texture has uploaded, including all mipmaps.
+     * @return number of pixels uploaded
+     */
+    public long pixelsUploaded() {
+        return PIXELS_UPLOADED.get();
+    }
+
+    /**
+     * Gets the number of bytes that the texture has uploaded, including all mipmaps.
+     * @return number of bytes uploaded
+     */
+    public long bytesUploaded() {
+        return pixelsUploaded() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Records the time that a component spent in an event.
+     * @param layer     layer of the component
+     * @param event     event that the component responded to
+     * @param nanos     time spent in the event in nanoseconds
+     */
+    public void recordEvent(int layer, Event event, long nanos) {
+        histogram(layer, event).record(nanos);
+    }
+
+    /**
+     * Records pixels that a component transformed.
+     * @param layer     layer of the component
+     * @param pixels    number of pixels transformed
+     */
+    public void recordTransform(int layer, int pixels) {
+        checkLayer(layer);
+        PIXELS_TRANSFORMED.addAndGet(layer, pixels);
+    }
+
+    /**
+     * Records an upload of an area of the texture. Mipmaps are counted in the same way
+     * that {@link CloseableImageFrame#uploadAt(int, int, int, int, int, int, int)} uploads them.
+     * @param mipmap    number of mipmaps uploaded
+     * @param width     width of the area uploaded
+     * @param height    height of the area uploaded
+     */
+    public void recordUpload(int mipmap, int width, int height) {
+        long pixels = 0;
+        for (int level = 0; level <= mipmap; level++) {
+            pixels += (long) (width >> level) * (height >> level);
+        }
+
+        UPLOADS.incrementAndGet();
+        PIXELS_UPLOADED.addAndGet(pixels);
+    }
+
+    /**
+     * Describes the textures that spent the most time in events in one line each.
+     * @param textures      instrumentation by texture location
+     * @param limit         maximum number of textures to describe
+     * @return one line for each of the most expensive textures, most expensive first
+     */
+    public static List<String> summary(Map<ResourceLocation, TextureInstrumentation> textures, int limit) {
+        requireNonNull(textures, "Textures cannot be null");
+
+        List<String> lines = new ArrayList<>();
+        mostExpensive(textures, limit).forEach((entry) -> lines.add(describeTexture(entry.getKey(), entry.getValue())));
+        return lines;
+    }
+
+    /**
+     * Describes the textures that spent the most time in events, along with every event of
+     * their components.
+     * @param textures      instrumentation by texture location
+     * @param limit         maximum number of textures to describe
+     * @return lines describing the most expensive textures, most expensive first
+     */
+    public static List<String> report(Map<ResourceLocation, TextureInstrumentation> textures, int limit) {
+        requireNonNull(textures, "Textures cannot be null");
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Instrumentation for %s textures, %s most expensive first:", textures.size(),
+                Math.min(limit, textures.size())));
+
+        mostExpensive(textures, limit).forEach((entry) -> {
+            TextureInstrumentation instrumentation = entry.getValue();
+            lines.add(describeTexture(entry.getKey(), instrumentation));
+
+            for (int layer = 0; layer < instrumentation.COMPONENT_NAMES.size(); layer++) {
+                for (Event event : Event.values()) {
+                    TimeHistogram histogram = instrumentation.histogram(layer, event);
+                    if (histogram.count() == 0) {
+                        continue;
+                    }
+
+                    lines.add(String.format(
+                            Locale.ROOT,
+                            "    %s %s: %s calls, mean %.1f us, p99 %.1f us, max %.1f us, %s px transformed",
+                            instrumentation.COMPONENT_NAMES.get(layer),
+                            event.displayName(),
+                            histogram.count(),
+                            histogram.meanNanos() / 1e3,
+                            histogram.percentileNanos(99) / 1e3,
+                            histogram.maxNanos() / 1e3,
+                            instrumentation.pixelsTransformed(layer)
+                    ));
+                }
+            }
+        });
+
+        return lines;
+    }
+
+    /**
+     * Finds the textures that spent the most time in events.
+     * @param textures      instrumentation by texture location
+     * @param limit         maximum number of textures to find
+     * @return most expensive textures, most expensive first
+     */
+    private static List<Map.Entry<ResourceLocation, TextureInstrumentation>> mostExpensive(
+            Map<ResourceLocation, TextureInstrumentation> textures, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+
+        return textures.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<ResourceLocation, TextureInstrumentation> entry) -> entry.getValue().totalNanos()
+                ).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Describes one texture's totals.
+     * @param location          location of the texture
+     * @param instrumentation   instrumentation of the texture
+     * @return description of the texture
+     */
+    private static String describeTexture(ResourceLocation location, TextureInstrumentation instrumentation) {
+        return String.format(
+                Locale.ROOT,
+                "%s: %.2f ms, %s px transformed, %s px in %s uploads (%s bytes)",
+                location,
+                instrumentation.totalNanos() / 1e6,
+                instrumentation.pixelsTransformed(),
+                instrumentation.pixelsUploaded(),
+                instrumentation.uploads(),
+                instrumentation.bytesUploaded()
+        );
+    }
+
+    /**
+     * Checks that a texture has a layer.
+     * @param layer     layer to check
+     */
+    private void checkLayer(int layer) {
+        if (layer < 0 || layer >= COMPONENT_NAMES.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Layer %s does not exist; texture has %s layers",
+                    layer,
+                    COMPONENT_NAMES.size()
+            ));
+        }
+    }
+
+    /**
+     * An event that texture components respond to.
+     * @author soir20
+     */
+    public enum Event {
+        REGISTRATION,
+        TICK,
+        UPLOAD,
+        CLOSE;
+
+        /**
+         * Gets the name of this event to show to users.
+         * @return name of this event
+         */
+        public String displayName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+}
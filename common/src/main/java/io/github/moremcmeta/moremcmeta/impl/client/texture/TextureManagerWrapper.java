@@ -22,26 +22,73 @@ import net.minecraft.resources.ResourceLocation;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import static java.util.Objects.requireNonNull;
 
 /**
- * Wraps Minecraft's {@link net.minecraft.client.renderer.texture.TextureManager} to fix a bug with
- * tracking {@link net.minecraft.client.renderer.texture.Tickable} textures.
+ * <p>Wraps Minecraft's {@link net.minecraft.client.renderer.texture.TextureManager} to fix a bug with
+ * tracking {@link net.minecraft.client.renderer.texture.Tickable} textures.</p>
+ *
+ * <p>Ticks may have a time budget. Textures that were used since the last tick are ticked first, then
+ * the others in turn, starting with the first texture the previous tick did not reach. Textures that
+ * are not reached before the budget runs out skip the tick and catch up later. The budget is checked
+ * between textures, so a tick may run over by the time it takes to tick one texture.</p>
  * @param <T> texture type
  * @author soir20
  */
 public final class TextureManagerWrapper<T extends AbstractTexture & CustomTickable> implements Manager<T> {
+
+    /**
+     * Tick budget that allows every texture to be ticked no matter how long it takes.
+     */
+    public static final long NO_BUDGET = 0;
+
     private final Manager<? super AbstractTexture> DELEGATE;
     private final Map<ResourceLocation, CustomTickable> TICKABLE_TEXTURES;
+    private final long TICK_BUDGET_NANOS;
+    private final LongSupplier NANO_TIME;
+    private final AtomicLong VERSION;
+    private TickOrder tickOrder;
+    private int nextIndex;
+    private long skippedTicks;
 
     /**
      * Creates the TextureManagerWrapper.
      * @param delegate      Minecraft's the texture manager
      */
     public TextureManagerWrapper(Manager<? super AbstractTexture> delegate) {
+        this(delegate, NO_BUDGET);
+    }
+
+    /**
+     * Creates the TextureManagerWrapper with a time budget for each tick.
+     * @param delegate          Minecraft's the texture manager
+     * @param tickBudgetNanos   time budget for each tick in nanoseconds or {@link #NO_BUDGET}
+     */
+    public TextureManagerWrapper(Manager<? super AbstractTexture> delegate, long tickBudgetNanos) {
+        this(delegate, tickBudgetNanos, System::nanoTime);
+    }
+
+    /**
+     * Creates the TextureManagerWrapper with a time budget for each tick.
+     * @param delegate          Minecraft's the texture manager
+     * @param tickBudgetNanos   time budget for each tick in nanoseconds or {@link #NO_BUDGET}
+     * @param nanoTime          gets the current time in nanoseconds
+     */
+    public TextureManagerWrapper(Manager<? super AbstractTexture> delegate, long tickBudgetNanos,
+                                 LongSupplier nanoTime) {
         DELEGATE = requireNonNull(delegate, "Delegate manager cannot be null");
+        if (tickBudgetNanos < 0) {
+            throw new IllegalArgumentException("Tick budget cannot be negative");
+        }
+
         TICKABLE_TEXTURES = new ConcurrentHashMap<>();
+        TICK_BUDGET_NANOS = tickBudgetNanos;
+        NANO_TIME = requireNonNull(nanoTime, "Time getter cannot be null");
+        VERSION = new AtomicLong();
+        tickOrder = new TickOrder(VERSION.get(), new CustomTickable[0]);
     }
 
     @Override
@@ -50,6 +97,7 @@ public final class TextureManagerWrapper<T extends AbstractTexture & CustomTicka
         requireNonNull(texture, "Texture cannot be null");
 
         TICKABLE_TEXTURES.put(textureLocation, texture);
+        VERSION.incrementAndGet();
         DELEGATE.register(textureLocation, texture);
     }
 
@@ -59,11 +107,110 @@ public final class TextureManagerWrapper<T extends AbstractTexture & CustomTicka
 
         DELEGATE.unregister(textureLocation);
         TICKABLE_TEXTURES.remove(textureLocation);
+        VERSION.incrementAndGet();
     }
 
+    /**
+     * Ticks all registered textures, or as many as the tick budget allows. Should only be called
+     * from one thread.
+     */
     @Override
     public void tick() {
-        TICKABLE_TEXTURES.values().forEach(CustomTickable::tick);
+        if (TICK_BUDGET_NANOS == NO_BUDGET) {
+            TICKABLE_TEXTURES.values().forEach(CustomTickable::tick);
+            return;
+        }
+
+        long deadline = NANO_TIME.getAsLong() + TICK_BUDGET_NANOS;
+        TickOrder order = currentTickOrder();
+        CustomTickable[] textures = order.TEXTURES;
+        boolean[] handled = order.HANDLED;
+
+        // Recently-used textures are most likely to be visible, so they go first
+        for (int index = 0; index < textures.length; index++) {
+            handled[index] = textures[index].ticksSinceUse() == 0;
+            if (handled[index]) {
+                tickWithinBudget(textures[index], deadline);
+            }
+        }
+
+        int firstSkipped = -1;
+        for (int offset = 0; offset < textures.length; offset++) {
+            int index = (nextIndex + offset) % textures.length;
+            if (handled[index]) {
+                continue;
+            }
+
+            if (!tickWithinBudget(textures[index], deadline) && firstSkipped < 0) {
+                firstSkipped = index;
+            }
+        }
+
+        // Start with the textures that were skipped so that every texture is eventually ticked
+        if (firstSkipped >= 0) {
+            nextIndex = firstSkipped;
+        }
+    }
+
+    /**
+     * Gets the total number of times a texture skipped a tick because the tick budget ran out.
+     * @return number of skipped texture ticks
+     */
+    public long skippedTicks() {
+        return skippedTicks;
+    }
+
+    /**
+     * Ticks a texture if there is time left in the budget or skips its tick otherwise.
+     * @param texture       texture to tick
+     * @param deadline      time when the budget runs out in nanoseconds
+     * @return whether the texture was ticked
+     */
+    private boolean tickWithinBudget(CustomTickable texture, long deadline) {
+        if (NANO_TIME.getAsLong() - deadline >= 0) {
+            texture.skipTick();
+            skippedTicks++;
+            return false;
+        }
+
+        texture.tick();
+        return true;
+    }
+
+    /**
+     * Gets the order to tick textures in, updating it if textures were registered or unregistered.
+     * @return the current tick order
+     */
+    private TickOrder currentTickOrder() {
+        long version = VERSION.get();
+        if (tickOrder.VERSION != version) {
+            tickOrder = new TickOrder(version, TICKABLE_TEXTURES.values().toArray(new CustomTickable[0]));
+            nextIndex = 0;
+        }
+
+        return tickOrder;
+    }
+
+    /**
+     * A snapshot of all registered textures in the order they are ticked.
+     * @author soir20
+     */
+    private static final class TickOrder {
+        private final long VERSION;
+        private final CustomTickable[] TEXTURES;
+        private final boolean[] HANDLED;
+
+        /**
+         * Creates a new tick order.
+         * @param version       version of the registered textures this snapshot was taken from
+         * @param textures      all registered textures
+         */
+        public TickOrder(long version, CustomTickable[] textures) {
+            VERSION = version;
+            TEXTURES = textures;
+            HANDLED = new boolean[textures.length];
+        }
+
     }
 
 }
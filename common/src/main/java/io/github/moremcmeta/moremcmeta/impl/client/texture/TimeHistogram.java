@@ -0,0 +1,140 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with power-of-two buckets. Recording is lock-free, and
+ * the histogram can be read from another thread while it is recorded, though a read may see some
+ * recordings only partially.
+ * @author soir20
+ */
+public final class TimeHistogram {
+    private static final int BUCKETS = Long.SIZE;
+    private final AtomicLongArray BUCKET_COUNTS;
+    private final AtomicLong COUNT;
+    private final AtomicLong TOTAL_NANOS;
+    private final AtomicLong MAX_NANOS;
+
+    /**
+     * Creates a new, empty histogram.
+     */
+    public TimeHistogram() {
+        BUCKET_COUNTS = new AtomicLongArray(BUCKETS);
+        COUNT = new AtomicLong();
+        TOTAL_NANOS = new AtomicLong();
+        MAX_NANOS = new AtomicLong();
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos     duration in nanoseconds. Negative durations, which can occur if the
+     *                  system clock is adjusted, are recorded as zero.
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        BUCKET_COUNTS.incrementAndGet(bucket(duration));
+        COUNT.incrementAndGet();
+        TOTAL_NANOS.addAndGet(duration);
+        MAX_NANOS.accumulateAndGet(duration, Math::max);
+    }
+
+    /**
+     * Gets the number of durations recorded.
+     * @return number of durations recorded
+     */
+    public long count() {
+        return COUNT.get();
+    }
+
+    /**
+     * Gets the sum of all durations recorded.
+     * @return sum of all durations in nanoseconds
+     */
+    public long totalNanos() {
+        return TOTAL_NANOS.get();
+    }
+
+    /**
+     * Gets the longest duration recorded.
+     * @return longest duration in nanoseconds, or zero if none have been recorded
+     */
+    public long maxNanos() {
+        return MAX_NANOS.get();
+    }
+
+    /**
+     * Gets the mean of all durations recorded.
+     * @return mean duration in nanoseconds, or zero if none have been recorded
+     */
+    public double meanNanos() {
+        long count = count();
+        return count == 0 ? 0 : (double) totalNanos() / count;
+    }
+
+    /**
+     * Estimates a percentile of the durations recorded. The estimate is the upper bound of
+     * the bucket that contains the percentile, so it is at most twice the actual value, and
+     * it is never greater than the longest duration.
+     * @param percentile        percentile to estimate, between 0 and 100 (inclusive)
+     * @return estimated duration at the percentile in nanoseconds, or zero if none have been recorded
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100 but was " + percentile);
+        }
+
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += BUCKET_COUNTS.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), maxNanos());
+            }
+        }
+
+        return maxNanos();
+    }
+
+    /**
+     * Gets the bucket for a duration.
+     * @param nanos     non-negative duration in nanoseconds
+     * @return index of the bucket for the duration
+     */
+    private static int bucket(long nanos) {
+        return Long.SIZE - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Gets the largest duration that belongs in a bucket.
+     * @param bucket    index of the bucket
+     * @return largest duration in nanoseconds for the bucket
+     */
+    private static long upperBound(int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+}
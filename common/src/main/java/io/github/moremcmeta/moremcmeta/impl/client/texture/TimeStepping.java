@@ -0,0 +1,108 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Measures time within a tick from a monotonic clock so that textures can update between ticks,
+ * and limits how often those updates happen. Immutable, so one instance can be shared by all textures.
+ * @author soir20
+ */
+public final class TimeStepping {
+
+    /**
+     * Number of nanoseconds in one tick at the normal rate of 20 ticks per second.
+     */
+    public static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final float MAX_PARTIAL_TICK = Math.nextDown(1f);
+    private final long MIN_INTERVAL_NANOS;
+    private final LongSupplier NANO_TIME;
+
+    /**
+     * Creates a new time stepping configuration using the system's monotonic clock.
+     * @param maxUpdatesPerSecond       most times a texture may update between ticks each second
+     */
+    public TimeStepping(int maxUpdatesPerSecond) {
+        this(maxUpdatesPerSecond, System::nanoTime);
+    }
+
+    /**
+     * Creates a new time stepping configuration.
+     * @param maxUpdatesPerSecond       most times a texture may update between ticks each second
+     * @param nanoTime                  gets the current time from a monotonic clock in nanoseconds
+     */
+    public TimeStepping(int maxUpdatesPerSecond, LongSupplier nanoTime) {
+        if (maxUpdatesPerSecond <= 0) {
+            throw new IllegalArgumentException("Max updates per second must be positive but was "
+                    + maxUpdatesPerSecond);
+        }
+
+        MIN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1) / maxUpdatesPerSecond;
+        NANO_TIME = requireNonNull(nanoTime, "Time getter cannot be null");
+    }
+
+    /**
+     * Gets the current time.
+     * @return current time in nanoseconds
+     */
+    public long now() {
+        return NANO_TIME.getAsLong();
+    }
+
+    /**
+     * Gets the time of an update that happened long enough ago that the next update is due immediately.
+     * @param now       current time in nanoseconds
+     * @return time of the last update in nanoseconds
+     */
+    public long dueImmediately(long now) {
+        return now - MIN_INTERVAL_NANOS;
+    }
+
+    /**
+     * Checks whether enough time has passed since the last update to update again.
+     * @param lastUpdateNanos       time of the last update in nanoseconds
+     * @param now                   current time in nanoseconds
+     * @return whether another update is allowed
+     */
+    public boolean isDue(long lastUpdateNanos, long now) {
+        return now - lastUpdateNanos >= MIN_INTERVAL_NANOS;
+    }
+
+    /**
+     * Gets the fraction of the current tick that has passed.
+     * @param lastTickNanos     time of the last tick in nanoseconds
+     * @param now               current time in nanoseconds
+     * @return fraction of the tick that has passed, at least 0 and less than 1
+     */
+    public float partialTick(long lastTickNanos, long now) {
+        long elapsed = now - lastTickNanos;
+        if (elapsed <= 0) {
+            return 0;
+        }
+
+        // If the next tick is late, hold just before it instead of jumping back when it arrives
+        return Math.min(MAX_PARTIAL_TICK, (float) elapsed / NANOS_PER_TICK);
+    }
+
+}
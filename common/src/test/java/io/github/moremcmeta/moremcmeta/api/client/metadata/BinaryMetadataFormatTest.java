@@ -0,0 +1,461 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.api.client.metadata;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.github.moremcmeta.moremcmeta.impl.client.io.MockMetadataView;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link BinaryMetadataFormat}.
+ * @author soir20
+ */
+public final class BinaryMetadataFormatTest {
+    private static final int MAGIC = 0x4D4D4342;
+    private static final int VERSION = 1;
+    private static final int PRIMITIVE_INT = (1 << 1) | (1 << 5);
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void write_NullView_NullPointerException() throws IOException {
+        expectedException.expect(NullPointerException.class);
+        BinaryMetadataFormat.write(null, new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void write_NullStream_NullPointerException() throws IOException {
+        expectedException.expect(NullPointerException.class);
+        BinaryMetadataFormat.write(new CompiledMetadataView(makeJson(), String::compareTo), null);
+    }
+
+    @Test
+    public void read_NullStream_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        BinaryMetadataFormat.read(null);
+    }
+
+    @Test
+    public void read_CompiledView_EqualView() throws IOException, InvalidMetadataException {
+        CompiledMetadataView view = new CompiledMetadataView(makeJson(), String::compareTo);
+        assertEquals(view, roundTrip(view));
+    }
+
+    @Test
+    public void read_JsonView_SameAsCompiledView() throws IOException, InvalidMetadataException {
+        MetadataView view = new JsonMetadataView(makeJson(), String::compareTo);
+        assertEquals(new CompiledMetadataView(makeJson(), String::compareTo), roundTrip(view));
+    }
+
+    @Test
+    public void read_JsonViewWithCustomOrder_OrderKept() throws IOException, InvalidMetadataException {
+        MetadataView view = new JsonMetadataView(makeJson(), Comparator.reverseOrder());
+        CompiledMetadataView readView = roundTrip(view);
+
+        assertEquals(
+                ImmutableList.copyOf(view.keys()),
+                ImmutableList.copyOf(readView.keys())
+        );
+    }
+
+    @Test
+    public void read_PrimitivesInView_SameValues() throws IOException, InvalidMetadataException {
+        CompiledMetadataView view = roundTrip(new JsonMetadataView(makeJson(), String::compareTo));
+
+        assertEquals("hello", view.stringValue("string").orElseThrow());
+        assertEquals(5, view.getInt("int", 0));
+        assertEquals(Long.MAX_VALUE, view.getLong("long", 0));
+        assertFalse(view.hasInt("long"));
+        assertEquals(1.5, view.getDouble("double", 0), 0);
+        assertTrue(view.getBoolean("bool", false));
+        assertEquals("7", view.stringValue("7").orElseThrow());
+        assertTrue(view.hasBoolean("string"));
+        assertFalse(view.getBoolean("string", true));
+    }
+
+    @Test
+    public void read_SubViewsInView_SameValues() throws IOException, InvalidMetadataException {
+        CompiledMetadataView view = roundTrip(new JsonMetadataView(makeJson(), String::compareTo));
+
+        MetadataView object = view.subView("object").orElseThrow();
+        assertEquals(2, object.size());
+        assertEquals(10, object.getInt("x", 0));
+        assertEquals("y", object.stringValue("y").orElseThrow());
+
+        MetadataView array = view.subView("array").orElseThrow();
+        assertEquals(3, array.size());
+        assertEquals(3, array.getInt(2, 0));
+        assertEquals(1, array.subView(1).orElseThrow().getInt("nested", 0));
+    }
+
+    @Test
+    public void read_SubViewWritten_OnlySubViewRead() throws IOException, InvalidMetadataException {
+        CompiledMetadataView view = new CompiledMetadataView(makeJson(), String::compareTo);
+        MetadataView subView = view.subView("array").orElseThrow();
+
+        CompiledMetadataView readView = roundTrip(subView);
+
+        assertEquals(subView, readView);
+        assertEquals(3, readView.size());
+    }
+
+    @Test
+    public void read_ByteStreamValues_SameBytes() throws IOException, InvalidMetadataException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("blob", new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        values.put("empty", new ByteArrayInputStream(new byte[0]));
+        values.put("number", 4);
+        MetadataView view = new MockMetadataView(values);
+
+        CompiledMetadataView readView = roundTrip(view);
+
+        assertArrayEquals(new byte[] {1, 2, 3}, readAll(readView.byteStreamValue("blob").orElseThrow()));
+        assertArrayEquals(new byte[0], readAll(readView.byteStreamValue(1).orElseThrow()));
+        assertFalse(readView.byteStreamValue("number").isPresent());
+        assertEquals(4, readView.getInt("number", 0));
+    }
+
+    @Test
+    public void read_ByteStreamValues_EqualAfterSecondRoundTrip() throws IOException, InvalidMetadataException {
+        MetadataView view = new MockMetadataView(ImmutableMap.of("blob", new ByteArrayInputStream(new byte[] {5})));
+        CompiledMetadataView readView = roundTrip(view);
+        assertEquals(readView, roundTrip(readView));
+        assertEquals(readView.hashCode(), roundTrip(readView).hashCode());
+    }
+
+    @Test
+    public void read_JsonObjectWithIndexKeys_StillObject() throws IOException, InvalidMetadataException {
+        JsonObject root = makeIndexKeyedJson();
+        MetadataView view = new JsonMetadataView(root, String::compareTo);
+
+        CompiledMetadataView readView = roundTrip(view);
+
+        assertEquals(new CompiledMetadataView(root, String::compareTo), readView);
+        MetadataView subView = view.subView("x").orElseThrow();
+        MetadataView readSubView = readView.subView("x").orElseThrow();
+        assertEquals(subView.hasKey("01"), readSubView.hasKey("01"));
+        assertEquals(subView.hasKey("+1"), readSubView.hasKey("+1"));
+        assertEquals(subView.getInt("1", 0), readSubView.getInt("1", 0));
+    }
+
+    @Test
+    public void read_CombinedViewWithIndexKeys_StillObject() throws IOException, InvalidMetadataException {
+        JsonObject root = makeIndexKeyedJson();
+        MetadataView view = new CombinedMetadataView(List.of(new JsonMetadataView(root, String::compareTo)));
+
+        CompiledMetadataView readView = roundTrip(view);
+
+        assertEquals(new CompiledMetadataView(root, String::compareTo), readView);
+        assertFalse(readView.subView("x").orElseThrow().hasKey("01"));
+    }
+
+    @Test
+    public void read_JsonArray_StillArray() throws IOException, InvalidMetadataException {
+        JsonArray root = new JsonArray();
+        root.add(1);
+        root.add(2);
+        MetadataView view = new JsonMetadataView(root);
+
+        CompiledMetadataView readView = roundTrip(view);
+
+        assertEquals(new CompiledMetadataView(root), readView);
+        assertEquals(view.hasKey("01"), readView.hasKey("01"));
+    }
+
+    @Test
+    public void read_EmptyView_EmptyView() throws InvalidMetadataException {
+        CompiledMetadataView view = BinaryMetadataFormat.read(makeStream(1, 1, 0, 0, 0, 0));
+        assertEquals(0, view.size());
+    }
+
+    @Test
+    public void read_EmptyStream_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(new ByteArrayInputStream(new byte[0]));
+    }
+
+    @Test
+    public void read_WrongMagic_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(new ByteArrayInputStream(new byte[] {'{', '}', ' ', ' ', 0, 0, 0, 1}));
+    }
+
+    @Test
+    public void read_WrongVersion_InvalidMetadataException() throws IOException, InvalidMetadataException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION + 1);
+
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void read_Truncated_InvalidMetadataException() throws IOException, InvalidMetadataException {
+        byte[] bytes = write(new CompiledMetadataView(makeJson(), String::compareTo));
+
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    public void read_TrailingBytes_InvalidMetadataException() throws IOException, InvalidMetadataException {
+        byte[] bytes = write(new CompiledMetadataView(makeJson(), String::compareTo));
+
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length + 1)));
+    }
+
+    @Test
+    public void read_NoNodes_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(0, 1, 0));
+    }
+
+    @Test
+    public void read_NegativeNodeCount_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(-1, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void read_HugeNodeCount_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(Integer.MAX_VALUE, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void read_HugeStringLength_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(1, 1, Integer.MAX_VALUE, 0, 0, 0));
+    }
+
+    @Test
+    public void read_KeyIndexOutOfBounds_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(1, 1, 0, 0, 1, 0));
+    }
+
+    @Test
+    public void read_TooManyChildren_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(1, 1, 0, 0, 0, 1));
+    }
+
+    @Test
+    public void read_NodeWithoutParent_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(2, 1, 0, 0, 0, 0, PRIMITIVE_INT, 0, 0, 5));
+    }
+
+    @Test
+    public void read_PrimitiveRoot_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(1, 1, 0, PRIMITIVE_INT, 0, 0, 5));
+    }
+
+    @Test
+    public void read_UnknownFlags_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(2, 1, 0, 0, 0, 1, PRIMITIVE_INT | (1 << 20), 0, 0, 5));
+    }
+
+    @Test
+    public void read_ContainerWithPrimitiveFlags_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(1, 1, 0, 1 << 5, 0, 0));
+    }
+
+    @Test
+    public void readSections_NullSectionNames_NullPointerException() throws IOException, InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        BinaryMetadataFormat.read(new ByteArrayInputStream(write(new JsonMetadataView(makeJson(),
+                String::compareTo))), null);
+    }
+
+    @Test
+    public void readSections_SomeSectionsRequested_OnlyRequestedSectionsKept()
+            throws IOException, InvalidMetadataException {
+        JsonObject root = makeJson();
+        byte[] bytes = write(new JsonMetadataView(root, String::compareTo));
+
+        CompiledMetadataView readView = BinaryMetadataFormat.read(new ByteArrayInputStream(bytes),
+                Set.of("int", "object", "array", "missing"));
+
+        JsonObject expected = new JsonObject();
+        expected.add("int", root.get("int"));
+        expected.add("object", root.get("object"));
+        expected.add("array", root.get("array"));
+        assertEquals(new CompiledMetadataView(expected, String::compareTo), readView);
+        assertEquals(1, readView.subView("array").orElseThrow().subView(1).orElseThrow().getInt("nested", 0));
+    }
+
+    @Test
+    public void readSections_NoSectionsRequested_EmptyView() throws IOException, InvalidMetadataException {
+        byte[] bytes = write(new JsonMetadataView(makeJson(), String::compareTo));
+        CompiledMetadataView readView = BinaryMetadataFormat.read(new ByteArrayInputStream(bytes), Set.of());
+        assertEquals(0, readView.size());
+    }
+
+    @Test
+    public void readSections_JsonArray_AllElementsKept() throws IOException, InvalidMetadataException {
+        JsonArray root = new JsonArray();
+        root.add(1);
+        root.add(2);
+
+        CompiledMetadataView readView = BinaryMetadataFormat.read(
+                new ByteArrayInputStream(write(new JsonMetadataView(root))),
+                Set.of()
+        );
+
+        assertEquals(new CompiledMetadataView(root), readView);
+    }
+
+    @Test
+    public void readSections_InvalidSkippedSection_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        BinaryMetadataFormat.read(makeStream(2, 1, 0, 0, 0, 1, PRIMITIVE_INT | (1 << 20), 0, 0, 5), Set.of());
+    }
+
+    /**
+     * Makes a JSON object with a sub-object whose keys look like array indices.
+     * @return the JSON object
+     */
+    private static JsonObject makeIndexKeyedJson() {
+        JsonObject subObject = new JsonObject();
+        subObject.add("0", new JsonPrimitive(1));
+        subObject.add("1", new JsonPrimitive(2));
+
+        JsonObject root = new JsonObject();
+        root.add("x", subObject);
+        return root;
+    }
+
+    /**
+     * Makes JSON with every kind of value.
+     * @return the JSON
+     */
+    private static JsonObject makeJson() {
+        JsonObject object = new JsonObject();
+        object.add("x", new JsonPrimitive(10));
+        object.add("y", new JsonPrimitive("y"));
+
+        JsonObject nested = new JsonObject();
+        nested.add("nested", new JsonPrimitive(1));
+
+        JsonArray array = new JsonArray();
+        array.add(1);
+        array.add(nested);
+        array.add(3);
+
+        JsonObject root = new JsonObject();
+        root.add("string", new JsonPrimitive("hello"));
+        root.add("int", new JsonPrimitive(5));
+        root.add("long", new JsonPrimitive(Long.MAX_VALUE));
+        root.add("double", new JsonPrimitive(1.5));
+        root.add("bool", new JsonPrimitive(true));
+        root.add("7", new JsonPrimitive("7"));
+        root.add("object", object);
+        root.add("array", array);
+        return root;
+    }
+
+    /**
+     * Writes a view and reads it back.
+     * @param view      view to write
+     * @return the view that was read
+     * @throws IOException if the view cannot be written
+     * @throws InvalidMetadataException if the view that was written cannot be read
+     */
+    private static CompiledMetadataView roundTrip(MetadataView view) throws IOException, InvalidMetadataException {
+        return BinaryMetadataFormat.read(new ByteArrayInputStream(write(view)));
+    }
+
+    /**
+     * Writes a view in the binary format.
+     * @param view      view to write
+     * @return the written bytes
+     * @throws IOException if the view cannot be written
+     */
+    private static byte[] write(MetadataView view) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryMetadataFormat.write(view, bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Makes a stream with a valid header followed by the given integers.
+     * @param body      integers to write after the header
+     * @return the stream
+     */
+    private static InputStream makeStream(int... body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            for (int value : body) {
+                output.writeInt(value);
+            }
+        } catch (IOException err) {
+            throw new AssertionError(err);
+        }
+
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    /**
+     * Reads all bytes from a stream.
+     * @param stream    stream to read
+     * @return all bytes in the stream
+     * @throws IOException if the stream cannot be read
+     */
+    private static byte[] readAll(InputStream stream) throws IOException {
+        try (stream) {
+            return stream.readAllBytes();
+        }
+    }
+
+}
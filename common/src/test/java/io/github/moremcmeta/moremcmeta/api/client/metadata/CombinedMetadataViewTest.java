@@ -0,0 +1,194 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.api.client.metadata;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link CombinedMetadataView}.
+ * @author soir20
+ */
+public final class CombinedMetadataViewTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullCollection_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new CombinedMetadataView(null);
+    }
+
+    @Test
+    public void construct_NullView_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new CombinedMetadataView(ImmutableList.of(makeView("a", 1), null));
+    }
+
+    @Test
+    public void keys_DuplicateKeys_FirstOccurrenceOrder() {
+        MetadataView view = makeCombinedView();
+        assertEquals(ImmutableList.of("a", "c", "b", "d"), ImmutableList.copyOf(view.keys()));
+    }
+
+    @Test
+    public void integerValue_DuplicateKey_FirstViewUsed() {
+        MetadataView view = makeCombinedView();
+        assertEquals(1, (int) view.integerValue("a").orElseThrow());
+    }
+
+    @Test
+    public void getInt_DuplicateKey_FirstViewUsed() {
+        MetadataView view = makeCombinedView();
+        assertTrue(view.hasInt("a"));
+        assertEquals(1, view.getInt("a", 0));
+    }
+
+    @Test
+    public void getInt_KeyInSecondView_SecondViewUsed() {
+        MetadataView view = makeCombinedView();
+        assertTrue(view.hasInt("d"));
+        assertEquals(4, view.getInt("d", 0));
+    }
+
+    @Test
+    public void getInt_MissingKey_Default() {
+        MetadataView view = makeCombinedView();
+        assertFalse(view.hasInt("e"));
+        assertEquals(-5, view.getInt("e", -5));
+    }
+
+    @Test
+    public void getInt_Index_SameAsIntegerValue() {
+        MetadataView view = makeCombinedView();
+        for (int index = 0; index <= view.size(); index++) {
+            assertEquals(view.integerValue(index).isPresent(), view.hasInt(index));
+            assertEquals((int) view.integerValue(index).orElse(-5), view.getInt(index, -5));
+        }
+    }
+
+    @Test
+    public void getInt_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = makeCombinedView();
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.getInt(-1, 0);
+    }
+
+    @Test
+    public void hasLong_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = makeCombinedView();
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.hasLong(-1);
+    }
+
+    @Test
+    public void getLong_IndexInSecondView_SecondViewUsed() {
+        MetadataView view = makeCombinedView();
+        assertEquals(4L, view.getLong(3, 0L));
+    }
+
+    @Test
+    public void getFloat_Key_SameAsFloatValue() {
+        MetadataView view = makeCombinedView();
+        assertEquals(view.floatValue("c").orElseThrow(), view.getFloat("c", 0f), 0);
+    }
+
+    @Test
+    public void getDouble_Index_SameAsDoubleValue() {
+        MetadataView view = makeCombinedView();
+        assertTrue(view.hasDouble(1));
+        assertEquals(view.doubleValue(1).orElseThrow(), view.getDouble(1, 0), 0);
+    }
+
+    @Test
+    public void getBoolean_NumberKey_ConvertedToFalse() {
+        MetadataView view = makeCombinedView();
+        assertTrue(view.hasBoolean("b"));
+        assertFalse(view.getBoolean("b", true));
+    }
+
+    @Test
+    public void getBoolean_IndexOutOfBounds_Default() {
+        MetadataView view = makeCombinedView();
+        assertFalse(view.hasBoolean(view.size()));
+        assertTrue(view.getBoolean(view.size(), true));
+    }
+
+    @Test
+    public void keys_NestedCombinedView_SameAsFlatView() {
+        MetadataView nested = new CombinedMetadataView(ImmutableList.of(makeCombinedView(), makeView("e", 6)));
+        assertEquals(ImmutableList.of("a", "c", "b", "d", "e"), ImmutableList.copyOf(nested.keys()));
+    }
+
+    @Test
+    public void getInt_NestedCombinedView_SameAsFlatView() {
+        MetadataView nested = new CombinedMetadataView(ImmutableList.of(
+                makeView("d", 7),
+                makeCombinedView(),
+                makeView("e", 6)
+        ));
+
+        assertEquals(7, nested.getInt("d", 0));
+        assertEquals(1, nested.getInt("a", 0));
+        assertEquals(1, nested.getInt(1, 0));
+        assertEquals(2, nested.getInt(3, 0));
+        assertEquals(6, nested.getInt(4, 0));
+        assertFalse(nested.hasKey(5));
+    }
+
+    /**
+     * Makes a combined view with keys (a, c, b) and (d, a).
+     * @return the combined view
+     */
+    private static MetadataView makeCombinedView() {
+        JsonObject first = new JsonObject();
+        first.add("a", new JsonPrimitive(1));
+        first.add("c", new JsonPrimitive(3));
+        first.add("b", new JsonPrimitive(2));
+
+        JsonObject second = new JsonObject();
+        second.add("d", new JsonPrimitive(4));
+        second.add("a", new JsonPrimitive(5));
+
+        return new CombinedMetadataView(ImmutableList.of(
+                new JsonMetadataView(first, (key1, key2) -> 0),
+                new JsonMetadataView(second, (key1, key2) -> 0)
+        ));
+    }
+
+    /**
+     * Makes a view with a single key.
+     * @param key       the key in the view
+     * @param value     the integer value of the key
+     * @return the view
+     */
+    private static MetadataView makeView(String key, int value) {
+        JsonObject root = new JsonObject();
+        root.add(key, new JsonPrimitive(value));
+        return new JsonMetadataView(root, String::compareTo);
+    }
+
+}
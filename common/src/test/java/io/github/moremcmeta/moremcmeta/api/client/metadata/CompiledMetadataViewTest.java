@@ -0,0 +1,768 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.api.client.metadata;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link CompiledMetadataView}. The view must behave the same as a {@link JsonMetadataView},
+ * so views compiled from JSON are compared against a {@link JsonMetadataView} of the same JSON.
+ * @author soir20
+ */
+public final class CompiledMetadataViewTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullObject_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new CompiledMetadataView(null, String::compareTo);
+    }
+
+    @Test
+    public void construct_NullComparator_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new CompiledMetadataView(new JsonObject(), null);
+    }
+
+    @Test
+    public void construct_NullArray_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new CompiledMetadataView((JsonArray) null);
+    }
+
+    @Test
+    public void compiledObject_AllTypes_SameAsJsonView() {
+        assertSameAsJson(makeDemoObject(), String::compareTo);
+    }
+
+    @Test
+    public void compiledObject_ReverseKeyOrder_SameAsJsonView() {
+        assertSameAsJson(makeDemoObject(), Comparator.reverseOrder());
+    }
+
+    @Test
+    public void compiledObject_KeysAreIndices_SameAsJsonView() {
+        JsonObject root = new JsonObject();
+        JsonObject sub = new JsonObject();
+        sub.add("0", new JsonPrimitive(1));
+        sub.add("1", new JsonPrimitive(2));
+        root.add("x", sub);
+        root.add("1", new JsonPrimitive("one"));
+        root.add("0", new JsonPrimitive("zero"));
+
+        assertSameAsJson(root, String::compareTo);
+        assertSameAsJson(root, Comparator.reverseOrder());
+    }
+
+    @Test
+    public void compiledObject_StringsLikeOtherTypes_SameAsJsonView() {
+        JsonObject root = new JsonObject();
+        root.add("int string", new JsonPrimitive("10"));
+        root.add("fraction string", new JsonPrimitive("1.5"));
+        root.add("true string", new JsonPrimitive("true"));
+        root.add("false string", new JsonPrimitive("false"));
+        root.add("empty string", new JsonPrimitive(""));
+        root.add("unicode key \u00e9\u4e2d", new JsonPrimitive("\ud83d\ude00"));
+
+        assertSameAsJson(root, String::compareTo);
+    }
+
+    @Test
+    public void compiledObject_Empty_SameAsJsonView() {
+        assertSameAsJson(new JsonObject(), String::compareTo);
+    }
+
+    @Test
+    public void compiledObject_DeeplyNested_SameAsJsonView() {
+        JsonObject root = new JsonObject();
+        JsonObject current = root;
+        for (int depth = 0; depth < 20; depth++) {
+            JsonObject next = new JsonObject();
+            JsonArray array = new JsonArray();
+            array.add(depth);
+            array.add(new JsonObject());
+            current.add("array" + depth, array);
+            current.add("next", next);
+            current = next;
+        }
+
+        assertSameAsJson(root, String::compareTo);
+    }
+
+    @Test
+    public void compiledArray_AllTypes_SameAsJsonView() {
+        assertSameAsJson(makeDemoArray());
+    }
+
+    @Test
+    public void compiledArray_Empty_SameAsJsonView() {
+        assertSameAsJson(new JsonArray());
+    }
+
+    @Test
+    public void compiledArray_OnlyNulls_SameAsJsonView() {
+        JsonArray root = new JsonArray();
+        root.add((JsonObject) null);
+        root.add((JsonObject) null);
+
+        assertSameAsJson(root);
+    }
+
+    @Test
+    public void construct_RootChangedAfter_ViewUnchanged() {
+        JsonObject root = new JsonObject();
+        root.add("hello", new JsonPrimitive(10));
+        CompiledMetadataView view = new CompiledMetadataView(root, String::compareTo);
+
+        root.add("world", new JsonPrimitive(20));
+        root.add("hello", new JsonPrimitive(30));
+
+        assertEquals(1, view.size());
+        assertEquals(10, view.getInt("hello", 0));
+        assertFalse(view.hasKey("world"));
+    }
+
+    @Test
+    public void subView_SameKeyTwice_SameView() {
+        JsonObject root = new JsonObject();
+        root.add("sub", new JsonObject());
+        CompiledMetadataView view = new CompiledMetadataView(root, String::compareTo);
+
+        assertSame(view.subView("sub").orElseThrow(), view.subView("sub").orElseThrow());
+        assertSame(view.subView("sub").orElseThrow(), view.subView(0).orElseThrow());
+    }
+
+    @Test
+    public void subView_NestedRootComparator_OnlyRootUsesComparator() {
+        JsonObject root = new JsonObject();
+        JsonObject sub = new JsonObject();
+        sub.add("a", new JsonPrimitive(1));
+        sub.add("b", new JsonPrimitive(2));
+        root.add("a", sub);
+        root.add("b", new JsonPrimitive(3));
+        CompiledMetadataView view = new CompiledMetadataView(root, Comparator.reverseOrder());
+
+        assertEquals("b", view.keys().iterator().next());
+        assertEquals("a", view.subView(1).orElseThrow().keys().iterator().next());
+        assertEquals(1, ((CompiledMetadataView) view.subView("a").orElseThrow()).getInt("a", 0));
+        assertEquals(2, ((CompiledMetadataView) view.subView("a").orElseThrow()).getInt(1, 0));
+    }
+
+    @Test
+    public void getInt_IntKey_IntValue() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasInt("int"));
+        assertEquals(Integer.MIN_VALUE, view.getInt("int", 5));
+    }
+
+    @Test
+    public void getInt_LongKey_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasInt("long"));
+        assertEquals(5, view.getInt("long", 5));
+    }
+
+    @Test
+    public void getInt_MissingKey_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasInt("missing"));
+        assertEquals(5, view.getInt("missing", 5));
+    }
+
+    @Test
+    public void getInt_IndexOutOfBounds_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasInt(100));
+        assertEquals(5, view.getInt(100, 5));
+    }
+
+    @Test
+    public void getLong_LongKey_LongValue() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasLong("long"));
+        assertEquals(Long.MAX_VALUE, view.getLong("long", 5));
+    }
+
+    @Test
+    public void getLong_IntKey_IntValue() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasLong("int"));
+        assertEquals(Integer.MIN_VALUE, view.getLong("int", 5));
+    }
+
+    @Test
+    public void getLong_TooLargeKey_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasLong("huge"));
+        assertEquals(5, view.getLong("huge", 5));
+    }
+
+    @Test
+    public void getFloat_FractionKey_FloatValue() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasFloat("fraction"));
+        assertEquals(0.5f, view.getFloat("fraction", 5f), 0);
+    }
+
+    @Test
+    public void getFloat_DoubleMaxKey_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasFloat("double"));
+        assertEquals(5f, view.getFloat("double", 5f), 0);
+    }
+
+    @Test
+    public void getDouble_DoubleMaxKey_DoubleValue() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasDouble("double"));
+        assertEquals(Double.MAX_VALUE, view.getDouble("double", 5), 0);
+    }
+
+    @Test
+    public void getDouble_StringKey_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasDouble("string"));
+        assertEquals(5, view.getDouble("string", 5), 0);
+    }
+
+    @Test
+    public void getBoolean_TrueKey_True() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasBoolean("true"));
+        assertTrue(view.getBoolean("true", false));
+    }
+
+    @Test
+    public void getBoolean_StringKey_ConvertedToFalse() {
+        CompiledMetadataView view = makeNumberView();
+        assertTrue(view.hasBoolean("string"));
+        assertFalse(view.getBoolean("string", true));
+    }
+
+    @Test
+    public void getBoolean_SubViewKey_Default() {
+        CompiledMetadataView view = makeNumberView();
+        assertFalse(view.hasBoolean("object"));
+        assertTrue(view.getBoolean("object", true));
+    }
+
+    @Test
+    public void getInt_ArrayAfterNull_ElementsShifted() {
+        JsonArray root = new JsonArray();
+        root.add((JsonObject) null);
+        root.add(new JsonPrimitive(1));
+        root.add(new JsonPrimitive(2));
+        CompiledMetadataView view = new CompiledMetadataView(root);
+
+        assertEquals(2, view.size());
+        assertEquals(1, view.getInt(0, 0));
+        assertEquals(2, view.getInt("1", 0));
+    }
+
+    @Test
+    public void readSections_NullReader_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        CompiledMetadataView.readSections(null, Set.of("animation"), String::compareTo);
+    }
+
+    @Test
+    public void readSections_NullSectionNames_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        CompiledMetadataView.readSections(makeReader("{}"), null, String::compareTo);
+    }
+
+    @Test
+    public void readSections_NullComparator_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        CompiledMetadataView.readSections(makeReader("{}"), Set.of("animation"), null);
+    }
+
+    @Test
+    public void readSections_EmptyObject_EmptyView() throws InvalidMetadataException {
+        CompiledMetadataView view = CompiledMetadataView.readSections(makeReader("{}"), Set.of("animation"),
+                String::compareTo);
+        assertEquals(0, view.size());
+    }
+
+    @Test
+    public void readSections_UnknownSections_UnknownSectionsSkipped() throws InvalidMetadataException {
+        CompiledMetadataView view = CompiledMetadataView.readSections(makeReader(
+                "{\"animation\": {\"frametime\": 5, \"frames\": [1, 2, 3]}, " +
+                        "\"vanilla\": {\"big\": [[1, 2], {\"a\": null}, \"text\"]}, " +
+                        "\"texture\": {\"blur\": true}, \"number\": 10}"
+        ), Set.of("animation", "texture"), String::compareTo);
+
+        assertEquals(List.of("animation", "texture"), collectKeys(view.keys()));
+        MetadataView animation = view.subView("animation").orElseThrow();
+        assertEquals(5, animation.getInt("frametime", 0));
+        assertEquals(3, animation.subView("frames").orElseThrow().getInt(2, 0));
+        assertTrue(view.subView("texture").orElseThrow().getBoolean("blur", false));
+        assertFalse(view.hasKey("vanilla"));
+        assertFalse(view.hasKey("number"));
+    }
+
+    @Test
+    public void readSections_KeyComparator_KeysSorted() throws InvalidMetadataException {
+        CompiledMetadataView view = CompiledMetadataView.readSections(
+                makeReader("{\"a\": 1, \"b\": 2, \"c\": 3}"),
+                Set.of("a", "b", "c"),
+                Comparator.reverseOrder()
+        );
+
+        assertEquals(List.of("c", "b", "a"), collectKeys(view.keys()));
+    }
+
+    @Test
+    public void readSections_ReaderAfterObject_ReaderAtEndOfObject() throws IOException, InvalidMetadataException {
+        JsonReader reader = makeReader("[{\"a\": 1}, 2]");
+        reader.beginArray();
+        CompiledMetadataView view = CompiledMetadataView.readSections(reader, Set.of("a"), String::compareTo);
+
+        assertEquals(1, view.getInt("a", 0));
+        assertEquals(2, reader.nextInt());
+    }
+
+    @Test
+    public void readSections_RootIsArray_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        CompiledMetadataView.readSections(makeReader("[1, 2]"), Set.of("animation"), String::compareTo);
+    }
+
+    @Test
+    public void readSections_MalformedSkippedSection_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        CompiledMetadataView.readSections(makeReader("{\"vanilla\": {\"a\": }"), Set.of("animation"),
+                String::compareTo);
+    }
+
+    @Test
+    public void readSections_MalformedKeptSection_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        CompiledMetadataView.readSections(makeReader("{\"animation\": {\"a\": 1"), Set.of("animation"),
+                String::compareTo);
+    }
+
+    @Test
+    public void combine_NullCollection_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        CompiledMetadataView.combine(null);
+    }
+
+    @Test
+    public void combine_NullView_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        CompiledMetadataView.combine(Arrays.asList(makeCombinableView("a", 1), null));
+    }
+
+    @Test
+    public void combine_AllCompiled_CompiledView() {
+        MetadataView view = CompiledMetadataView.combine(List.of(makeCombinableView("a", 1),
+                makeCombinableView("b", 2)));
+        assertTrue(view instanceof CompiledMetadataView);
+    }
+
+    @Test
+    public void combine_OneNotCompiled_CombinedView() {
+        JsonObject root = new JsonObject();
+        root.add("b", new JsonPrimitive(2));
+
+        MetadataView view = CompiledMetadataView.combine(List.of(makeCombinableView("a", 1),
+                new JsonMetadataView(root, String::compareTo)));
+
+        assertTrue(view instanceof CombinedMetadataView);
+        assertEquals(2, view.getInt("b", 0));
+    }
+
+    @Test
+    public void combine_NoViews_EmptyView() {
+        MetadataView view = CompiledMetadataView.combine(List.of());
+        assertEquals(0, view.size());
+        assertFalse(view.keys().iterator().hasNext());
+    }
+
+    @Test
+    public void combine_DuplicateKeys_FirstOccurrenceUsed() {
+        MetadataView view = makeMergedView();
+
+        assertEquals(List.of("a", "c", "b", "d", "e"), collectKeys(view.keys()));
+        assertEquals(1, view.getInt("a", 0));
+        assertEquals(1, view.getInt(0, 0));
+        assertEquals("hello", view.stringValue("e").orElseThrow());
+    }
+
+    @Test
+    public void combine_DuplicateKeys_SameAsCombinedView() {
+        MetadataView merged = makeMergedView();
+        MetadataView combined = new CombinedMetadataView(makeMergeInputs());
+
+        assertEquals(collectKeys(combined.keys()), collectKeys(merged.keys()));
+        for (int index = 0; index <= combined.size(); index++) {
+            assertEquals(combined.stringValue(index), merged.stringValue(index));
+            assertEquals(combined.integerValue(index), merged.integerValue(index));
+            assertEquals(combined.longValue(index), merged.longValue(index));
+            assertEquals(combined.floatValue(index), merged.floatValue(index));
+            assertEquals(combined.doubleValue(index), merged.doubleValue(index));
+            assertEquals(combined.booleanValue(index), merged.booleanValue(index));
+            assertEquals(combined.subView(index), merged.subView(index));
+        }
+    }
+
+    @Test
+    public void combine_SubViewFromSecondView_SubViewCopied() {
+        MetadataView subView = makeMergedView().subView("d").orElseThrow();
+
+        assertEquals(List.of("x", "y"), collectKeys(subView.keys()));
+        assertEquals(3, subView.subView("y").orElseThrow().getInt(1, 0));
+        assertTrue(subView.getBoolean("x", false));
+    }
+
+    @Test
+    public void combine_CompiledSubViews_SubViewsMerged() {
+        CompiledMetadataView first = (CompiledMetadataView) makeCombinableView("a", 1);
+        JsonObject root = new JsonObject();
+        JsonObject sub = new JsonObject();
+        sub.add("b", new JsonPrimitive(2));
+        root.add("sub", sub);
+        CompiledMetadataView second = new CompiledMetadataView(root, String::compareTo);
+
+        MetadataView view = CompiledMetadataView.combine(List.of(first, second.subView("sub").orElseThrow()));
+
+        assertEquals(List.of("a", "b"), collectKeys(view.keys()));
+        assertEquals(2, view.getInt("b", 0));
+    }
+
+    @Test
+    public void combine_SameViews_EqualResults() {
+        assertEquals(makeMergedView(), makeMergedView());
+        assertEquals(makeMergedView().hashCode(), makeMergedView().hashCode());
+    }
+
+    /**
+     * Checks that a view compiled from a JSON object behaves the same as a {@link JsonMetadataView}
+     * of the object.
+     * @param root              the root JSON object
+     * @param keyComparator     comparator to order keys by index
+     */
+    private static void assertSameAsJson(JsonObject root, Comparator<? super String> keyComparator) {
+        assertSameViews(new JsonMetadataView(root, keyComparator), new CompiledMetadataView(root, keyComparator));
+    }
+
+    /**
+     * Checks that a view compiled from a JSON array behaves the same as a {@link JsonMetadataView}
+     * of the array.
+     * @param root              the root JSON array
+     */
+    private static void assertSameAsJson(JsonArray root) {
+        assertSameViews(new JsonMetadataView(root), new CompiledMetadataView(root));
+    }
+
+    /**
+     * Checks that two views have the same keys and values, including in all of their sub-views.
+     * @param expected      view with the expected behavior
+     * @param actual        view under test
+     */
+    private static void assertSameViews(MetadataView expected, MetadataView actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(collectKeys(expected.keys()), collectKeys(actual.keys()));
+
+        List<String> keys = collectKeys(expected.keys());
+        keys.addAll(List.of("missing", "-1", "0", String.valueOf(expected.size()), ""));
+        for (String key : keys) {
+            assertSameValues(expected, actual, key);
+        }
+
+        for (int index = 0; index <= expected.size(); index++) {
+            assertSameValues(expected, actual, index);
+        }
+
+        assertSameException(() -> expected.hasKey(null), () -> actual.hasKey(null));
+        assertSameException(() -> expected.stringValue(null), () -> actual.stringValue(null));
+        assertSameException(() -> expected.hasKey(-1), () -> actual.hasKey(-1));
+        assertSameException(() -> expected.integerValue(-1), () -> actual.integerValue(-1));
+        assertSameException(() -> expected.subView(-1), () -> actual.subView(-1));
+    }
+
+    /**
+     * Checks that two views have the same value for a key.
+     * @param expected      view with the expected behavior
+     * @param actual        view under test
+     * @param key           key to check
+     */
+    private static void assertSameValues(MetadataView expected, MetadataView actual, String key) {
+        assertEquals(key, expected.hasKey(key), actual.hasKey(key));
+        assertEquals(key, expected.stringValue(key), actual.stringValue(key));
+        assertEquals(key, expected.integerValue(key), actual.integerValue(key));
+        assertEquals(key, expected.longValue(key), actual.longValue(key));
+        assertEquals(key, expected.floatValue(key), actual.floatValue(key));
+        assertEquals(key, expected.doubleValue(key), actual.doubleValue(key));
+        assertEquals(key, expected.booleanValue(key), actual.booleanValue(key));
+        assertEquals(key, expected.byteStreamValue(key).isPresent(), actual.byteStreamValue(key).isPresent());
+        assertEquals(key, expected.getInt(key, -5), actual.getInt(key, -5));
+        assertEquals(key, expected.getLong(key, -5L), actual.getLong(key, -5L));
+        assertEquals(key, expected.getFloat(key, -5f), actual.getFloat(key, -5f), 0);
+        assertEquals(key, expected.getDouble(key, -5d), actual.getDouble(key, -5d), 0);
+        assertEquals(key, expected.getBoolean(key, true), actual.getBoolean(key, true));
+
+        Optional<MetadataView> expectedSubView = expected.subView(key);
+        Optional<MetadataView> actualSubView = actual.subView(key);
+        assertEquals(key, expectedSubView.isPresent(), actualSubView.isPresent());
+        expectedSubView.ifPresent((subView) -> assertSameViews(subView, actualSubView.orElseThrow()));
+    }
+
+    /**
+     * Checks that two views have the same value at an index.
+     * @param expected      view with the expected behavior
+     * @param actual        view under test
+     * @param index         index to check
+     */
+    private static void assertSameValues(MetadataView expected, MetadataView actual, int index) {
+        String message = String.valueOf(index);
+        assertEquals(message, expected.hasKey(index), actual.hasKey(index));
+        assertEquals(message, expected.stringValue(index), actual.stringValue(index));
+        assertEquals(message, expected.integerValue(index), actual.integerValue(index));
+        assertEquals(message, expected.longValue(index), actual.longValue(index));
+        assertEquals(message, expected.floatValue(index), actual.floatValue(index));
+        assertEquals(message, expected.doubleValue(index), actual.doubleValue(index));
+        assertEquals(message, expected.booleanValue(index), actual.booleanValue(index));
+        assertEquals(message, expected.byteStreamValue(index).isPresent(), actual.byteStreamValue(index).isPresent());
+        assertEquals(message, expected.getInt(index, -5), actual.getInt(index, -5));
+        assertEquals(message, expected.getLong(index, -5L), actual.getLong(index, -5L));
+        assertEquals(message, expected.getFloat(index, -5f), actual.getFloat(index, -5f), 0);
+        assertEquals(message, expected.getDouble(index, -5d), actual.getDouble(index, -5d), 0);
+        assertEquals(message, expected.getBoolean(index, true), actual.getBoolean(index, true));
+
+        Optional<MetadataView> expectedSubView = expected.subView(index);
+        Optional<MetadataView> actualSubView = actual.subView(index);
+        assertEquals(message, expectedSubView.isPresent(), actualSubView.isPresent());
+
+        // Sub-views were already compared in depth by key, so only check that the same sub-view was found
+        expectedSubView.ifPresent((subView) -> assertEquals(
+                collectKeys(subView.keys()),
+                collectKeys(actualSubView.orElseThrow().keys())
+        ));
+    }
+
+    /**
+     * Checks that two operations throw the same type of exception.
+     * @param expected      operation with the expected behavior
+     * @param actual        operation under test
+     */
+    private static void assertSameException(Runnable expected, Runnable actual) {
+        assertEquals(exceptionType(expected), exceptionType(actual));
+    }
+
+    /**
+     * Gets the type of exception an operation throws.
+     * @param operation     operation to run
+     * @return the type of exception thrown or null if there was none
+     */
+    @Nullable
+    private static Class<?> exceptionType(Runnable operation) {
+        try {
+            operation.run();
+        } catch (RuntimeException err) {
+            return err.getClass();
+        }
+
+        return null;
+    }
+
+    /**
+     * Makes a JSON object with values of all types, including a sub-object and sub-array.
+     * @return the object
+     */
+    private static JsonObject makeDemoObject() {
+        JsonObject root = new JsonObject();
+        addAllTypeVals(root, 0);
+        addAllTypeVals(root.getAsJsonObject("object val0"), 1);
+        addAllTypeVals(root.getAsJsonArray("array val0"));
+        return root;
+    }
+
+    /**
+     * Makes a JSON array with values of all types, including a sub-object and sub-array.
+     * @return the array
+     */
+    private static JsonArray makeDemoArray() {
+        JsonArray root = new JsonArray();
+        addAllTypeVals(root);
+        addAllTypeVals(root.get(14).getAsJsonObject(), 1);
+        addAllTypeVals(root.get(15).getAsJsonArray());
+        return root;
+    }
+
+    /**
+     * Adds one value of every type to a JSON object.
+     * @param root      object to add values to
+     * @param level     suffix for the keys
+     */
+    private static void addAllTypeVals(JsonObject root, int level) {
+        root.add("null val" + level, null);
+        root.add("string val" + level, new JsonPrimitive("hello world"));
+        root.add("pos int val" + level, new JsonPrimitive(Integer.MAX_VALUE));
+        root.add("neg int val" + level, new JsonPrimitive(Integer.MIN_VALUE));
+        root.add("pos long val" + level, new JsonPrimitive(Long.MAX_VALUE));
+        root.add("neg long val" + level, new JsonPrimitive(Long.MIN_VALUE));
+        root.add("pos int >64-bits val" + level, new JsonPrimitive(new BigInteger("9223372036854775808")));
+        root.add("neg int >64-bits val" + level, new JsonPrimitive(new BigInteger("-9223372036854775809")));
+        root.add("pos float val" + level, new JsonPrimitive(Float.MAX_VALUE));
+        root.add("neg float val" + level, new JsonPrimitive(-Float.MAX_VALUE));
+        root.add("pos double val" + level, new JsonPrimitive(Double.MAX_VALUE));
+        root.add("neg double val" + level, new JsonPrimitive(-Double.MAX_VALUE));
+        root.add("true val" + level, new JsonPrimitive(true));
+        root.add("false val" + level, new JsonPrimitive(false));
+        root.add("object val" + level, new JsonObject());
+        root.add("array val" + level, new JsonArray());
+    }
+
+    /**
+     * Adds one value of every type to a JSON array.
+     * @param root      array to add values to
+     */
+    private static void addAllTypeVals(JsonArray root) {
+        root.add((JsonObject) null);
+        root.add(new JsonPrimitive("hello world"));
+        root.add(new JsonPrimitive(Integer.MAX_VALUE));
+        root.add(new JsonPrimitive(Integer.MIN_VALUE));
+        root.add(new JsonPrimitive(Long.MAX_VALUE));
+        root.add(new JsonPrimitive(Long.MIN_VALUE));
+        root.add(new JsonPrimitive(new BigInteger("9223372036854775808")));
+        root.add(new JsonPrimitive(new BigInteger("-9223372036854775809")));
+        root.add(new JsonPrimitive(Float.MAX_VALUE));
+        root.add(new JsonPrimitive(-Float.MAX_VALUE));
+        root.add(new JsonPrimitive(Double.MAX_VALUE));
+        root.add(new JsonPrimitive(-Double.MAX_VALUE));
+        root.add(new JsonPrimitive(true));
+        root.add(new JsonPrimitive(false));
+        root.add(new JsonObject());
+        root.add(new JsonArray());
+    }
+
+    /**
+     * Makes a merged view from the views in {@link #makeMergeInputs()}.
+     * @return the merged view
+     */
+    private static MetadataView makeMergedView() {
+        return CompiledMetadataView.combine(makeMergeInputs());
+    }
+
+    /**
+     * Makes compiled views with keys (a, c, b), (d, a), and (e, c).
+     * @return the views to merge
+     */
+    private static List<MetadataView> makeMergeInputs() {
+        JsonObject first = new JsonObject();
+        first.add("a", new JsonPrimitive(1));
+        first.add("c", new JsonPrimitive(3.5));
+        first.add("b", new JsonPrimitive(Long.MAX_VALUE));
+
+        JsonObject sub = new JsonObject();
+        JsonArray array = new JsonArray();
+        array.add(2);
+        array.add(3);
+        sub.add("y", array);
+        sub.add("x", new JsonPrimitive(true));
+
+        JsonObject second = new JsonObject();
+        second.add("d", sub);
+        second.add("a", new JsonPrimitive(5));
+
+        JsonObject third = new JsonObject();
+        third.add("e", new JsonPrimitive("hello"));
+        third.add("c", new JsonPrimitive(6));
+
+        return List.of(
+                new CompiledMetadataView(first, (key1, key2) -> 0),
+                new CompiledMetadataView(second, (key1, key2) -> 0),
+                new CompiledMetadataView(third, (key1, key2) -> 0)
+        );
+    }
+
+    /**
+     * Makes a compiled view with a single key.
+     * @param key       the key in the view
+     * @param value     the integer value of the key
+     * @return the view
+     */
+    private static MetadataView makeCombinableView(String key, int value) {
+        JsonObject root = new JsonObject();
+        root.add(key, new JsonPrimitive(value));
+        return new CompiledMetadataView(root, String::compareTo);
+    }
+
+    /**
+     * Makes a JSON reader for a string.
+     * @param json      JSON to read
+     * @return the reader
+     */
+    private static JsonReader makeReader(String json) {
+        return new JsonReader(new StringReader(json));
+    }
+
+    /**
+     * Collects keys into a list.
+     * @param keys      keys to collect
+     * @return list of the keys
+     */
+    private static List<String> collectKeys(Iterable<String> keys) {
+        List<String> keyList = new ArrayList<>();
+        keys.forEach(keyList::add);
+        return keyList;
+    }
+
+    /**
+     * Makes a view with values of many different types.
+     * @return the view
+     */
+    private static CompiledMetadataView makeNumberView() {
+        JsonObject root = new JsonObject();
+        root.add("int", new JsonPrimitive(Integer.MIN_VALUE));
+        root.add("long", new JsonPrimitive(Long.MAX_VALUE));
+        root.add("huge", new JsonPrimitive(new BigInteger("9223372036854775808")));
+        root.add("fraction", new JsonPrimitive(0.5));
+        root.add("double", new JsonPrimitive(Double.MAX_VALUE));
+        root.add("string", new JsonPrimitive("hello world"));
+        root.add("true", new JsonPrimitive(true));
+        root.add("object", new JsonObject());
+        return new CompiledMetadataView(root, String::compareTo);
+    }
+
+}
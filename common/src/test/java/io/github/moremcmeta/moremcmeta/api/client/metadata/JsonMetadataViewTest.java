@@ -26,6 +26,7 @@ import org.junit.rules.ExpectedException;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,6 +35,7 @@ import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -4027,6 +4029,188 @@ public final class JsonMetadataViewTest {
         assertFalse(view.byteStreamValue(14).isPresent());
     }
 
+    @Test
+    public void primitiveAccessorsObject_AllKeys_SameAsOptionalAccessors() {
+        MetadataView view = new JsonMetadataView(makeDemoObject(), String::compareTo);
+        for (String key : view.keys()) {
+            assertPrimitivesMatch(view, key);
+        }
+
+        assertPrimitivesMatch(view, "missing");
+    }
+
+    @Test
+    public void primitiveAccessorsObject_AllIndices_SameAsOptionalAccessors() {
+        MetadataView view = new JsonMetadataView(makeDemoObject(), String::compareTo);
+        for (int index = 0; index <= view.size(); index++) {
+            assertPrimitivesMatch(view, index);
+        }
+    }
+
+    @Test
+    public void primitiveAccessorsArray_AllKeys_SameAsOptionalAccessors() {
+        MetadataView view = new JsonMetadataView(makeDemoArray());
+        for (String key : view.keys()) {
+            assertPrimitivesMatch(view, key);
+        }
+
+        assertPrimitivesMatch(view, "-1");
+        assertPrimitivesMatch(view, "missing");
+        assertPrimitivesMatch(view, String.valueOf(view.size()));
+    }
+
+    @Test
+    public void primitiveAccessorsArray_AllIndices_SameAsOptionalAccessors() {
+        MetadataView view = new JsonMetadataView(makeDemoArray());
+        for (int index = 0; index <= view.size(); index++) {
+            assertPrimitivesMatch(view, index);
+        }
+    }
+
+    @Test
+    public void primitiveAccessorsSubView_AllKeys_SameAsOptionalAccessors() {
+        MetadataView view = new JsonMetadataView(makeDemoObject(), String::compareTo)
+                .subView("object val0").orElseThrow();
+        for (String key : view.keys()) {
+            assertPrimitivesMatch(view, key);
+        }
+    }
+
+    @Test
+    public void hasInt_NullKey_NullPointerException() {
+        MetadataView view = new JsonMetadataView(makeDemoObject(), String::compareTo);
+        expectedException.expect(NullPointerException.class);
+        view.hasInt(null);
+    }
+
+    @Test
+    public void getInt_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = new JsonMetadataView(makeDemoObject(), String::compareTo);
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.getInt(-1, 0);
+    }
+
+    @Test
+    public void hasBoolean_NegativeIndex_NegativeKeyIndexException() {
+        MetadataView view = new JsonMetadataView(makeDemoArray());
+        expectedException.expect(NegativeKeyIndexException.class);
+        view.hasBoolean(-1);
+    }
+
+    @Test
+    public void equals_SameObjectJson_EqualWithSameHash() {
+        MetadataView first = new JsonMetadataView(makeDemoObject(), String::compareTo);
+        MetadataView second = new JsonMetadataView(makeDemoObject(), String::compareTo);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void equals_SameArrayJson_EqualWithSameHash() {
+        MetadataView first = new JsonMetadataView(makeDemoArray());
+        MetadataView second = new JsonMetadataView(makeDemoArray());
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void equals_SameSubViewJson_EqualWithSameHash() {
+        MetadataView first = new JsonMetadataView(makeDemoObject(), String::compareTo)
+                .subView("object val0").orElseThrow();
+        MetadataView second = new JsonMetadataView(makeDemoArray()).subView(13).orElseThrow();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void equals_DifferentNestedValue_NotEqual() {
+        JsonObject firstRoot = makeDemoObject();
+        JsonObject secondRoot = makeDemoObject();
+        secondRoot.getAsJsonObject("object val0").add("pos int val1", new JsonPrimitive(5));
+
+        assertNotEquals(
+                new JsonMetadataView(firstRoot, String::compareTo),
+                new JsonMetadataView(secondRoot, String::compareTo)
+        );
+    }
+
+    @Test
+    public void equals_DifferentKeyOrder_NotEqual() {
+        MetadataView first = new JsonMetadataView(makeDemoObject(), String::compareTo);
+        MetadataView second = new JsonMetadataView(makeDemoObject(), Comparator.reverseOrder());
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void equals_ExtraKey_NotEqual() {
+        JsonObject firstRoot = makeDemoObject();
+        JsonObject secondRoot = makeDemoObject();
+        secondRoot.add("extra", new JsonPrimitive(1));
+
+        assertNotEquals(
+                new JsonMetadataView(firstRoot, String::compareTo),
+                new JsonMetadataView(secondRoot, String::compareTo)
+        );
+        assertNotEquals(
+                new JsonMetadataView(secondRoot, String::compareTo),
+                new JsonMetadataView(firstRoot, String::compareTo)
+        );
+    }
+
+    @Test
+    public void equals_OnlyNullValuesDiffer_EqualWithSameHash() {
+        JsonObject firstRoot = new JsonObject();
+        firstRoot.add("a", new JsonPrimitive(1));
+        JsonObject secondRoot = new JsonObject();
+        secondRoot.add("a", new JsonPrimitive(1));
+        secondRoot.add("b", null);
+
+        JsonArray firstArray = new JsonArray();
+        firstArray.add(new JsonPrimitive(1));
+        firstRoot.add("array", firstArray);
+        JsonArray secondArray = new JsonArray();
+        secondArray.add((JsonObject) null);
+        secondArray.add(new JsonPrimitive(1));
+        secondRoot.add("array", secondArray);
+
+        MetadataView first = new JsonMetadataView(firstRoot, String::compareTo);
+        MetadataView second = new JsonMetadataView(secondRoot, String::compareTo);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void equals_NumberAndStringWithSameText_NotEqual() {
+        JsonObject firstRoot = new JsonObject();
+        firstRoot.add("a", new JsonPrimitive(1));
+        JsonObject secondRoot = new JsonObject();
+        secondRoot.add("a", new JsonPrimitive("1"));
+
+        assertNotEquals(
+                new JsonMetadataView(firstRoot, String::compareTo),
+                new JsonMetadataView(secondRoot, String::compareTo)
+        );
+    }
+
+    @Test
+    public void equals_ObjectAndArrayWithSameKeys_NotEqual() {
+        JsonObject object = new JsonObject();
+        object.add("0", new JsonPrimitive(1));
+        JsonArray array = new JsonArray();
+        array.add(new JsonPrimitive(1));
+
+        assertNotEquals(new JsonMetadataView(object, String::compareTo), new JsonMetadataView(array));
+    }
+
+    @Test
+    public void equals_Null_NotEqual() {
+        assertNotEquals(new JsonMetadataView(makeDemoObject(), String::compareTo), null);
+    }
+
     private JsonObject makeDemoObject() {
         JsonObject root = new JsonObject();
         addAllTypeVals(root, 0);
@@ -4081,6 +4265,34 @@ public final class JsonMetadataViewTest {
         root.add(new JsonArray());
     }
 
+    private static void assertPrimitivesMatch(MetadataView view, String key) {
+        assertEquals(view.integerValue(key).isPresent(), view.hasInt(key));
+        assertEquals((int) view.integerValue(key).orElse(-5), view.getInt(key, -5));
+        assertEquals(view.longValue(key).isPresent(), view.hasLong(key));
+        assertEquals((long) view.longValue(key).orElse(-5L), view.getLong(key, -5L));
+        assertEquals(view.floatValue(key).isPresent(), view.hasFloat(key));
+        assertEquals(view.floatValue(key).orElse(-5f), view.getFloat(key, -5f), 0);
+        assertEquals(view.doubleValue(key).isPresent(), view.hasDouble(key));
+        assertEquals(view.doubleValue(key).orElse(-5d), view.getDouble(key, -5d), 0);
+        assertEquals(view.booleanValue(key).isPresent(), view.hasBoolean(key));
+        assertEquals(view.booleanValue(key).orElse(true), view.getBoolean(key, true));
+        assertEquals(view.booleanValue(key).orElse(false), view.getBoolean(key, false));
+    }
+
+    private static void assertPrimitivesMatch(MetadataView view, int index) {
+        assertEquals(view.integerValue(index).isPresent(), view.hasInt(index));
+        assertEquals((int) view.integerValue(index).orElse(-5), view.getInt(index, -5));
+        assertEquals(view.longValue(index).isPresent(), view.hasLong(index));
+        assertEquals((long) view.longValue(index).orElse(-5L), view.getLong(index, -5L));
+        assertEquals(view.floatValue(index).isPresent(), view.hasFloat(index));
+        assertEquals(view.floatValue(index).orElse(-5f), view.getFloat(index, -5f), 0);
+        assertEquals(view.doubleValue(index).isPresent(), view.hasDouble(index));
+        assertEquals(view.doubleValue(index).orElse(-5d), view.getDouble(index, -5d), 0);
+        assertEquals(view.booleanValue(index).isPresent(), view.hasBoolean(index));
+        assertEquals(view.booleanValue(index).orElse(true), view.getBoolean(index, true));
+        assertEquals(view.booleanValue(index).orElse(false), view.getBoolean(index, false));
+    }
+
     private List<String> collectKeys(Iterable<String> keys) {
         List<String> keyList = new ArrayList<>();
         for (String key : keys) {
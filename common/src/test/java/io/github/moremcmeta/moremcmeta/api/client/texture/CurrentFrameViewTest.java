@@ -0,0 +1,80 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.api.client.texture;
+
+import io.github.moremcmeta.moremcmeta.api.math.Area;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the default methods of {@link CurrentFrameView}, which views written before those methods
+ * were added rely on.
+ * @author soir20
+ */
+public final class CurrentFrameViewTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void generateWith_StateKeyWithoutOverride_GeneratedWithoutKey() {
+        MinimalView view = new MinimalView();
+        Area area = Area.of();
+
+        view.generateWith((x, y, depFunction) -> 0, area, 5);
+
+        assertEquals(List.of(area), view.GENERATED_AREAS);
+    }
+
+    @Test
+    public void replaceWith_NoOverride_UnsupportedOperationException() {
+        MinimalView view = new MinimalView();
+
+        expectedException.expect(UnsupportedOperationException.class);
+        view.replaceWith(0);
+    }
+
+    /**
+     * Implements only the abstract methods of {@link CurrentFrameView}.
+     * @author soir20
+     */
+    private static final class MinimalView implements CurrentFrameView {
+        private final List<Area> GENERATED_AREAS = new ArrayList<>();
+
+        @Override
+        public void generateWith(ColorTransform transform, Area applyArea) {
+            GENERATED_AREAS.add(applyArea);
+        }
+
+        @Override
+        public int width() {
+            return 1;
+        }
+
+        @Override
+        public int height() {
+            return 1;
+        }
+    }
+
+}
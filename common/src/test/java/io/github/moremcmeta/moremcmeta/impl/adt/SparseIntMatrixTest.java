@@ -102,6 +102,191 @@ public final class SparseIntMatrixTest {
         matrix.get(10, 20);
     }
 
+    @Test
+    public void get_NotPresentInWrittenSector_IllegalStateException() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 200, 3);
+        matrix.set(10, 21, 5);
+        expectedException.expect(IllegalStateException.class);
+        matrix.get(10, 20);
+    }
+
+    @Test(timeout = 5000)
+    public void set_AfterGetNotPresent_LockReleased() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 200, 3);
+        matrix.set(10, 21, 5);
+
+        try {
+            matrix.get(10, 20);
+            fail("Expected an exception for a point that is not set");
+        } catch (IllegalStateException err) {
+            matrix.set(10, 20, 6);
+        }
+
+        assertEquals(6, matrix.get(10, 20));
+    }
+
+    @Test
+    public void clear_PointsSet_NoPointsSet() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 200, 3);
+        matrix.set(10, 20, 5);
+        matrix.set(90, 190, 6);
+
+        matrix.clear();
+
+        assertFalse(matrix.isSet(10, 20));
+        assertFalse(matrix.isSet(90, 190));
+        assertEquals(0, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void clear_SetAfterClear_PointSet() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 200, 3);
+        matrix.set(10, 20, 5);
+
+        matrix.clear();
+        matrix.set(10, 20, 7);
+
+        assertEquals(7, matrix.get(10, 20));
+    }
+
+    @Test
+    public void setRow_AcrossSectors_AllPointsSet() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 100, 3);
+        int[] values = { 9, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 9 };
+
+        matrix.setRow(5, 20, values, 1, 12);
+
+        for (int index = 0; index < 12; index++) {
+            assertEquals(index + 1, matrix.get(5 + index, 20));
+        }
+        assertFalse(matrix.isSet(4, 20));
+        assertFalse(matrix.isSet(17, 20));
+        assertFalse(matrix.isSet(5, 21));
+        assertEquals(3, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void setRow_ZeroLength_NothingSet() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 100, 3);
+
+        matrix.setRow(5, 20, new int[0], 0, 0);
+
+        assertEquals(0, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void setRow_NegativeLength_IllegalArgException() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 100, 3);
+
+        expectedException.expect(IllegalArgumentException.class);
+        matrix.setRow(5, 20, new int[0], 0, -1);
+    }
+
+    @Test
+    public void setRow_RunPastEdge_IllegalArgException() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 100, 3);
+
+        expectedException.expect(IllegalArgumentException.class);
+        matrix.setRow(98, 20, new int[3], 0, 3);
+    }
+
+    @Test
+    public void setRowIfUnset_SomePointsSet_OnlyUnsetPointsChanged() {
+        SparseIntMatrix matrix = new SparseIntMatrix(100, 100, 3);
+        matrix.set(6, 20, 100);
+        matrix.set(9, 20, 200);
+
+        matrix.setRowIfUnset(5, 20, new int[] { 1, 2, 3, 4, 5, 6 }, 0, 6);
+
+        assertEquals(1, matrix.get(5, 20));
+        assertEquals(100, matrix.get(6, 20));
+        assertEquals(3, matrix.get(7, 20));
+        assertEquals(4, matrix.get(8, 20));
+        assertEquals(200, matrix.get(9, 20));
+        assertEquals(6, matrix.get(10, 20));
+    }
+
+    @Test
+    public void allocatedSectors_NothingSet_Zero() {
+        SparseIntMatrix matrix = new SparseIntMatrix(256, 4096, 3);
+        assertFalse(matrix.isSet(100, 1000));
+        assertEquals(0, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void allocatedSectors_PointsInSameSector_OneSector() {
+        SparseIntMatrix matrix = new SparseIntMatrix(256, 4096, 3);
+        matrix.set(8, 16, 1);
+        matrix.set(15, 23, 2);
+        assertEquals(1, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void allocatedSectors_PointsInDifferentSectors_OnePerSector() {
+        SparseIntMatrix matrix = new SparseIntMatrix(256, 4096, 3);
+        matrix.set(7, 16, 1);
+        matrix.set(8, 16, 2);
+        matrix.set(255, 4095, 3);
+        assertEquals(3, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void all_SectorLargerThanWord_AllPointsBehaveCorrectly() {
+
+        // 16x16 sectors need several words of presence bits each
+        SparseIntMatrix matrix = new SparseIntMatrix(64, 64, 4);
+
+        matrix.set(3, 0, 1);
+        matrix.set(3, 4, 2);
+        matrix.set(15, 15, 3);
+        matrix.set(16, 15, 4);
+
+        assertTrue(matrix.isSet(3, 0));
+        assertTrue(matrix.isSet(3, 4));
+        assertTrue(matrix.isSet(15, 15));
+        assertTrue(matrix.isSet(16, 15));
+
+        assertFalse(matrix.isSet(3, 8));
+        assertFalse(matrix.isSet(3, 12));
+        assertFalse(matrix.isSet(15, 11));
+        assertFalse(matrix.isSet(16, 11));
+
+        assertEquals(1, matrix.get(3, 0));
+        assertEquals(2, matrix.get(3, 4));
+        assertEquals(3, matrix.get(15, 15));
+        assertEquals(4, matrix.get(16, 15));
+        assertEquals(2, matrix.allocatedSectors());
+    }
+
+    @Test
+    public void set_SeveralThreads_AllPointsSet() throws InterruptedException {
+        SparseIntMatrix matrix = new SparseIntMatrix(64, 64, 3);
+        Thread[] threads = new Thread[4];
+
+        for (int index = 0; index < threads.length; index++) {
+            int firstRow = index;
+            threads[index] = new Thread(() -> {
+                for (int y = firstRow; y < 64; y += threads.length) {
+                    for (int x = 0; x < 64; x++) {
+                        matrix.set(x, y, x * y);
+                    }
+                }
+            });
+            threads[index].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                assertEquals(x * y, matrix.get(x, y));
+            }
+        }
+        assertEquals(64, matrix.allocatedSectors());
+    }
+
     @Test
     public void set_OutOfBoundsXNegative_IllegalArgException() {
         SparseIntMatrix matrix = new SparseIntMatrix(100, 200, 3);
@@ -0,0 +1,127 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.adapter;
+
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link SpriteNameMappings}.
+ * @author soir20
+ */
+public final class SpriteNameMappingsTest {
+    private static final ResourceLocation FULL_PATH_1 = new ResourceLocation("textures/block/one.png");
+    private static final ResourceLocation FULL_PATH_2 = new ResourceLocation("textures/block/two.png");
+    private static final ResourceLocation SPRITE_1 = new ResourceLocation("block/one");
+    private static final ResourceLocation SPRITE_2 = new ResourceLocation("block/two");
+    private static final ResourceLocation SPRITE_3 = new ResourceLocation("other/one");
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void add_NullFullPath_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new SpriteNameMappings.Builder().add(null, SPRITE_1);
+    }
+
+    @Test
+    public void add_NullSpriteName_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new SpriteNameMappings.Builder().add(FULL_PATH_1, null);
+    }
+
+    @Test
+    public void removeIf_NullFilter_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new SpriteNameMappings.Builder().removeIf(null);
+    }
+
+    @Test
+    public void spriteNames_NullFullPath_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        SpriteNameMappings.EMPTY.spriteNames(null);
+    }
+
+    @Test
+    public void spriteNames_Empty_NoNames() {
+        assertEquals(ImmutableSet.of(), SpriteNameMappings.EMPTY.spriteNames(FULL_PATH_1));
+    }
+
+    @Test
+    public void spriteNames_MultipleNamesForPath_AllNamesPresent() {
+        SpriteNameMappings mappings = new SpriteNameMappings.Builder()
+                .add(FULL_PATH_1, SPRITE_1)
+                .add(FULL_PATH_1, SPRITE_3)
+                .add(FULL_PATH_2, SPRITE_2)
+                .build();
+
+        assertEquals(ImmutableSet.of(SPRITE_1, SPRITE_3), mappings.spriteNames(FULL_PATH_1));
+        assertEquals(ImmutableSet.of(SPRITE_2), mappings.spriteNames(FULL_PATH_2));
+    }
+
+    @Test
+    public void spriteNames_NamesRemoved_OnlyRemainingNamesPresent() {
+        SpriteNameMappings mappings = new SpriteNameMappings.Builder()
+                .add(FULL_PATH_1, SPRITE_1)
+                .add(FULL_PATH_1, SPRITE_3)
+                .add(FULL_PATH_2, SPRITE_2)
+                .removeIf((spriteName) -> spriteName.getPath().startsWith("block/"))
+                .build();
+
+        assertEquals(ImmutableSet.of(SPRITE_3), mappings.spriteNames(FULL_PATH_1));
+        assertEquals(ImmutableSet.of(), mappings.spriteNames(FULL_PATH_2));
+    }
+
+    @Test
+    public void spriteNames_NameAddedAfterRemoval_NameNotRemoved() {
+        SpriteNameMappings mappings = new SpriteNameMappings.Builder()
+                .add(FULL_PATH_1, SPRITE_1)
+                .removeIf((spriteName) -> spriteName.equals(SPRITE_1))
+                .add(FULL_PATH_1, SPRITE_1)
+                .build();
+
+        assertEquals(ImmutableSet.of(SPRITE_1), mappings.spriteNames(FULL_PATH_1));
+    }
+
+    @Test
+    public void spriteNames_BuilderModifiedAfterBuild_MappingsUnchanged() {
+        SpriteNameMappings.Builder builder = new SpriteNameMappings.Builder().add(FULL_PATH_1, SPRITE_1);
+        SpriteNameMappings mappings = builder.build();
+        builder.add(FULL_PATH_1, SPRITE_3);
+
+        assertEquals(ImmutableSet.of(SPRITE_1), mappings.spriteNames(FULL_PATH_1));
+    }
+
+    @Test
+    public void spriteNames_ModifyResult_UnsupportedOperationException() {
+        SpriteNameMappings mappings = new SpriteNameMappings.Builder().add(FULL_PATH_1, SPRITE_1).build();
+        Set<ResourceLocation> names = mappings.spriteNames(FULL_PATH_1);
+
+        expectedException.expect(UnsupportedOperationException.class);
+        names.add(SPRITE_2);
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.io;
+
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.ResourceRepository;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link BinaryMetadataParser}.
+ * @author soir20
+ */
+public final class BinaryMetadataParserTest {
+    private static final ResourceRepository MOCK_REPOSITORY = new ResourceRepository() {
+        @Override
+        public Optional<Pack> highestPackWith(ResourceLocation location) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Pack> highestPackWith(ResourceLocation location, ResourceLocation floor) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Set<? extends ResourceLocation> list(Predicate<String> fileFilter) {
+            return Set.of();
+        }
+    };
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void parse_NullLocation_NullPointerException() throws IOException, InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        new BinaryMetadataParser().parse(null, makeStream(ImmutableMap.of("a", 1)), MOCK_REPOSITORY);
+    }
+
+    @Test
+    public void parse_NullStream_NullPointerException() throws InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        new BinaryMetadataParser().parse(
+                new ResourceLocation("textures/bat.png.moremcmetab"),
+                null,
+                MOCK_REPOSITORY
+        );
+    }
+
+    @Test
+    public void parse_NullRepository_NullPointerException() throws IOException, InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        new BinaryMetadataParser().parse(
+                new ResourceLocation("textures/bat.png.moremcmetab"),
+                makeStream(ImmutableMap.of("a", 1)),
+                null
+        );
+    }
+
+    @Test
+    public void parse_ValidFile_MetadataForTextureWithSamePath() throws IOException, InvalidMetadataException {
+        Map<? extends ResourceLocation, ? extends MetadataView> results = new BinaryMetadataParser().parse(
+                new ResourceLocation("test", "textures/bat.png.moremcmetab"),
+                makeStream(ImmutableMap.of("a", 1)),
+                MOCK_REPOSITORY
+        );
+
+        assertEquals(Set.of(new ResourceLocation("test", "textures/bat.png")), results.keySet());
+        assertEquals(1, results.get(new ResourceLocation("test", "textures/bat.png")).getInt("a", 0));
+    }
+
+    @Test
+    public void parse_WrongExtension_InvalidMetadataException() throws IOException, InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        new BinaryMetadataParser().parse(
+                new ResourceLocation("textures/bat.png.moremcmeta"),
+                makeStream(ImmutableMap.of("a", 1)),
+                MOCK_REPOSITORY
+        );
+    }
+
+    @Test
+    public void parse_InvalidFile_InvalidMetadataException() throws InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        new BinaryMetadataParser().parse(
+                new ResourceLocation("textures/bat.png.moremcmetab"),
+                new ByteArrayInputStream("{}".getBytes()),
+                MOCK_REPOSITORY
+        );
+    }
+
+    @Test
+    public void parseSections_NullSectionNames_NullPointerException() throws IOException, InvalidMetadataException {
+        expectedException.expect(NullPointerException.class);
+        new BinaryMetadataParser().parse(
+                new ResourceLocation("textures/bat.png.moremcmetab"),
+                makeStream(ImmutableMap.of("a", 1)),
+                MOCK_REPOSITORY,
+                null
+        );
+    }
+
+    @Test
+    public void parseSections_SomeSectionsRequested_OnlyRequestedSectionsKept()
+            throws IOException, InvalidMetadataException {
+        Map<? extends ResourceLocation, ? extends MetadataView> results = new BinaryMetadataParser().parse(
+                new ResourceLocation("test", "textures/bat.png.moremcmetab"),
+                makeStream(ImmutableMap.of("a", 1, "b", 2, "c", 3)),
+                MOCK_REPOSITORY,
+                Set.of("a", "c", "d")
+        );
+
+        MetadataView view = results.get(new ResourceLocation("test", "textures/bat.png"));
+        assertEquals(2, view.size());
+        assertEquals(1, view.getInt("a", 0));
+        assertEquals(0, view.getInt("b", 0));
+        assertEquals(3, view.getInt("c", 0));
+    }
+
+    @Test
+    public void parseSections_WrongExtension_InvalidMetadataException()
+            throws IOException, InvalidMetadataException {
+        expectedException.expect(InvalidMetadataException.class);
+        new BinaryMetadataParser().parse(
+                new ResourceLocation("textures/bat.png.moremcmeta"),
+                makeStream(ImmutableMap.of("a", 1)),
+                MOCK_REPOSITORY,
+                Set.of("a")
+        );
+    }
+
+    @Test
+    public void combine_MultipleFiles_FirstFileTakesPriority() throws IOException, InvalidMetadataException {
+        BinaryMetadataParser parser = new BinaryMetadataParser();
+        Map<ResourceLocation, MetadataView> metadataByLocation = new LinkedHashMap<>();
+        metadataByLocation.put(
+                new ResourceLocation("textures/bat.png.moremcmetab"),
+                BinaryMetadataFormat.read(makeStream(ImmutableMap.of("a", 1, "b", 2)))
+        );
+        metadataByLocation.put(
+                new ResourceLocation("textures/bat2.png.moremcmetab"),
+                BinaryMetadataFormat.read(makeStream(ImmutableMap.of("a", 3, "c", 4)))
+        );
+
+        MetadataView combined = parser.combine(new ResourceLocation("textures/bat.png"), metadataByLocation);
+
+        assertEquals(3, combined.size());
+        assertEquals(1, combined.getInt("a", 0));
+        assertEquals(2, combined.getInt("b", 0));
+        assertEquals(4, combined.getInt("c", 0));
+    }
+
+    @Test
+    public void plugin_Extension_FormatExtension() {
+        assertEquals(BinaryMetadataFormat.EXTENSION, new BinaryMetadataParserPlugin().extension());
+    }
+
+    /**
+     * Makes a stream containing a view in the binary format.
+     * @param values    values in the view
+     * @return the stream
+     * @throws IOException if the view cannot be written
+     */
+    private static InputStream makeStream(Map<String, Object> values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryMetadataFormat.write(new MockMetadataView(values), bytes);
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests the {@link PngHeader}.
+ * @author soir20
+ */
+public final class PngHeaderTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void read_NullBytes_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        PngHeader.read(null);
+    }
+
+    @Test
+    public void read_ValidHeader_SizeRead() {
+        PngHeader header = PngHeader.read(makeHeader(16, 320)).orElseThrow();
+        assertEquals(16, header.width());
+        assertEquals(320, header.height());
+    }
+
+    @Test
+    public void read_LargestSize_SizeRead() {
+        PngHeader header = PngHeader.read(makeHeader(Integer.MAX_VALUE, Integer.MAX_VALUE)).orElseThrow();
+        assertEquals(Integer.MAX_VALUE, header.width());
+        assertEquals(Integer.MAX_VALUE, header.height());
+    }
+
+    @Test
+    public void read_BytesAfterHeader_SizeRead() {
+        byte[] header = makeHeader(16, 32);
+        byte[] image = Arrays.copyOf(header, header.length + 100);
+
+        assertEquals(16, PngHeader.read(image).orElseThrow().width());
+    }
+
+    @Test
+    public void read_NoBytes_Empty() {
+        assertFalse(PngHeader.read(new byte[0]).isPresent());
+    }
+
+    @Test
+    public void read_HeaderCutOff_Empty() {
+        byte[] header = makeHeader(16, 32);
+        assertFalse(PngHeader.read(Arrays.copyOf(header, header.length - 1)).isPresent());
+    }
+
+    @Test
+    public void read_WrongSignature_Empty() {
+        byte[] header = makeHeader(16, 32);
+        header[1] = 'J';
+        assertFalse(PngHeader.read(header).isPresent());
+    }
+
+    @Test
+    public void read_WrongChunkLength_Empty() {
+        byte[] header = makeHeader(16, 32);
+        header[11] = 14;
+        assertFalse(PngHeader.read(header).isPresent());
+    }
+
+    @Test
+    public void read_FirstChunkNotHeader_Empty() {
+        byte[] header = makeHeader(16, 32);
+        header[12] = 'i';
+        assertFalse(PngHeader.read(header).isPresent());
+    }
+
+    @Test
+    public void read_ZeroWidth_Empty() {
+        assertFalse(PngHeader.read(makeHeader(0, 32)).isPresent());
+    }
+
+    @Test
+    public void read_ZeroHeight_Empty() {
+        assertFalse(PngHeader.read(makeHeader(16, 0)).isPresent());
+    }
+
+    @Test
+    public void read_WidthTooLargeForInt_Empty() {
+        Optional<PngHeader> header = PngHeader.read(makeHeader(0x80000000, 32));
+        assertFalse(header.isPresent());
+    }
+
+    /**
+     * Makes the beginning of a PNG file up to the end of the image size in the header chunk.
+     * @param width     width of the image as an unsigned integer
+     * @param height    height of the image as an unsigned integer
+     * @return the bytes of the PNG file
+     */
+    static byte[] makeHeader(int width, int height) {
+        return ByteBuffer.allocate(24)
+                .put(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})
+                .putInt(13)
+                .put(new byte[] {'I', 'H', 'D', 'R'})
+                .putInt(width)
+                .putInt(height)
+                .array();
+    }
+
+}
@@ -32,7 +32,10 @@ import io.github.moremcmeta.moremcmeta.api.math.Point;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.CoreTextureComponent;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.EventDrivenTexture;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.MockCloseableImage;
+import io.github.moremcmeta.moremcmeta.impl.client.texture.NativeMemoryTracker;
+import net.minecraft.resources.ResourceLocation;
 import org.apache.commons.lang3.tuple.Triple;
+import org.apache.logging.log4j.LogManager;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -328,6 +331,89 @@ public final class TextureDataAssemblerTest {
         allocatedImages.forEach((image) -> assertTrue(image.isClosed()));
     }
 
+    @Test
+    public void construct_NullMemoryTracker_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureDataAssembler<>(
+                (width, height, mipmap, blur, clamp) -> new MockCloseableImage(width, height),
+                (image, mipmap) -> ImmutableList.of(image),
+                null
+        );
+    }
+
+    @Test
+    public void assemble_NullLocation_NullPointerException() {
+        TextureDataAssembler<MockCloseableImage> assembler = new TextureDataAssembler<>(
+                (width, height, mipmap, blur, clamp) -> new MockCloseableImage(width, height),
+                (image, mipmap) -> ImmutableList.of(image),
+                new NativeMemoryTracker(LogManager.getLogger())
+        );
+        expectedException.expect(NullPointerException.class);
+        assembler.assemble(null, new TextureData<>(
+                new TextureData.FrameSize(30, 40),
+                false, false,
+                Optional.empty(),
+                new MockCloseableImage(100, 100),
+                ImmutableList.of()
+        ));
+    }
+
+    @Test
+    public void assemble_MemoryTracked_MipmapsAndGeneratedFrameTracked() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LogManager.getLogger());
+        ResourceLocation location = new ResourceLocation("textures/block/stone.png");
+        TextureDataAssembler<MockCloseableImage> assembler = new TextureDataAssembler<>(
+                (width, height, mipmap, blur, clamp) -> new MockCloseableImage(width, height),
+                (original, mipmap) -> ImmutableList.of(
+                        original,
+                        new MockCloseableImage(original.width() >> 1, original.height() >> 1)
+                ),
+                tracker
+        );
+
+        assembler.assemble(location, new TextureData<>(
+                new TextureData.FrameSize(30, 40),
+                false, false,
+                Optional.empty(),
+                new MockCloseableImage(100, 100),
+                ImmutableList.of()
+        ));
+
+        assertEquals((100 * 100 + 30 * 40) * 4, tracker.liveBytes(location, 0));
+        assertEquals((50 * 50 + 15 * 20) * 4, tracker.liveBytes(location, 1));
+        assertEquals(4, tracker.liveImages());
+    }
+
+    @Test
+    public void assemble_MemoryTrackedTextureClosed_AllMemoryReleased() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LogManager.getLogger());
+        ResourceLocation location = new ResourceLocation("textures/block/stone.png");
+        TextureDataAssembler<MockCloseableImage> assembler = new TextureDataAssembler<>(
+                (width, height, mipmap, blur, clamp) -> new MockCloseableImage(width, height),
+                (original, mipmap) -> ImmutableList.of(
+                        original,
+                        new MockCloseableImage(original.width() >> 1, original.height() >> 1)
+                ),
+                tracker
+        );
+
+        EventDrivenTexture texture = addExtraDefaultComponents(assembler.assemble(location, new TextureData<>(
+                new TextureData.FrameSize(30, 40),
+                false, false,
+                Optional.empty(),
+                new MockCloseableImage(100, 100),
+                ImmutableList.of(Triple.of("plugin", new AnalyzedMetadata() {}, (metadata, frames) ->
+                        new TextureComponent<>() {}
+                ))
+        ))).build();
+        texture.close();
+
+        assertEquals(0, tracker.liveBytes());
+        assertEquals(0, tracker.liveImages());
+        assertEquals(0, tracker.lateCloses());
+        assertEquals(0, tracker.logLeaks());
+    }
+
     @Test
     public void assemble_WidthWhileValid_CorrectWidth() {
         MockCloseableImage originalImage = new MockCloseableImage(100, 100);
@@ -19,9 +19,13 @@ package io.github.moremcmeta.moremcmeta.impl.client.io;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import io.github.moremcmeta.moremcmeta.api.client.MoreMcmetaTexturePlugin;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.GuiScaling;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.JsonMetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataAnalyzer;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
 import io.github.moremcmeta.moremcmeta.api.client.metadata.AnalyzedMetadata;
@@ -30,6 +34,7 @@ import io.github.moremcmeta.moremcmeta.api.client.texture.CurrentFrameView;
 import io.github.moremcmeta.moremcmeta.api.client.texture.FrameGroup;
 import io.github.moremcmeta.moremcmeta.api.client.texture.MutableFrameView;
 import io.github.moremcmeta.moremcmeta.api.client.texture.TextureComponent;
+import io.github.moremcmeta.moremcmeta.impl.client.resource.ReloadStatistics;
 import io.github.moremcmeta.moremcmeta.impl.client.texture.MockCloseableImage;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.util.TriConsumer;
@@ -48,12 +53,19 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests the {@link TextureDataReader}.
@@ -95,6 +107,17 @@ public final class TextureDataReaderTest {
         );
     }
 
+    @Test
+    public void test_NullAnalysisExecutor_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin()),
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image,
+                null
+        );
+    }
+
     @Test
     public void read_NullTextureStream_NullPointerException() throws IOException, InvalidMetadataException {
         TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
@@ -1120,6 +1143,375 @@ public final class TextureDataReaderTest {
         );
     }
 
+    @Test
+    public void read_EqualSectionsSameImageSize_AnalyzedOnce() throws IOException, InvalidMetadataException {
+        AtomicInteger analyses = new AtomicInteger();
+        List<MockPlugin> plugins = ImmutableList.of(
+                new MockPlugin("texture", null, null, null, null, null, null, false,
+                        (view, width, height) -> analyses.incrementAndGet())
+        );
+
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                plugins,
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image
+        );
+
+        TextureData<MockCloseableImage> first = reader.read(makeStream(), makeJsonView(5));
+        TextureData<MockCloseableImage> second = reader.read(makeStream(), makeJsonView(5));
+
+        assertEquals(1, analyses.get());
+        assertSame(first.analyzedMetadata().get(0).getMiddle(), second.analyzedMetadata().get(0).getMiddle());
+    }
+
+    @Test
+    public void read_DifferentSectionsSameImageSize_AnalyzedSeparately() throws IOException, InvalidMetadataException {
+        AtomicInteger analyses = new AtomicInteger();
+        List<MockPlugin> plugins = ImmutableList.of(
+                new MockPlugin("texture", null, null, null, null, null, null, false,
+                        (view, width, height) -> analyses.incrementAndGet())
+        );
+
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                plugins,
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image
+        );
+
+        reader.read(makeStream(), makeJsonView(5));
+        reader.read(makeStream(), makeJsonView(6));
+
+        assertEquals(2, analyses.get());
+    }
+
+    @Test
+    public void read_EqualSectionsDifferentImageSize_AnalyzedSeparately() throws IOException, InvalidMetadataException {
+        AtomicInteger analyses = new AtomicInteger();
+        AtomicInteger nextImageSize = new AtomicInteger(10);
+        List<MockPlugin> plugins = ImmutableList.of(
+                new MockPlugin("texture", null, null, null, null, null, null, false,
+                        (view, width, height) -> analyses.incrementAndGet())
+        );
+
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                plugins,
+                (stream) -> {
+                    int size = nextImageSize.getAndIncrement();
+                    return new MockCloseableImage(size, size);
+                },
+                (image, blur, clamp) -> image
+        );
+
+        reader.read(makeStream(), makeJsonView(5));
+        reader.read(makeStream(), makeJsonView(5));
+
+        assertEquals(2, analyses.get());
+    }
+
+    @Test
+    public void read_EqualSectionsDifferentPlugins_AnalyzedSeparately() throws IOException, InvalidMetadataException {
+        AtomicInteger analyses = new AtomicInteger();
+        TextureDataReader<MockCloseableImage> firstReader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin("texture", null, null, null, null, null, null, false,
+                        (view, width, height) -> analyses.incrementAndGet())),
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image
+        );
+        TextureDataReader<MockCloseableImage> secondReader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin("texture", null, null, null, null, null, null, false,
+                        (view, width, height) -> analyses.incrementAndGet())),
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image
+        );
+
+        firstReader.read(makeStream(), makeJsonView(5));
+        secondReader.read(makeStream(), makeJsonView(5));
+
+        assertEquals(2, analyses.get());
+    }
+
+    @Test
+    public void read_EqualInvalidSections_AnalyzedEachTime() throws IOException {
+        AtomicInteger analyses = new AtomicInteger();
+        List<MockPlugin> plugins = ImmutableList.of(
+                new MockPlugin("texture", null, null, null, null, null, null, false,
+                        (view, width, height) -> {
+                            analyses.incrementAndGet();
+                            throw new IllegalStateException("invalid");
+                        })
+        );
+
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                plugins,
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image
+        );
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                reader.read(makeStream(), makeJsonView(5));
+            } catch (IllegalStateException | InvalidMetadataException ignored) {}
+        }
+
+        assertEquals(2, analyses.get());
+    }
+
+    @Test
+    public void read_AnalysisExecutor_EachSectionSubmitted() throws IOException, InvalidMetadataException {
+        AtomicInteger tasks = new AtomicInteger();
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(
+                        new MockPlugin("a", null, null, null, null, null, null),
+                        new MockPlugin("b", null, null, null, null, null, null)
+                ),
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image,
+                (task) -> {
+                    tasks.incrementAndGet();
+                    task.run();
+                }
+        );
+
+        TextureData<MockCloseableImage> data = reader.read(makeStream(), makeTwoSectionView());
+
+        assertEquals(2, tasks.get());
+        assertEquals(2, data.analyzedMetadata().size());
+    }
+
+    @Test
+    public void read_StatisticsProvided_DecodeAndAnalysisRecorded() throws IOException, InvalidMetadataException {
+        ReloadStatistics statistics = new ReloadStatistics();
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(
+                        new MockPlugin("a", null, null, null, null, null, null),
+                        new MockPlugin("b", null, null, null, null, null, null)
+                ),
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image,
+                MoreExecutors.directExecutor(),
+                statistics
+        );
+
+        reader.read(makeStream(), makeTwoSectionView());
+
+        assertEquals(1, statistics.count(ReloadStatistics.Stage.TEXTURE_DECODE));
+        assertEquals(2, statistics.count(ReloadStatistics.Stage.ANALYSIS));
+    }
+
+    @Test
+    public void test_NullStatistics_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin()),
+                (stream) -> new MockCloseableImage(),
+                (image, blur, clamp) -> image,
+                MoreExecutors.directExecutor(),
+                null
+        );
+    }
+
+    @Test
+    public void read_SectionsAnalyzedConcurrently_ResultsInSectionOrder()
+            throws IOException, InvalidMetadataException, InterruptedException {
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        AtomicBoolean firstSawSecond = new AtomicBoolean();
+        MockPlugin firstPlugin = new MockPlugin("a", 50, null, null, null, null, null, false,
+                (view, width, height) -> {
+                    try {
+                        firstSawSecond.set(secondStarted.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException err) {
+                        throw new RuntimeException(err);
+                    }
+                });
+        MockPlugin secondPlugin = new MockPlugin("b", 50, null, null, null, null, null, false,
+                (view, width, height) -> secondStarted.countDown());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                    ImmutableList.of(secondPlugin, firstPlugin),
+                    (stream) -> new MockCloseableImage(),
+                    (image, blur, clamp) -> image,
+                    executor
+            );
+
+            TextureData<MockCloseableImage> data = reader.read(makeStream(), makeTwoSectionView());
+
+            assertTrue(firstSawSecond.get());
+            assertEquals(firstPlugin.id(), data.analyzedMetadata().get(0).getLeft());
+            assertEquals(secondPlugin.id(), data.analyzedMetadata().get(1).getLeft());
+            assertEquals(50, data.frameSize().width());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void read_BothSectionsInvalid_FirstSectionReported() throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                    ImmutableList.of(
+                            new MockPlugin("a", null, null, null, null, null, "first"),
+                            new MockPlugin("b", null, null, null, null, null, "second")
+                    ),
+                    (stream) -> new MockCloseableImage(),
+                    (image, blur, clamp) -> image,
+                    executor
+            );
+
+            for (int attempt = 0; attempt < 20; attempt++) {
+                try {
+                    reader.read(makeStream(), makeTwoSectionView());
+                    fail("Invalid metadata was not reported");
+                } catch (InvalidMetadataException err) {
+                    assertTrue(err.getMessage().endsWith("first"));
+                }
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void read_AnalyzerThrowsRuntimeExceptionOnExecutor_SameExceptionThrown()
+            throws IOException, InvalidMetadataException, InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                    ImmutableList.of(new MockPlugin("a", null, null, null, null, null, null, false,
+                            (view, width, height) -> {
+                                throw new IllegalStateException("bad plugin");
+                            })),
+                    (stream) -> new MockCloseableImage(),
+                    (image, blur, clamp) -> image,
+                    executor
+            );
+
+            expectedException.expect(IllegalStateException.class);
+            reader.read(makeStream(), makeTwoSectionView());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void read_PngWithInvalidMetadata_ImageNotDecoded() throws IOException {
+        AtomicInteger decodes = new AtomicInteger();
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin("texture", null, null, null, null, null, "bad metadata")),
+                (stream) -> {
+                    decodes.incrementAndGet();
+                    return new MockCloseableImage(16, 32);
+                },
+                (image, blur, clamp) -> image
+        );
+
+        try {
+            reader.read(makePngStream(16, 32), makeJsonView(5));
+            fail("Invalid metadata was not reported");
+        } catch (InvalidMetadataException ignored) {}
+
+        assertEquals(0, decodes.get());
+    }
+
+    @Test
+    public void read_PngFrameLargerThanHeaderSize_ImageNotDecoded() throws IOException {
+        AtomicInteger decodes = new AtomicInteger();
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin("texture", 17, null, null, null, null, null)),
+                (stream) -> {
+                    decodes.incrementAndGet();
+                    return new MockCloseableImage(16, 32);
+                },
+                (image, blur, clamp) -> image
+        );
+
+        try {
+            reader.read(makePngStream(16, 32), makeJsonView(5));
+            fail("Invalid frame size was not reported");
+        } catch (InvalidMetadataException ignored) {}
+
+        assertEquals(0, decodes.get());
+    }
+
+    @Test
+    public void read_PngWithValidMetadata_AnalyzedWithHeaderSizeThenDecodedOnce()
+            throws IOException, InvalidMetadataException {
+        AtomicInteger decodes = new AtomicInteger();
+        List<Integer> analyzedSize = new ArrayList<>();
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin("texture", 16, 16, null, null, null, null, false,
+                        (view, width, height) -> {
+                            assertEquals(0, decodes.get());
+                            analyzedSize.add(width);
+                            analyzedSize.add(height);
+                        })),
+                (stream) -> {
+                    decodes.incrementAndGet();
+                    return new MockCloseableImage(16, 32);
+                },
+                (image, blur, clamp) -> image
+        );
+
+        TextureData<MockCloseableImage> data = reader.read(makePngStream(16, 32), makeJsonView(5));
+
+        assertEquals(List.of(16, 32), analyzedSize);
+        assertEquals(1, decodes.get());
+        assertEquals(32, data.image().height());
+        assertEquals(new TextureData.FrameSize(16, 16), data.frameSize());
+    }
+
+    @Test
+    public void read_PngDecodedSizeDiffersFromHeader_IOException() throws IOException, InvalidMetadataException {
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin()),
+                (stream) -> new MockCloseableImage(16, 16),
+                (image, blur, clamp) -> image
+        );
+
+        expectedException.expect(IOException.class);
+        reader.read(makePngStream(16, 32), makeJsonView(5));
+    }
+
+    @Test
+    public void read_PngStream_WholeStreamDecoded() throws IOException, InvalidMetadataException {
+        AtomicInteger bytesRead = new AtomicInteger();
+        TextureDataReader<MockCloseableImage> reader = new TextureDataReader<>(
+                ImmutableList.of(new MockPlugin()),
+                (stream) -> {
+                    bytesRead.set(stream.readAllBytes().length);
+                    return new MockCloseableImage(16, 32);
+                },
+                (image, blur, clamp) -> image
+        );
+
+        reader.read(makePngStream(16, 32), makeJsonView(5));
+
+        assertEquals(PngHeaderTest.makeHeader(16, 32).length, bytesRead.get());
+    }
+
+    private InputStream makePngStream(int width, int height) {
+        return new ByteArrayInputStream(PngHeaderTest.makeHeader(width, height));
+    }
+
+    private MetadataView makeTwoSectionView() {
+        JsonObject root = new JsonObject();
+        root.add("a", new JsonObject());
+        root.add("b", new JsonObject());
+        return new JsonMetadataView(root, String::compareTo);
+    }
+
+    private MetadataView makeJsonView(int frameTime) {
+        JsonObject section = new JsonObject();
+        section.add("frametime", new JsonPrimitive(frameTime));
+        JsonObject root = new JsonObject();
+        root.add("texture", section);
+        return new JsonMetadataView(root, String::compareTo);
+    }
+
     private InputStream makeStream() {
         return new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8));
     }
@@ -0,0 +1,233 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.BinaryMetadataFormat;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.CompiledMetadataView;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.InvalidMetadataException;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataView;
+import io.github.moremcmeta.moremcmeta.impl.client.io.BinaryMetadataParser;
+import io.github.moremcmeta.moremcmeta.impl.client.io.MockMetadataView;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link BinaryMetadataConverter}.
+ * @author soir20
+ */
+public final class BinaryMetadataConverterTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final MetadataParser MOCK_PARSER = (metadataLocation, metadataStream, resourceRepository) -> Map.of(
+            new ResourceLocation(
+                    metadataLocation.getNamespace(),
+                    metadataLocation.getPath().replace(".moremcmeta", "")
+            ),
+            new MockMetadataView(List.of("one", "two"))
+    );
+    private static final MetadataParser FAILING_PARSER = (metadataLocation, metadataStream, resourceRepository) -> {
+        throw new AssertionError("Converted metadata should not be read");
+    };
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullParsers_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new BinaryMetadataConverter(null, LOGGER);
+    }
+
+    @Test
+    public void construct_NullLogger_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new BinaryMetadataConverter(ImmutableMap.of(".moremcmeta", MOCK_PARSER), null);
+    }
+
+    @Test
+    public void convert_NullOutput_NullPointerException() throws IOException {
+        BinaryMetadataConverter converter = new BinaryMetadataConverter(
+                ImmutableMap.of(".moremcmeta", MOCK_PARSER),
+                LOGGER
+        );
+
+        expectedException.expect(NullPointerException.class);
+        converter.convert(makeRepository(), null, "textures");
+    }
+
+    @Test
+    public void convert_TexturesWithMetadata_WrittenNextToTextures() throws IOException, InvalidMetadataException {
+        BinaryMetadataConverter converter = new BinaryMetadataConverter(
+                ImmutableMap.of(".moremcmeta", MOCK_PARSER, ".moremcmetab", FAILING_PARSER),
+                LOGGER
+        );
+        Map<ResourceLocation, ByteArrayOutputStream> outputs = new HashMap<>();
+
+        Set<ResourceLocation> converted = converter.convert(
+                makeRepository(),
+                (location) -> outputs.computeIfAbsent(location, (key) -> new ByteArrayOutputStream()),
+                "textures"
+        );
+
+        assertEquals(
+                Set.of(new ResourceLocation("textures/bat.png"), new ResourceLocation("test", "textures/zombie.png")),
+                converted
+        );
+        assertEquals(
+                Set.of(
+                        new ResourceLocation("textures/bat.png.moremcmetab"),
+                        new ResourceLocation("test", "textures/zombie.png.moremcmetab")
+                ),
+                outputs.keySet()
+        );
+
+        CompiledMetadataView view = BinaryMetadataFormat.read(new ByteArrayInputStream(
+                outputs.get(new ResourceLocation("textures/bat.png.moremcmetab")).toByteArray()
+        ));
+        assertEquals(List.of("one", "two"), ImmutableList.copyOf(view.keys()));
+        assertEquals(1, view.subView("two").orElseThrow().getInt("dummy", 0));
+    }
+
+    @Test
+    public void convert_ConvertedPackReloaded_ConvertedMetadataUsed() throws IOException {
+        BinaryMetadataConverter converter = new BinaryMetadataConverter(
+                ImmutableMap.of(".moremcmeta", MOCK_PARSER),
+                LOGGER
+        );
+        Set<ResourceLocation> sourceFiles = Set.of(
+                new ResourceLocation("textures/bat.png"),
+                new ResourceLocation("textures/bat.png.moremcmeta"),
+                new ResourceLocation("test", "textures/zombie.png"),
+                new ResourceLocation("test", "textures/zombie.png.moremcmeta"),
+                new ResourceLocation("textures/creeper.png")
+        );
+        OrderedResourceRepository sourcePack = new OrderedResourceRepository(
+                PackType.CLIENT_RESOURCES,
+                List.of(new MockResourceCollection(sourceFiles))
+        );
+        Map<ResourceLocation, ByteArrayOutputStream> outputs = new HashMap<>();
+
+        converter.convert(
+                sourcePack,
+                (location) -> outputs.computeIfAbsent(location, (key) -> new ByteArrayOutputStream()),
+                "textures"
+        );
+
+        // The converted files are added to the same pack, next to the files they were converted from
+        Set<ResourceLocation> convertedFiles = new HashSet<>(sourceFiles);
+        convertedFiles.addAll(outputs.keySet());
+        ResourceCollection convertedPack = new MockResourceCollection(convertedFiles) {
+            @Override
+            public InputStream find(PackType resourceType, ResourceLocation location) throws IOException {
+                if (outputs.containsKey(location)) {
+                    return new ByteArrayInputStream(outputs.get(location).toByteArray());
+                }
+
+                return super.find(resourceType, location);
+            }
+        };
+
+        TextureLoader<MetadataView> loader = new TextureLoader<>(
+                (textureStream, metadata) -> metadata,
+                ImmutableMap.of(".moremcmeta", MOCK_PARSER, ".moremcmetab", new BinaryMetadataParser()),
+                LOGGER
+        );
+        Map<ResourceLocation, MetadataView> reloaded = loader.load(
+                new OrderedResourceRepository(PackType.CLIENT_RESOURCES, List.of(convertedPack)),
+                "textures"
+        );
+
+        assertEquals(
+                Set.of(new ResourceLocation("textures/bat.png"), new ResourceLocation("test", "textures/zombie.png")),
+                reloaded.keySet()
+        );
+        for (MetadataView metadata : reloaded.values()) {
+            assertTrue(metadata instanceof CompiledMetadataView);
+            assertEquals(List.of("one", "two"), ImmutableList.copyOf(metadata.keys()));
+        }
+    }
+
+    @Test
+    public void toDirectory_MetadataLocation_WrittenInsidePack() throws IOException, InvalidMetadataException {
+        Path packRoot = Files.createTempDirectory("moremcmeta");
+        BinaryMetadataConverter converter = new BinaryMetadataConverter(
+                ImmutableMap.of(".moremcmeta", MOCK_PARSER),
+                LOGGER
+        );
+
+        converter.convert(
+                makeRepository(),
+                BinaryMetadataConverter.toDirectory(packRoot, PackType.CLIENT_RESOURCES),
+                "textures"
+        );
+
+        try {
+            Path file = packRoot.resolve("assets/test/textures/zombie.png.moremcmetab");
+            assertTrue(Files.exists(file));
+            try (InputStream stream = Files.newInputStream(file)) {
+                assertEquals(2, BinaryMetadataFormat.read(stream).size());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(packRoot)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Makes a repository with two textures that have metadata and one that does not.
+     * @return the repository
+     */
+    private static OrderedResourceRepository makeRepository() {
+        return TextureLoaderTest.makeMockRepository(Set.of(
+                "textures/bat.png",
+                "textures/bat.png.moremcmeta",
+                "textures/bat.png.moremcmetab",
+                "test:textures/zombie.png",
+                "test:textures/zombie.png.moremcmeta",
+                "textures/creeper.png"
+        ));
+    }
+
+}
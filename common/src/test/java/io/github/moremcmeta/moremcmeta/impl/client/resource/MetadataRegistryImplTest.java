@@ -384,4 +384,84 @@ public final class MetadataRegistryImplTest {
         ));
     }
 
+
+    @Test
+    public void getFromSpriteName_PathWithoutTexturesPrefix_NothingFound() {
+        MetadataRegistryImpl registry = new MetadataRegistryImpl();
+        registry.set(ImmutableMap.of(new ResourceLocation("block.png"), makeTextureData(new AnalyzedMetadata() {})));
+
+        assertFalse(registry.metadataFromSpriteName("plugin", new ResourceLocation("block")).isPresent());
+        assertFalse(registry.metadataFromSpriteName("plugin", new ResourceLocation("block.png")).isPresent());
+    }
+
+    @Test
+    public void getFromSpriteName_OtherNamespace_NothingFound() {
+        MetadataRegistryImpl registry = new MetadataRegistryImpl();
+        registry.set(ImmutableMap.of(
+                new ResourceLocation("textures/block.png"),
+                makeTextureData(new AnalyzedMetadata() {})
+        ));
+
+        assertFalse(registry.metadataFromSpriteName("plugin", new ResourceLocation("other", "block")).isPresent());
+    }
+
+    @Test
+    public void getFromSpriteName_NestedPath_MetadataFound() {
+        AnalyzedMetadata expected = new AnalyzedMetadata() {};
+
+        MetadataRegistryImpl registry = new MetadataRegistryImpl();
+        registry.set(ImmutableMap.of(
+                new ResourceLocation("mod", "textures/block/dirt.png"),
+                makeTextureData(expected)
+        ));
+
+        assertEquals(
+                expected,
+                registry.metadataFromSpriteName("plugin", new ResourceLocation("mod", "block/dirt")).orElseThrow()
+        );
+    }
+
+    @Test
+    public void set_CalledTwice_OldMetadataDiscarded() {
+        AnalyzedMetadata expected = new AnalyzedMetadata() {};
+
+        MetadataRegistryImpl registry = new MetadataRegistryImpl();
+        registry.set(ImmutableMap.of(
+                new ResourceLocation("textures/block.png"),
+                makeTextureData(new AnalyzedMetadata() {})
+        ));
+        registry.set(ImmutableMap.of(new ResourceLocation("textures/block2.png"), makeTextureData(expected)));
+
+        assertFalse(registry.metadataFromPath("plugin", new ResourceLocation("textures/block.png")).isPresent());
+        assertFalse(registry.metadataFromSpriteName("plugin", new ResourceLocation("block")).isPresent());
+        assertEquals(expected, registry.metadataFromSpriteName("plugin", new ResourceLocation("block2")).orElseThrow());
+        assertEquals(1, registry.metadataByPlugin("plugin").size());
+    }
+
+    @Test
+    public void getByPlugin_NothingSet_Empty() {
+        MetadataRegistryImpl registry = new MetadataRegistryImpl();
+        assertTrue(registry.metadataByPlugin("plugin").isEmpty());
+        assertFalse(registry.metadataFromSpriteName("plugin", new ResourceLocation("block")).isPresent());
+    }
+
+    /**
+     * Makes texture data with metadata from a single plugin named "plugin".
+     * @param metadata      the plugin's metadata
+     * @return the texture data
+     */
+    private static TextureData<?> makeTextureData(AnalyzedMetadata metadata) {
+        return new TextureData<>(
+                new TextureData.FrameSize(30, 40),
+                false, false,
+                Optional.empty(),
+                new MockCloseableImage(100, 100),
+                ImmutableList.of(Triple.of(
+                        "plugin",
+                        metadata,
+                        (data, frames) -> new TextureComponent<>() {}
+                ))
+        );
+    }
+
 }
\ No newline at end of file
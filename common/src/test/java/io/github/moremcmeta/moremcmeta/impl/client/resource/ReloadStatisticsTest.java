@@ -0,0 +1,164 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link ReloadStatistics}.
+ * @author soir20
+ */
+public final class ReloadStatisticsTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void count_NothingRecorded_Zero() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        for (ReloadStatistics.Stage stage : ReloadStatistics.Stage.values()) {
+            assertEquals(0, statistics.count(stage));
+            assertEquals(0, statistics.nanos(stage));
+        }
+    }
+
+    @Test
+    public void record_NullStage_NullPointerException() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        expectedException.expect(NullPointerException.class);
+        statistics.record(null, 1, 1);
+    }
+
+    @Test
+    public void record_NegativeCount_IllegalArgException() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        expectedException.expect(IllegalArgumentException.class);
+        statistics.record(ReloadStatistics.Stage.ANALYSIS, -1, 1);
+    }
+
+    @Test
+    public void record_NegativeTime_RecordedAsZero() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        statistics.record(ReloadStatistics.Stage.ANALYSIS, 1, -10);
+
+        assertEquals(1, statistics.count(ReloadStatistics.Stage.ANALYSIS));
+        assertEquals(0, statistics.nanos(ReloadStatistics.Stage.ANALYSIS));
+    }
+
+    @Test
+    public void record_SeveralStages_StagesKeptSeparate() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        statistics.record(ReloadStatistics.Stage.ANALYSIS, 2, 100);
+        statistics.record(ReloadStatistics.Stage.ANALYSIS, 3, 50);
+        statistics.record(ReloadStatistics.Stage.ASSEMBLY, 1, 7);
+
+        assertEquals(5, statistics.count(ReloadStatistics.Stage.ANALYSIS));
+        assertEquals(150, statistics.nanos(ReloadStatistics.Stage.ANALYSIS));
+        assertEquals(1, statistics.count(ReloadStatistics.Stage.ASSEMBLY));
+        assertEquals(7, statistics.nanos(ReloadStatistics.Stage.ASSEMBLY));
+        assertEquals(0, statistics.count(ReloadStatistics.Stage.REGISTRATION));
+    }
+
+    @Test
+    public void record_ManyThreads_AllRecorded() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        IntStream.range(0, 10000).parallel().forEach(
+                (index) -> statistics.record(ReloadStatistics.Stage.TEXTURE_DECODE, 1, 2)
+        );
+
+        assertEquals(10000, statistics.count(ReloadStatistics.Stage.TEXTURE_DECODE));
+        assertEquals(20000, statistics.nanos(ReloadStatistics.Stage.TEXTURE_DECODE));
+    }
+
+    @Test
+    public void recordSince_StartInPast_PositiveTimeRecorded() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        statistics.recordSince(ReloadStatistics.Stage.PACK_LISTING, 4, System.nanoTime() - 1000);
+
+        assertEquals(4, statistics.count(ReloadStatistics.Stage.PACK_LISTING));
+        assertTrue(statistics.nanos(ReloadStatistics.Stage.PACK_LISTING) >= 1000);
+    }
+
+    @Test
+    public void count_NullStage_NullPointerException() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        expectedException.expect(NullPointerException.class);
+        statistics.count(null);
+    }
+
+    @Test
+    public void nanos_NullStage_NullPointerException() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        expectedException.expect(NullPointerException.class);
+        statistics.nanos(null);
+    }
+
+    @Test
+    public void reset_StagesRecorded_AllCleared() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        statistics.record(ReloadStatistics.Stage.ANALYSIS, 2, 100);
+        statistics.record(ReloadStatistics.Stage.REGISTRATION, 1, 7);
+        statistics.reset();
+
+        assertEquals(0, statistics.count(ReloadStatistics.Stage.ANALYSIS));
+        assertEquals(0, statistics.nanos(ReloadStatistics.Stage.REGISTRATION));
+        assertTrue(statistics.describe().isEmpty());
+    }
+
+    @Test
+    public void describe_SomeStagesRecorded_OnlyRecordedStagesInRunOrder() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        statistics.record(ReloadStatistics.Stage.REGISTRATION, 1, 7);
+        statistics.record(ReloadStatistics.Stage.PACK_LISTING, 2, 2_000_000);
+
+        List<String> lines = statistics.describe();
+
+        assertEquals(2, lines.size());
+        assertEquals("pack_listing: 2 items in 2.00 ms across threads (1000.0 us each)", lines.get(0));
+        assertTrue(lines.get(1).startsWith("registration: 1 items"));
+    }
+
+    @Test
+    public void addTo_NullProfiler_NullPointerException() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        expectedException.expect(NullPointerException.class);
+        statistics.addTo(null, ReloadStatistics.Stage.ANALYSIS);
+    }
+
+    @Test
+    public void addCountersTo_NullProfiler_NullPointerException() {
+        ReloadStatistics statistics = new ReloadStatistics();
+        expectedException.expect(NullPointerException.class);
+        statistics.addCountersTo(null, ReloadStatistics.Stage.ANALYSIS);
+    }
+
+    @Test
+    public void profilerName_AllStages_LowercaseNames() {
+        assertEquals("root_metadata_parse", ReloadStatistics.Stage.ROOT_METADATA_PARSE.profilerName());
+        assertEquals("sprite_discovery", ReloadStatistics.Stage.SPRITE_DISCOVERY.profilerName());
+    }
+
+}
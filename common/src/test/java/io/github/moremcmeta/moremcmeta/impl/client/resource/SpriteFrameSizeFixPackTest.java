@@ -556,6 +556,62 @@ public final class SpriteFrameSizeFixPackTest {
         assertTrue(results.contains(new ResourceLocation("textures/folder/folder2/folder3/five.png.mcmeta")));
     }
 
+    @Test
+    public void getResources_SiblingWithSamePrefix_NotMatched() {
+        Map<ResourceLocation, TextureData<?>> textures1 = new HashMap<>();
+        textures1.put(new ResourceLocation("textures/folder/one.png"),
+                new TextureData<>(new TextureData.FrameSize(1, 2), false, false,  Optional.empty(), new MockCloseableImage(10, 10), ImmutableList.of()));
+        textures1.put(new ResourceLocation("textures/folder2/two.png"),
+                new TextureData<>(new TextureData.FrameSize(1, 2), false, false,  Optional.empty(), new MockCloseableImage(10, 10), ImmutableList.of()));
+        textures1.put(new ResourceLocation("textures/folder.png"),
+                new TextureData<>(new TextureData.FrameSize(1, 2), false, false,  Optional.empty(), new MockCloseableImage(10, 10), ImmutableList.of()));
+        textures1.put(new ResourceLocation("textures/folder/zzz/three.png"),
+                new TextureData<>(new TextureData.FrameSize(1, 2), false, false,  Optional.empty(), new MockCloseableImage(10, 10), ImmutableList.of()));
+
+        SpriteFrameSizeFixPack pack = new SpriteFrameSizeFixPack(textures1, ImmutableMap.of());
+
+        Collection<ResourceLocation> results = getResources(pack, PackType.CLIENT_RESOURCES, "minecraft", "textures/folder");
+        assertEquals(Set.of(
+                new ResourceLocation("textures/folder/one.png.mcmeta"),
+                new ResourceLocation("textures/folder/zzz/three.png.mcmeta")
+        ), results);
+    }
+
+    @Test
+    public void getResources_ListedResource_SameAsGetResource() throws IOException {
+        Map<ResourceLocation, TextureData<?>> textures1 = new HashMap<>();
+        textures1.put(new ResourceLocation("textures/one.png"),
+                new TextureData<>(new TextureData.FrameSize(3, 4), false, false,  Optional.empty(), new MockCloseableImage(10, 10), ImmutableList.of()));
+        SpriteFrameSizeFixPack pack = new SpriteFrameSizeFixPack(textures1, ImmutableMap.of());
+
+        Map<ResourceLocation, IoSupplier<InputStream>> resources = new HashMap<>();
+        pack.listResources(PackType.CLIENT_RESOURCES, "minecraft", "textures", resources::put);
+
+        ResourceLocation metadataLocation = new ResourceLocation("textures/one.png.mcmeta");
+        assertEquals(
+                readJson(pack.getResource(PackType.CLIENT_RESOURCES, metadataLocation).get()),
+                readJson(resources.get(metadataLocation).get())
+        );
+    }
+
+    @Test
+    public void getResource_RequestedTwice_SameMetadataBothTimes() throws IOException {
+        Map<ResourceLocation, TextureData<?>> textures1 = new HashMap<>();
+        textures1.put(new ResourceLocation("textures/one.png"),
+                new TextureData<>(new TextureData.FrameSize(3, 4), false, false,  Optional.empty(), new MockCloseableImage(10, 10), ImmutableList.of()));
+        SpriteFrameSizeFixPack pack = new SpriteFrameSizeFixPack(textures1, ImmutableMap.of());
+
+        IoSupplier<InputStream> resource = pack.getResource(
+                PackType.CLIENT_RESOURCES,
+                new ResourceLocation("textures/one.png.mcmeta")
+        );
+        JsonObject first = readJson(resource.get());
+        JsonObject second = readJson(resource.get());
+
+        assertEquals(first, second);
+        assertEquals(3, first.getAsJsonObject("animation").get("width").getAsInt());
+    }
+
     @Test
     public void getNamespaces_NullPackType_NullPointerException() {
         Map<ResourceLocation, TextureData<?>> textures1 = new HashMap<>();
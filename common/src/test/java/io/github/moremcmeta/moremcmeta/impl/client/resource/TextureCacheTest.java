@@ -229,5 +229,63 @@ public final class TextureCacheTest {
         assertEquals(expected, actual.get());
     }
 
+    @Test
+    public void clear_LoadSameStateAfterClear_LoaderUsedAgain() {
+        AtomicInteger texturesRead = new AtomicInteger();
+        TextureCache<Integer, Integer> cache = new TextureCache<>(
+                new TextureLoader<>((texStream, metadata) -> {
+                    texturesRead.incrementAndGet();
+                    return 1;
+                }, MOCK_READERS, LOGGER)
+        );
+
+        OrderedResourceRepository repository = makeMockRepository(Set.of("textures/bat.png",
+                "textures/bat.png.moremcmeta", "test/creeper.png", "test/creeper.png.moremcmeta"));
+
+        cache.load(repository, 1, "textures", "test");
+        cache.clear();
+        cache.load(repository, 1, "textures", "test");
+
+        assertEquals(4, texturesRead.get());
+    }
+
+    @Test
+    public void clear_NotLoaded_LoaderNotUsed() {
+        AtomicInteger texturesRead = new AtomicInteger();
+        TextureCache<Integer, Integer> cache = new TextureCache<>(
+                new TextureLoader<>((texStream, metadata) -> {
+                    texturesRead.incrementAndGet();
+                    return 1;
+                }, MOCK_READERS, LOGGER)
+        );
+
+        cache.clear();
+
+        assertEquals(0, texturesRead.get());
+    }
+
+    @Test
+    public void clear_GetAfterClearAndLoad_NewCacheRetrieved() {
+        TextureCache<Integer, Integer> cache = new TextureCache<>(
+                new TextureLoader<>((texStream, metadata) -> 1, MOCK_READERS, LOGGER)
+        );
+
+        OrderedResourceRepository repository = makeMockRepository(Set.of("textures/bat.png",
+                "textures/bat.png.moremcmeta", "test/creeper.png", "test/creeper.png.moremcmeta"));
+        OrderedResourceRepository repository2 = makeMockRepository(Set.of("textures/cat.png",
+                "textures/cat.png.moremcmeta", "test/zombie.png", "test/zombie.png.moremcmeta"));
+
+        cache.load(repository, 1, "textures", "test");
+        cache.clear();
+        cache.load(repository2, 1, "textures", "test");
+
+        ImmutableMap<ResourceLocation, Integer> expected = ImmutableMap.<ResourceLocation, Integer>builder()
+                .put(new ResourceLocation("textures/cat.png"), 1)
+                .put(new ResourceLocation("test/zombie.png"), 1)
+                .build();
+
+        assertEquals(expected, cache.get(1));
+    }
+
 
 }
\ No newline at end of file
@@ -38,6 +38,7 @@ import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -80,6 +81,13 @@ public final class TextureLoaderTest {
             ),
             new MockMetadataView(List.of("four", "five", "six"))
     );
+    private final MetadataParser MOCK_BINARY_READER = (metadataLocation, metadataStream, resourceRepository) -> Map.of(
+            new ResourceLocation(
+                    metadataLocation.getNamespace(),
+                    metadataLocation.getPath().replace(".moremcmetab", "")
+            ),
+            new MockMetadataView(List.of("binary"))
+    );
     private final ImmutableMap<String, MetadataParser> MOCK_READERS = ImmutableMap.of(
             ".moremcmeta", MOCK_READER,
             ".other", MOCK_READER_2
@@ -158,6 +166,124 @@ public final class TextureLoaderTest {
         );
     }
 
+    @Test
+    public void construct_SectionNamesNull_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureLoader<>(
+                (texStream, metadata) -> 1,
+                MOCK_READERS,
+                null,
+                LOGGER
+        );
+    }
+
+    @Test
+    public void load_SectionNamesProvided_SectionNamesPassedToParser() {
+        OrderedResourceRepository repository = makeMockRepository(Set.of("textures/bat.png",
+                "textures/bat.png.moremcmeta"));
+        List<Set<String>> sectionNamesPassed = new ArrayList<>();
+
+        TextureLoader<Integer> loader = new TextureLoader<>(
+                (texStream, metadata) -> 1,
+                ImmutableMap.of(
+                        ".moremcmeta", new MetadataParser() {
+                            @Override
+                            public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                                                 InputStream metadataStream,
+                                                                                                 ResourceRepository resourceRepository) {
+                                throw new AssertionError("Parser without section names should not be called");
+                            }
+
+                            @Override
+                            public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                                                 InputStream metadataStream,
+                                                                                                 ResourceRepository resourceRepository,
+                                                                                                 Set<String> sectionNames)
+                                    throws InvalidMetadataException {
+                                sectionNamesPassed.add(sectionNames);
+                                return MOCK_READER.parse(metadataLocation, metadataStream, resourceRepository);
+                            }
+                        }
+                ),
+                ImmutableSet.of("animation", "texture"),
+                LOGGER
+        );
+
+        Map<ResourceLocation, Integer> results = loader.load(repository, "textures");
+
+        assertEquals(1, results.size());
+        assertEquals(List.of(Set.of("animation", "texture")), sectionNamesPassed);
+    }
+
+    @Test
+    public void construct_StatisticsNull_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureLoader<>(
+                (texStream, metadata) -> 1,
+                MOCK_READERS,
+                ImmutableSet.of("animation"),
+                null,
+                LOGGER
+        );
+    }
+
+    @Test
+    public void load_StatisticsProvided_ListingAndParsingRecorded() {
+        OrderedResourceRepository repository = makeMockRepository(Set.of("textures/bat.png",
+                "textures/bat.png.moremcmeta", "textures/cat.png", "textures/cat.png.moremcmeta"));
+        ReloadStatistics statistics = new ReloadStatistics();
+
+        TextureLoader<Integer> loader = new TextureLoader<>(
+                (texStream, metadata) -> 1,
+                MOCK_READERS,
+                ImmutableSet.of("animation"),
+                statistics,
+                LOGGER
+        );
+
+        loader.load(repository, "textures");
+
+        assertEquals(2, statistics.count(ReloadStatistics.Stage.PACK_LISTING));
+        assertEquals(2, statistics.count(ReloadStatistics.Stage.METADATA_PARSE));
+        assertEquals(repository.collections().size() * MOCK_READERS.size(),
+                statistics.count(ReloadStatistics.Stage.ROOT_METADATA_PARSE));
+        assertEquals(0, statistics.count(ReloadStatistics.Stage.ASSEMBLY));
+    }
+
+    @Test
+    public void load_NoSectionNamesProvided_ParserWithoutSectionNamesUsed() {
+        OrderedResourceRepository repository = makeMockRepository(Set.of("textures/bat.png",
+                "textures/bat.png.moremcmeta"));
+
+        TextureLoader<Integer> loader = new TextureLoader<>(
+                (texStream, metadata) -> 1,
+                ImmutableMap.of(
+                        ".moremcmeta", new MetadataParser() {
+                            @Override
+                            public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                                                 InputStream metadataStream,
+                                                                                                 ResourceRepository resourceRepository)
+                                    throws InvalidMetadataException {
+                                return MOCK_READER.parse(metadataLocation, metadataStream, resourceRepository);
+                            }
+
+                            @Override
+                            public Map<? extends ResourceLocation, ? extends MetadataView> parse(ResourceLocation metadataLocation,
+                                                                                                 InputStream metadataStream,
+                                                                                                 ResourceRepository resourceRepository,
+                                                                                                 Set<String> sectionNames) {
+                                throw new AssertionError("Parser with section names should not be called");
+                            }
+                        }
+                ),
+                LOGGER
+        );
+
+        Map<ResourceLocation, Integer> results = loader.load(repository, "textures");
+
+        assertEquals(1, results.size());
+    }
+
     @Test
     public void load_ResourceManagerNull_NullPointerException() {
         TextureLoader<Integer> loader = new TextureLoader<>(
@@ -1185,6 +1311,66 @@ public final class TextureLoaderTest {
         assertTrue(results.containsKey(new ResourceLocation("textures/zombie.png")));
     }
 
+    @Test
+    public void load_BinaryAndOtherFormatInPackWithTexture_BinaryUsed() {
+        OrderedResourceRepository repository = makeMockRepository(
+                Set.of("textures/bat.png", "textures/bat.png.moremcmeta", "textures/zombie.png",
+                        "textures/zombie.png.moremcmeta", "textures/zombie.png.moremcmetab"),
+                Set.of("textures/creeper.png", "textures/creeper.png.moremcmeta")
+        );
+
+        TextureLoader<MetadataView> loader = new TextureLoader<>(
+                (texStream, metadata) -> metadata,
+                ImmutableMap.of(".moremcmeta", MOCK_READER, ".moremcmetab", MOCK_BINARY_READER),
+                LOGGER
+        );
+
+        Map<ResourceLocation, MetadataView> results = loader.load(repository, "textures");
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(new ResourceLocation("textures/zombie.png")).hasKey("binary"));
+        assertFalse(results.get(new ResourceLocation("textures/bat.png")).hasKey("binary"));
+        assertFalse(results.get(new ResourceLocation("textures/creeper.png")).hasKey("binary"));
+    }
+
+    @Test
+    public void load_BinaryInPackAboveOtherFormat_Conflict() {
+        OrderedResourceRepository repository = makeMockRepository(
+                Set.of("textures/bat.png", "textures/bat.png.moremcmeta", "textures/creeper.png.moremcmetab"),
+                Set.of("textures/creeper.png", "textures/creeper.png.moremcmeta")
+        );
+
+        TextureLoader<MetadataView> loader = new TextureLoader<>(
+                (texStream, metadata) -> metadata,
+                ImmutableMap.of(".moremcmeta", MOCK_READER, ".moremcmetab", MOCK_BINARY_READER),
+                LOGGER
+        );
+
+        Map<ResourceLocation, MetadataView> results = loader.load(repository, "textures");
+
+        assertEquals(1, results.size());
+        assertTrue(results.containsKey(new ResourceLocation("textures/bat.png")));
+    }
+
+    @Test
+    public void load_BinaryInPackBelowOtherFormat_Conflict() {
+        OrderedResourceRepository repository = makeMockRepository(
+                Set.of("textures/bat.png", "textures/bat.png.moremcmeta", "textures/creeper.png.moremcmeta"),
+                Set.of("textures/creeper.png", "textures/creeper.png.moremcmetab")
+        );
+
+        TextureLoader<MetadataView> loader = new TextureLoader<>(
+                (texStream, metadata) -> metadata,
+                ImmutableMap.of(".moremcmeta", MOCK_READER, ".moremcmetab", MOCK_BINARY_READER),
+                LOGGER
+        );
+
+        Map<ResourceLocation, MetadataView> results = loader.load(repository, "textures");
+
+        assertEquals(1, results.size());
+        assertTrue(results.containsKey(new ResourceLocation("textures/bat.png")));
+    }
+
     @Test
     public void load_SameFormatMetadataInPackWithTexture_Combined() {
         OrderedResourceRepository repository = makeMockRepository(
@@ -29,6 +29,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -879,6 +880,56 @@ public final class CloseableImageFrameTest {
         frame.uploadAt(55, 40, mipmaps.size() - 1,  0, 0, 100, 200);
     }
 
+    @Test
+    public void upload_SubAreaOutsideMipmap_ExceptionFromImage() {
+        ImmutableList<MockCloseableImage> mipmaps = ImmutableList.of(
+                new MockCloseableImage(8, 8),
+                new MockCloseableImage(4, 4)
+        );
+
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(8, 8, 30, 40),
+                mipmaps,
+                1
+        );
+
+        expectedException.expect(MockCloseableImage.MockSubImageOutsideOriginalException.class);
+        frame.uploadAt(0, 0, 1,  4, 4, 8, 8);
+    }
+
+    @Test
+    public void uploads_NotUploaded_Zero() {
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(8, 8, 30, 40),
+                ImmutableList.of(new MockCloseableImage(8, 8)),
+                1
+        );
+
+        assertEquals(0, frame.uploads());
+    }
+
+    @Test
+    public void uploads_UploadedMultipleTimes_AllUploadsCounted() {
+        ImmutableList<MockCloseableImage> mipmaps = ImmutableList.of(
+                new MockCloseableImage(8, 8),
+                new MockCloseableImage(4, 4)
+        );
+
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(8, 8, 30, 40),
+                mipmaps,
+                1
+        );
+
+        frame.uploadAt(0, 0, 1,  0, 0, 8, 8);
+        frame.uploadAt(2, 2, 0,  2, 2, 4, 4);
+        frame.uploadAt(4, 4, 1,  0, 0, 1, 1);
+
+        assertEquals(3, frame.uploads());
+        assertEquals((Long) Point.pack(4, 4), mipmaps.get(0).lastUploadPoint());
+        assertEquals((Long) Point.pack(0, 0), mipmaps.get(1).lastUploadPoint());
+    }
+
     @Test
     public void lowerMipmapLevel_NegativeLevel_IllegalArtException() {
         ImmutableList<MockCloseableImage> mipmaps = ImmutableList.of(
@@ -2213,6 +2264,379 @@ public final class CloseableImageFrameTest {
         frame.applyTransform((x, y, depFunction) -> Color.pack(100, 100, 100, 100), Area.of(Point.pack(50, 100)), 0);
     }
 
+    @Test
+    public void applyTransform_ColorChanged_True() {
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                ImmutableList.of(
+                        new MockCloseableImage(100, 200),
+                        new MockCloseableImage(50, 100),
+                        new MockCloseableImage(25, 50)
+                ),
+                1
+        );
+
+        assertTrue(frame.applyTransform((x, y, depFunction) -> Color.pack(100, 100, 100, 100), Area.of(Point.pack(50, 100)), 0));
+    }
+
+    @Test
+    public void applyTransform_SameColorWritten_False() {
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                ImmutableList.of(
+                        new MockCloseableImage(100, 200),
+                        new MockCloseableImage(50, 100),
+                        new MockCloseableImage(25, 50)
+                ),
+                1
+        );
+
+        frame.applyTransform((x, y, depFunction) -> Color.pack(100, 100, 100, 100), Area.of(Point.pack(50, 100)), 0);
+        assertFalse(frame.applyTransform((x, y, depFunction) -> Color.pack(100, 100, 100, 100), Area.of(Point.pack(50, 100)), 0));
+    }
+
+    @Test
+    public void applyTransform_LargeAreaSameColorWritten_False() {
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(400, 400, 0, 0),
+                ImmutableList.of(new MockCloseableImage(400, 400)),
+                1
+        );
+
+        Area.Builder builder = new Area.Builder();
+        for (int x = 0; x < 400; x++) {
+            for (int y = 0; y < 400; y++) {
+                builder.addPixel(x, y);
+            }
+        }
+        Area area = builder.build();
+
+        assertTrue(frame.applyTransform((x, y, depFunction) -> x + y, area, 0));
+        assertFalse(frame.applyTransform((x, y, depFunction) -> x + y, area, 0));
+    }
+
+    @Test
+    public void applyTransform_SameColorInLowerLayer_False() {
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                ImmutableList.of(
+                        new MockCloseableImage(100, 200),
+                        new MockCloseableImage(50, 100),
+                        new MockCloseableImage(25, 50)
+                ),
+                3
+        );
+
+        assertFalse(frame.applyTransform((x, y, depFunction) -> 0, Area.of(Point.pack(50, 100)), 1));
+        assertEquals(0, frame.color(50, 100));
+    }
+
+    @Test
+    public void applyColors_NullColors_NullPointerException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(NullPointerException.class);
+        frame.applyColors(null, Area.of(Point.pack(50, 100)), 0);
+    }
+
+    @Test
+    public void applyColors_NullArea_NullPointerException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(NullPointerException.class);
+        frame.applyColors(new int[1], null, 0);
+    }
+
+    @Test
+    public void applyColors_NonExistentLayer_IllegalArgException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(IllegalArgumentException.class);
+        frame.applyColors(new int[1], Area.of(Point.pack(50, 100)), 1);
+    }
+
+    @Test
+    public void applyColors_TooFewColors_IllegalArgException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(IllegalArgumentException.class);
+        frame.applyColors(new int[1], Area.of(Point.pack(50, 100), Point.pack(51, 100)), 0);
+    }
+
+    @Test
+    public void applyColors_PointOutOfBounds_PixelOutOfBoundsException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(PixelOutOfBoundsException.class);
+        frame.applyColors(new int[1], Area.of(Point.pack(100, 100)), 0);
+    }
+
+    @Test
+    public void applyColors_AfterClose_IllegalStateException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        frame.close();
+
+        expectedException.expect(IllegalStateException.class);
+        frame.applyColors(new int[1], Area.of(Point.pack(50, 100)), 0);
+    }
+
+    @Test
+    public void applyColors_ColorsFromTransform_SameAsTransform() {
+        ImmutableList<MockCloseableImage> transformedImages = makeMipmaps();
+        CloseableImageFrame transformed = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                transformedImages,
+                1
+        );
+        ImmutableList<MockCloseableImage> copiedImages = makeMipmaps();
+        CloseableImageFrame copied = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                copiedImages,
+                1
+        );
+
+        Area area = new Area(48, 100, 4, 4);
+        assertTrue(transformed.applyTransform((x, y, depFunction) -> x * 31 + y, area, 0));
+        assertTrue(copied.applyColors(transformed.layerColors(area, 0), area, 0));
+
+        for (int level = 0; level < transformedImages.size(); level++) {
+            MockCloseableImage transformedImage = transformedImages.get(level);
+            for (int x = 0; x < transformedImage.width(); x++) {
+                for (int y = 0; y < transformedImage.height(); y++) {
+                    assertEquals(transformedImage.color(x, y), copiedImages.get(level).color(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void applyColors_SameColorWritten_False() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        Area area = Area.of(Point.pack(50, 100));
+
+        assertTrue(frame.applyColors(new int[] { Color.pack(100, 100, 100, 100) }, area, 0));
+        assertFalse(frame.applyColors(new int[] { Color.pack(100, 100, 100, 100) }, area, 0));
+    }
+
+    @Test
+    public void applyColors_WriteToBottomAfterWritingToTop_LowerDoesNotOverwriteUpper() {
+        CloseableImageFrame frame = makeLayeredFrame(3);
+        Area area = Area.of(Point.pack(50, 100));
+
+        frame.applyColors(new int[] { 796332458 }, area, 2);
+        assertFalse(frame.applyColors(new int[] { 450605672 }, area, 0));
+
+        assertEquals(796332458, frame.color(50, 100));
+        assertEquals(450605672, frame.layerColors(area, 0)[0]);
+    }
+
+    @Test
+    public void applyColors_RowPartlyWrittenByUpperLayer_UpperPointsKept() {
+        CloseableImageFrame frame = makeLayeredFrame(3);
+        Area area = new Area(40, 100, 6, 1);
+
+        frame.applyColors(new int[] { 7, 8 }, Area.of(Point.pack(41, 100), Point.pack(44, 100)), 2);
+        assertTrue(frame.applyColors(new int[] { 1, 2, 3, 4, 5, 6 }, area, 1));
+
+        assertEquals(1, frame.color(40, 100));
+        assertEquals(7, frame.color(41, 100));
+        assertEquals(3, frame.color(42, 100));
+        assertEquals(4, frame.color(43, 100));
+        assertEquals(8, frame.color(44, 100));
+        assertEquals(6, frame.color(45, 100));
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6 }, frame.layerColors(area, 1));
+    }
+
+    @Test
+    public void applyColors_RowWrittenByLowerLayer_OriginalColorsKeptBelow() {
+        ImmutableList<MockCloseableImage> images = makeMipmaps();
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                images,
+                3
+        );
+        Area area = new Area(40, 100, 3, 1);
+        images.get(0).setColor(40, 100, 10);
+        images.get(0).setColor(41, 100, 20);
+        images.get(0).setColor(42, 100, 30);
+
+        frame.applyColors(new int[] { 1, 2, 3 }, area, 2);
+
+        assertArrayEquals(new int[] { 10, 20, 30 }, frame.layerColors(area, 0));
+        assertArrayEquals(new int[] { 10, 20, 30 }, frame.layerColors(area, 1));
+        assertArrayEquals(new int[] { 1, 2, 3 }, frame.layerColors(area, 2));
+    }
+
+    @Test
+    public void applyColors_SeveralRowsAndGaps_SameAsTransform() {
+        CloseableImageFrame transformed = makeLayeredFrame(2);
+        CloseableImageFrame copied = makeLayeredFrame(2);
+        Area area = Area.of(
+                Point.pack(10, 5), Point.pack(11, 5), Point.pack(13, 5),
+                Point.pack(12, 6), Point.pack(13, 6), Point.pack(14, 6), Point.pack(0, 7)
+        );
+
+        transformed.applyTransform((x, y, depFunction) -> x * 31 + y, area, 1);
+        copied.applyColors(transformed.layerColors(area, 1), area, 1);
+
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 10; y++) {
+                assertEquals(transformed.color(x, y), copied.color(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void layerColors_NullArea_NullPointerException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(NullPointerException.class);
+        frame.layerColors(null, 0);
+    }
+
+    @Test
+    public void layerColors_NegativeLayer_IllegalArgException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(IllegalArgumentException.class);
+        frame.layerColors(Area.of(Point.pack(50, 100)), -1);
+    }
+
+    @Test
+    public void layerColors_AfterClose_IllegalStateException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        frame.close();
+
+        expectedException.expect(IllegalStateException.class);
+        frame.layerColors(Area.of(Point.pack(50, 100)), 0);
+    }
+
+    @Test
+    public void layerColors_LayerNotWritten_ColorsFromLayerBelow() {
+        CloseableImageFrame frame = makeLayeredFrame(3);
+        Area area = Area.of(Point.pack(50, 100));
+
+        frame.applyColors(new int[] { 1177013896 }, area, 0);
+
+        assertEquals(1177013896, frame.layerColors(area, 1)[0]);
+        assertEquals(1177013896, frame.layerColors(area, 2)[0]);
+    }
+
+    @Test
+    public void layerColors_TransformApplied_ColorsInAreaOrder() {
+        CloseableImageFrame frame = makeLayeredFrame(3);
+        Area area = Area.of(Point.pack(52, 100), Point.pack(50, 101), Point.pack(51, 102));
+
+        frame.applyTransform((x, y, depFunction) -> x + y, area, 1);
+
+        int[] colors = frame.layerColors(area, 1);
+        int index = 0;
+        for (long point : area) {
+            assertEquals(Point.x(point) + Point.y(point), colors[index++]);
+        }
+        assertEquals(area.size(), index);
+    }
+
+    @Test
+    public void copyFrom_Null_NullPointerException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+
+        expectedException.expect(NullPointerException.class);
+        frame.copyFrom(null);
+    }
+
+    @Test
+    public void copyFrom_DifferentSize_IllegalArgException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        CloseableImageFrame other = new CloseableImageFrame(
+                new FrameReader.FrameData(200, 100, 0, 0),
+                ImmutableList.of(
+                        new MockCloseableImage(200, 100),
+                        new MockCloseableImage(100, 50),
+                        new MockCloseableImage(50, 25)
+                ),
+                1
+        );
+
+        expectedException.expect(IllegalArgumentException.class);
+        frame.copyFrom(other);
+    }
+
+    @Test
+    public void copyFrom_FewerMipmaps_IllegalArgException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        CloseableImageFrame other = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                ImmutableList.of(new MockCloseableImage(100, 200)),
+                1
+        );
+
+        expectedException.expect(IllegalArgumentException.class);
+        frame.copyFrom(other);
+    }
+
+    @Test
+    public void copyFrom_AfterClose_IllegalStateException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        frame.close();
+
+        expectedException.expect(IllegalStateException.class);
+        frame.copyFrom(makeLayeredFrame(1));
+    }
+
+    @Test
+    public void copyFrom_OtherClosed_IllegalStateException() {
+        CloseableImageFrame frame = makeLayeredFrame(1);
+        CloseableImageFrame other = makeLayeredFrame(1);
+        other.close();
+
+        expectedException.expect(IllegalStateException.class);
+        frame.copyFrom(other);
+    }
+
+    @Test
+    public void copyFrom_SameSize_AllMipmapsCopied() {
+        ImmutableList<MockCloseableImage> otherMipmaps = makeMipmaps();
+        otherMipmaps.get(0).setColor(10, 20, 1177013896);
+        otherMipmaps.get(1).setColor(5, 10, 796332458);
+        otherMipmaps.get(2).setColor(2, 5, 1583995077);
+        CloseableImageFrame other = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                otherMipmaps,
+                1
+        );
+
+        ImmutableList<MockCloseableImage> mipmaps = makeMipmaps();
+        CloseableImageFrame frame = new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                mipmaps,
+                1
+        );
+        frame.copyFrom(other);
+
+        assertEquals(1177013896, frame.color(10, 20));
+        assertEquals(1177013896, mipmaps.get(0).color(10, 20));
+        assertEquals(796332458, mipmaps.get(1).color(5, 10));
+        assertEquals(1583995077, mipmaps.get(2).color(2, 5));
+    }
+
+    @Test
+    public void copyFrom_LayersWritten_LayersForgotten() {
+        CloseableImageFrame frame = makeLayeredFrame(3);
+        Area area = Area.of(Point.pack(50, 100));
+        frame.applyColors(new int[] { 1177013896 }, area, 1);
+        frame.applyColors(new int[] { 796332458 }, area, 2);
+
+        CloseableImageFrame other = makeLayeredFrame(1);
+        other.applyColors(new int[] { 1583995077 }, area, 0);
+        frame.copyFrom(other);
+
+        assertEquals(1583995077, frame.color(50, 100));
+        assertEquals(1583995077, frame.layerColors(area, 0)[0]);
+        assertEquals(1583995077, frame.layerColors(area, 1)[0]);
+        assertEquals(1583995077, frame.layerColors(area, 2)[0]);
+    }
+
     @Test
     public void close_CloseTwice_NoException() {
         CloseableImageFrame frame = new CloseableImageFrame(
@@ -2254,4 +2678,29 @@ public final class CloseableImageFrameTest {
         assertTrue(images.get(2).isClosed());
     }
 
+    /**
+     * Makes the three mipmaps of a 100x200 frame.
+     * @return the mipmaps
+     */
+    private static ImmutableList<MockCloseableImage> makeMipmaps() {
+        return ImmutableList.of(
+                new MockCloseableImage(100, 200),
+                new MockCloseableImage(50, 100),
+                new MockCloseableImage(25, 50)
+        );
+    }
+
+    /**
+     * Makes a 100x200 frame with three mipmaps.
+     * @param layers        number of layers in the frame
+     * @return the frame
+     */
+    private static CloseableImageFrame makeLayeredFrame(int layers) {
+        return new CloseableImageFrame(
+                new FrameReader.FrameData(100, 200, 0, 0),
+                makeMipmaps(),
+                layers
+        );
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link DependencyGraph}.
+ * @author soir20
+ */
+public final class DependencyGraphTest {
+    private static final ResourceLocation BASE_1 = new ResourceLocation("base1.png");
+    private static final ResourceLocation BASE_2 = new ResourceLocation("base2.png");
+    private static final ResourceLocation BASE_3 = new ResourceLocation("base3.png");
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void add_NullBase_NullPointerException() {
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+
+        expectedException.expect(NullPointerException.class);
+        builder.add(null, makeTexture(new ArrayList<>()));
+    }
+
+    @Test
+    public void add_NullDependency_NullPointerException() {
+        DependencyGraph.Builder builder = new DependencyGraph.Builder();
+
+        expectedException.expect(NullPointerException.class);
+        builder.add(BASE_1, null);
+    }
+
+    @Test
+    public void id_NullBase_NullPointerException() {
+        DependencyGraph graph = new DependencyGraph.Builder().build();
+
+        expectedException.expect(NullPointerException.class);
+        graph.id(null);
+    }
+
+    @Test
+    public void id_EmptyGraph_NoId() {
+        assertEquals(DependencyGraph.NO_ID, DependencyGraph.EMPTY.id(BASE_1));
+        assertEquals(0, DependencyGraph.EMPTY.bases());
+    }
+
+    @Test
+    public void id_BaseNotAdded_NoId() {
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, makeTexture(new ArrayList<>()))
+                .build();
+
+        assertEquals(DependencyGraph.NO_ID, graph.id(BASE_2));
+    }
+
+    @Test
+    public void id_BasesAdded_IdsDenseAndUnique() {
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, makeTexture(new ArrayList<>()))
+                .add(BASE_2, makeTexture(new ArrayList<>()))
+                .add(BASE_3, makeTexture(new ArrayList<>()))
+                .build();
+
+        assertEquals(3, graph.bases());
+        assertNotEquals(graph.id(BASE_1), graph.id(BASE_2));
+        assertNotEquals(graph.id(BASE_2), graph.id(BASE_3));
+        assertNotEquals(graph.id(BASE_1), graph.id(BASE_3));
+
+        for (ResourceLocation base : ImmutableList.of(BASE_1, BASE_2, BASE_3)) {
+            int id = graph.id(base);
+            assertTrue(id >= 0 && id < graph.bases());
+        }
+    }
+
+    @Test
+    public void dependencies_NegativeId_IllegalArgumentException() {
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, makeTexture(new ArrayList<>()))
+                .build();
+
+        expectedException.expect(IllegalArgumentException.class);
+        graph.dependencies(-1);
+    }
+
+    @Test
+    public void dependencies_IdTooLarge_IllegalArgumentException() {
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, makeTexture(new ArrayList<>()))
+                .build();
+
+        expectedException.expect(IllegalArgumentException.class);
+        graph.dependencies(1);
+    }
+
+    @Test
+    public void dependencies_SameTextureAddedTwice_CountedOnce() {
+        EventDrivenTexture texture = makeTexture(new ArrayList<>());
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, texture)
+                .add(BASE_1, texture)
+                .build();
+
+        assertEquals(1, graph.dependencies(graph.id(BASE_1)));
+    }
+
+    @Test
+    public void dependencies_MultipleBases_CountsSeparate() {
+        EventDrivenTexture texture1 = makeTexture(new ArrayList<>());
+        EventDrivenTexture texture2 = makeTexture(new ArrayList<>());
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, texture1)
+                .add(BASE_2, texture1)
+                .add(BASE_2, texture2)
+                .add(BASE_3, texture2)
+                .build();
+
+        assertEquals(1, graph.dependencies(graph.id(BASE_1)));
+        assertEquals(2, graph.dependencies(graph.id(BASE_2)));
+        assertEquals(1, graph.dependencies(graph.id(BASE_3)));
+    }
+
+    @Test
+    public void uploadDependencies_InvalidId_IllegalArgumentException() {
+        expectedException.expect(IllegalArgumentException.class);
+        DependencyGraph.EMPTY.uploadDependencies(0);
+    }
+
+    @Test
+    public void uploadDependencies_SharedTexture_OnlyBaseDependenciesUploaded() {
+        List<ResourceLocation> uploads1 = new ArrayList<>();
+        List<ResourceLocation> uploads2 = new ArrayList<>();
+        List<ResourceLocation> uploads3 = new ArrayList<>();
+
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, makeTexture(uploads1))
+                .add(BASE_2, makeTexture(uploads2))
+                .add(BASE_2, makeTexture(uploads3))
+                .build();
+
+        graph.uploadDependencies(graph.id(BASE_2));
+
+        assertEquals(ImmutableList.of(), uploads1);
+        assertEquals(ImmutableList.of(BASE_2), uploads2);
+        assertEquals(ImmutableList.of(BASE_2), uploads3);
+    }
+
+    @Test
+    public void uploadDependencies_TextureWithMultipleBases_UploadedWithEachBase() {
+        List<ResourceLocation> uploads = new ArrayList<>();
+        EventDrivenTexture texture = makeTexture(uploads);
+
+        DependencyGraph graph = new DependencyGraph.Builder()
+                .add(BASE_1, texture)
+                .add(BASE_3, texture)
+                .build();
+
+        graph.uploadDependencies(graph.id(BASE_3));
+        graph.uploadDependencies(graph.id(BASE_1));
+
+        assertEquals(ImmutableList.of(BASE_3, BASE_1), uploads);
+    }
+
+    /**
+     * Makes a texture that records the bases it is uploaded to.
+     * @param uploads       list to add the bases to
+     * @return the texture
+     */
+    private static EventDrivenTexture makeTexture(List<ResourceLocation> uploads) {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                uploads.add(baseLocation);
+            }
+        });
+        return builder.build();
+    }
+
+}
@@ -19,7 +19,9 @@ package io.github.moremcmeta.moremcmeta.impl.client.texture;
 
 import com.google.common.collect.ImmutableList;
 import io.github.moremcmeta.moremcmeta.api.client.texture.Color;
+import io.github.moremcmeta.moremcmeta.api.client.texture.CurrentFrameView;
 import io.github.moremcmeta.moremcmeta.api.client.texture.FrameGroup;
+import io.github.moremcmeta.moremcmeta.api.client.texture.FrameIndexOutOfBoundsException;
 import io.github.moremcmeta.moremcmeta.api.client.texture.IllegalFrameReferenceException;
 import io.github.moremcmeta.moremcmeta.api.client.texture.NegativeUploadPointException;
 import io.github.moremcmeta.moremcmeta.api.client.texture.PersistentFrameView;
@@ -34,11 +36,14 @@ import org.junit.rules.ExpectedException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests the {@link EventDrivenTexture}.
@@ -142,6 +147,46 @@ public final class EventDrivenTextureTest {
         builder.add(null);
     }
 
+    @Test
+    public void build_NullComponentName_NullPointerException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+
+        expectedException.expect(NullPointerException.class);
+        builder.add(null, new CoreTextureComponent() {});
+    }
+
+    @Test
+    public void build_NullPluginComponentName_NullPointerException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+
+        expectedException.expect(NullPointerException.class);
+        builder.add(null, new TextureComponent<>() {});
+    }
+
+    @Test
+    public void build_NullNamedComponent_NullPointerException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+
+        expectedException.expect(NullPointerException.class);
+        builder.add("plugin", (CoreTextureComponent) null);
+    }
+
+    @Test
+    public void instrumentation_DefaultProperty_PresentOnlyIfEnabled() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        builder.add("plugin", new TextureComponent<>() {});
+
+        assertEquals(TextureInstrumentation.ENABLED, builder.build().instrumentation().isPresent());
+    }
+
     @Test
     public void build_NoListeners_NoException() {
         EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
@@ -458,6 +503,194 @@ public final class EventDrivenTextureTest {
         testExpectedOrder((texture) -> { texture.tick(); texture.tick(); }, false, expected);
     }
 
+    @Test
+    public void skipTick_FirstSkip_TickNotFired() {
+        Integer[] expected = {};
+        testExpectedOrder(EventDrivenTexture::skipTick, false, expected);
+    }
+
+    @Test
+    public void skipTick_SkippedThenUploaded_SkippedTicksFiredOnUpload() {
+        Integer[] expected = {7, 8, 9, 13, 14, 15, 4, 5, 6};
+        ResourceLocation dummyBase = new ResourceLocation("dummy.png");
+        testExpectedOrder((texture) -> { texture.skipTick(); texture.upload(dummyBase); }, false, expected);
+    }
+
+    @Test
+    public void skipTick_SkippedThenTicked_SkippedTicksReplayedFirst() {
+        Integer[] expected = {7, 8, 9, 7, 8, 9, 7, 8, 9};
+        testExpectedOrder((texture) -> { texture.skipTick(); texture.skipTick(); texture.tick(); }, false, expected);
+    }
+
+    @Test
+    public void skipTick_SkippedTicksReplayedOnUpload_NotReplayedOnNextTick() {
+        Integer[] expected = {7, 8, 9, 13, 14, 15, 4, 5, 6, 7, 8, 9};
+        testExpectedOrder((texture) -> {
+            texture.skipTick();
+            texture.upload(DUMMY_BASE_LOCATION);
+            texture.tick();
+        }, false, expected);
+    }
+
+    @Test
+    public void setTimeStepping_Null_NullPointerException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        expectedException.expect(NullPointerException.class);
+        builder.setTimeStepping(null);
+    }
+
+    @Test
+    public void upload_NoTimeStepping_PartialTickNotFired() {
+        List<Float> partialTicks = new ArrayList<>();
+        EventDrivenTexture texture = makePartialTickTexture(partialTicks, null);
+
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertTrue(partialTicks.isEmpty());
+    }
+
+    @Test
+    public void upload_TimeStepping_PartialTickIsFractionOfTick() {
+        AtomicLong time = new AtomicLong();
+        List<Float> partialTicks = new ArrayList<>();
+        EventDrivenTexture texture = makePartialTickTexture(partialTicks, new TimeStepping(1000, time::get));
+
+        time.set(TimeStepping.NANOS_PER_TICK / 4);
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(List.of(0.25f), partialTicks);
+    }
+
+    @Test
+    public void upload_AfterTick_PartialTickMeasuredFromTick() {
+        AtomicLong time = new AtomicLong();
+        List<Float> partialTicks = new ArrayList<>();
+        EventDrivenTexture texture = makePartialTickTexture(partialTicks, new TimeStepping(1000, time::get));
+
+        time.set(TimeStepping.NANOS_PER_TICK);
+        texture.tick();
+        time.addAndGet(TimeStepping.NANOS_PER_TICK / 2);
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(List.of(0.5f), partialTicks);
+    }
+
+    @Test
+    public void upload_AfterSkippedTick_PartialTickMeasuredFromSkippedTick() {
+        AtomicLong time = new AtomicLong();
+        List<Float> partialTicks = new ArrayList<>();
+        EventDrivenTexture texture = makePartialTickTexture(partialTicks, new TimeStepping(1000, time::get));
+
+        time.set(TimeStepping.NANOS_PER_TICK);
+        texture.skipTick();
+        time.addAndGet(TimeStepping.NANOS_PER_TICK / 2);
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(List.of(0.5f), partialTicks);
+    }
+
+    @Test
+    public void upload_AboveMaxRate_ExtraPartialTicksSkipped() {
+        AtomicLong time = new AtomicLong();
+        List<Float> partialTicks = new ArrayList<>();
+        EventDrivenTexture texture = makePartialTickTexture(partialTicks, new TimeStepping(100, time::get));
+
+        texture.upload(DUMMY_BASE_LOCATION);
+        time.set(5_000_000);
+        texture.upload(DUMMY_BASE_LOCATION);
+        time.set(10_000_000);
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(List.of(0f, 0.2f), partialTicks);
+    }
+
+    @Test
+    public void upload_PartialTickGeneratesFrame_FrameUploadedAgain() {
+        AtomicLong time = new AtomicLong();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onPartialTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                                      FrameGroup<? extends PersistentFrameView> predefinedFrames, float partialTick) {
+                int color = Float.floatToIntBits(partialTick);
+                currentFrame.generateWith((x, y, depFunction) -> color, Area.of(Point.pack(0, 0)));
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setTimeStepping(new TimeStepping(1000, time::get));
+        EventDrivenTexture texture = builder.build();
+
+        time.set(TimeStepping.NANOS_PER_TICK / 4);
+        texture.upload(DUMMY_BASE_LOCATION);
+        time.set(TimeStepping.NANOS_PER_TICK / 2);
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(2, generatedFrame.uploadCount());
+    }
+
+    @Test
+    public void upload_TicksPassedWithTimeStepping_WholeTicksBeforePartialTick() {
+        AtomicLong time = new AtomicLong();
+        List<String> events = new ArrayList<>();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new TextureComponent<CurrentFrameView>() {
+            @Override
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames, int ticks) {
+                events.add("ticks " + ticks);
+            }
+
+            @Override
+            public void onPartialTick(CurrentFrameView currentFrame,
+                                      FrameGroup<? extends PersistentFrameView> predefinedFrames, float partialTick) {
+                events.add("partial " + partialTick);
+            }
+        });
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        builder.setTimeStepping(new TimeStepping(1000, time::get));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.tick();
+        time.set(TimeStepping.NANOS_PER_TICK / 4);
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(List.of("ticks 2", "partial 0.25"), events);
+    }
+
+    @Test
+    public void ticksSinceUse_NotTicked_Zero() {
+        EventDrivenTexture texture = makeTextureWithoutComponents();
+        assertEquals(0, texture.ticksSinceUse());
+    }
+
+    @Test
+    public void ticksSinceUse_TickedAndSkipped_AllTicksCounted() {
+        EventDrivenTexture texture = makeTextureWithoutComponents();
+        texture.tick();
+        texture.skipTick();
+        texture.skipTick();
+        assertEquals(3, texture.ticksSinceUse());
+    }
+
+    @Test
+    public void ticksSinceUse_UploadedAfterTicks_Zero() {
+        EventDrivenTexture texture = makeTextureWithoutComponents();
+        texture.tick();
+        texture.skipTick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        assertEquals(0, texture.ticksSinceUse());
+    }
+
     @Test
     public void close_FirstClose_CloseFiredInOrder() {
         Integer[] expected = {10, 11, 12};
@@ -1071,116 +1304,785 @@ public final class EventDrivenTextureTest {
     }
 
     @Test
-    public void lowerMipmapLevel_NegativeLevel_IllegalArgException() {
+    public void generateWith_SameColorsGenerated_NotUploadedAgain() {
         EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
         builder.add(new CoreTextureComponent() {
             @Override
             public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
-                currentFrame.lowerMipmapLevel(-1);
+                currentFrame.generateWith((x, y, depFunction) -> Color.pack(100, 100, 100, 100), Area.of(Point.pack(0, 0)));
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
             }
         });
 
-        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
-        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
         EventDrivenTexture texture = builder.build();
 
-        expectedException.expect(IllegalArgumentException.class);
         texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(1, generatedFrame.uploadCount());
     }
 
     @Test
-    public void lowerMipmapLevel_AboveCurrentLevel_IllegalArgException() {
+    public void generateWith_DifferentColorsGenerated_UploadedAgain() {
+        AtomicInteger tick = new AtomicInteger();
         EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
         builder.add(new CoreTextureComponent() {
             @Override
             public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
-                currentFrame.lowerMipmapLevel(3);
+                int color = tick.incrementAndGet();
+                currentFrame.generateWith((x, y, depFunction) -> color, Area.of(Point.pack(0, 0)));
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
             }
         });
 
-        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
-        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
         EventDrivenTexture texture = builder.build();
 
-        expectedException.expect(IllegalArgumentException.class);
         texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(2, generatedFrame.uploadCount());
     }
 
     @Test
-    public void lowerMipmapLevel_BelowCurrentLevel_MipmapLowered() {
+    public void setFrameCache_Null_NullPointerException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        expectedException.expect(NullPointerException.class);
+        builder.setFrameCache(null);
+    }
+
+    @Test
+    public void generateWith_StateKeyWithoutCache_TransformAppliedEveryTick() {
+        AtomicInteger transforms = new AtomicInteger();
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        EventDrivenTexture texture = makeCachedTexture(null, transforms, generatedFrame);
+
+        for (int tick = 0; tick < 4; tick++) {
+            texture.tick();
+        }
+
+        assertEquals(4, transforms.get());
+        assertEquals(2, generatedFrame.color(0, 0));
+    }
+
+    @Test
+    public void generateWith_StateKeyRepeated_TransformAppliedOncePerKey() {
+        AtomicInteger transforms = new AtomicInteger();
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        GeneratedFrameCache cache = new GeneratedFrameCache(1024);
+        EventDrivenTexture texture = makeCachedTexture(cache, transforms, generatedFrame);
+
+        for (int tick = 0; tick < 6; tick++) {
+            texture.tick();
+            assertEquals(tick % 2 + 1, generatedFrame.color(0, 0));
+        }
+
+        assertEquals(2, transforms.get());
+        assertEquals(4, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void generateWith_CachedColorsDiffer_UploadedAgain() {
+        AtomicInteger tick = new AtomicInteger();
+        AtomicInteger transforms = new AtomicInteger();
         EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
         builder.add(new CoreTextureComponent() {
             @Override
-            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
-                currentFrame.lowerMipmapLevel(0);
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                int state = tick.getAndIncrement() % 2;
+                currentFrame.generateWith((x, y, depFunction) -> {
+                    transforms.incrementAndGet();
+                    return state + 1;
+                }, Area.of(Point.pack(0, 0)), state);
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
             }
         });
 
-        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
-        builder.setPredefinedFrames(frames);
-        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setFrameCache(new GeneratedFrameCache(1024));
         EventDrivenTexture texture = builder.build();
 
-        assertEquals(2, frames.get(0).mipmapLevel());
-        texture.tick();
-        assertEquals(0, frames.get(0).mipmapLevel());
+        for (int ticks = 0; ticks < 4; ticks++) {
+            texture.tick();
+            texture.upload(DUMMY_BASE_LOCATION);
+        }
+
+        assertEquals(2, transforms.get());
+        assertEquals(4, generatedFrame.uploadCount());
     }
 
     @Test
-    public void lowerMipmapLevel_SameAsCurrentLevel_MipmapUnchanged() {
+    public void generateWith_CacheTooSmall_TransformAppliedEveryTick() {
+        AtomicInteger transforms = new AtomicInteger();
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        EventDrivenTexture texture = makeCachedTexture(new GeneratedFrameCache(1), transforms, generatedFrame);
+
+        for (int tick = 0; tick < 4; tick++) {
+            texture.tick();
+        }
+
+        assertEquals(4, transforms.get());
+        assertEquals(2, generatedFrame.color(0, 0));
+    }
+
+    @Test
+    public void generateWith_SameKeyDifferentArea_TransformApplied() {
+        AtomicInteger transforms = new AtomicInteger();
+        AtomicInteger tick = new AtomicInteger();
         EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
-        builder.add(new CoreTextureComponent() {
+        builder.add(new TextureComponent<CurrentFrameView>() {
             @Override
-            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
-                currentFrame.lowerMipmapLevel(2);
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                Area area = new Area(0, 0, tick.incrementAndGet(), 1);
+                currentFrame.generateWith((x, y, depFunction) -> transforms.incrementAndGet(), area, 0);
             }
         });
 
-        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
-        builder.setPredefinedFrames(frames);
-        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setFrameCache(new GeneratedFrameCache(1024));
         EventDrivenTexture texture = builder.build();
 
-        assertEquals(2, frames.get(0).mipmapLevel());
         texture.tick();
-        assertEquals(2, frames.get(0).mipmapLevel());
+        texture.tick();
+
+        assertEquals(3, transforms.get());
+        assertEquals(3, generatedFrame.color(1, 0));
     }
 
     @Test
-    public void lowerMipmapLevel_AfterInvalidated_IllegalFrameReferenceException() {
+    public void generateWith_SameKeySameSizeDifferentArea_TransformApplied() {
+        AtomicInteger transforms = new AtomicInteger();
+        AtomicInteger tick = new AtomicInteger();
         EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
-        builder.add(new CoreTextureComponent() {
-            private EventDrivenTexture.TextureAndFrameView view;
-
-            @Override
-            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
-                view = currentFrame;
-            }
-
+        builder.add(new TextureComponent<CurrentFrameView>() {
             @Override
-            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
-                view.lowerMipmapLevel(0);
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                Area area = new Area(tick.getAndIncrement(), 0, 1, 1);
+                currentFrame.generateWith((x, y, depFunction) -> transforms.incrementAndGet(), area, 0);
             }
         });
 
-        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
-        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setFrameCache(new GeneratedFrameCache(1024));
         EventDrivenTexture texture = builder.build();
 
+        texture.tick();
         texture.tick();
 
-        expectedException.expect(IllegalFrameReferenceException.class);
-        texture.upload(DUMMY_BASE_LOCATION);
+        assertEquals(2, transforms.get());
+        assertEquals(1, generatedFrame.color(0, 0));
+        assertEquals(2, generatedFrame.color(1, 0));
     }
 
-    private void testExpectedOrder(Consumer<EventDrivenTexture> action, boolean flagForUpload,
-                                   Integer[] expected) {
-        EventDrivenTexture.Builder texture = new EventDrivenTexture.Builder();
-        texture.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(3)));
-        texture.setGeneratedFrame(new MockCloseableImageFrame(3));
+    @Test
+    public void close_ColorsCached_CacheInvalidated() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(1024);
+        EventDrivenTexture texture = makeCachedTexture(cache, new AtomicInteger(), new MockCloseableImageFrame(1));
 
-        final int REG_ID_BASE = 1;
-        final int UPLOAD_ID_BASE = 4;
+        texture.tick();
+        texture.tick();
+        texture.close();
+
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    public void replaceWith_NegativeIndex_FrameIndexOutOfBoundsException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(-1);
+            }
+        });
+
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        expectedException.expect(FrameIndexOutOfBoundsException.class);
+        texture.tick();
+    }
+
+    @Test
+    public void replaceWith_IndexTooLarge_FrameIndexOutOfBoundsException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(2);
+            }
+        });
+
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        expectedException.expect(FrameIndexOutOfBoundsException.class);
+        texture.tick();
+    }
+
+    @Test
+    public void replaceWith_DifferentFrame_NewFrameUploaded() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(1);
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(generatedFrame);
+        EventDrivenTexture texture = builder.build();
+
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(1, frames.get(0).uploadCount());
+        assertEquals(1, frames.get(1).uploadCount());
+        assertEquals(0, generatedFrame.uploadCount());
+    }
+
+    @Test
+    public void replaceWith_SameFrame_NotUploadedAgain() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(0);
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(1, frames.get(0).uploadCount());
+        assertEquals(0, frames.get(1).uploadCount());
+    }
+
+    @Test
+    public void replaceWith_AfterGenerated_PredefinedFrameUploaded() {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                if (tick.getAndIncrement() == 0) {
+                    currentFrame.generateWith((x, y, depFunction) -> 0, Area.of(Point.pack(0, 0)));
+                } else {
+                    currentFrame.replaceWith(0);
+                }
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(generatedFrame);
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(1, generatedFrame.uploadCount());
+        assertEquals(1, frames.get(0).uploadCount());
+    }
+
+    @Test
+    public void replaceWith_AfterInvalidated_IllegalFrameReferenceException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            private EventDrivenTexture.TextureAndFrameView view;
+
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                view = currentFrame;
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                view.replaceWith(1);
+            }
+        });
+
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+
+        expectedException.expect(IllegalFrameReferenceException.class);
+        texture.upload(DUMMY_BASE_LOCATION);
+    }
+
+    @Test
+    public void replaceWith_ApiView_PredefinedFrameUploaded() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new TextureComponent<CurrentFrameView>() {
+            @Override
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(1);
+            }
+        });
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(2), new MockCloseableImageFrame(2));
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(new MockCloseableImageFrame(2));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(0, frames.get(0).uploadCount());
+        assertEquals(1, frames.get(1).uploadCount());
+    }
+
+    @Test
+    public void replaceWith_ThenGenerated_GeneratedFromPredefinedFrame() {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new TextureComponent<CurrentFrameView>() {
+            @Override
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                if (tick.getAndIncrement() == 0) {
+                    currentFrame.replaceWith(1);
+                } else {
+                    currentFrame.generateWith((x, y, depFunction) -> 5, Area.of(Point.pack(1, 1)));
+                }
+            }
+        });
+
+        MockCloseableImageFrame secondFrame = new MockCloseableImageFrame(1);
+        secondFrame.mipmap(0).setColor(0, 0, 100);
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), secondFrame));
+        builder.setGeneratedFrame(generatedFrame);
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.tick();
+
+        assertEquals(100, generatedFrame.color(0, 0));
+        assertEquals(5, generatedFrame.color(1, 1));
+    }
+
+    @Test
+    public void replaceWith_ThenGeneratedWithKey_GeneratedFromPredefinedFrame() {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new TextureComponent<CurrentFrameView>() {
+            @Override
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                if (tick.getAndIncrement() == 0) {
+                    currentFrame.replaceWith(1);
+                } else {
+                    currentFrame.generateWith((x, y, depFunction) -> 5, Area.of(Point.pack(1, 1)), 0);
+                }
+            }
+        });
+
+        MockCloseableImageFrame secondFrame = new MockCloseableImageFrame(1);
+        secondFrame.mipmap(0).setColor(0, 0, 100);
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), secondFrame));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setFrameCache(new GeneratedFrameCache(1024));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.tick();
+
+        assertEquals(100, generatedFrame.color(0, 0));
+        assertEquals(5, generatedFrame.color(1, 1));
+    }
+
+    @Test
+    public void replaceWith_GeneratedTwice_GeneratedFrameNotReplacedAgain() {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new TextureComponent<CurrentFrameView>() {
+            @Override
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                int currentTick = tick.getAndIncrement();
+                if (currentTick == 0) {
+                    currentFrame.replaceWith(1);
+                } else {
+                    currentFrame.generateWith((x, y, depFunction) -> currentTick, Area.of(Point.pack(currentTick, 0)));
+                }
+            }
+        });
+
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.tick();
+        texture.tick();
+
+        assertEquals(1, generatedFrame.color(1, 0));
+        assertEquals(2, generatedFrame.color(2, 0));
+    }
+
+    @Test
+    public void setFrameStrips_Null_NullPointerException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        expectedException.expect(NullPointerException.class);
+        builder.setFrameStrips(null);
+    }
+
+    @Test
+    public void setFrameStrips_OnlyGenerated_StripNotCreated() {
+        AtomicInteger strips = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.generateWith((x, y, depFunction) -> 0, Area.of(Point.pack(0, 0)));
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setFrameStrips((frames) -> {
+            strips.incrementAndGet();
+            return Optional.of(new MockFrameStrip());
+        });
+        EventDrivenTexture texture = builder.build();
+
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(0, strips.get());
+        assertEquals(1, generatedFrame.uploadCount());
+    }
+
+    @Test
+    public void setFrameStrips_StripAvailable_PredefinedFramesCopiedFromStrip() {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(tick.incrementAndGet() % 2);
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(3, 4, 0, 0, 0, 100, 100);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        MockFrameStrip strip = new MockFrameStrip();
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        builder.setFrameStrips((stripFrames) -> {
+            assertEquals(frames, stripFrames);
+            return Optional.of(strip);
+        });
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(0, frames.get(0).uploadCount());
+        assertEquals(0, frames.get(1).uploadCount());
+        assertEquals(List.of(1, 0), strip.COPIED_FRAMES);
+        assertEquals(Point.pack(3, 4), strip.lastCopyPoint);
+    }
+
+    @Test
+    public void setFrameStrips_StripUnavailable_PredefinedFramesUploaded() {
+        AtomicInteger strips = new AtomicInteger();
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(tick.incrementAndGet() % 2);
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        builder.setFrameStrips((stripFrames) -> {
+            strips.incrementAndGet();
+            return Optional.empty();
+        });
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(1, strips.get());
+        assertEquals(1, frames.get(0).uploadCount());
+        assertEquals(1, frames.get(1).uploadCount());
+    }
+
+    @Test
+    public void setFrameStrips_AfterGenerated_GeneratedFrameUploaded() {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                if (tick.getAndIncrement() == 0) {
+                    currentFrame.replaceWith(1);
+                } else {
+                    currentFrame.generateWith((x, y, depFunction) -> 0, Area.of(Point.pack(0, 0)));
+                }
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        MockCloseableImageFrame generatedFrame = new MockCloseableImageFrame(1);
+        MockFrameStrip strip = new MockFrameStrip();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        builder.setFrameStrips((stripFrames) -> Optional.of(strip));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+
+        assertEquals(List.of(1), strip.COPIED_FRAMES);
+        assertEquals(1, generatedFrame.uploadCount());
+    }
+
+    @Test
+    public void setFrameStrips_TextureClosed_StripClosed() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.replaceWith(1);
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                currentFrame.upload(0, 0, 0, 0, 0, 100, 100);
+            }
+        });
+
+        MockFrameStrip strip = new MockFrameStrip();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        builder.setFrameStrips((stripFrames) -> Optional.of(strip));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+        texture.upload(DUMMY_BASE_LOCATION);
+        texture.close();
+
+        assertTrue(strip.closed);
+    }
+
+    @Test
+    public void lowerMipmapLevel_NegativeLevel_IllegalArgException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.lowerMipmapLevel(-1);
+            }
+        });
+
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        expectedException.expect(IllegalArgumentException.class);
+        texture.tick();
+    }
+
+    @Test
+    public void lowerMipmapLevel_AboveCurrentLevel_IllegalArgException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.lowerMipmapLevel(3);
+            }
+        });
+
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        expectedException.expect(IllegalArgumentException.class);
+        texture.tick();
+    }
+
+    @Test
+    public void lowerMipmapLevel_BelowCurrentLevel_MipmapLowered() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.lowerMipmapLevel(0);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        assertEquals(2, frames.get(0).mipmapLevel());
+        texture.tick();
+        assertEquals(0, frames.get(0).mipmapLevel());
+    }
+
+    @Test
+    public void lowerMipmapLevel_SameAsCurrentLevel_MipmapUnchanged() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                currentFrame.lowerMipmapLevel(2);
+            }
+        });
+
+        List<MockCloseableImageFrame> frames = ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1));
+        builder.setPredefinedFrames(frames);
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        assertEquals(2, frames.get(0).mipmapLevel());
+        texture.tick();
+        assertEquals(2, frames.get(0).mipmapLevel());
+    }
+
+    @Test
+    public void lowerMipmapLevel_AfterInvalidated_IllegalFrameReferenceException() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            private EventDrivenTexture.TextureAndFrameView view;
+
+            @Override
+            public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame, FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                view = currentFrame;
+            }
+
+            @Override
+            public void onUpload(EventDrivenTexture.TextureAndFrameView currentFrame, ResourceLocation baseLocation) {
+                view.lowerMipmapLevel(0);
+            }
+        });
+
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1), new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        EventDrivenTexture texture = builder.build();
+
+        texture.tick();
+
+        expectedException.expect(IllegalFrameReferenceException.class);
+        texture.upload(DUMMY_BASE_LOCATION);
+    }
+
+    private void testExpectedOrder(Consumer<EventDrivenTexture> action, boolean flagForUpload,
+                                   Integer[] expected) {
+        EventDrivenTexture.Builder texture = new EventDrivenTexture.Builder();
+        texture.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(3)));
+        texture.setGeneratedFrame(new MockCloseableImageFrame(3));
+
+        final int REG_ID_BASE = 1;
+        final int UPLOAD_ID_BASE = 4;
         final int TICK_ID_BASE = 7;
         final int CLOSE_ID_BASE = 10;
         final int TICK_2_ID_BASE = 13;
@@ -1226,4 +2128,75 @@ public final class EventDrivenTextureTest {
         assertArrayEquals(expected, execOrder.toArray(new Integer[expected.length]));
     }
 
+    private EventDrivenTexture makePartialTickTexture(List<Float> partialTicks, TimeStepping timeStepping) {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new CoreTextureComponent() {
+            @Override
+            public void onPartialTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                                      FrameGroup<? extends PersistentFrameView> predefinedFrames, float partialTick) {
+                partialTicks.add(partialTick);
+            }
+        });
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        if (timeStepping != null) {
+            builder.setTimeStepping(timeStepping);
+        }
+
+        return builder.build();
+    }
+
+    private EventDrivenTexture makeCachedTexture(GeneratedFrameCache cache, AtomicInteger transforms,
+                                                 MockCloseableImageFrame generatedFrame) {
+        AtomicInteger tick = new AtomicInteger();
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.add(new TextureComponent<CurrentFrameView>() {
+            @Override
+            public void onTick(CurrentFrameView currentFrame,
+                               FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                int state = tick.getAndIncrement() % 2;
+                currentFrame.generateWith((x, y, depFunction) -> {
+                    transforms.incrementAndGet();
+                    return state + 1;
+                }, Area.of(Point.pack(0, 0)), state);
+            }
+        });
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(generatedFrame);
+        if (cache != null) {
+            builder.setFrameCache(cache);
+        }
+
+        return builder.build();
+    }
+
+    private EventDrivenTexture makeTextureWithoutComponents() {
+        EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+        builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+        builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+        return builder.build();
+    }
+
+    /**
+     * Records the frames copied from a strip.
+     * @author soir20
+     */
+    private static final class MockFrameStrip implements FrameStrip {
+        private final List<Integer> COPIED_FRAMES = new ArrayList<>();
+        private long lastCopyPoint;
+        private boolean closed;
+
+        @Override
+        public void copy(int frameIndex, int x, int y, int mipmap, int subAreaX, int subAreaY, int subAreaWidth,
+                         int subAreaHeight) {
+            COPIED_FRAMES.add(frameIndex);
+            lastCopyPoint = Point.pack(x, y);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
 }
\ No newline at end of file
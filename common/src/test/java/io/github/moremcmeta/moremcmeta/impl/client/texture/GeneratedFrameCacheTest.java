@@ -0,0 +1,255 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import io.github.moremcmeta.moremcmeta.api.math.Area;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the {@link GeneratedFrameCache}.
+ * @author soir20
+ */
+public final class GeneratedFrameCacheTest {
+    private static final Object OWNER = new Object();
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_ZeroBytes_IllegalArgException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new GeneratedFrameCache(0);
+    }
+
+    @Test
+    public void construct_NegativeBytes_IllegalArgException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new GeneratedFrameCache(-1);
+    }
+
+    @Test
+    public void get_NullOwner_NullPointerException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(NullPointerException.class);
+        cache.get(null, 0, 0, area(1));
+    }
+
+    @Test
+    public void put_NullOwner_NullPointerException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(NullPointerException.class);
+        cache.put(null, 0, 0, area(1), new int[1]);
+    }
+
+    @Test
+    public void get_NullArea_NullPointerException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(NullPointerException.class);
+        cache.get(OWNER, 0, 0, null);
+    }
+
+    @Test
+    public void put_NullArea_NullPointerException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(NullPointerException.class);
+        cache.put(OWNER, 0, 0, null, new int[1]);
+    }
+
+    @Test
+    public void put_ColorsDoNotMatchArea_IllegalArgException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(IllegalArgumentException.class);
+        cache.put(OWNER, 0, 0, area(2), new int[1]);
+    }
+
+    @Test
+    public void put_NullColors_NullPointerException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(NullPointerException.class);
+        cache.put(OWNER, 0, 0, area(1), null);
+    }
+
+    @Test
+    public void invalidate_NullOwner_NullPointerException() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        expectedException.expect(NullPointerException.class);
+        cache.invalidate(null);
+    }
+
+    @Test
+    public void get_NothingStored_NullAndMissCounted() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+
+        assertNull(cache.get(OWNER, 0, 0, area(1)));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void get_ColorsStored_ColorsAndHitCounted() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertArrayEquals(new int[] { 1, 2, 3 }, cache.get(OWNER, 0, 5, area(3)));
+        assertEquals(1, cache.hits());
+        assertEquals(0, cache.misses());
+        assertEquals(12, cache.bytes());
+    }
+
+    @Test
+    public void get_EqualAreaDifferentInstance_ColorsReturned() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertArrayEquals(new int[] { 1, 2, 3 }, cache.get(OWNER, 0, 5, area(3)));
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void get_SameSizeDifferentArea_NullAndMissCounted() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertNull(cache.get(OWNER, 0, 5, new Area(0, 1, 3, 1)));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void get_DifferentState_Null() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertNull(cache.get(OWNER, 0, 6, area(3)));
+    }
+
+    @Test
+    public void get_DifferentLayer_Null() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertNull(cache.get(OWNER, 1, 5, area(3)));
+    }
+
+    @Test
+    public void get_DifferentOwner_Null() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertNull(cache.get(new Object(), 0, 5, area(3)));
+    }
+
+    @Test
+    public void put_SameState_ColorsAndBytesReplaced() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+        cache.put(OWNER, 0, 5, area(1), new int[] { 4 });
+
+        assertArrayEquals(new int[] { 4 }, cache.get(OWNER, 0, 5, area(1)));
+        assertEquals(4, cache.bytes());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    public void put_LargerThanLimit_NotStored() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(8);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertNull(cache.get(OWNER, 0, 5, area(3)));
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    public void put_ExactlyAtLimit_Stored() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(12);
+        cache.put(OWNER, 0, 5, area(3), new int[] { 1, 2, 3 });
+
+        assertArrayEquals(new int[] { 1, 2, 3 }, cache.get(OWNER, 0, 5, area(3)));
+        assertEquals(12, cache.bytes());
+    }
+
+    @Test
+    public void put_OverLimit_LeastRecentlyUsedEvicted() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(12);
+        cache.put(OWNER, 0, 1, area(1), new int[] { 1 });
+        cache.put(OWNER, 0, 2, area(1), new int[] { 2 });
+        cache.put(OWNER, 0, 3, area(1), new int[] { 3 });
+        cache.get(OWNER, 0, 1, area(1));
+
+        cache.put(OWNER, 0, 4, area(1), new int[] { 4 });
+
+        assertArrayEquals(new int[] { 1 }, cache.get(OWNER, 0, 1, area(1)));
+        assertNull(cache.get(OWNER, 0, 2, area(1)));
+        assertArrayEquals(new int[] { 3 }, cache.get(OWNER, 0, 3, area(1)));
+        assertArrayEquals(new int[] { 4 }, cache.get(OWNER, 0, 4, area(1)));
+        assertEquals(12, cache.bytes());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    public void put_LargeColorsOverLimit_SeveralEvicted() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(12);
+        cache.put(OWNER, 0, 1, area(1), new int[] { 1 });
+        cache.put(OWNER, 0, 2, area(1), new int[] { 2 });
+        cache.put(OWNER, 0, 3, area(1), new int[] { 3 });
+
+        cache.put(OWNER, 0, 4, area(2), new int[] { 4, 5 });
+
+        assertNull(cache.get(OWNER, 0, 1, area(1)));
+        assertNull(cache.get(OWNER, 0, 2, area(1)));
+        assertArrayEquals(new int[] { 3 }, cache.get(OWNER, 0, 3, area(1)));
+        assertArrayEquals(new int[] { 4, 5 }, cache.get(OWNER, 0, 4, area(2)));
+        assertEquals(12, cache.bytes());
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test
+    public void invalidate_TwoOwners_OnlyOwnerColorsRemoved() {
+        GeneratedFrameCache cache = new GeneratedFrameCache(100);
+        Object otherOwner = new Object();
+        cache.put(OWNER, 0, 1, area(1), new int[] { 1 });
+        cache.put(OWNER, 1, 1, area(1), new int[] { 2 });
+        cache.put(otherOwner, 0, 1, area(1), new int[] { 3 });
+
+        cache.invalidate(OWNER);
+
+        assertNull(cache.get(OWNER, 0, 1, area(1)));
+        assertNull(cache.get(OWNER, 1, 1, area(1)));
+        assertArrayEquals(new int[] { 3 }, cache.get(otherOwner, 0, 1, area(1)));
+        assertEquals(4, cache.bytes());
+        assertEquals(0, cache.evictions());
+    }
+
+    private static Area area(int width) {
+        return new Area(0, 0, width, 1);
+    }
+
+}
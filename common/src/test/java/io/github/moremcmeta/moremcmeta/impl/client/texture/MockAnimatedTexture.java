@@ -27,17 +27,47 @@ import net.minecraft.server.packs.resources.ResourceManager;
  */
 @MethodsReturnNonnullByDefault
 public class MockAnimatedTexture extends AbstractTexture implements CustomTickable {
+    private final Runnable TICK_ACTION;
     private int ticks;
+    private int skippedTicks;
+    private int ticksSinceUse;
+
+    public MockAnimatedTexture() {
+        this(() -> {});
+    }
+
+    public MockAnimatedTexture(Runnable tickAction) {
+        TICK_ACTION = tickAction;
+    }
 
     @Override
     public void tick() {
+        TICK_ACTION.run();
         ticks++;
     }
 
+    @Override
+    public void skipTick() {
+        skippedTicks++;
+    }
+
+    @Override
+    public int ticksSinceUse() {
+        return ticksSinceUse;
+    }
+
     public int ticks() {
         return ticks;
     }
 
+    public int skippedTicks() {
+        return skippedTicks;
+    }
+
+    public void setTicksSinceUse(int ticksSinceUse) {
+        this.ticksSinceUse = ticksSinceUse;
+    }
+
     @Override
     public void load(ResourceManager resourceManager) {}
 
@@ -127,6 +127,20 @@ public final class MockCloseableImage implements CloseableImage {
         UPLOAD_POINT[0] = Point.pack(uploadX, uploadY);
     }
 
+    @Override
+    public void upload(int uploadX, int uploadY, int topLeftX, int topLeftY, int width, int height) {
+        if (CLOSED.get()) {
+            throw new IllegalStateException("Mock image closed");
+        }
+
+        if (topLeftX < 0 || topLeftY < 0 || width < 0 || height < 0
+                || topLeftX + width > WIDTH || topLeftY + height > HEIGHT) {
+            throw new MockSubImageOutsideOriginalException();
+        }
+
+        UPLOAD_POINT[0] = Point.pack(uploadX, uploadY);
+    }
+
     @Override
     public CloseableImage subImage(int topLeftX, int topLeftY, int width, int height) {
         return new MockCloseableImage(PIXELS, topLeftX, topLeftY, width, height, UPLOAD_POINT, CLOSED);
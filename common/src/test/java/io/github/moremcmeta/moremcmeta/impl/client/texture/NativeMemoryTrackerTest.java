@@ -0,0 +1,350 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableMap;
+import io.github.moremcmeta.moremcmeta.api.math.Point;
+import net.minecraft.resources.ResourceLocation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link NativeMemoryTracker}.
+ * @author soir20
+ */
+public final class NativeMemoryTrackerTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ResourceLocation TEXTURE = new ResourceLocation("textures/block/stone.png");
+    private static final ResourceLocation OTHER_TEXTURE = new ResourceLocation("textures/block/dirt.png");
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullLogger_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new NativeMemoryTracker(null);
+    }
+
+    @Test
+    public void newOwner_NullTexture_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.newOwner(null);
+    }
+
+    @Test
+    public void newOwner_TextureGiven_OwnerHasTexture() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        assertSame(TEXTURE, tracker.newOwner(TEXTURE).texture());
+    }
+
+    @Test
+    public void track_NullOwner_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.track(null, new MockCloseableImage(), 0);
+    }
+
+    @Test
+    public void track_NullImage_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.track(tracker.newOwner(TEXTURE), null, 0);
+    }
+
+    @Test
+    public void track_NegativeMipmapLevel_IllegalArgException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(IllegalArgumentException.class);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(), -1);
+    }
+
+    @Test
+    public void track_MipmapLevelTooLarge_IllegalArgException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(IllegalArgumentException.class);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(), 32);
+    }
+
+    @Test
+    public void track_NoImages_NoLiveBytes() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        assertEquals(0, tracker.liveBytes());
+        assertEquals(0, tracker.liveBytes(TEXTURE));
+        assertEquals(0, tracker.liveBytes(TEXTURE, 0));
+        assertEquals(0, tracker.liveImages());
+        assertEquals(0, tracker.peakBytes());
+        assertEquals(ImmutableMap.of(), tracker.liveBytesByTexture());
+    }
+
+    @Test
+    public void track_SeveralMipmapLevels_BytesTrackedByLevel() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        tracker.track(owner, new MockCloseableImage(16, 8), 0);
+        tracker.track(owner, new MockCloseableImage(8, 4), 1);
+        tracker.track(owner, new MockCloseableImage(4, 2), 2);
+
+        assertEquals(16 * 8 * 4, tracker.liveBytes(TEXTURE, 0));
+        assertEquals(8 * 4 * 4, tracker.liveBytes(TEXTURE, 1));
+        assertEquals(4 * 2 * 4, tracker.liveBytes(TEXTURE, 2));
+        assertEquals(0, tracker.liveBytes(TEXTURE, 3));
+        assertEquals((16 * 8 + 8 * 4 + 4 * 2) * 4, tracker.liveBytes(TEXTURE));
+        assertEquals((16 * 8 + 8 * 4 + 4 * 2) * 4, tracker.liveBytes());
+        assertEquals(3, tracker.liveImages());
+    }
+
+    @Test
+    public void liveBytes_NullTexture_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.liveBytes(null);
+    }
+
+    @Test
+    public void liveBytes_NullTextureWithLevel_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.liveBytes(null, 0);
+    }
+
+    @Test
+    public void liveBytes_LevelOutOfRange_Zero() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(), 0);
+        assertEquals(0, tracker.liveBytes(TEXTURE, -1));
+        assertEquals(0, tracker.liveBytes(TEXTURE, 32));
+    }
+
+    @Test
+    public void liveBytes_TwoOwnersSameTexture_BytesCombined() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(10, 10), 0);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(5, 5), 0);
+        assertEquals((10 * 10 + 5 * 5) * 4, tracker.liveBytes(TEXTURE));
+    }
+
+    @Test
+    public void liveBytesByTexture_SomeTexturesClosed_OnlyOpenTexturesIncluded() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(10, 10), 0);
+        tracker.track(tracker.newOwner(OTHER_TEXTURE), new MockCloseableImage(5, 5), 0).close();
+        assertEquals(ImmutableMap.of(TEXTURE, 10L * 10 * 4), tracker.liveBytesByTexture());
+    }
+
+    @Test
+    public void close_TrackedImage_BytesReleasedAndImageClosed() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        MockCloseableImage image = new MockCloseableImage(10, 10);
+        tracker.track(tracker.newOwner(TEXTURE), image, 0).close();
+
+        assertTrue(image.isClosed());
+        assertEquals(0, tracker.liveBytes());
+        assertEquals(0, tracker.liveBytes(TEXTURE));
+        assertEquals(0, tracker.liveImages());
+    }
+
+    @Test
+    public void close_ClosedTwice_BytesReleasedOnce() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        tracker.track(owner, new MockCloseableImage(10, 10), 0);
+        CloseableImage image = tracker.track(owner, new MockCloseableImage(5, 5), 0);
+        image.close();
+        image.close();
+
+        assertEquals(10 * 10 * 4, tracker.liveBytes());
+        assertEquals(1, tracker.liveImages());
+    }
+
+    @Test
+    public void close_SubImageClosed_WholeImageReleased() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        MockCloseableImage image = new MockCloseableImage(10, 10);
+        CloseableImage tracked = tracker.track(tracker.newOwner(TEXTURE), image, 0);
+        tracked.subImage(2, 2, 4, 4).subImage(1, 1, 2, 2).close();
+
+        assertTrue(image.isClosed());
+        assertEquals(0, tracker.liveBytes());
+        assertEquals(0, tracker.liveImages());
+    }
+
+    @Test
+    public void close_SubImageAndImageClosed_BytesReleasedOnce() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        tracker.track(owner, new MockCloseableImage(3, 3), 0);
+        CloseableImage tracked = tracker.track(owner, new MockCloseableImage(10, 10), 0);
+        tracked.subImage(0, 0, 5, 5).close();
+        tracked.close();
+
+        assertEquals(3 * 3 * 4, tracker.liveBytes());
+    }
+
+    @Test
+    public void peakBytes_ImagesClosed_PeakKept() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        CloseableImage first = tracker.track(owner, new MockCloseableImage(10, 10), 0);
+        CloseableImage second = tracker.track(owner, new MockCloseableImage(5, 5), 1);
+        first.close();
+        second.close();
+
+        assertEquals((10 * 10 + 5 * 5) * 4, tracker.peakBytes());
+    }
+
+    @Test
+    public void resetPeak_ImagesStillOpen_PeakIsLiveBytes() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        tracker.track(owner, new MockCloseableImage(10, 10), 0);
+        tracker.track(owner, new MockCloseableImage(5, 5), 1).close();
+        tracker.resetPeak();
+
+        assertEquals(10 * 10 * 4, tracker.peakBytes());
+    }
+
+    @Test
+    public void trackCleanup_NullOwner_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.trackCleanup(null, () -> {});
+    }
+
+    @Test
+    public void trackCleanup_NullAction_NullPointerException() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        expectedException.expect(NullPointerException.class);
+        tracker.trackCleanup(tracker.newOwner(TEXTURE), null);
+    }
+
+    @Test
+    public void trackCleanup_Run_ActionRun() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        AtomicBoolean ran = new AtomicBoolean();
+        tracker.trackCleanup(tracker.newOwner(TEXTURE), () -> ran.set(true)).run();
+        assertTrue(ran.get());
+    }
+
+    @Test
+    public void trackCleanup_ImagesClosedByAction_NoLateCloses() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        CloseableImage image = tracker.track(owner, new MockCloseableImage(), 0);
+        tracker.trackCleanup(owner, image::close).run();
+
+        assertEquals(0, tracker.lateCloses());
+        assertEquals(0, tracker.liveBytes());
+    }
+
+    @Test
+    public void trackCleanup_ImageClosedAfterAction_LateCloseCounted() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        CloseableImage image = tracker.track(owner, new MockCloseableImage(), 0);
+        tracker.trackCleanup(owner, () -> {}).run();
+
+        assertEquals(0, tracker.lateCloses());
+        image.close();
+        assertEquals(1, tracker.lateCloses());
+    }
+
+    @Test
+    public void trackCleanup_OtherOwnerCleanedUp_NoLateCloses() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        CloseableImage image = tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(), 0);
+        tracker.trackCleanup(tracker.newOwner(TEXTURE), () -> {}).run();
+        image.close();
+
+        assertEquals(0, tracker.lateCloses());
+    }
+
+    @Test
+    public void logLeaks_NoImages_NoLeaks() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        assertEquals(0, tracker.logLeaks());
+    }
+
+    @Test
+    public void logLeaks_AllImagesClosed_NoLeaks() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        tracker.track(owner, new MockCloseableImage(), 0).close();
+        tracker.track(owner, new MockCloseableImage(), 1).close();
+        assertEquals(0, tracker.logLeaks());
+    }
+
+    @Test
+    public void logLeaks_SomeOwnersHaveOpenImages_LeaksCountedByOwner() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner first = tracker.newOwner(TEXTURE);
+        tracker.track(first, new MockCloseableImage(), 0);
+        tracker.track(first, new MockCloseableImage(), 1);
+        tracker.track(tracker.newOwner(TEXTURE), new MockCloseableImage(), 0);
+        tracker.track(tracker.newOwner(OTHER_TEXTURE), new MockCloseableImage(), 0).close();
+
+        assertEquals(2, tracker.logLeaks());
+    }
+
+    @Test
+    public void color_TrackedImage_SameAsOriginal() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        MockCloseableImage image = new MockCloseableImage(10, 10);
+        CloseableImage tracked = tracker.track(tracker.newOwner(TEXTURE), image, 0);
+        tracked.setColor(3, 4, 100);
+
+        assertEquals(100, image.color(3, 4));
+        assertEquals(100, tracked.color(3, 4));
+        assertEquals(100, tracked.subImage(0, 0, 5, 5).color(3, 4));
+        assertEquals(10, tracked.width());
+        assertEquals(10, tracked.height());
+    }
+
+    @Test
+    public void copyFrom_OtherTrackedImage_PixelsCopied() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        NativeMemoryTracker.Owner owner = tracker.newOwner(TEXTURE);
+        MockCloseableImage source = new MockCloseableImage(5, 5);
+        source.setColor(2, 2, 100);
+        MockCloseableImage destination = new MockCloseableImage(5, 5);
+        tracker.track(owner, destination, 0).copyFrom(tracker.track(owner, source, 0));
+
+        assertEquals(100, destination.color(2, 2));
+    }
+
+    @Test
+    public void upload_TrackedImage_OriginalUploaded() {
+        NativeMemoryTracker tracker = new NativeMemoryTracker(LOGGER);
+        MockCloseableImage image = new MockCloseableImage(10, 10);
+        tracker.track(tracker.newOwner(TEXTURE), image, 0).upload(3, 4);
+
+        assertEquals(Long.valueOf(Point.pack(3, 4)), image.lastUploadPoint());
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import net.minecraft.resources.ResourceLocation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TextureInstrumentation}.
+ * @author soir20
+ */
+public final class TextureInstrumentationTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_NullNames_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureInstrumentation(null);
+    }
+
+    @Test
+    public void construct_NamesModifiedAfter_CopiedNamesUnchanged() {
+        List<String> names = new ArrayList<>(List.of("first", "second"));
+        TextureInstrumentation instrumentation = new TextureInstrumentation(names);
+        names.add("third");
+
+        assertEquals(ImmutableList.of("first", "second"), instrumentation.componentNames());
+    }
+
+    @Test
+    public void histogram_NegativeLayer_IllegalArgException() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        expectedException.expect(IllegalArgumentException.class);
+        instrumentation.histogram(-1, TextureInstrumentation.Event.TICK);
+    }
+
+    @Test
+    public void histogram_LayerTooLarge_IllegalArgException() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        expectedException.expect(IllegalArgumentException.class);
+        instrumentation.histogram(1, TextureInstrumentation.Event.TICK);
+    }
+
+    @Test
+    public void histogram_NullEvent_NullPointerException() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        expectedException.expect(NullPointerException.class);
+        instrumentation.histogram(0, null);
+    }
+
+    @Test
+    public void recordEvent_DifferentLayersAndEvents_RecordedSeparately() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first", "second"));
+        instrumentation.recordEvent(0, TextureInstrumentation.Event.TICK, 10);
+        instrumentation.recordEvent(0, TextureInstrumentation.Event.TICK, 20);
+        instrumentation.recordEvent(1, TextureInstrumentation.Event.UPLOAD, 40);
+
+        assertEquals(2, instrumentation.histogram(0, TextureInstrumentation.Event.TICK).count());
+        assertEquals(0, instrumentation.histogram(0, TextureInstrumentation.Event.UPLOAD).count());
+        assertEquals(0, instrumentation.histogram(1, TextureInstrumentation.Event.TICK).count());
+        assertEquals(40, instrumentation.histogram(1, TextureInstrumentation.Event.UPLOAD).totalNanos());
+        assertEquals(70, instrumentation.totalNanos());
+    }
+
+    @Test
+    public void recordTransform_TwoLayers_CountedPerLayerAndTotal() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first", "second"));
+        instrumentation.recordTransform(0, 5);
+        instrumentation.recordTransform(0, 6);
+        instrumentation.recordTransform(1, 100);
+
+        assertEquals(11, instrumentation.pixelsTransformed(0));
+        assertEquals(100, instrumentation.pixelsTransformed(1));
+        assertEquals(111, instrumentation.pixelsTransformed());
+    }
+
+    @Test
+    public void recordTransform_LayerTooLarge_IllegalArgException() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        expectedException.expect(IllegalArgumentException.class);
+        instrumentation.recordTransform(1, 5);
+    }
+
+    @Test
+    public void recordUpload_NoMipmaps_OnlyBaseCounted() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        instrumentation.recordUpload(0, 16, 8);
+
+        assertEquals(1, instrumentation.uploads());
+        assertEquals(128, instrumentation.pixelsUploaded());
+        assertEquals(512, instrumentation.bytesUploaded());
+    }
+
+    @Test
+    public void recordUpload_Mipmaps_AllLevelsCounted() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        instrumentation.recordUpload(2, 16, 8);
+
+        assertEquals(1, instrumentation.uploads());
+        assertEquals(128 + 32 + 8, instrumentation.pixelsUploaded());
+    }
+
+    @Test
+    public void recordUpload_MipmapsSmallerThanOnePixel_NotCounted() {
+        TextureInstrumentation instrumentation = new TextureInstrumentation(List.of("first"));
+        instrumentation.recordUpload(4, 4, 2);
+
+        assertEquals(8 + 2, instrumentation.pixelsUploaded());
+    }
+
+    @Test
+    public void summary_NullTextures_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        TextureInstrumentation.summary(null, 5);
+    }
+
+    @Test
+    public void summary_NegativeLimit_IllegalArgException() {
+        expectedException.expect(IllegalArgumentException.class);
+        TextureInstrumentation.summary(ImmutableMap.of(), -1);
+    }
+
+    @Test
+    public void summary_MoreTexturesThanLimit_MostExpensiveFirst() {
+        List<String> lines = TextureInstrumentation.summary(makeTextures(), 2);
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("minecraft:slow.png"));
+        assertTrue(lines.get(1).startsWith("minecraft:medium.png"));
+    }
+
+    @Test
+    public void report_NullTextures_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        TextureInstrumentation.report(null, 5);
+    }
+
+    @Test
+    public void report_SeveralTextures_RecordedEventsListed() {
+        List<String> lines = TextureInstrumentation.report(makeTextures(), 1);
+
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("3 textures"));
+        assertTrue(lines.get(1).startsWith("minecraft:slow.png"));
+        assertTrue(lines.get(2).contains("plugin tick: 1 calls"));
+    }
+
+    /**
+     * Makes instrumentation for three textures that spent different amounts of time ticking.
+     * @return instrumentation by texture location
+     */
+    private static ImmutableMap<ResourceLocation, TextureInstrumentation> makeTextures() {
+        TextureInstrumentation fast = new TextureInstrumentation(List.of("plugin"));
+        fast.recordEvent(0, TextureInstrumentation.Event.TICK, 10);
+
+        TextureInstrumentation slow = new TextureInstrumentation(List.of("plugin"));
+        slow.recordEvent(0, TextureInstrumentation.Event.TICK, 1000);
+
+        TextureInstrumentation medium = new TextureInstrumentation(List.of("plugin"));
+        medium.recordEvent(0, TextureInstrumentation.Event.TICK, 100);
+
+        return ImmutableMap.of(
+                new ResourceLocation("fast.png"), fast,
+                new ResourceLocation("slow.png"), slow,
+                new ResourceLocation("medium.png"), medium
+        );
+    }
+
+}
@@ -17,12 +17,19 @@
 
 package io.github.moremcmeta.moremcmeta.impl.client.texture;
 
+import com.google.common.collect.ImmutableList;
+import io.github.moremcmeta.moremcmeta.api.client.texture.FrameGroup;
+import io.github.moremcmeta.moremcmeta.api.client.texture.PersistentFrameView;
 import net.minecraft.client.renderer.texture.AbstractTexture;
 import net.minecraft.resources.ResourceLocation;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.Assert.*;
 
 /**
@@ -152,4 +159,215 @@ public final class TextureManagerWrapperTest {
         wrapper.tick();
     }
 
+    @Test
+    public void construct_NegativeBudget_IllegalArgException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new TextureManagerWrapper<>(new MockManager<>(), -1);
+    }
+
+    @Test
+    public void construct_NullTimeGetter_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TextureManagerWrapper<>(new MockManager<>(), 10, null);
+    }
+
+    @Test
+    public void tick_NoBudgetAndSlowTextures_AllTicked() {
+        AtomicLong time = new AtomicLong();
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                TextureManagerWrapper.NO_BUDGET,
+                time::get
+        );
+        List<MockAnimatedTexture> textures = registerTextures(wrapper, 5, () -> time.addAndGet(1000));
+
+        wrapper.tick();
+
+        textures.forEach((texture) -> {
+            assertEquals(1, texture.ticks());
+            assertEquals(0, texture.skippedTicks());
+        });
+        assertEquals(0, wrapper.skippedTicks());
+    }
+
+    @Test
+    public void tick_WithinBudget_AllTicked() {
+        AtomicLong time = new AtomicLong();
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                100,
+                time::get
+        );
+        List<MockAnimatedTexture> textures = registerTextures(wrapper, 5, () -> time.addAndGet(10));
+
+        wrapper.tick();
+
+        textures.forEach((texture) -> {
+            assertEquals(1, texture.ticks());
+            assertEquals(0, texture.skippedTicks());
+        });
+        assertEquals(0, wrapper.skippedTicks());
+    }
+
+    @Test
+    public void tick_BudgetExceeded_RemainingTexturesSkipped() {
+        AtomicLong time = new AtomicLong();
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                25,
+                time::get
+        );
+        List<MockAnimatedTexture> textures = registerTextures(wrapper, 5, () -> time.addAndGet(10));
+
+        wrapper.tick();
+
+        assertEquals(3, textures.stream().mapToInt(MockAnimatedTexture::ticks).sum());
+        assertEquals(2, textures.stream().mapToInt(MockAnimatedTexture::skippedTicks).sum());
+        textures.forEach((texture) -> assertEquals(1, texture.ticks() + texture.skippedTicks()));
+        assertEquals(2, wrapper.skippedTicks());
+    }
+
+    @Test
+    public void tick_RecentlyUsedTexture_TickedFirst() {
+        AtomicLong time = new AtomicLong();
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                5,
+                time::get
+        );
+        List<MockAnimatedTexture> textures = registerTextures(wrapper, 5, () -> time.addAndGet(10));
+        textures.forEach((texture) -> texture.setTicksSinceUse(3));
+        textures.get(3).setTicksSinceUse(0);
+
+        wrapper.tick();
+
+        for (int index = 0; index < textures.size(); index++) {
+            assertEquals(index == 3 ? 1 : 0, textures.get(index).ticks());
+            assertEquals(index == 3 ? 0 : 1, textures.get(index).skippedTicks());
+        }
+    }
+
+    @Test
+    public void tick_BudgetExceededRepeatedly_EveryTextureTickedInTurn() {
+        AtomicLong time = new AtomicLong();
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                5,
+                time::get
+        );
+        List<MockAnimatedTexture> textures = registerTextures(wrapper, 4, () -> time.addAndGet(10));
+        textures.forEach((texture) -> texture.setTicksSinceUse(1));
+
+        for (int tick = 0; tick < 4; tick++) {
+            wrapper.tick();
+        }
+
+        textures.forEach((texture) -> {
+            assertEquals(1, texture.ticks());
+            assertEquals(3, texture.skippedTicks());
+        });
+        assertEquals(12, wrapper.skippedTicks());
+    }
+
+    @Test
+    public void tick_TextureRegisteredBetweenBudgetedTicks_NewTextureTicked() {
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                1000,
+                () -> 0
+        );
+        MockAnimatedTexture first = new MockAnimatedTexture();
+        wrapper.register(new ResourceLocation("bat.png"), first);
+        wrapper.tick();
+
+        MockAnimatedTexture second = new MockAnimatedTexture();
+        wrapper.register(new ResourceLocation("cat.png"), second);
+        wrapper.tick();
+
+        assertEquals(2, first.ticks());
+        assertEquals(1, second.ticks());
+    }
+
+    @Test
+    public void tick_TextureUnregisteredBetweenBudgetedTicks_TextureNotTicked() {
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                1000,
+                () -> 0
+        );
+        MockAnimatedTexture first = new MockAnimatedTexture();
+        wrapper.register(new ResourceLocation("bat.png"), first);
+        MockAnimatedTexture second = new MockAnimatedTexture();
+        wrapper.register(new ResourceLocation("cat.png"), second);
+        wrapper.tick();
+
+        wrapper.unregister(new ResourceLocation("cat.png"));
+        wrapper.tick();
+
+        assertEquals(2, first.ticks());
+        assertEquals(1, second.ticks());
+    }
+
+    @Test
+    public void tick_BudgetedNoneRegistered_NoException() {
+        TextureManagerWrapper<MockAnimatedTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                1000,
+                () -> 0
+        );
+        wrapper.tick();
+        assertEquals(0, wrapper.skippedTicks());
+    }
+
+    @Test
+    public void tick_BudgetExceededWithPerTickComponents_EveryTickDelivered() {
+        AtomicLong time = new AtomicLong();
+        TextureManagerWrapper<EventDrivenTexture> wrapper = new TextureManagerWrapper<>(
+                new MockManager<>(),
+                5,
+                time::get
+        );
+
+        int[] ticks = new int[3];
+        List<EventDrivenTexture> textures = new ArrayList<>();
+        for (int index = 0; index < ticks.length; index++) {
+            int textureIndex = index;
+            EventDrivenTexture.Builder builder = new EventDrivenTexture.Builder();
+            builder.setPredefinedFrames(ImmutableList.of(new MockCloseableImageFrame(1)));
+            builder.setGeneratedFrame(new MockCloseableImageFrame(1));
+            builder.add(new CoreTextureComponent() {
+                @Override
+                public void onTick(EventDrivenTexture.TextureAndFrameView currentFrame,
+                                   FrameGroup<? extends PersistentFrameView> predefinedFrames) {
+                    time.addAndGet(10);
+                    ticks[textureIndex]++;
+                }
+            });
+
+            EventDrivenTexture texture = builder.build();
+            wrapper.register(new ResourceLocation("texture" + index + ".png"), texture);
+            textures.add(texture);
+        }
+
+        for (int tick = 0; tick < 5; tick++) {
+            wrapper.tick();
+        }
+        assertTrue(wrapper.skippedTicks() > 0);
+
+        textures.forEach((texture) -> texture.upload(new ResourceLocation("base.png")));
+        assertArrayEquals(new int[] {5, 5, 5}, ticks);
+    }
+
+    private static List<MockAnimatedTexture> registerTextures(TextureManagerWrapper<MockAnimatedTexture> wrapper,
+                                                              int count, Runnable tickAction) {
+        List<MockAnimatedTexture> textures = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            MockAnimatedTexture texture = new MockAnimatedTexture(tickAction);
+            wrapper.register(new ResourceLocation("texture" + index + ".png"), texture);
+            textures.add(texture);
+        }
+
+        return textures;
+    }
+
 }
\ No newline at end of file
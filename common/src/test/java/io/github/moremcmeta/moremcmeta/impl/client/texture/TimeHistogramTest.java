@@ -0,0 +1,130 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TimeHistogram}.
+ * @author soir20
+ */
+public final class TimeHistogramTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void count_NoneRecorded_Zero() {
+        TimeHistogram histogram = new TimeHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.totalNanos());
+        assertEquals(0, histogram.maxNanos());
+        assertEquals(0, histogram.meanNanos(), 0);
+    }
+
+    @Test
+    public void count_SeveralRecorded_AllCounted() {
+        TimeHistogram histogram = new TimeHistogram();
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(30);
+
+        assertEquals(3, histogram.count());
+        assertEquals(60, histogram.totalNanos());
+        assertEquals(30, histogram.maxNanos());
+        assertEquals(20, histogram.meanNanos(), 0.0001);
+    }
+
+    @Test
+    public void record_NegativeDuration_RecordedAsZero() {
+        TimeHistogram histogram = new TimeHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.totalNanos());
+        assertEquals(0, histogram.percentileNanos(100));
+    }
+
+    @Test
+    public void record_MaxDuration_NoOverflowInPercentile() {
+        TimeHistogram histogram = new TimeHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(Long.MAX_VALUE, histogram.maxNanos());
+        assertEquals(Long.MAX_VALUE, histogram.percentileNanos(50));
+    }
+
+    @Test
+    public void percentileNanos_NoneRecorded_Zero() {
+        TimeHistogram histogram = new TimeHistogram();
+        assertEquals(0, histogram.percentileNanos(99));
+    }
+
+    @Test
+    public void percentileNanos_NegativePercentile_IllegalArgException() {
+        TimeHistogram histogram = new TimeHistogram();
+        expectedException.expect(IllegalArgumentException.class);
+        histogram.percentileNanos(-1);
+    }
+
+    @Test
+    public void percentileNanos_PercentileAbove100_IllegalArgException() {
+        TimeHistogram histogram = new TimeHistogram();
+        expectedException.expect(IllegalArgumentException.class);
+        histogram.percentileNanos(100.5);
+    }
+
+    @Test
+    public void percentileNanos_Median_WithinTwiceActualValue() {
+        TimeHistogram histogram = new TimeHistogram();
+        for (int duration = 1; duration <= 1000; duration++) {
+            histogram.record(duration);
+        }
+
+        long median = histogram.percentileNanos(50);
+        assertTrue(median >= 500);
+        assertTrue(median < 1000);
+    }
+
+    @Test
+    public void percentileNanos_OneSlowOutlier_P99IgnoresOutlier() {
+        TimeHistogram histogram = new TimeHistogram();
+        for (int count = 0; count < 999; count++) {
+            histogram.record(100);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(127, histogram.percentileNanos(99));
+        assertEquals(1_000_000, histogram.percentileNanos(100));
+    }
+
+    @Test
+    public void percentileNanos_SingleValue_NeverAboveMax() {
+        TimeHistogram histogram = new TimeHistogram();
+        histogram.record(100);
+
+        assertEquals(100, histogram.percentileNanos(0));
+        assertEquals(100, histogram.percentileNanos(100));
+    }
+
+}
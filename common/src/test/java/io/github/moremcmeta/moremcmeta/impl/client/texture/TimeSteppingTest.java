@@ -0,0 +1,117 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.texture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link TimeStepping}.
+ * @author soir20
+ */
+public final class TimeSteppingTest {
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void construct_ZeroRate_IllegalArgException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new TimeStepping(0, () -> 0);
+    }
+
+    @Test
+    public void construct_NegativeRate_IllegalArgException() {
+        expectedException.expect(IllegalArgumentException.class);
+        new TimeStepping(-1, () -> 0);
+    }
+
+    @Test
+    public void construct_NullTimeGetter_NullPointerException() {
+        expectedException.expect(NullPointerException.class);
+        new TimeStepping(60, null);
+    }
+
+    @Test
+    public void now_TimeChanges_CurrentTime() {
+        AtomicLong time = new AtomicLong(5);
+        TimeStepping stepping = new TimeStepping(60, time::get);
+        assertEquals(5, stepping.now());
+        time.set(10);
+        assertEquals(10, stepping.now());
+    }
+
+    @Test
+    public void isDue_LessThanInterval_False() {
+        TimeStepping stepping = new TimeStepping(100, () -> 0);
+        assertFalse(stepping.isDue(0, 9_999_999));
+    }
+
+    @Test
+    public void isDue_ExactlyInterval_True() {
+        TimeStepping stepping = new TimeStepping(100, () -> 0);
+        assertTrue(stepping.isDue(0, 10_000_000));
+    }
+
+    @Test
+    public void isDue_DueImmediately_True() {
+        TimeStepping stepping = new TimeStepping(100, () -> 0);
+        assertTrue(stepping.isDue(stepping.dueImmediately(50), 50));
+    }
+
+    @Test
+    public void isDue_ClockNearOverflow_IntervalStillMeasured() {
+        TimeStepping stepping = new TimeStepping(100, () -> 0);
+        assertTrue(stepping.isDue(Long.MAX_VALUE - 5_000_000, Long.MIN_VALUE + 5_000_000));
+        assertFalse(stepping.isDue(Long.MAX_VALUE - 1_000_000, Long.MIN_VALUE + 1_000_000));
+    }
+
+    @Test
+    public void partialTick_NoTimePassed_Zero() {
+        TimeStepping stepping = new TimeStepping(60, () -> 0);
+        assertEquals(0, stepping.partialTick(100, 100), 0);
+    }
+
+    @Test
+    public void partialTick_ClockBeforeLastTick_Zero() {
+        TimeStepping stepping = new TimeStepping(60, () -> 0);
+        assertEquals(0, stepping.partialTick(100, 50), 0);
+    }
+
+    @Test
+    public void partialTick_HalfTickPassed_Half() {
+        TimeStepping stepping = new TimeStepping(60, () -> 0);
+        assertEquals(0.5f, stepping.partialTick(100, 100 + TimeStepping.NANOS_PER_TICK / 2), 0.0001f);
+    }
+
+    @Test
+    public void partialTick_TickLate_LessThanOne() {
+        TimeStepping stepping = new TimeStepping(60, () -> 0);
+        float partialTick = stepping.partialTick(0, TimeStepping.NANOS_PER_TICK * 3);
+        assertTrue(partialTick < 1);
+        assertTrue(partialTick > 0.99f);
+    }
+
+}
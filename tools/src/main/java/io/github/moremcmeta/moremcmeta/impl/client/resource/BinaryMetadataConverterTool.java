@@ -0,0 +1,150 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import io.github.moremcmeta.moremcmeta.api.client.MoreMcmetaMetadataParserPlugin;
+import io.github.moremcmeta.moremcmeta.api.client.metadata.MetadataParser;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+import org.apache.logging.log4j.LogManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Converts the metadata in a resource pack folder to the binary format with a
+ * {@link BinaryMetadataConverter}, without starting the game. The converted files are written next to
+ * the textures, and the original files are left in place, since the loader prefers binary metadata
+ * from the same pack.</p>
+ *
+ * <p>Arguments have the form <code>--name=value</code>:</p>
+ * <ul>
+ *     <li><code>pack</code> is the pack folder to convert; zipped packs must be unzipped first</li>
+ *     <li><code>plugins</code> is a comma-separated list of {@link MoreMcmetaMetadataParserPlugin} classes
+ *     that read the pack's current metadata formats. Their jars must be on the classpath.</li>
+ *     <li><code>paths</code> is a comma-separated list of directories to search for textures, which is
+ *     <code>textures,optifine</code> by default, like in game</li>
+ * </ul>
+ *
+ * <p>Only metadata for textures inside the pack is converted.</p>
+ * @author soir20
+ */
+public final class BinaryMetadataConverterTool {
+
+    /**
+     * Converts the metadata in a pack.
+     * @param args      settings in the form --name=value
+     * @throws IOException if the pack cannot be read or the converted metadata cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> settings = parseArgs(args);
+        Path pack = Path.of(requiredSetting(settings, "pack"));
+        if (!Files.isDirectory(pack)) {
+            throw new IllegalArgumentException("Pack must be an unzipped folder: " + pack);
+        }
+
+        Map<String, MetadataParser> parsers = makeParsers(requiredSetting(settings, "plugins").split(","));
+        String[] paths = settings.getOrDefault("paths", "textures,optifine").split(",");
+        BinaryMetadataConverter converter = new BinaryMetadataConverter(parsers, LogManager.getLogger());
+
+        try (PathResourceCollection collection = PathResourceCollection.open(pack)) {
+            OrderedResourceRepository repository = new OrderedResourceRepository(
+                    PackType.CLIENT_RESOURCES,
+                    List.of(collection)
+            );
+
+            Set<ResourceLocation> converted = converter.convert(
+                    repository,
+                    BinaryMetadataConverter.toDirectory(pack, PackType.CLIENT_RESOURCES),
+                    paths
+            );
+            System.out.printf("Converted metadata for %s textures in %s%n", converted.size(), pack);
+        }
+    }
+
+    /**
+     * Creates the parser plugins with the given class names and gets their parsers.
+     * @param pluginClasses     fully-qualified names of {@link MoreMcmetaMetadataParserPlugin} classes
+     * @return parsers by extension, with a period before each extension
+     */
+    private static Map<String, MetadataParser> makeParsers(String[] pluginClasses) {
+        Map<String, MetadataParser> parsers = new HashMap<>();
+
+        for (String pluginClass : pluginClasses) {
+            MoreMcmetaMetadataParserPlugin plugin;
+            try {
+                plugin = Class.forName(pluginClass)
+                        .asSubclass(MoreMcmetaMetadataParserPlugin.class)
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | ClassCastException err) {
+                throw new IllegalArgumentException("Unable to create metadata parser plugin " + pluginClass, err);
+            }
+
+            if (parsers.put("." + plugin.extension(), plugin.metadataParser()) != null) {
+                throw new IllegalArgumentException("Two plugins read the extension " + plugin.extension());
+            }
+        }
+
+        return parsers;
+    }
+
+    /**
+     * Parses arguments in the form --name=value or --name.
+     * @param args      arguments to parse
+     * @return values by name, with an empty value for flags
+     */
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Arguments must start with --: " + arg);
+            }
+
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                settings.put(arg.substring(2), "");
+            } else {
+                settings.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        return settings;
+    }
+
+    /**
+     * Gets a setting that must be provided.
+     * @param settings      all settings
+     * @param name          name of the setting
+     * @return value of the setting
+     */
+    private static String requiredSetting(Map<String, String> settings, String name) {
+        String value = settings.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing required argument --" + name + "=<value>");
+        }
+
+        return value;
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * MoreMcmeta is a Minecraft mod expanding texture configuration capabilities.
+ * Copyright (C) 2023 soir20
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.moremcmeta.moremcmeta.impl.client.resource;
+
+import io.github.moremcmeta.moremcmeta.impl.client.adapter.RootResourcesAdapter;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ResourceCollection} that reads a resource pack directly from disk, either from a folder or
+ * from a zip file. It plays the role that Minecraft's pack resources play in game, so benchmarks and tools
+ * can read real files without starting the game.
+ * @author soir20
+ */
+public final class PathResourceCollection implements ResourceCollection, Closeable {
+    private final Path ROOT;
+    private final FileSystem FILE_SYSTEM;
+
+    /**
+     * Opens a pack on disk.
+     * @param pack      path to a pack folder or a zipped pack
+     * @return a resource collection with the pack's contents
+     * @throws IOException if the pack cannot be opened
+     */
+    public static PathResourceCollection open(Path pack) throws IOException {
+        requireNonNull(pack, "Pack cannot be null");
+
+        if (Files.isDirectory(pack)) {
+            return new PathResourceCollection(pack, null);
+        }
+
+        FileSystem fileSystem = FileSystems.newFileSystem(pack);
+        return new PathResourceCollection(fileSystem.getPath("/"), fileSystem);
+    }
+
+    @Override
+    public InputStream find(PackType resourceType, ResourceLocation location) throws IOException {
+        requireNonNull(resourceType, "Resource type cannot be null");
+        requireNonNull(location, "Location cannot be null");
+        return Files.newInputStream(resolve(resourceType, location));
+    }
+
+    @Override
+    public boolean contains(PackType resourceType, ResourceLocation location) {
+        requireNonNull(resourceType, "Resource type cannot be null");
+        requireNonNull(location, "Location cannot be null");
+        return Files.isRegularFile(resolve(resourceType, location));
+    }
+
+    @Override
+    public Collection<ResourceLocation> list(PackType resourceType, String namespace, String pathStart,
+                                             Predicate<String> fileFilter) {
+        requireNonNull(resourceType, "Resource type cannot be null");
+        requireNonNull(namespace, "Namespace cannot be null");
+        requireNonNull(pathStart, "Path start cannot be null");
+        requireNonNull(fileFilter, "File filter cannot be null");
+
+        Path namespaceRoot = ROOT.resolve(resourceType.getDirectory()).resolve(namespace);
+        Path directory = namespaceRoot.resolve(pathStart);
+        if (!Files.isDirectory(directory)) {
+            return Set.of();
+        }
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map((file) -> toResourcePath(namespaceRoot.relativize(file)))
+                    .filter(fileFilter)
+                    .map((path) -> new ResourceLocation(namespace, path))
+                    .collect(Collectors.toSet());
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+    }
+
+    @Override
+    public Set<String> namespaces(PackType resourceType) {
+        requireNonNull(resourceType, "Resource type cannot be null");
+
+        Path typeRoot = ROOT.resolve(resourceType.getDirectory());
+        if (!Files.isDirectory(typeRoot)) {
+            return Set.of();
+        }
+
+        Set<String> namespaces = new HashSet<>();
+        try (Stream<Path> directories = Files.list(typeRoot)) {
+            directories.filter(Files::isDirectory)
+                    .forEach((directory) -> namespaces.add(stripSlash(directory.getFileName().toString())));
+        } catch (IOException err) {
+            throw new UncheckedIOException(err);
+        }
+
+        return namespaces;
+    }
+
+    @Override
+    public ResourceLocation locateRootResource(String rootResource) {
+        requireNonNull(rootResource, "Root resource name cannot be null");
+        String packId = Integer.toHexString(ROOT.toUri().hashCode());
+        return new ResourceLocation(RootResourcesAdapter.ROOT_NAMESPACE, "pack/" + packId + "/" + rootResource);
+    }
+
+    /**
+     * Closes the zip file behind this collection, if there is one.
+     * @throws IOException if the zip file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (FILE_SYSTEM != null) {
+            FILE_SYSTEM.close();
+        }
+    }
+
+    /**
+     * Creates a new collection.
+     * @param root          root directory of the pack, which contains pack.mcmeta
+     * @param fileSystem    zip file system to close with this collection, or null for a folder
+     */
+    private PathResourceCollection(Path root, FileSystem fileSystem) {
+        ROOT = root;
+        FILE_SYSTEM = fileSystem;
+    }
+
+    /**
+     * Gets the file for a resource.
+     * @param resourceType      type of the resource
+     * @param location          location of the resource
+     * @return path of the resource's file
+     */
+    private Path resolve(PackType resourceType, ResourceLocation location) {
+        return ROOT.resolve(resourceType.getDirectory())
+                .resolve(location.getNamespace())
+                .resolve(location.getPath());
+    }
+
+    /**
+     * Converts a relative file path to a resource path, which always uses forward slashes.
+     * @param relativePath      path relative to a namespace directory
+     * @return resource path
+     */
+    private static String toResourcePath(Path relativePath) {
+        return StreamSupport.stream(relativePath.spliterator(), false)
+                .map((name) -> stripSlash(name.toString()))
+                .collect(Collectors.joining("/"));
+    }
+
+    /**
+     * Removes the trailing slash that zip file systems add to directory names.
+     * @param name      file or directory name
+     * @return name without a trailing slash
+     */
+    private static String stripSlash(String name) {
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
+
+}